@@ -0,0 +1,171 @@
+import java.util.SplittableRandom;
+
+import benchmarks.Workload;
+
+/**
+ * The Workload implementation that drives the game classes for the benchmarks.
+ * It lives in the default package so that it can use Ocean, Ship and friends directly.
+ */
+public class OceanWorkload implements Workload {
+
+    // Random source for placements, shot orders and probe positions.
+    private SplittableRandom random;
+
+    // Board being measured and the engine used for fleet planning.
+    private BoardConfig config;
+    private PlacementEngine engine;
+
+    // Boards reset and placed again by resetPlacedOcean and resetPlacedBitboardOcean.
+    private Ocean reusedOcean;
+    private BitboardOcean reusedBitboardOcean;
+
+    // Board prepared by prepareGame and the shot order for the next random game.
+    private Ocean ocean;
+    private int[] shots;
+
+    // Rows, columns and hit bits of one salvo.
+    private int[] salvoRows;
+    private int[] salvoColumns;
+    private long[] salvoHits;
+
+    // A ship of the prepared board that has been damaged but not sunk.
+    private Ship damagedShip;
+
+    // Probe ship and position for okToPlaceShipAt.
+    private final Ship probe = new Cruiser();
+    private int probeCell;
+
+    @Override
+    public void setUp(int boardSize, long seed) {
+        this.config = BoardConfig.square(boardSize);
+        this.random = new SplittableRandom(seed);
+        this.engine = new PlacementEngine(config);
+        this.shots = new int[config.getCells()];
+        for (int i = 0; i < shots.length; i++) {
+            shots[i] = i;
+        }
+        salvoRows = new int[config.getFleetSize()];
+        salvoColumns = new int[config.getFleetSize()];
+        salvoHits = new long[(config.getFleetSize() + 63) >>> 6];
+        reusedOcean = new Ocean(config);
+        reusedBitboardOcean = new BitboardOcean(config);
+        prepareGame();
+    }
+
+    @Override
+    public Object newOcean() {
+        return new Ocean(config);
+    }
+
+    @Override
+    public Object newPlacedOcean() {
+        Ocean placed = new Ocean(config);
+        placed.placeAllShipsRandomly(random);
+        return placed;
+    }
+
+    @Override
+    public Object newPlacedBitboardOcean() {
+        BitboardOcean placed = new BitboardOcean(config);
+        placed.placeAllShipsRandomly(random);
+        return placed;
+    }
+
+    @Override
+    public Object resetPlacedOcean() {
+        reusedOcean.reset();
+        reusedOcean.placeAllShipsRandomly(random);
+        return reusedOcean;
+    }
+
+    @Override
+    public Object resetPlacedBitboardOcean() {
+        reusedBitboardOcean.reset();
+        reusedBitboardOcean.placeAllShipsRandomly(random);
+        return reusedBitboardOcean;
+    }
+
+    @Override
+    public int[] planFleet() {
+        engine.reset();
+        return engine.planFleet(random);
+    }
+
+    @Override
+    public void prepareGame() {
+        ocean = new Ocean(config);
+        ocean.placeAllShipsRandomly(random);
+
+        // Fisher-Yates shuffle of the shot order.
+        for (int i = shots.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = shots[i];
+            shots[i] = shots[j];
+            shots[j] = swap;
+        }
+
+        // Damage all but the last segment of the battleship, so isSunk has to scan its hit array.
+        int columns = config.getColumns();
+        damagedShip = null;
+        for (int cell = 0; cell < shots.length && damagedShip == null; cell++) {
+            Ship ship = ocean.getShipArray()[cell / columns][cell % columns];
+            if (ship.getLength() == 4) {
+                damagedShip = ship;
+            }
+        }
+        for (int i = 0; i < damagedShip.getLength() - 1; i++) {
+            int row = damagedShip.getBowRow() + (damagedShip.isHorizontal() ? 0 : i);
+            int column = damagedShip.getBowColumn() + (damagedShip.isHorizontal() ? i : 0);
+            damagedShip.shootAt(row, column);
+        }
+    }
+
+    @Override
+    public int playRandomGame() {
+        int columns = config.getColumns();
+        for (int i = 0; i < shots.length && !ocean.isGameOver(); i++) {
+            ocean.shootAt(shots[i] / columns, shots[i] % columns);
+        }
+        return ocean.getShotsFired();
+    }
+
+    @Override
+    public int playSequentialGame() {
+        int columns = config.getColumns();
+        for (int cell = 0; cell < shots.length && !ocean.isGameOver(); cell++) {
+            ocean.shootAt(cell / columns, cell % columns);
+        }
+        return ocean.getShotsFired();
+    }
+
+    @Override
+    public int playSalvoGame() {
+        int columns = config.getColumns();
+        for (int i = 0; i < shots.length && !ocean.isGameOver(); ) {
+            int count = Math.min(salvoRows.length, shots.length - i);
+            for (int j = 0; j < count; j++, i++) {
+                salvoRows[j] = shots[i] / columns;
+                salvoColumns[j] = shots[i] % columns;
+            }
+            ocean.shootAll(salvoRows, salvoColumns, count, salvoHits);
+        }
+        return ocean.getShotsFired();
+    }
+
+    @Override
+    public boolean isSunk() {
+        return damagedShip.isSunk();
+    }
+
+    @Override
+    public boolean okToPlaceShipAt() {
+        probeCell = (probeCell + 7) % shots.length; // Walk the board with a small odd stride.
+        int columns = config.getColumns();
+        return probe.okToPlaceShipAt(probeCell / columns, probeCell % columns, (probeCell & 1) == 0, ocean);
+    }
+
+    @Override
+    public void print() {
+        ocean.print();
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for Ocean.shootAt and Ocean.shootAll over whole games. A fresh board is placed before every
+ * game, outside the measured region, so each time is the cost of the shots alone.
+ * The GC profiler counts allocations of the whole iteration, so the per-op allocation
+ * figure includes the board built by prepareGame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    // Square board with the standard fleet repeated once per ten rows (BoardConfig.square).
+    @Param({"10", "100"})
+    public int boardSize;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.load();
+        workload.setUp(boardSize, 42L);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareGame() {
+        workload.prepareGame();
+    }
+
+    @Benchmark
+    public int randomGame() {
+        return workload.playRandomGame();
+    }
+
+    @Benchmark
+    public int sequentialGame() {
+        return workload.playSequentialGame();
+    }
+
+    @Benchmark
+    public int salvoGame() {
+        return workload.playSalvoGame();
+    }
+}
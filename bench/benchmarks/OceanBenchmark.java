@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for building boards and for the per-call hot paths of Ocean and Ship:
+ * construction, random fleet placement on a new or a reset board, isSunk, okToPlaceShipAt
+ * and print. Run with {@code -prof gc} to compare the allocations of building a board
+ * with those of resetting one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OceanBenchmark {
+
+    // Square board with the standard fleet repeated once per ten rows (BoardConfig.square).
+    @Param({"10", "100"})
+    public int boardSize;
+
+    private Workload workload;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.load();
+        workload.setUp(boardSize, 42L);
+
+        // Discard print output so that the benchmark measures formatting, not the terminal.
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public Object construct() {
+        return workload.newOcean();
+    }
+
+    @Benchmark
+    public Object placeAllShipsRandomly() {
+        return workload.newPlacedOcean();
+    }
+
+    @Benchmark
+    public Object placeAllShipsRandomlyBitboard() {
+        return workload.newPlacedBitboardOcean();
+    }
+
+    @Benchmark
+    public Object resetAndPlace() {
+        return workload.resetPlacedOcean();
+    }
+
+    @Benchmark
+    public Object resetAndPlaceBitboard() {
+        return workload.resetPlacedBitboardOcean();
+    }
+
+    @Benchmark
+    public boolean isSunk() {
+        return workload.isSunk();
+    }
+
+    @Benchmark
+    public boolean okToPlaceShipAt() {
+        return workload.okToPlaceShipAt();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void print() {
+        workload.print();
+    }
+}
@@ -0,0 +1,119 @@
+package benchmarks;
+
+/**
+ * The operations measured by the benchmarks.
+ *
+ * JMH does not accept benchmark classes in the default package, and a class in a named
+ * package cannot refer to the game classes, which live in the default package. The game
+ * code is therefore reached through this interface. Its only implementation,
+ * {@code OceanWorkload}, sits in the default package and is loaded once per trial, so
+ * every call site stays monomorphic and is inlined by the JIT.
+ */
+public interface Workload {
+
+    /**
+     * Prepares the workload for a board size.
+     *
+     * @param boardSize The number of rows and columns of the board; the fleet is chosen
+     *                  by BoardConfig.square.
+     * @param seed      The seed for all random choices made by the workload.
+     */
+    void setUp(int boardSize, long seed);
+
+    /**
+     * @return A newly constructed, empty Ocean.
+     */
+    Object newOcean();
+
+    /**
+     * @return A newly constructed Ocean with the whole fleet placed randomly.
+     */
+    Object newPlacedOcean();
+
+    /**
+     * @return A newly constructed BitboardOcean with the whole fleet placed randomly.
+     */
+    Object newPlacedBitboardOcean();
+
+    /**
+     * Resets one reused Ocean and places a new fleet on it, as a game loop recycling its
+     * board does.
+     *
+     * @return The reused Ocean.
+     */
+    Object resetPlacedOcean();
+
+    /**
+     * Resets one reused BitboardOcean and places a new fleet on it.
+     *
+     * @return The reused BitboardOcean.
+     */
+    Object resetPlacedBitboardOcean();
+
+    /**
+     * Plans a fleet with a PlacementEngine for the configured board size.
+     *
+     * @return The encoded placements.
+     */
+    int[] planFleet();
+
+    /**
+     * Places a fresh fleet on a new Ocean and shuffles the order of the next game's shots.
+     * Called before every game so that the games themselves measure shooting only.
+     */
+    void prepareGame();
+
+    /**
+     * Shoots at the prepared board in random order until the game is over.
+     *
+     * @return The number of shots fired.
+     */
+    int playRandomGame();
+
+    /**
+     * Shoots at the prepared board row by row until the game is over.
+     *
+     * @return The number of shots fired.
+     */
+    int playSequentialGame();
+
+    /**
+     * Shoots at the prepared board in the same random order as playRandomGame, but in
+     * salvos of one shot per ship of a full fleet, each resolved with shootAll.
+     *
+     * @return The number of shots fired.
+     */
+    int playSalvoGame();
+
+    /**
+     * Calls Ship.isSunk on a damaged ship of the prepared board.
+     *
+     * @return The result of isSunk.
+     */
+    boolean isSunk();
+
+    /**
+     * Calls Ship.okToPlaceShipAt on the prepared board for the next probe position.
+     *
+     * @return The result of okToPlaceShipAt.
+     */
+    boolean okToPlaceShipAt();
+
+    /**
+     * Prints the prepared board. Output is discarded by the benchmark.
+     */
+    void print();
+
+    /**
+     * Loads the workload implementation from the default package.
+     *
+     * @return A new workload.
+     */
+    static Workload load() {
+        try {
+            return (Workload) Class.forName("OceanWorkload").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load the OceanWorkload class.", e);
+        }
+    }
+}
@@ -3,7 +3,7 @@ import java.util.Scanner;
 /**
  * The BattleshipGame class serves as the entry point for the Battleship game.
  * It manages the game loop, player interaction, and the game's overall state.
- * Players aim to sink all ships by firing shots at a 10x10 game board.
+ * Players aim to sink all ships by firing shots at the game board (10x10 by default).
  */
 public class BattleshipGame {
 
@@ -15,6 +15,7 @@ public class BattleshipGame {
     public static void main(String[] args) {
         // Create an instance of the Ocean class to manage the game state.
         Ocean ocean = new Ocean();
+        BoardConfig config = ocean.getConfig();
         Scanner scanner = new Scanner(System.in);
 
         // Randomly place all ships on the game board.
@@ -29,15 +30,15 @@ public class BattleshipGame {
             System.out.println("Ships sunk: " + ocean.getShipsSunk());
 
             // Prompt the player to enter the row coordinate.
-            System.out.print("Enter row (0-9): ");
+            System.out.print("Enter row (0-" + (config.getRows() - 1) + "): ");
             int row = scanner.nextInt();
 
             // Prompt the player to enter the column coordinate.
-            System.out.print("Enter column (0-9): ");
+            System.out.print("Enter column (0-" + (config.getColumns() - 1) + "): ");
             int column = scanner.nextInt();
 
             // Validate the player's input.
-            if (row < 0 || row > 9 || column < 0 || column > 9) {
+            if (!config.isOnBoard(row, column)) {
                 System.out.println("Invalid coordinates. Please try again.");
                 continue; // Skip to the next iteration of the game loop.
             }
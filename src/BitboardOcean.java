@@ -0,0 +1,494 @@
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * A compact implementation of OceanInterface that keeps the whole board in packed bitmasks.
+ * Each cell maps to one bit (index = row * columns + column); the standard 10x10 board
+ * fits in two longs.
+ * Responsibilities:
+ * - Tracking occupied, fired-upon and hit cells as bitmasks.
+ * - Recording which ship owns each occupied cell in a small short array.
+ * - Keeping the fleet as primitive per-ship arrays instead of Ship objects.
+ *
+ * Building a board allocates nothing per cell. The Ship[][] view returned by
+ * getShipArray() is produced lazily and only for callers that still need it.
+ */
+public class BitboardOcean implements OceanInterface {
+
+	// Outcomes of a single shot, as returned by resolve.
+	private static final int MISSED = 0;
+	private static final int HIT = 1;
+	private static final int SANK = 2;
+
+	// Board dimensions and fleet of this game.
+	protected final BoardConfig config;
+
+	// Number of columns, cached because every cell index is computed from it.
+	protected final int columns;
+
+	// Cells that contain part of a ship.
+	protected final long[] occupied;
+
+	// Cells that have been fired upon at least once.
+	protected final long[] fired;
+
+	// Ship cells that have been hit.
+	protected final long[] hits;
+
+	// Id of the ship owning each cell. Only meaningful where the occupied bit is set.
+	protected final short[] cellShip;
+
+	// Per-ship placement data, indexed by ship id.
+	protected final int[] shipLength;
+	protected final int[] shipRow;
+	protected final int[] shipColumn;
+	protected final boolean[] shipHorizontal;
+
+	// Number of segments of each ship that have not been hit yet.
+	protected final int[] shipRemaining;
+
+	// Number of ships placed so far.
+	protected int shipCount;
+
+	// Cells under or next to a placed ship, where no other ship may go.
+	private final BlockedMask blocked;
+
+	// Engine and plan array for random placements, created on first use and reused after.
+	private PlacementEngine engine;
+	private int[] plan;
+
+	// Tracks the total number of shots fired by the user.
+	protected int shotsFired;
+
+	// Tracks the total number of hits on ships, including repeated hits on the same part.
+	protected int hitCount;
+
+	// Tracks the total number of ships that have been sunk.
+	protected int shipsSunk;
+
+	// Lazily built Ship[][] view, discarded whenever the board changes.
+	private Ship[][] shipArrayView;
+
+	// Renderer used by print, created on first use.
+	private BoardRenderer renderer;
+
+	/**
+	 * Constructor creates an empty standard 10x10 board.
+	 */
+	public BitboardOcean() {
+		this(BoardConfig.STANDARD);
+	}
+
+	/**
+	 * Constructor creates an empty board. All masks start cleared, so no per-cell
+	 * initialization is required.
+	 *
+	 * @param config The board dimensions and fleet of this game.
+	 */
+	public BitboardOcean(BoardConfig config) {
+		if (config.getFleetSize() > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("A BitboardOcean holds at most " + Short.MAX_VALUE + " ships.");
+		}
+		this.config = config;
+		this.columns = config.getColumns();
+		int words = (config.getCells() + 63) >>> 6;
+		occupied = new long[words];
+		fired = new long[words];
+		hits = new long[words];
+		cellShip = new short[config.getCells()];
+		blocked = new BlockedMask(config);
+
+		int fleetSize = config.getFleetSize();
+		shipLength = new int[fleetSize];
+		shipRow = new int[fleetSize];
+		shipColumn = new int[fleetSize];
+		shipHorizontal = new boolean[fleetSize];
+		shipRemaining = new int[fleetSize];
+
+		shipCount = 0;
+		shotsFired = 0;
+		hitCount = 0;
+		shipsSunk = 0;
+	}
+
+	/**
+	 * @return The board dimensions and fleet of this game.
+	 */
+	@Override
+	public BoardConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Randomly places every ship of the configured fleet on the board, in fleet order.
+	 * Positions are drawn by a PlacementEngine, so no guess is ever rejected.
+	 *
+	 * @param random The random number generator to draw the positions from.
+	 */
+	@Override
+	public void placeAllShipsRandomly(RandomGenerator random) {
+		long start = Metrics.ENABLED ? System.nanoTime() : 0;
+		if (engine == null) {
+			engine = new PlacementEngine(config);
+			plan = new int[config.getFleetSize()];
+		} else {
+			engine.reset();
+		}
+
+		// Keep clear of any ships that are already on the board.
+		for (int word = 0; word < occupied.length; word++) {
+			for (long bits = occupied[word]; bits != 0; bits &= bits - 1) {
+				int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+				engine.markOccupied(cell / columns, cell % columns);
+			}
+		}
+
+		engine.planFleet(random, plan);
+		for (int i = 0; i < plan.length; i++) {
+			placeShipAt(config.getShipLength(i), engine.row(plan[i]), engine.column(plan[i]), engine.isHorizontal(plan[i]));
+		}
+		if (Metrics.ENABLED) Metrics.PLACEMENT_NANOS.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Clears the board for a new game in place: removes every ship and every shot and zeroes
+	 * the statistics. Only the masks are cleared; the owner of a cell is read only where a
+	 * ship is marked, so cellShip keeps its stale entries.
+	 */
+	@Override
+	public void reset() {
+		Arrays.fill(occupied, 0L);
+		Arrays.fill(fired, 0L);
+		Arrays.fill(hits, 0L);
+		blocked.clear();
+		shipCount = 0;
+		shotsFired = 0;
+		hitCount = 0;
+		shipsSunk = 0;
+		shipArrayView = null;
+	}
+
+	/**
+	 * Checks if a ship of the given length can be placed at the given location.
+	 * Applies the same rules as Ship.okToPlaceShipAt: the ship must be within bounds
+	 * and must not overlap or touch another ship, even diagonally. The check is one AND
+	 * of the ship's footprint against the mask of blocked cells.
+	 *
+	 * @param length     The length of the ship.
+	 * @param row        The starting row of the ship.
+	 * @param column     The starting column of the ship.
+	 * @param horizontal True if the ship is placed horizontally, false otherwise.
+	 * @return True if the ship can be placed, false otherwise.
+	 */
+	public boolean okToPlaceShipAt(int length, int row, int column, boolean horizontal) {
+		return blocked.isClear(length, row, column, horizontal);
+	}
+
+	/**
+	 * Places a ship of the given length on the board. The caller is responsible for
+	 * checking the placement with okToPlaceShipAt first.
+	 *
+	 * @param length     The length of the ship.
+	 * @param row        The starting row of the ship.
+	 * @param column     The starting column of the ship.
+	 * @param horizontal True if the ship is placed horizontally, false otherwise.
+	 * @return The id assigned to the placed ship.
+	 */
+	public int placeShipAt(int length, int row, int column, boolean horizontal) {
+		if (shipCount == shipLength.length) {
+			throw new IllegalStateException("The fleet is already complete.");
+		}
+		int id = shipCount++;
+		shipLength[id] = length;
+		shipRow[id] = row;
+		shipColumn[id] = column;
+		shipHorizontal[id] = horizontal;
+		shipRemaining[id] = length;
+		blocked.block(length, row, column, horizontal);
+
+		// Mark each cell of the ship and record its owner.
+		int cell = row * columns + column;
+		int step = horizontal ? 1 : columns;
+		for (int i = 0; i < length; i++, cell += step) {
+			set(occupied, cell);
+			cellShip[cell] = (short) id;
+		}
+		shipArrayView = null;
+		return id;
+	}
+
+	/**
+	 * Checks if the given location on the board is occupied by a ship.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if the location contains a ship, false otherwise.
+	 */
+	@Override
+	public boolean isOccupied(int row, int column) {
+		return test(occupied, row * columns + column);
+	}
+
+	/**
+	 * Fires a shot at the specified location. Behaves exactly like Ocean.shootAt:
+	 * shots at a sunk ship or at empty sea are misses, while repeated shots at a
+	 * damaged but floating ship still count as hits.
+	 *
+	 * @param row    The row coordinate to shoot at (0 to rows - 1).
+	 * @param column The column coordinate to shoot at (0 to columns - 1).
+	 * @return true if the shot hits a ship, false otherwise.
+	 */
+	@Override
+	public boolean shootAt(int row, int column) {
+		shotsFired++;
+		shipArrayView = null;
+
+		int cell = row * columns + column;
+		int outcome;
+		if (Metrics.ENABLED) {
+			boolean firedBefore = test(fired, cell);
+			boolean sunkBefore = isSunk(row, column);
+			long start = System.nanoTime();
+			outcome = resolve(cell);
+			Metrics.recordShot(System.nanoTime() - start, firedBefore, sunkBefore, outcome != MISSED, outcome == SANK);
+		} else {
+			outcome = resolve(cell);
+		}
+		if (outcome == MISSED) return false;
+		hitCount++;
+		if (outcome == SANK) {
+			shipsSunk++; // The last segment of this ship was just hit.
+		}
+		return true;
+	}
+
+	/**
+	 * Fires a whole salvo in one pass. Outcomes are those of calling shootAt for each shot
+	 * in order, but the game statistics are updated once for the salvo. While metrics are
+	 * recorded, salvos are fired shot by shot.
+	 *
+	 * @param shotRows    The row of each shot.
+	 * @param shotColumns The column of each shot.
+	 * @param count       The number of shots, taken from the start of the arrays.
+	 * @param shotHits    Receives one bit per shot, set if the shot hit a ship.
+	 * @return The number of shots that hit a ship.
+	 */
+	@Override
+	public int shootAll(int[] shotRows, int[] shotColumns, int count, long[] shotHits) {
+		if (Metrics.ENABLED) {
+			return OceanInterface.super.shootAll(shotRows, shotColumns, count, shotHits); // Shot by shot.
+		}
+		Arrays.fill(shotHits, 0, (count + 63) >>> 6, 0L);
+		shipArrayView = null;
+
+		int salvoHits = 0;
+		int salvoSunk = 0;
+		for (int i = 0; i < count; i++) {
+			int outcome = resolve(shotRows[i] * columns + shotColumns[i]);
+			if (outcome != MISSED) {
+				shotHits[i >>> 6] |= 1L << i;
+				salvoHits++;
+				if (outcome == SANK) salvoSunk++;
+			}
+		}
+
+		shotsFired += count;
+		hitCount += salvoHits;
+		shipsSunk += salvoSunk;
+		return salvoHits;
+	}
+
+	/**
+	 * Applies a shot to the masks without touching the game statistics.
+	 *
+	 * @param cell The cell shot at (row * columns + column).
+	 * @return MISSED, HIT or SANK.
+	 */
+	private int resolve(int cell) {
+		int word = cell >>> 6;
+		long bit = 1L << cell;
+
+		// Empty sea: remember the miss.
+		if ((occupied[word] & bit) == 0) {
+			fired[word] |= bit;
+			return MISSED;
+		}
+
+		int id = cellShip[cell];
+		if (shipRemaining[id] == 0) return MISSED; // Cannot shoot at a sunk ship.
+
+		fired[word] |= bit;
+		if ((hits[word] & bit) == 0) {
+			hits[word] |= bit;
+			if (--shipRemaining[id] == 0) {
+				return SANK;
+			}
+		}
+		return HIT;
+	}
+
+	/**
+	 * @return The total number of shots fired by the user during the game.
+	 */
+	@Override
+	public int getShotsFired() {
+		return shotsFired;
+	}
+
+	/**
+	 * @return The total number of hits recorded during the game.
+	 * Note: Includes repeated hits on the same location.
+	 */
+	@Override
+	public int getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return The total number of ships sunk during the game.
+	 */
+	@Override
+	public int getShipsSunk() {
+		return shipsSunk;
+	}
+
+	/**
+	 * @return The number of ships placed on the board that have not been sunk yet.
+	 */
+	@Override
+	public int getShipsAfloat() {
+		return shipCount - shipsSunk;
+	}
+
+	/**
+	 * Checks if the game is over, i.e., every ship of the fleet has been sunk.
+	 *
+	 * @return true if all ships are sunk, false otherwise.
+	 */
+	@Override
+	public boolean isGameOver() {
+		return shipsSunk == shipLength.length;
+	}
+
+	/**
+	 * Checks if the given location is a ship segment that has been hit.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if a ship segment at this location has been hit, false otherwise.
+	 */
+	@Override
+	public boolean isHit(int row, int column) {
+		return test(hits, row * columns + column);
+	}
+
+	/**
+	 * Checks if the given location belongs to a ship that has been sunk.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if the location contains part of a sunk ship, false otherwise.
+	 */
+	@Override
+	public boolean isSunk(int row, int column) {
+		int cell = row * columns + column;
+		return test(occupied, cell) && shipRemaining[cellShip[cell]] == 0;
+	}
+
+	/**
+	 * Checks if the given location has been fired upon.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if at least one shot was fired at this location, false otherwise.
+	 */
+	@Override
+	public boolean isFiredUpon(int row, int column) {
+		return test(fired, row * columns + column);
+	}
+
+	/**
+	 * Provides a grid of Ship objects mirroring the current board state.
+	 * The grid is built on first use and cached until the next placement or shot.
+	 * It is a read-only snapshot: changes made through it are not reflected on this board.
+	 *
+	 * @return A rows x columns 2D array of ships representing the board state.
+	 */
+	@Override
+	public Ship[][] getShipArray() {
+		if (shipArrayView == null) {
+			shipArrayView = buildShipArray();
+		}
+		return shipArrayView;
+	}
+
+	/**
+	 * Prints the current state of the board to the console with a single write.
+	 * Display rules:
+	 * - 'x': A sunken ship.
+	 * - 'S': A ship part that has been hit.
+	 * - '-': A missed shot.
+	 * - '.': An unfired location.
+	 */
+	@Override
+	public void print() {
+		if (renderer == null) {
+			renderer = new BoardRenderer(config);
+		}
+		renderer.print(this, false, System.out);
+	}
+
+	/**
+	 * Builds the Ship[][] view from the bitmasks, creating one Ship per placed ship
+	 * and one EmptySea per empty cell.
+	 *
+	 * @return A freshly built grid of ships.
+	 */
+	private Ship[][] buildShipArray() {
+		Ship[][] grid = new Ship[config.getRows()][columns];
+
+		// Recreate every placed ship with its hit state.
+		for (int id = 0; id < shipCount; id++) {
+			Ship ship = BoardConfig.shipOfLength(shipLength[id]);
+			ship.setBowRow(shipRow[id]);
+			ship.setBowColumn(shipColumn[id]);
+			ship.setHorizontal(shipHorizontal[id]);
+			int cell = shipRow[id] * columns + shipColumn[id];
+			int step = shipHorizontal[id] ? 1 : columns;
+			for (int i = 0; i < shipLength[id]; i++, cell += step) {
+				if (test(hits, cell)) {
+					ship.shootAt(cell / columns, cell % columns);
+				}
+				grid[cell / columns][cell % columns] = ship;
+			}
+		}
+
+		// Fill the remaining cells with EmptySea, marking misses.
+		for (int row = 0; row < config.getRows(); row++) {
+			for (int col = 0; col < columns; col++) {
+				if (grid[row][col] == null) {
+					EmptySea sea = new EmptySea();
+					if (test(fired, row * columns + col)) {
+						sea.shootAt(row, col);
+					}
+					grid[row][col] = sea;
+				}
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * @return true if the bit for the given cell is set in the mask.
+	 */
+	private static boolean test(long[] mask, int cell) {
+		return (mask[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+	/**
+	 * Sets the bit for the given cell in the mask.
+	 */
+	private static void set(long[] mask, int cell) {
+		mask[cell >>> 6] |= 1L << cell;
+	}
+}
@@ -0,0 +1,144 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the BitboardOcean class. Mirrors OceanTest so that both
+ * implementations of OceanInterface are held to the same behavior.
+ */
+class BitboardOceanTest {
+
+    private BitboardOcean ocean; // Instance of the BitboardOcean class to be tested.
+
+    /**
+     * Set up a fresh instance of the BitboardOcean class before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        ocean = new BitboardOcean();
+    }
+
+    /**
+     * Test to validate the initial state of the board.
+     * The lazily built grid should contain only EmptySea objects and all counters should be zero.
+     */
+    @Test
+    public void testInitialization() {
+        Ship[][] ships = ocean.getShipArray();
+
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                assertTrue(ships[i][j] instanceof EmptySea,
+                        "Initial grid should contain only EmptySea objects.");
+                assertFalse(ocean.isOccupied(i, j), "No cell should be occupied initially.");
+            }
+        }
+
+        assertEquals(0, ocean.getShotsFired(), "Shots fired should be initialized to 0.");
+        assertEquals(0, ocean.getHitCount(), "Hit count should be initialized to 0.");
+        assertEquals(0, ocean.getShipsSunk(), "Ships sunk should be initialized to 0.");
+    }
+
+    /**
+     * Test the placement of all ships randomly on the board.
+     * Ensures that 20 cells are occupied and that the grid view agrees with the bitmasks.
+     */
+    @Test
+    public void testPlaceAllShipsRandomly() {
+        ocean.placeAllShipsRandomly();
+
+        int shipCells = 0;
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                boolean isShip = !(ocean.getShipArray()[i][j] instanceof EmptySea);
+                assertEquals(isShip, ocean.isOccupied(i, j), "Grid view should match the occupied mask.");
+                if (isShip) {
+                    shipCells++;
+                }
+            }
+        }
+
+        assertEquals(20, shipCells, "Total ship cells should be 20 after placing all ships.");
+    }
+
+    /**
+     * Test that placement follows the same no-touch rules as Ship.okToPlaceShipAt.
+     */
+    @Test
+    public void testOkToPlaceShipAt() {
+        assertTrue(ocean.okToPlaceShipAt(4, 5, 5, true), "Placement on an empty board should be allowed.");
+        assertFalse(ocean.okToPlaceShipAt(4, 9, 8, true), "Placement out of bounds should be rejected.");
+
+        ocean.placeShipAt(4, 5, 5, true);
+        assertFalse(ocean.okToPlaceShipAt(1, 4, 4, true), "Diagonal contact should be rejected.");
+        assertFalse(ocean.okToPlaceShipAt(2, 5, 3, true), "End-to-end contact should be rejected.");
+        assertTrue(ocean.okToPlaceShipAt(1, 3, 3, true), "A ship two cells away should be allowed.");
+    }
+
+    /**
+     * Test firing a shot at an empty location.
+     */
+    @Test
+    public void testShootAtEmptySea() {
+        assertFalse(ocean.shootAt(0, 0), "Shooting at EmptySea should return false.");
+        assertEquals(1, ocean.getShotsFired(), "Shots fired should increment after firing.");
+        assertEquals(0, ocean.getHitCount(),
+                "Hit count should not increment when shooting at EmptySea.");
+        assertTrue(ocean.isFiredUpon(0, 0), "The miss should be recorded.");
+        assertTrue(((EmptySea) ocean.getShipArray()[0][0]).isFiredUpon(),
+                "The grid view should show the miss.");
+    }
+
+    /**
+     * Test firing shots at a ship, sinking it, and updating the game state.
+     */
+    @Test
+    public void testShootAtShip() {
+        ocean.placeShipAt(4, 2, 2, true);
+
+        assertTrue(ocean.shootAt(2, 2), "Shooting at a ship should return true.");
+        assertEquals(1, ocean.getHitCount(), "Hit count should increment after hitting a ship.");
+        assertEquals(1, ocean.getShotsFired(), "Shots fired should increment after firing.");
+        assertFalse(ocean.getShipArray()[2][2].isSunk(), "Ship should not be sunk after one hit.");
+
+        ocean.shootAt(2, 3);
+        ocean.shootAt(2, 4);
+        ocean.shootAt(2, 5);
+
+        assertTrue(ocean.getShipArray()[2][2].isSunk(), "Ship should be sunk after all parts are hit.");
+        assertEquals(1, ocean.getShipsSunk(), "Ships sunk should increment when a ship is sunk.");
+        assertFalse(ocean.shootAt(2, 3), "Shooting at a sunk ship should return false.");
+        assertEquals(4, ocean.getHitCount(), "Shots at a sunk ship should not count as hits.");
+    }
+
+    /**
+     * Test the `isGameOver` method by sinking every ship on the board.
+     */
+    @Test
+    public void testGameOver() {
+        ocean.placeAllShipsRandomly();
+        assertFalse(ocean.isGameOver(), "Game should not be over before any shots.");
+
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                if (ocean.isOccupied(i, j)) {
+                    ocean.shootAt(i, j);
+                }
+            }
+        }
+
+        assertTrue(ocean.isGameOver(), "Game should be over after all ships are sunk.");
+        assertEquals(10, ocean.getShipsSunk(), "All ten ships should be sunk.");
+    }
+
+    /**
+     * Test the `print` method to ensure it executes without errors.
+     */
+    @Test
+    public void testPrint() {
+        ocean.placeAllShipsRandomly();
+
+        assertDoesNotThrow(() -> ocean.print(),
+                "Printing the ocean should not throw any exceptions.");
+    }
+}
@@ -0,0 +1,163 @@
+import java.util.Arrays;
+
+/**
+ * A BlockedMask tracks every cell of a board that a new ship may not cover: the cells of
+ * the ships already placed and the cells touching them, diagonals included. This is the rule
+ * of {@link Ship#okToPlaceShipAt}, so a placement is legal exactly when it stays on the board
+ * and its footprint misses the mask.
+ *
+ * The mask is kept twice, as one stripe of words per row and one per column. A horizontal
+ * ship lies within one row stripe and a vertical ship within one column stripe, so checking a
+ * placement is a single AND of a precomputed footprint from PlacementMasks against one word
+ * (two on boards wider than 64 cells), with no per-cell loop and no bounds check per cell.
+ * Placing a ship ORs its precomputed halo into the stripes it touches.
+ */
+public final class BlockedMask {
+
+    // Precomputed footprints and halos for this board.
+    private final PlacementMasks masks;
+
+    // Dimensions of the board.
+    private final int rows;
+    private final int columns;
+
+    // Blocked cells, one stripe of words per row (bit = column) and per column (bit = row).
+    private final long[] rowBits;
+    private final long[] columnBits;
+
+    /**
+     * Creates an empty mask for the board of a configuration.
+     *
+     * @param config The board dimensions and fleet.
+     */
+    public BlockedMask(BoardConfig config) {
+        this.masks = PlacementMasks.of(config);
+        this.rows = config.getRows();
+        this.columns = config.getColumns();
+        this.rowBits = new long[rows * masks.alongRow().stride];
+        this.columnBits = new long[columns * masks.alongColumn().stride];
+    }
+
+    /**
+     * Checks if a ship can be placed: it stays within bounds and neither overlaps nor
+     * touches a ship already blocked in.
+     *
+     * @param length     The length of the ship.
+     * @param row        The starting row of the ship.
+     * @param column     The starting column of the ship.
+     * @param horizontal True if the ship is placed horizontally, false otherwise.
+     * @return True if the ship can be placed, false otherwise.
+     */
+    public boolean isClear(int length, int row, int column, boolean horizontal) {
+        if (row < 0 || column < 0 || length <= 0) return false;
+        if (horizontal) {
+            if (row >= rows || column + length > columns) return false;
+            return isClear(masks.alongRow(), rowBits, row, column, length);
+        }
+        if (column >= columns || row + length > rows) return false;
+        return isClear(masks.alongColumn(), columnBits, column, row, length);
+    }
+
+    /**
+     * Blocks the cells of a ship and every cell touching it. The placement is not checked.
+     *
+     * @param length     The length of the ship.
+     * @param row        The starting row of the ship.
+     * @param column     The starting column of the ship.
+     * @param horizontal True if the ship is placed horizontally, false otherwise.
+     */
+    public void block(int length, int row, int column, boolean horizontal) {
+        if (horizontal) {
+            along(masks.alongRow(), rowBits, rows, row, column, length);
+            across(masks.alongColumn(), columnBits, columns, column, length, row);
+        } else {
+            along(masks.alongColumn(), columnBits, columns, column, row, length);
+            across(masks.alongRow(), rowBits, rows, row, length, column);
+        }
+    }
+
+    /**
+     * @return True if the given cell is under or next to a placed ship.
+     */
+    public boolean isBlocked(int row, int column) {
+        return (rowBits[row * masks.alongRow().stride + (column >>> 6)] >>> column & 1) != 0;
+    }
+
+    /**
+     * Unblocks every cell, for an empty board.
+     */
+    public void clear() {
+        Arrays.fill(rowBits, 0);
+        Arrays.fill(columnBits, 0);
+    }
+
+    /**
+     * Checks a run of cells along one stripe against the blocked bits.
+     */
+    private static boolean isClear(PlacementMasks.Runs runs, long[] bits, int stripe, int start, int length) {
+        int base = stripe * runs.stride;
+        if (length <= runs.maxLength) {
+            int i = (length - 1) * runs.size + start;
+            int word = base + runs.word[i];
+            return ((bits[word] & runs.low[i]) | (bits[word + 1] & runs.high[i])) == 0;
+        }
+        // Longer than any ship of the fleet: check word by word.
+        for (int cell = start, end = start + length; cell < end; cell = (cell | 63) + 1) {
+            long run = -1L << cell;
+            if (end - (cell & ~63) < 64) run &= -1L >>> (64 - (end & 63));
+            if ((bits[base + (cell >>> 6)] & run) != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Blocks a ship in the stripes it lies along: its halo in its own stripe and in the
+     * stripe on either side.
+     *
+     * @param runs    The runs along those stripes.
+     * @param bits    The stripes.
+     * @param stripes The number of stripes.
+     * @param stripe  The stripe holding the ship.
+     * @param start   The first cell of the ship within the stripe.
+     * @param length  The length of the ship.
+     */
+    private static void along(PlacementMasks.Runs runs, long[] bits, int stripes, int stripe, int start, int length) {
+        for (int s = Math.max(stripe - 1, 0); s <= Math.min(stripe + 1, stripes - 1); s++) {
+            orRun(runs, bits, s * runs.stride, start, length);
+        }
+    }
+
+    /**
+     * Blocks a ship in the stripes it crosses, ends included: three cells centred on the
+     * ship in each of them.
+     *
+     * @param runs     The runs along those stripes.
+     * @param bits     The stripes.
+     * @param stripes  The number of stripes.
+     * @param first    The first stripe the ship crosses.
+     * @param length   The length of the ship.
+     * @param position The position of the ship within each stripe it crosses.
+     */
+    private static void across(PlacementMasks.Runs runs, long[] bits, int stripes, int first, int length, int position) {
+        for (int s = Math.max(first - 1, 0); s <= Math.min(first + length, stripes - 1); s++) {
+            orRun(runs, bits, s * runs.stride, position, 1);
+        }
+    }
+
+    /**
+     * ORs the halo of a run into one stripe.
+     */
+    private static void orRun(PlacementMasks.Runs runs, long[] bits, int base, int start, int length) {
+        if (length <= runs.maxLength) {
+            int i = (length - 1) * runs.size + start;
+            int word = base + runs.haloWord[i];
+            bits[word] |= runs.haloLow[i];
+            bits[word + 1] |= runs.haloHigh[i];
+            return;
+        }
+        // Longer than any ship of the fleet: set bit by bit.
+        for (int cell = Math.max(start - 1, 0), end = Math.min(start + length, runs.size - 1); cell <= end; cell++) {
+            bits[base + (cell >>> 6)] |= 1L << cell;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the BlockedMask class, checked against a cell-by-cell scan of the
+ * neighborhood like the one Ship.okToPlaceShipAt used to do.
+ */
+class BlockedMaskTest {
+
+    /**
+     * Places random legal ships on boards of several shapes, including stripes longer than
+     * 64 cells and ships longer than any in the fleet, and checks every placement against
+     * the scan after each ship.
+     */
+    @Test
+    public void testMatchesNeighborhoodScan() {
+        BoardConfig[] configs = {
+                BoardConfig.STANDARD,
+                new BoardConfig(1, 9, 3),
+                new BoardConfig(7, 130, 4, 2),
+                new BoardConfig(130, 5, 3, 1),
+                new BoardConfig(70, 70, 2),
+        };
+        SplitMix64 random = new SplitMix64(5);
+        for (BoardConfig config : configs) {
+            int rows = config.getRows();
+            int columns = config.getColumns();
+            int longest = Math.max(rows, columns);
+            BlockedMask mask = new BlockedMask(config);
+            boolean[][] occupied = new boolean[rows][columns];
+
+            for (int ship = 0; ship < 12; ship++) {
+                for (int probe = 0; probe < 2000; probe++) {
+                    int length = 1 + random.nextInt(probe % 10 == 0 ? longest : Math.min(longest, 6));
+                    int row = random.nextInt(rows + 2) - 1;
+                    int column = random.nextInt(columns + 2) - 1;
+                    boolean horizontal = random.nextBoolean();
+                    assertEquals(scan(occupied, length, row, column, horizontal), mask.isClear(length, row, column, horizontal),
+                            "Placement of length " + length + " at " + row + "," + column + (horizontal ? " across" : " down")
+                                    + " on a " + rows + "x" + columns + " board");
+                }
+                // Place one more legal ship, if one is found quickly.
+                for (int attempt = 0; attempt < 200; attempt++) {
+                    int length = 1 + random.nextInt(Math.min(longest, attempt < 100 ? 80 : 3));
+                    int row = random.nextInt(rows);
+                    int column = random.nextInt(columns);
+                    boolean horizontal = random.nextBoolean();
+                    if (scan(occupied, length, row, column, horizontal)) {
+                        mask.block(length, row, column, horizontal);
+                        for (int i = 0; i < length; i++) {
+                            occupied[row + (horizontal ? 0 : i)][column + (horizontal ? i : 0)] = true;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that blocked cells are the ship and its neighbors, and that clear empties the mask.
+     */
+    @Test
+    public void testBlockAndClear() {
+        BlockedMask mask = new BlockedMask(BoardConfig.STANDARD);
+        mask.block(3, 0, 7, true);
+        for (int row = 0; row < 10; row++) {
+            for (int col = 0; col < 10; col++) {
+                assertEquals(row <= 1 && col >= 6, mask.isBlocked(row, col), "Cell " + row + "," + col);
+            }
+        }
+        assertFalse(mask.isClear(2, 0, 5, true), "A ship ending next to the bow should be rejected.");
+        assertTrue(mask.isClear(2, 0, 4, true), "A ship ending one cell before the bow's neighbor should fit.");
+        assertTrue(mask.isClear(2, 2, 8, true), "A ship two rows below should fit.");
+        mask.clear();
+        assertTrue(mask.isClear(3, 0, 7, true), "A cleared mask should allow any placement on the board.");
+    }
+
+    /**
+     * Test that Ocean, BitboardOcean and Ship agree on a placement after a ship is placed.
+     */
+    @Test
+    public void testOceansUseTheMask() {
+        Ocean ocean = new Ocean();
+        BitboardOcean bitboard = new BitboardOcean();
+        new Battleship().placeShipAt(4, 4, false, ocean);
+        bitboard.placeShipAt(4, 4, 4, false);
+        for (int row = 0; row < 10; row++) {
+            for (int col = 0; col < 10; col++) {
+                boolean expected = new Cruiser().okToPlaceShipAt(row, col, true, ocean);
+                assertEquals(expected, ocean.okToPlaceShipAt(3, row, col, true));
+                assertEquals(expected, bitboard.okToPlaceShipAt(3, row, col, true));
+            }
+        }
+        assertFalse(ocean.okToPlaceShipAt(1, 8, 5, true), "The cell diagonally below the stern touches the ship.");
+        assertTrue(ocean.okToPlaceShipAt(1, 9, 5, true), "Two rows below the stern is clear.");
+    }
+
+    /**
+     * @return True if a ship fits on the board without touching an occupied cell, checked cell by cell.
+     */
+    private static boolean scan(boolean[][] occupied, int length, int row, int column, boolean horizontal) {
+        int rows = occupied.length;
+        int columns = occupied[0].length;
+        int endRow = row + (horizontal ? 0 : length - 1);
+        int endColumn = column + (horizontal ? length - 1 : 0);
+        if (row < 0 || column < 0 || endRow >= rows || endColumn >= columns) return false;
+        for (int i = row - 1; i <= endRow + 1; i++) {
+            for (int j = column - 1; j <= endColumn + 1; j++) {
+                if (i >= 0 && i < rows && j >= 0 && j < columns && occupied[i][j]) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * The BoardConfig class describes the shape of a game: the board dimensions and the fleet
+ * to be placed on it. Ocean, BitboardOcean and the placement code all read their sizes
+ * from a BoardConfig instead of assuming a 10x10 board with ten ships.
+ *
+ * The fleet is given as a list of ship lengths, in the order the ships are placed.
+ * Placing larger ships first minimizes placement conflicts.
+ */
+public final class BoardConfig {
+
+    /** The classic game: a 10x10 board with one battleship, two cruisers, three destroyers and four submarines. */
+    public static final BoardConfig STANDARD = new BoardConfig(10, 10, 4, 3, 3, 2, 2, 2, 1, 1, 1, 1);
+
+    // Dimensions of the board.
+    private final int rows;
+    private final int columns;
+
+    // Length of each ship, in placement order.
+    private final int[] fleet;
+
+    // Total number of cells covered by the fleet.
+    private final int fleetCells;
+
+    /**
+     * Creates a configuration.
+     *
+     * @param rows    The number of rows on the board.
+     * @param columns The number of columns on the board.
+     * @param fleet   The length of each ship, in the order the ships are placed.
+     * @throws IllegalArgumentException If the board is empty or a ship cannot fit on it.
+     */
+    public BoardConfig(int rows, int columns, int... fleet) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("The board must have at least one row and one column.");
+        }
+        if ((long) rows * columns > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("The board is too large: " + rows + "x" + columns);
+        }
+        int cells = 0;
+        for (int length : fleet) {
+            if (length <= 0 || length > Math.max(rows, columns)) {
+                throw new IllegalArgumentException("A ship of length " + length + " does not fit on the board.");
+            }
+            cells += length;
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.fleet = fleet.clone();
+        this.fleetCells = cells;
+    }
+
+    /**
+     * Creates a square board with the standard fleet repeated once for every ten rows,
+     * e.g. 100 ships on a 100x100 board or 1000 ships on a 1000x1000 board.
+     *
+     * @param size The number of rows and columns.
+     * @return The configuration.
+     */
+    public static BoardConfig square(int size) {
+        if (size == 10) return STANDARD;
+        int copies = Math.max(1, size / 10);
+        int[] standard = STANDARD.fleet;
+        int[] fleet = new int[standard.length * copies];
+
+        // The standard fleet is sorted largest first, so repeating each entry in place keeps it sorted.
+        for (int i = 0; i < fleet.length; i++) {
+            fleet[i] = standard[i / copies];
+        }
+        return new BoardConfig(size, size, fleet);
+    }
+
+    /**
+     * @return The number of rows on the board.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of columns on the board.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return The number of cells on the board.
+     */
+    public int getCells() {
+        return rows * columns;
+    }
+
+    /**
+     * @return The number of ships in the fleet.
+     */
+    public int getFleetSize() {
+        return fleet.length;
+    }
+
+    /**
+     * @return A copy of the ship lengths, in placement order.
+     */
+    public int[] getFleet() {
+        return fleet.clone();
+    }
+
+    /**
+     * @param index The position of the ship in the fleet.
+     * @return The length of that ship.
+     */
+    public int getShipLength(int index) {
+        return fleet[index];
+    }
+
+    /**
+     * @return The total number of cells covered by the fleet.
+     */
+    public int getFleetCells() {
+        return fleetCells;
+    }
+
+    /**
+     * @return True if the given location is on the board.
+     */
+    public boolean isOnBoard(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    /**
+     * Creates a new, unplaced ship for one entry of the fleet.
+     *
+     * @param index The position of the ship in the fleet.
+     * @return The ship.
+     */
+    public Ship newShip(int index) {
+        return shipOfLength(fleet[index]);
+    }
+
+    /**
+     * Creates the Ship subclass matching a ship length. Lengths above 4 become Carriers.
+     *
+     * @param length The length of the ship.
+     * @return A new, unplaced ship of that length.
+     */
+    public static Ship shipOfLength(int length) {
+        switch (length) {
+            case 4: return new Battleship();
+            case 3: return new Cruiser();
+            case 2: return new Destroyer();
+            case 1: return new Submarine();
+            default: return new Carrier(length);
+        }
+    }
+}
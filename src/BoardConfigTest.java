@@ -0,0 +1,78 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the BoardConfig class and for oceans built from non-standard configurations.
+ */
+class BoardConfigTest {
+
+    /**
+     * Test that square configurations repeat the standard fleet once per ten rows, largest ships first.
+     */
+    @Test
+    public void testSquareFleet() {
+        assertSame(BoardConfig.STANDARD, BoardConfig.square(10), "A 10x10 board should use the standard game.");
+
+        BoardConfig config = BoardConfig.square(100);
+        assertEquals(100, config.getFleetSize(), "A 100x100 board should have 100 ships.");
+        assertEquals(200, config.getFleetCells(), "The fleet should cover 200 cells.");
+        int[] fleet = config.getFleet();
+        for (int i = 1; i < fleet.length; i++) {
+            assertTrue(fleet[i] <= fleet[i - 1], "Ships should be listed largest first.");
+        }
+    }
+
+    /**
+     * Test that a large ocean places its whole fleet and ends once every ship is sunk.
+     */
+    @Test
+    public void testLargeOcean() {
+        BoardConfig config = BoardConfig.square(100);
+        Ocean ocean = new Ocean(config);
+        ocean.placeAllShipsRandomly();
+
+        int shipCells = 0;
+        for (int i = 0; i < config.getRows(); i++) {
+            for (int j = 0; j < config.getColumns(); j++) {
+                if (ocean.isOccupied(i, j)) {
+                    shipCells++;
+                    ocean.shootAt(i, j);
+                }
+            }
+        }
+
+        assertEquals(config.getFleetCells(), shipCells, "Every ship cell should be on the board.");
+        assertEquals(config.getFleetSize(), ocean.getShipsSunk(), "Every ship should be sunk.");
+        assertTrue(ocean.isGameOver(), "Game should be over after all ships are sunk.");
+    }
+
+    /**
+     * Test custom fleets with carriers on a non-square board, for both ocean implementations.
+     */
+    @Test
+    public void testCustomFleetOnRectangularBoard() {
+        BoardConfig config = new BoardConfig(6, 12, 5, 2);
+        Ship carrier = config.newShip(0);
+        assertEquals("Carrier", carrier.getShipType(), "Ships longer than 4 should be carriers.");
+        assertEquals(5, carrier.getLength(), "The carrier should have the configured length.");
+
+        Ocean ocean = new Ocean(config);
+        assertTrue(carrier.okToPlaceShipAt(0, 7, true, ocean), "A carrier should fit at the right edge.");
+        assertFalse(carrier.okToPlaceShipAt(2, 0, false, ocean), "A carrier should not fit in 4 rows.");
+
+        BitboardOcean bitboard = new BitboardOcean(config);
+        bitboard.placeAllShipsRandomly();
+        assertEquals(2, bitboard.getShipsAfloat(), "Both ships should be placed.");
+        assertEquals(6, bitboard.getShipArray().length, "The grid should have one row per board row.");
+        assertEquals(12, bitboard.getShipArray()[0].length, "The grid should have one column per board column.");
+    }
+
+    /**
+     * Test that configurations with ships that cannot fit are rejected.
+     */
+    @Test
+    public void testInvalidConfig() {
+        assertThrows(IllegalArgumentException.class, () -> new BoardConfig(0, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BoardConfig(5, 5, 6));
+    }
+}
@@ -0,0 +1,305 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * A BoardCorpus is a file of pre-generated board layouts, read through a memory mapping so
+ * that any layout can be fetched by its index without loading the file. Replaying the same
+ * corpus makes strategy comparisons fair and reproducible.
+ *
+ * File layout (big-endian):
+ * - magic "BSCP", version                      int each
+ * - rows, columns, fleet size                  int each
+ * - each ship length of the fleet              int each
+ * - number of layouts                          long
+ * - the layouts, one fixed-size record each
+ *
+ * A record holds one placement per ship, in fleet order, encoded like PlacementEngine
+ * placements: {@code (horizontal ? 0 : rows * columns) + row * columns + column}. Each
+ * placement takes two bytes when every encoding fits in an unsigned short, otherwise four,
+ * so a standard layout takes 20 bytes.
+ *
+ * Opening a corpus only maps the file; pages are read by the operating system on first access.
+ * The header is checked against the file size before anything is allocated for it, so a
+ * corrupt file fails with an IOException.
+ */
+public final class BoardCorpus implements Closeable {
+
+    /** The first four bytes of every corpus file: "BSCP". */
+    public static final int MAGIC = 0x42534350;
+
+    /** Version of the file layout. */
+    public static final int VERSION = 1;
+
+    // Layouts written per buffer flush.
+    private static final int WRITE_BATCH = 4096;
+
+    // Board dimensions and fleet of every layout.
+    private final BoardConfig config;
+
+    // Number of layouts in the corpus.
+    private final long size;
+
+    // Bytes per placement (2 or 4) and per record.
+    private final int placementBytes;
+    private final int recordBytes;
+
+    // Records per mapped chunk; a single mapping is limited to 2 GB.
+    private final long recordsPerChunk;
+
+    // The records, split into chunks of recordsPerChunk records each.
+    private final MappedByteBuffer[] chunks;
+
+    // The open file, kept until close.
+    private final FileChannel channel;
+
+    /**
+     * Maps an existing corpus file.
+     */
+    private BoardCorpus(FileChannel channel) throws IOException {
+        this.channel = channel;
+
+        // Read the fixed part of the header first, then the fleet.
+        ByteBuffer head = ByteBuffer.allocate(5 * Integer.BYTES);
+        readFully(channel, head, 0);
+        if (head.getInt(0) != MAGIC) {
+            throw new IOException("Not a board corpus.");
+        }
+        if (head.getInt(4) != VERSION) {
+            throw new IOException("Unsupported corpus version " + head.getInt(4) + ".");
+        }
+        int rows = head.getInt(8);
+        int columns = head.getInt(12);
+        int fleetSize = head.getInt(16);
+        long fileSize = channel.size();
+        if (fleetSize < 0 || fleetSize > (Math.min(fileSize, Integer.MAX_VALUE) - head.capacity() - Long.BYTES) / Integer.BYTES) {
+            throw new IOException("Board corpus has a corrupt fleet size " + fleetSize + ".");
+        }
+        int[] fleet = new int[fleetSize];
+
+        ByteBuffer rest = ByteBuffer.allocate(fleet.length * Integer.BYTES + Long.BYTES);
+        readFully(channel, rest, head.capacity());
+        for (int i = 0; i < fleet.length; i++) {
+            fleet[i] = rest.getInt(i * Integer.BYTES);
+        }
+        this.size = rest.getLong(fleet.length * Integer.BYTES);
+        try {
+            this.config = rows == 10 && columns == 10 && Arrays.equals(fleet, BoardConfig.STANDARD.getFleet())
+                    ? BoardConfig.STANDARD
+                    : new BoardConfig(rows, columns, fleet);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Board corpus has an invalid board.", e);
+        }
+
+        this.placementBytes = placementBytes(config);
+        this.recordBytes = placementBytes * config.getFleetSize();
+        long offset = head.capacity() + rest.capacity();
+        // Divide rather than multiply, so a corrupt size cannot overflow past the check.
+        if (size < 0 || size > (fileSize - offset) / Math.max(1, recordBytes)) {
+            throw new IOException("Board corpus is truncated.");
+        }
+
+        // Map the records in chunks that stay below the 2 GB limit of a single mapping.
+        this.recordsPerChunk = Math.max(1, Integer.MAX_VALUE / Math.max(1, recordBytes));
+        int chunkCount = (int) ((size + recordsPerChunk - 1) / recordsPerChunk);
+        chunks = new MappedByteBuffer[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            long records = Math.min(recordsPerChunk, size - c * recordsPerChunk);
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, offset + c * recordsPerChunk * recordBytes,
+                    records * recordBytes);
+        }
+    }
+
+    /**
+     * Opens and maps a corpus file.
+     *
+     * @param path The corpus file.
+     * @return The mapped corpus; close it to release the file.
+     * @throws IOException If the file cannot be read or is not a valid corpus.
+     */
+    public static BoardCorpus open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new BoardCorpus(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Generates random layouts with a PlacementEngine and writes them to a new corpus file,
+     * replacing any existing file.
+     *
+     * @param path   The corpus file to write.
+     * @param config The board dimensions and fleet of every layout.
+     * @param count  The number of layouts.
+     * @param random The random number generator to draw the layouts from.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path path, BoardConfig config, long count, RandomGenerator random) throws IOException {
+        int placementBytes = placementBytes(config);
+        int recordBytes = placementBytes * config.getFleetSize();
+        PlacementEngine engine = new PlacementEngine(config);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate((5 + config.getFleetSize()) * Integer.BYTES + Long.BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(config.getRows()).putInt(config.getColumns())
+                    .putInt(config.getFleetSize());
+            for (int length : config.getFleet()) {
+                header.putInt(length);
+            }
+            header.putLong(count);
+            writeFully(channel, header.flip());
+
+            ByteBuffer batch = ByteBuffer.allocateDirect(WRITE_BATCH * recordBytes);
+            int[] plan = new int[config.getFleetSize()]; // Reused for every layout.
+            for (long i = 0; i < count; i++) {
+                engine.reset();
+                for (int placement : engine.planFleet(random, plan)) {
+                    if (placementBytes == 2) {
+                        batch.putChar((char) placement);
+                    } else {
+                        batch.putInt(placement);
+                    }
+                }
+                if (!batch.hasRemaining()) {
+                    writeFully(channel, batch.flip());
+                    batch.clear();
+                }
+            }
+            writeFully(channel, batch.flip());
+        }
+    }
+
+    /**
+     * @return The board dimensions and fleet of every layout.
+     */
+    public BoardConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return The number of layouts in the corpus.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Reads one ship placement of a layout straight from the mapping.
+     *
+     * @param index The index of the layout.
+     * @param ship  The index of the ship in the fleet.
+     * @return The placement, encoded like PlacementEngine placements.
+     */
+    public int placement(long index, int ship) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Layout " + index + " is not in a corpus of " + size + ".");
+        }
+        MappedByteBuffer chunk = chunks[(int) (index / recordsPerChunk)];
+        int offset = (int) (index % recordsPerChunk) * recordBytes + ship * placementBytes;
+        return placementBytes == 2 ? chunk.getChar(offset) : chunk.getInt(offset);
+    }
+
+    /**
+     * Builds an Ocean with the ships of one layout.
+     *
+     * @param index The index of the layout.
+     * @return A new ocean with the whole fleet placed.
+     */
+    public Ocean newOcean(long index) {
+        Ocean ocean = new Ocean(config);
+        int cells = config.getCells();
+        int columns = config.getColumns();
+        for (int i = 0; i < config.getFleetSize(); i++) {
+            int placement = placement(index, i);
+            int cell = placement % cells;
+            config.newShip(i).placeShipAt(cell / columns, cell % columns, placement < cells, ocean);
+        }
+        return ocean;
+    }
+
+    /**
+     * Builds a BitboardOcean with the ships of one layout.
+     *
+     * @param index The index of the layout.
+     * @return A new ocean with the whole fleet placed.
+     */
+    public BitboardOcean newBitboardOcean(long index) {
+        BitboardOcean ocean = new BitboardOcean(config);
+        int cells = config.getCells();
+        int columns = config.getColumns();
+        for (int i = 0; i < config.getFleetSize(); i++) {
+            int placement = placement(index, i);
+            int cell = placement % cells;
+            ocean.placeShipAt(config.getShipLength(i), cell / columns, cell % columns, placement < cells);
+        }
+        return ocean;
+    }
+
+    /**
+     * Releases the file. The mappings stay valid until they are garbage collected,
+     * but the corpus should not be used any more.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Writes a corpus of random standard layouts.
+     *
+     * @param args The file to write, then optionally the number of layouts (default 1,000,000),
+     *             the size of a square board (default 10, see BoardConfig.square) and a seed.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: BoardCorpus <file> [layouts] [boardSize] [seed]");
+            return;
+        }
+        long count = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+        BoardConfig config = BoardConfig.square(args.length > 2 ? Integer.parseInt(args[2]) : 10);
+        RandomGenerator random = args.length > 3 ? new SplittableRandom(Long.parseLong(args[3])) : new SplittableRandom();
+
+        long start = System.nanoTime();
+        write(Path.of(args[0]), config, count, random);
+        System.out.printf("Wrote %d layouts in %d ms%n", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return The number of bytes needed for one placement on this board.
+     */
+    private static int placementBytes(BoardConfig config) {
+        return 2L * config.getCells() <= 0x10000 ? 2 : 4;
+    }
+
+    /**
+     * Reads until the buffer is full, starting at the given file position.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Board corpus is truncated.");
+            }
+        }
+    }
+
+    /**
+     * Writes the whole buffer.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the BoardCorpus class, writing small corpora to a temporary directory.
+ */
+class BoardCorpusTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Test that every layout read back is a complete, legal fleet and that both ocean
+     * types built from one record agree cell by cell.
+     */
+    @Test
+    public void testLayoutsRoundTrip() throws IOException {
+        Path file = directory.resolve("standard.corpus");
+        BoardCorpus.write(file, BoardConfig.STANDARD, 1000, new Random(9));
+        assertEquals(20 + 1000 * 20 + 8 + 40, Files.size(file), "Standard layouts should take 20 bytes each.");
+
+        try (BoardCorpus corpus = BoardCorpus.open(file)) {
+            assertEquals(1000, corpus.size(), "Every layout should be counted.");
+            for (long i = 0; i < corpus.size(); i++) {
+                Ocean ocean = corpus.newOcean(i);
+                BitboardOcean bitboard = corpus.newBitboardOcean(i);
+                int shipCells = 0;
+                for (int row = 0; row < 10; row++) {
+                    for (int col = 0; col < 10; col++) {
+                        assertEquals(ocean.isOccupied(row, col), bitboard.isOccupied(row, col),
+                                "Both oceans should hold the same layout.");
+                        if (ocean.isOccupied(row, col)) shipCells++;
+                    }
+                }
+                assertEquals(20, shipCells, "Every layout should hold the whole fleet.");
+                assertEquals(10, ocean.getShipsAfloat(), "Every ship should be placed.");
+            }
+        }
+    }
+
+    /**
+     * Test that the same seed gives the same corpus and that records are read at random.
+     */
+    @Test
+    public void testCorpusIsReproducible() throws IOException {
+        Path first = directory.resolve("first.corpus");
+        Path second = directory.resolve("second.corpus");
+        BoardConfig config = BoardConfig.square(100);
+        BoardCorpus.write(first, config, 50, new Random(1));
+        BoardCorpus.write(second, config, 50, new Random(1));
+
+        try (BoardCorpus a = BoardCorpus.open(first); BoardCorpus b = BoardCorpus.open(second)) {
+            assertEquals(config.getFleetSize(), a.getConfig().getFleetSize(), "The fleet should be read back.");
+            for (long i = 49; i >= 0; i -= 7) {
+                for (int ship = 0; ship < config.getFleetSize(); ship++) {
+                    assertEquals(a.placement(i, ship), b.placement(i, ship), "Layouts should be identical.");
+                }
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> a.placement(50, 0),
+                    "Reading past the last layout should fail.");
+        }
+    }
+
+    /**
+     * Test that a file that is not a corpus is rejected.
+     */
+    @Test
+    public void testRejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("other.bin");
+        Files.write(file, new byte[64]);
+
+        assertThrows(IOException.class, () -> BoardCorpus.open(file), "A file without the magic should be rejected.");
+    }
+
+    /**
+     * Test that a corrupt header is reported as an IOException before anything is allocated for it.
+     */
+    @Test
+    public void testRejectsCorruptHeaders() throws IOException {
+        Path file = directory.resolve("good.corpus");
+        BoardCorpus.write(file, BoardConfig.STANDARD, 10, new Random(2));
+        byte[] good = Files.readAllBytes(file);
+
+        // The size follows the five header ints and the fleet.
+        int sizeOffset = (5 + BoardConfig.STANDARD.getFleetSize()) * Integer.BYTES;
+        assertEquals(10, ByteBuffer.wrap(good).getLong(sizeOffset), "The size should follow the fleet.");
+
+        assertCorrupt(ByteBuffer.wrap(good.clone()).putInt(16, Integer.MAX_VALUE), "A fleet larger than the file");
+        assertCorrupt(ByteBuffer.wrap(good.clone()).putInt(16, -1), "A negative fleet size");
+        assertCorrupt(ByteBuffer.wrap(good.clone()).putInt(8, 0), "An empty board");
+        assertCorrupt(ByteBuffer.wrap(good.clone()).putInt(12, -3), "A negative column count");
+        assertCorrupt(ByteBuffer.wrap(good.clone()).putInt(20, 11), "A ship longer than the board");
+        assertCorrupt(ByteBuffer.wrap(good.clone()).putLong(sizeOffset, 11), "One layout more than the file holds");
+        assertCorrupt(ByteBuffer.wrap(good.clone()).putLong(sizeOffset, -1), "A negative size");
+        assertCorrupt(ByteBuffer.wrap(good.clone()).putLong(sizeOffset, Long.MAX_VALUE / 5), "A size that overflows");
+    }
+
+    /**
+     * Writes a corrupted copy of a good corpus and checks that opening it fails.
+     */
+    private void assertCorrupt(ByteBuffer bad, String what) throws IOException {
+        Path file = directory.resolve("bad.corpus");
+        Files.write(file, bad.array());
+        assertThrows(IOException.class, () -> BoardCorpus.open(file).close(), what + " should be rejected.");
+    }
+}
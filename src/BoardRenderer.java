@@ -0,0 +1,277 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The BoardRenderer draws an ocean as text into a reusable byte buffer, so that a whole frame
+ * goes out in a single write instead of one print call per cell.
+ *
+ * The layout is the one of Ocean.print: column numbers on top, row numbers on the left and
+ * one symbol per cell, padded so that multi-digit numbers stay aligned. All labels are laid
+ * out once in a template frame; rendering only copies the template and fills in the symbols,
+ * so it allocates nothing.
+ *
+ * Symbols:
+ * - 'x': A sunken ship.
+ * - 'S': A ship part that has been hit.
+ * - '-': A missed shot.
+ * - 'O': A ship part that has not been hit (debug view only).
+ * - '.': An unfired location.
+ *
+ * renderDiff produces ANSI terminal output instead: the first frame clears the screen, and
+ * every later frame only moves the cursor to the cells that changed and redraws them.
+ *
+ * A renderer is not thread-safe; give each thread or console its own.
+ */
+public class BoardRenderer {
+
+    // ANSI sequences: move the cursor home and clear the screen.
+    private static final byte[] CLEAR_SCREEN = {27, '[', 'H', 27, '[', '2', 'J'};
+
+    // Longest ANSI cursor move plus one symbol: ESC [ row ; column H symbol.
+    private static final int MAX_MOVE_BYTES = 2 + 10 + 1 + 10 + 1 + 1;
+
+    // Board dimensions.
+    private final int rows;
+    private final int columns;
+
+    // Widths of the row labels and of each cell, without the separating space.
+    private final int rowWidth;
+    private final int cellWidth;
+
+    // Length of one board line including its newline, and the offset of the first board line.
+    private final int lineLength;
+    private final int headerLength;
+
+    // The frame with all labels filled in and every cell shown as '.'.
+    private final byte[] template;
+
+    // The symbols drawn by the last renderDiff, or null if the next one must be a full frame.
+    private byte[] shown;
+
+    // Output of the last render or renderDiff, valid up to length.
+    private byte[] output;
+    private int length;
+
+    /**
+     * Creates a renderer for boards of the given configuration.
+     *
+     * @param config The board dimensions.
+     */
+    public BoardRenderer(BoardConfig config) {
+        rows = config.getRows();
+        columns = config.getColumns();
+        rowWidth = String.valueOf(rows - 1).length();
+        cellWidth = String.valueOf(columns - 1).length();
+        lineLength = rowWidth + 1 + columns * (cellWidth + 1) + 1;
+        headerLength = lineLength;
+
+        // Lay out the labels once.
+        template = new byte[headerLength + rows * lineLength];
+        Arrays.fill(template, (byte) ' ');
+        for (int col = 0; col < columns; col++) {
+            putLabel(template, rowWidth + 1 + col * (cellWidth + 1), col);
+        }
+        template[headerLength - 1] = '\n';
+        for (int row = 0; row < rows; row++) {
+            int start = headerLength + row * lineLength;
+            putLabel(template, start, row);
+            for (int col = 0; col < columns; col++) {
+                template[cellOffset(row, col)] = '.';
+            }
+            template[start + lineLength - 1] = '\n';
+        }
+        output = new byte[template.length];
+    }
+
+    /**
+     * Renders a full frame of the ocean.
+     *
+     * @param ocean  The ocean to draw.
+     * @param reveal True for the debug view, which also shows ship parts that were not hit.
+     * @return The number of bytes rendered.
+     */
+    public int render(OceanInterface ocean, boolean reveal) {
+        System.arraycopy(template, 0, output, 0, template.length);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                output[cellOffset(row, col)] = symbol(ocean, row, col, reveal);
+            }
+        }
+        length = template.length;
+        return length;
+    }
+
+    /**
+     * Renders ANSI terminal output that brings the screen from the previous renderDiff to the
+     * current state of the ocean. The first call, and the first call after invalidate, clears
+     * the screen and draws a full frame. The cursor is left on the line below the board.
+     *
+     * @param ocean  The ocean to draw.
+     * @param reveal True for the debug view, which also shows ship parts that were not hit.
+     * @return The number of bytes rendered.
+     */
+    public int renderDiff(OceanInterface ocean, boolean reveal) {
+        if (shown == null) {
+            render(ocean, reveal);
+            ensureCapacity(CLEAR_SCREEN.length + length);
+            System.arraycopy(output, 0, output, CLEAR_SCREEN.length, length);
+            System.arraycopy(CLEAR_SCREEN, 0, output, 0, CLEAR_SCREEN.length);
+            length += CLEAR_SCREEN.length;
+
+            shown = new byte[rows * columns];
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < columns; col++) {
+                    shown[row * columns + col] = output[CLEAR_SCREEN.length + cellOffset(row, col)];
+                }
+            }
+            return length;
+        }
+
+        length = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                byte symbol = symbol(ocean, row, col, reveal);
+                if (symbol == shown[row * columns + col]) continue;
+
+                // Terminal rows and columns are 1-based; the header takes the first line.
+                shown[row * columns + col] = symbol;
+                ensureCapacity(length + MAX_MOVE_BYTES);
+                moveCursor(row + 2, rowWidth + 2 + col * (cellWidth + 1));
+                output[length++] = symbol;
+            }
+        }
+        if (length > 0) {
+            ensureCapacity(length + MAX_MOVE_BYTES);
+            moveCursor(rows + 2, 1);
+        }
+        return length;
+    }
+
+    /**
+     * Makes the next renderDiff draw a full frame, e.g. after the screen was used for something else.
+     */
+    public void invalidate() {
+        shown = null;
+    }
+
+    /**
+     * Writes the last rendered output with a single write.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If the stream fails.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(output, 0, length);
+        out.flush();
+    }
+
+    /**
+     * Writes the last rendered output with a single write.
+     *
+     * @param out The print stream to write to, e.g. System.out.
+     */
+    public void writeTo(PrintStream out) {
+        out.write(output, 0, length);
+        out.flush();
+    }
+
+    /**
+     * Copies the last rendered output into a buffer at its position, advancing it.
+     *
+     * @param buffer The buffer to copy into.
+     * @throws java.nio.BufferOverflowException If the buffer has less room than the output.
+     */
+    public void copyTo(ByteBuffer buffer) {
+        buffer.put(output, 0, length);
+    }
+
+    /**
+     * Renders a full frame and prints it with a single write.
+     *
+     * @param ocean  The ocean to draw.
+     * @param reveal True for the debug view, which also shows ship parts that were not hit.
+     * @param out    The print stream to write to, e.g. System.out.
+     */
+    public void print(OceanInterface ocean, boolean reveal, PrintStream out) {
+        render(ocean, reveal);
+        writeTo(out);
+    }
+
+    /**
+     * @return The last rendered output as text.
+     */
+    @Override
+    public String toString() {
+        return new String(output, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @return The symbol of one cell.
+     */
+    private static byte symbol(OceanInterface ocean, int row, int column, boolean reveal) {
+        if (ocean.isSunk(row, column)) return 'x';
+        if (ocean.isHit(row, column)) return 'S';
+        if (ocean.isFiredUpon(row, column)) return '-';
+        if (reveal && ocean.isOccupied(row, column)) return 'O';
+        return '.';
+    }
+
+    /**
+     * @return The offset of a cell's symbol in a full frame.
+     */
+    private int cellOffset(int row, int column) {
+        return headerLength + row * lineLength + rowWidth + 1 + column * (cellWidth + 1);
+    }
+
+    /**
+     * Writes a number, left-aligned, at the given offset.
+     */
+    private static void putLabel(byte[] frame, int offset, int number) {
+        String label = String.valueOf(number);
+        for (int i = 0; i < label.length(); i++) {
+            frame[offset + i] = (byte) label.charAt(i);
+        }
+    }
+
+    /**
+     * Appends an ANSI cursor move to the output.
+     */
+    private void moveCursor(int line, int column) {
+        output[length++] = 27;
+        output[length++] = '[';
+        length = putNumber(output, length, line);
+        output[length++] = ';';
+        length = putNumber(output, length, column);
+        output[length++] = 'H';
+    }
+
+    /**
+     * Writes a positive number in decimal without allocating.
+     *
+     * @return The offset after the last digit.
+     */
+    private static int putNumber(byte[] buffer, int offset, int number) {
+        int digits = 1;
+        for (int n = number; n >= 10; n /= 10) {
+            digits++;
+        }
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (byte) ('0' + number % 10);
+            number /= 10;
+        }
+        return offset + digits;
+    }
+
+    /**
+     * Grows the output buffer if it cannot hold the given number of bytes.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > output.length) {
+            output = Arrays.copyOf(output, Math.max(capacity, output.length * 2));
+        }
+    }
+}
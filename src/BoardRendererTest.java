@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the BoardRenderer class.
+ */
+class BoardRendererTest {
+
+    /**
+     * Test that a frame shows labels, hits, misses and sunk ships in the layout of Ocean.print.
+     */
+    @Test
+    public void testPlayerView() {
+        Ocean ocean = new Ocean(new BoardConfig(3, 4, 2, 1));
+        new Destroyer().placeShipAt(0, 0, true, ocean);
+        new Submarine().placeShipAt(2, 3, true, ocean);
+        ocean.shootAt(0, 0);
+        ocean.shootAt(1, 3);
+        ocean.shootAt(2, 3);
+
+        BoardRenderer renderer = new BoardRenderer(ocean.getConfig());
+        renderer.render(ocean, false);
+
+        String expected = "  0 1 2 3 \n"
+                + "0 S . . . \n"
+                + "1 . . . - \n"
+                + "2 . . . x \n";
+        assertEquals(expected, renderer.toString(), "The frame should match the Ocean.print layout.");
+    }
+
+    /**
+     * Test that the debug view reveals ship parts that were not hit.
+     */
+    @Test
+    public void testDebugView() {
+        BitboardOcean ocean = new BitboardOcean(new BoardConfig(2, 3, 2));
+        ocean.placeShipAt(2, 1, 1, true);
+
+        BoardRenderer renderer = new BoardRenderer(ocean.getConfig());
+        renderer.render(ocean, true);
+
+        assertEquals("  0 1 2 \n0 . . . \n1 . O O \n", renderer.toString(), "Ships should be revealed.");
+    }
+
+    /**
+     * Test that multi-digit labels keep the columns aligned.
+     */
+    @Test
+    public void testWideBoardAlignment() {
+        Ocean ocean = new Ocean(new BoardConfig(11, 12, 1));
+        BoardRenderer renderer = new BoardRenderer(ocean.getConfig());
+        renderer.render(ocean, false);
+
+        String[] lines = renderer.toString().split("\n");
+        assertEquals("   0  1  2  3  4  5  6  7  8  9  10 11 ", lines[0], "Column labels should be padded.");
+        assertEquals("10 .  .  .  .  .  .  .  .  .  .  .  .  ", lines[11], "Row labels should be padded.");
+    }
+
+    /**
+     * Test that ANSI diff rendering only redraws the cells that changed.
+     */
+    @Test
+    public void testDiffRendering() {
+        Ocean ocean = new Ocean();
+        new Destroyer().placeShipAt(4, 4, true, ocean);
+        BoardRenderer renderer = new BoardRenderer(ocean.getConfig());
+
+        String first = render(renderer, ocean);
+        assertTrue(first.startsWith("\u001b[H\u001b[2J"), "The first frame should clear the screen.");
+        assertEquals("", render(renderer, ocean), "Nothing should be sent when nothing changed.");
+
+        ocean.shootAt(4, 4);
+        assertEquals("\u001b[6;11HS\u001b[12;1H", render(renderer, ocean), "Only the hit cell should be redrawn.");
+
+        ocean.shootAt(4, 5);
+        assertEquals("\u001b[6;11Hx\u001b[6;13Hx\u001b[12;1H", render(renderer, ocean),
+                "Both cells of the sunk ship should be redrawn.");
+
+        renderer.invalidate();
+        assertTrue(render(renderer, ocean).startsWith("\u001b[H\u001b[2J"), "invalidate should force a full frame.");
+    }
+
+    /**
+     * Test that the frame is written with a single write and can be copied into a buffer.
+     */
+    @Test
+    public void testOutputTargets() {
+        Ocean ocean = new Ocean();
+        BoardRenderer renderer = new BoardRenderer(ocean.getConfig());
+        int length = renderer.render(ocean, false);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int[] writes = new int[1];
+        PrintStream out = new PrintStream(bytes) {
+            @Override
+            public void write(byte[] buffer, int offset, int count) {
+                writes[0]++;
+                super.write(buffer, offset, count);
+            }
+        };
+        renderer.writeTo(out);
+        assertEquals(1, writes[0], "The frame should be written at once.");
+        assertEquals(length, bytes.size(), "The whole frame should be written.");
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        renderer.copyTo(buffer);
+        assertFalse(buffer.hasRemaining(), "The whole frame should be copied.");
+    }
+
+    /**
+     * @return The ANSI output that brings the screen up to date.
+     */
+    private static String render(BoardRenderer renderer, Ocean ocean) {
+        renderer.renderDiff(ocean, false);
+        return renderer.toString();
+    }
+}
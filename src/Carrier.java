@@ -0,0 +1,35 @@
+/**
+ * Represents a Carrier in the Battleship game: any ship longer than a Battleship.
+ * The standard fleet has no carriers; they appear in custom fleets set up with a BoardConfig.
+ * Extends the {@link Ship} class and inherits its properties and behaviors.
+ */
+public class Carrier extends Ship {
+
+    /**
+     * Constructs a Carrier of the classic length of 5 cells.
+     */
+    public Carrier() {
+        this(5);
+    }
+
+    /**
+     * Constructs a Carrier of the given length.
+     * Initializes the hit array to track damage to each of its cells.
+     *
+     * @param length The number of cells the carrier occupies.
+     */
+    public Carrier(int length) {
+        this.length = length;
+        hit = new boolean[length];
+    }
+
+    /**
+     * Returns the type of the ship as a string.
+     *
+     * @return A string representing the type of this ship ("Carrier").
+     */
+    @Override
+    public String getShipType() {
+        return "Carrier";
+    }
+}
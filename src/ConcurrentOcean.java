@@ -0,0 +1,472 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * A thread-safe implementation of OceanInterface for boards shared by several shooters.
+ * Shots are lock-free:
+ * - Fired-upon cells are kept in an atomic bitmask, set with a compare-and-set loop.
+ * - Each ship keeps its hit segments in one atomic long, so a hit is a single CAS that
+ *   also tells the shooter whether it completed the ship.
+ * - Shot, hit and sink counters are LongAdders, so shooters never contend on one counter.
+ *
+ * Exactly one shot sinks each ship: the CAS that sets the last missing segment bit is the
+ * only one that sees the full mask appear, however many threads race for the last segments.
+ *
+ * Ships must be placed before the board is shared with other threads, e.g. before the
+ * shooters are started or submitted to an executor. Placement itself is not thread-safe.
+ * Ships are at most 64 cells long, the size of a hit mask.
+ */
+public class ConcurrentOcean implements OceanInterface {
+
+	// Outcomes of a single shot, as returned by resolve.
+	private static final int MISSED = 0;
+	private static final int HIT = 1;
+	private static final int SANK = 2;
+
+	// Board dimensions and fleet of this game.
+	protected final BoardConfig config;
+
+	// Number of columns, cached because every cell index is computed from it.
+	protected final int columns;
+
+	// Id of the ship owning each cell, plus one; 0 for empty sea. Written only during placement.
+	protected final int[] cellShip;
+
+	// Per-ship placement data, indexed by ship id. Written only during placement.
+	protected final int[] shipLength;
+	protected final int[] shipRow;
+	protected final int[] shipColumn;
+	protected final boolean[] shipHorizontal;
+
+	// Number of ships placed so far.
+	protected int shipCount;
+
+	// Cells under or next to a placed ship, where no other ship may go.
+	private final BlockedMask blocked;
+
+	// Engine and plan array for random placements, created on first use and reused after.
+	private PlacementEngine engine;
+	private int[] plan;
+
+	// Cells that have been fired upon at least once, one bit per cell.
+	private final AtomicLongArray fired;
+
+	// Hit segments of each ship, bit i for the i-th segment from the bow.
+	private final AtomicLongArray shipHits;
+
+	// Tracks the total number of shots fired by all shooters.
+	private final LongAdder shotsFired = new LongAdder();
+
+	// Tracks the total number of hits on ships, including repeated hits on the same part.
+	private final LongAdder hitCount = new LongAdder();
+
+	// Tracks the total number of ships that have been sunk.
+	private final LongAdder shipsSunk = new LongAdder();
+
+	/**
+	 * Constructor creates an empty standard 10x10 board.
+	 */
+	public ConcurrentOcean() {
+		this(BoardConfig.STANDARD);
+	}
+
+	/**
+	 * Constructor creates an empty board.
+	 *
+	 * @param config The board dimensions and fleet of this game.
+	 */
+	public ConcurrentOcean(BoardConfig config) {
+		for (int length : config.getFleet()) {
+			if (length > Long.SIZE) {
+				throw new IllegalArgumentException("A ConcurrentOcean holds ships of at most " + Long.SIZE + " cells.");
+			}
+		}
+		this.config = config;
+		this.columns = config.getColumns();
+		cellShip = new int[config.getCells()];
+		blocked = new BlockedMask(config);
+
+		int fleetSize = config.getFleetSize();
+		shipLength = new int[fleetSize];
+		shipRow = new int[fleetSize];
+		shipColumn = new int[fleetSize];
+		shipHorizontal = new boolean[fleetSize];
+		shipCount = 0;
+
+		fired = new AtomicLongArray((config.getCells() + 63) >>> 6);
+		shipHits = new AtomicLongArray(fleetSize);
+	}
+
+	/**
+	 * @return The board dimensions and fleet of this game.
+	 */
+	@Override
+	public BoardConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Randomly places every ship of the configured fleet on the board, in fleet order.
+	 * Must be called before the board is shared with other threads.
+	 *
+	 * @param random The random number generator to draw the positions from.
+	 */
+	@Override
+	public void placeAllShipsRandomly(RandomGenerator random) {
+		if (engine == null) {
+			engine = new PlacementEngine(config);
+			plan = new int[config.getFleetSize()];
+		} else {
+			engine.reset();
+		}
+
+		// Keep clear of any ships that are already on the board.
+		for (int cell = 0; cell < cellShip.length; cell++) {
+			if (cellShip[cell] != 0) {
+				engine.markOccupied(cell / columns, cell % columns);
+			}
+		}
+
+		engine.planFleet(random, plan);
+		for (int i = 0; i < plan.length; i++) {
+			placeShipAt(config.getShipLength(i), engine.row(plan[i]), engine.column(plan[i]), engine.isHorizontal(plan[i]));
+		}
+	}
+
+	/**
+	 * Clears the board for a new game in place: removes every ship and every shot and zeroes
+	 * the counters. Like placement, it must not run while other threads use the board.
+	 */
+	@Override
+	public void reset() {
+		for (int id = 0; id < shipCount; id++) {
+			int cell = shipRow[id] * columns + shipColumn[id];
+			int step = shipHorizontal[id] ? 1 : columns;
+			for (int i = 0; i < shipLength[id]; i++, cell += step) {
+				cellShip[cell] = 0;
+			}
+			shipHits.set(id, 0L);
+		}
+		for (int word = 0; word < fired.length(); word++) {
+			fired.set(word, 0L);
+		}
+		blocked.clear();
+		shipCount = 0;
+		shotsFired.reset();
+		hitCount.reset();
+		shipsSunk.reset();
+	}
+
+	/**
+	 * Checks if a ship of the given length can be placed at the given location.
+	 * Applies the same rules as Ship.okToPlaceShipAt: the ship must be within bounds
+	 * and must not overlap or touch another ship, even diagonally. The check is one AND
+	 * of the ship's footprint against the mask of blocked cells.
+	 *
+	 * @param length     The length of the ship.
+	 * @param row        The starting row of the ship.
+	 * @param column     The starting column of the ship.
+	 * @param horizontal True if the ship is placed horizontally, false otherwise.
+	 * @return True if the ship can be placed, false otherwise.
+	 */
+	public boolean okToPlaceShipAt(int length, int row, int column, boolean horizontal) {
+		return blocked.isClear(length, row, column, horizontal);
+	}
+
+	/**
+	 * Places a ship of the given length on the board. The caller is responsible for
+	 * checking the placement with okToPlaceShipAt first.
+	 * Must be called before the board is shared with other threads.
+	 *
+	 * @param length     The length of the ship.
+	 * @param row        The starting row of the ship.
+	 * @param column     The starting column of the ship.
+	 * @param horizontal True if the ship is placed horizontally, false otherwise.
+	 * @return The id assigned to the placed ship.
+	 */
+	public int placeShipAt(int length, int row, int column, boolean horizontal) {
+		if (shipCount == shipLength.length) {
+			throw new IllegalStateException("The fleet is already complete.");
+		}
+		if (length > Long.SIZE) {
+			throw new IllegalArgumentException("A ConcurrentOcean holds ships of at most " + Long.SIZE + " cells.");
+		}
+		int id = shipCount++;
+		shipLength[id] = length;
+		shipRow[id] = row;
+		shipColumn[id] = column;
+		shipHorizontal[id] = horizontal;
+		blocked.block(length, row, column, horizontal);
+
+		int cell = row * columns + column;
+		int step = horizontal ? 1 : columns;
+		for (int i = 0; i < length; i++, cell += step) {
+			cellShip[cell] = id + 1;
+		}
+		return id;
+	}
+
+	/**
+	 * Checks if the given location on the board is occupied by a ship.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if the location contains a ship, false otherwise.
+	 */
+	@Override
+	public boolean isOccupied(int row, int column) {
+		return cellShip[row * columns + column] != 0;
+	}
+
+	/**
+	 * Fires a shot at the specified location. Safe to call from any number of threads.
+	 * Behaves like Ocean.shootAt: shots at a sunk ship or at empty sea are misses, while
+	 * repeated shots at a damaged but floating ship still count as hits.
+	 *
+	 * @param row    The row coordinate to shoot at (0 to rows - 1).
+	 * @param column The column coordinate to shoot at (0 to columns - 1).
+	 * @return true if the shot hits a ship, false otherwise.
+	 */
+	@Override
+	public boolean shootAt(int row, int column) {
+		shotsFired.increment();
+
+		int outcome = resolve(row, column);
+		if (outcome == MISSED) return false;
+		hitCount.increment();
+		if (outcome == SANK) {
+			shipsSunk.increment(); // This shot set the last segment of the ship.
+		}
+		return true;
+	}
+
+	/**
+	 * Fires a whole salvo in one pass. Safe to call from any number of threads. Every shot
+	 * is resolved atomically as by shootAt, in order, but the counters are added to once
+	 * for the salvo, so they may briefly lag behind the board while a salvo is in flight.
+	 *
+	 * @param shotRows    The row of each shot.
+	 * @param shotColumns The column of each shot.
+	 * @param count       The number of shots, taken from the start of the arrays.
+	 * @param shotHits    Receives one bit per shot, set if the shot hit a ship.
+	 * @return The number of shots that hit a ship.
+	 */
+	@Override
+	public int shootAll(int[] shotRows, int[] shotColumns, int count, long[] shotHits) {
+		Arrays.fill(shotHits, 0, (count + 63) >>> 6, 0L);
+
+		int salvoHits = 0;
+		int salvoSunk = 0;
+		for (int i = 0; i < count; i++) {
+			int outcome = resolve(shotRows[i], shotColumns[i]);
+			if (outcome != MISSED) {
+				shotHits[i >>> 6] |= 1L << i;
+				salvoHits++;
+				if (outcome == SANK) salvoSunk++;
+			}
+		}
+
+		shotsFired.add(count);
+		hitCount.add(salvoHits);
+		shipsSunk.add(salvoSunk);
+		return salvoHits;
+	}
+
+	/**
+	 * Applies a shot to the board without touching the counters.
+	 *
+	 * @return MISSED, HIT, or SANK if this shot set the last segment of a ship.
+	 */
+	private int resolve(int row, int column) {
+		int cell = row * columns + column;
+		int owner = cellShip[cell];
+
+		// Empty sea: remember the miss.
+		if (owner == 0) {
+			markFired(cell);
+			return MISSED;
+		}
+
+		int id = owner - 1;
+		long full = fullMask(shipLength[id]);
+		long bit = 1L << segment(id, row, column);
+		while (true) {
+			long before = shipHits.get(id);
+			if (before == full) return MISSED; // Cannot shoot at a sunk ship.
+			if ((before & bit) != 0 || shipHits.compareAndSet(id, before, before | bit)) {
+				markFired(cell);
+				return (before | bit) == full && (before & bit) == 0 ? SANK : HIT;
+			}
+			// Another segment of this ship was hit meanwhile; try again with the new mask.
+		}
+	}
+
+	/**
+	 * @return The total number of shots fired by all shooters.
+	 */
+	@Override
+	public int getShotsFired() {
+		return shotsFired.intValue();
+	}
+
+	/**
+	 * @return The total number of hits recorded.
+	 * Note: Includes repeated hits on the same location.
+	 */
+	@Override
+	public int getHitCount() {
+		return hitCount.intValue();
+	}
+
+	/**
+	 * @return The total number of ships sunk.
+	 */
+	@Override
+	public int getShipsSunk() {
+		return shipsSunk.intValue();
+	}
+
+	/**
+	 * @return The number of ships placed on the board that have not been sunk yet.
+	 */
+	@Override
+	public int getShipsAfloat() {
+		return shipCount - shipsSunk.intValue();
+	}
+
+	/**
+	 * Checks if the game is over, i.e., every ship of the fleet has been sunk.
+	 *
+	 * @return true if all ships are sunk, false otherwise.
+	 */
+	@Override
+	public boolean isGameOver() {
+		return shipsSunk.intValue() == shipLength.length;
+	}
+
+	/**
+	 * Checks if the given location is a ship segment that has been hit.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if a ship segment at this location has been hit, false otherwise.
+	 */
+	@Override
+	public boolean isHit(int row, int column) {
+		int owner = cellShip[row * columns + column];
+		if (owner == 0) return false;
+		return (shipHits.get(owner - 1) & (1L << segment(owner - 1, row, column))) != 0;
+	}
+
+	/**
+	 * Checks if the given location belongs to a ship that has been sunk.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if the location contains part of a sunk ship, false otherwise.
+	 */
+	@Override
+	public boolean isSunk(int row, int column) {
+		int owner = cellShip[row * columns + column];
+		return owner != 0 && shipHits.get(owner - 1) == fullMask(shipLength[owner - 1]);
+	}
+
+	/**
+	 * Checks if the given location has been fired upon.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if at least one shot was fired at this location, false otherwise.
+	 */
+	@Override
+	public boolean isFiredUpon(int row, int column) {
+		int cell = row * columns + column;
+		return (fired.get(cell >>> 6) & (1L << cell)) != 0;
+	}
+
+	/**
+	 * Provides a grid of Ship objects mirroring the current board state.
+	 * A new snapshot is built on every call; shots fired while it is being built may
+	 * or may not show up in it. Changes made through it are not reflected on this board.
+	 *
+	 * @return A rows x columns 2D array of ships representing the board state.
+	 */
+	@Override
+	public Ship[][] getShipArray() {
+		Ship[][] grid = new Ship[config.getRows()][columns];
+
+		// Recreate every placed ship with its hit state.
+		for (int id = 0; id < shipCount; id++) {
+			Ship ship = BoardConfig.shipOfLength(shipLength[id]);
+			ship.setBowRow(shipRow[id]);
+			ship.setBowColumn(shipColumn[id]);
+			ship.setHorizontal(shipHorizontal[id]);
+			long hitMask = shipHits.get(id);
+			int cell = shipRow[id] * columns + shipColumn[id];
+			int step = shipHorizontal[id] ? 1 : columns;
+			for (int i = 0; i < shipLength[id]; i++, cell += step) {
+				if ((hitMask & (1L << i)) != 0) {
+					ship.shootAt(cell / columns, cell % columns);
+				}
+				grid[cell / columns][cell % columns] = ship;
+			}
+		}
+
+		// Fill the remaining cells with EmptySea, marking misses.
+		for (int row = 0; row < config.getRows(); row++) {
+			for (int col = 0; col < columns; col++) {
+				if (grid[row][col] == null) {
+					EmptySea sea = new EmptySea();
+					if (isFiredUpon(row, col)) {
+						sea.shootAt(row, col);
+					}
+					grid[row][col] = sea;
+				}
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * Prints the current state of the board to the console with a single write.
+	 * A renderer is created per call, since renderers are not thread-safe.
+	 * Display rules:
+	 * - 'x': A sunken ship.
+	 * - 'S': A ship part that has been hit.
+	 * - '-': A missed shot.
+	 * - '.': An unfired location.
+	 */
+	@Override
+	public void print() {
+		new BoardRenderer(config).print(this, false, System.out);
+	}
+
+	/**
+	 * Sets the fired bit of a cell, retrying if another thread changes the same word meanwhile.
+	 */
+	private void markFired(int cell) {
+		int word = cell >>> 6;
+		long bit = 1L << cell;
+		long before;
+		do {
+			before = fired.get(word);
+			if ((before & bit) != 0) return;
+		} while (!fired.compareAndSet(word, before, before | bit));
+	}
+
+	/**
+	 * @return The position of a cell within the ship that owns it, counted from the bow.
+	 */
+	private int segment(int id, int row, int column) {
+		return shipHorizontal[id] ? column - shipColumn[id] : row - shipRow[id];
+	}
+
+	/**
+	 * @return A hit mask with every segment of a ship of the given length set.
+	 */
+	private static long fullMask(int length) {
+		return length == Long.SIZE ? -1L : (1L << length) - 1;
+	}
+}
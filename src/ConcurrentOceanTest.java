@@ -0,0 +1,141 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit and stress tests for the ConcurrentOcean class. The stress tests start all shooters
+ * at a barrier so that their shots overlap as much as possible.
+ */
+class ConcurrentOceanTest {
+
+    private static final int THREADS = 4;
+
+    private ExecutorService executor;
+
+    /**
+     * Start a pool of shooters before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    /**
+     * Stop the shooters after each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test that a single shooter sees the same behavior as Ocean.shootAt.
+     */
+    @Test
+    public void testShootAtShip() {
+        ConcurrentOcean ocean = new ConcurrentOcean();
+        ocean.placeShipAt(2, 2, 2, false);
+
+        assertFalse(ocean.shootAt(0, 0), "Shooting at empty sea should return false.");
+        assertTrue(ocean.isFiredUpon(0, 0), "The miss should be recorded.");
+        assertTrue(ocean.shootAt(2, 2), "Shooting at a ship should return true.");
+        assertTrue(ocean.shootAt(2, 2), "A repeated hit on a floating ship should still count.");
+        assertTrue(ocean.shootAt(3, 2), "Shooting the last segment should return true.");
+        assertTrue(ocean.isSunk(2, 2), "The ship should be sunk after all parts are hit.");
+        assertFalse(ocean.shootAt(3, 2), "Shooting at a sunk ship should return false.");
+
+        assertEquals(5, ocean.getShotsFired(), "Every shot should be counted.");
+        assertEquals(3, ocean.getHitCount(), "Shots at a sunk ship should not count as hits.");
+        assertEquals(1, ocean.getShipsSunk(), "The ship should be counted as sunk once.");
+    }
+
+    /**
+     * Two shooters race for the last two segments of a destroyer, many times over.
+     * Exactly one sinking must be counted every time.
+     */
+    @Test
+    public void testRaceForLastSegmentsSinksOnce() throws Exception {
+        for (int round = 0; round < 2000; round++) {
+            ConcurrentOcean ocean = new ConcurrentOcean(new BoardConfig(3, 3, 2));
+            ocean.placeShipAt(2, 1, 0, true);
+            CyclicBarrier start = new CyclicBarrier(2);
+
+            Future<Boolean> left = executor.submit(shooter(start, ocean, 1, 0));
+            Future<Boolean> right = executor.submit(shooter(start, ocean, 1, 1));
+
+            assertTrue(left.get() && right.get(), "Both shots should hit the floating ship.");
+            assertEquals(1, ocean.getShipsSunk(), "The destroyer should be sunk exactly once.");
+            assertTrue(ocean.isGameOver(), "The game should be over.");
+        }
+    }
+
+    /**
+     * Several shooters fire at every cell of a shared board in different orders.
+     * The counters must agree with the results the shooters saw.
+     */
+    @Test
+    public void testSharedBoardCountersAreConsistent() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            ConcurrentOcean ocean = new ConcurrentOcean();
+            ocean.placeAllShipsRandomly();
+            CyclicBarrier start = new CyclicBarrier(THREADS);
+
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long seed = round * THREADS + t;
+                results.add(executor.submit(() -> {
+                    int[] order = shuffledCells(new SplittableRandom(seed));
+                    start.await();
+                    int hits = 0;
+                    for (int cell : order) {
+                        if (ocean.shootAt(cell / 10, cell % 10)) hits++;
+                    }
+                    return hits;
+                }));
+            }
+
+            int hits = 0;
+            for (Future<Integer> result : results) {
+                hits += result.get();
+            }
+
+            assertEquals(THREADS * 100, ocean.getShotsFired(), "Every shot should be counted.");
+            assertEquals(hits, ocean.getHitCount(), "The hit count should match the hits reported.");
+            assertEquals(10, ocean.getShipsSunk(), "Every ship should be sunk exactly once.");
+            assertEquals(0, ocean.getShipsAfloat(), "No ship should be left afloat.");
+            assertTrue(ocean.isGameOver(), "The game should be over.");
+        }
+    }
+
+    /**
+     * @return A task firing one shot once all shooters are ready.
+     */
+    private static Callable<Boolean> shooter(CyclicBarrier start, ConcurrentOcean ocean, int row, int column) {
+        return () -> {
+            start.await();
+            return ocean.shootAt(row, column);
+        };
+    }
+
+    /**
+     * @return Every cell of a 10x10 board, in random order.
+     */
+    private static int[] shuffledCells(SplittableRandom random) {
+        int[] cells = new int[100];
+        for (int i = 0; i < cells.length; i++) {
+            int j = random.nextInt(i + 1);
+            cells[i] = cells[j];
+            cells[j] = i;
+        }
+        return cells;
+    }
+}
@@ -2,22 +2,54 @@
  * The EmptySea class represents a single cell on the ocean grid that does not contain a ship.
  * This class extends the abstract Ship class but behaves differently since it does not represent an actual ship.
  * It is used to indicate locations where no ship is placed.
+ *
+ * Ocean fills every empty cell with the single shared instance returned by {@link #shared()}
+ * and records misses in its own bitset, so boards allocate no per-cell objects. The shared
+ * instance holds no state; ask the Ocean whether a cell was fired upon. Instances created
+ * with {@code new EmptySea()} still track their own "fired upon" flag.
  */
 public class EmptySea extends Ship {
 
+    // The stateless instance shared by every empty cell of every Ocean.
+    private static final EmptySea SHARED = new EmptySea(true);
+
+    // True only for the shared instance, which never records shots.
+    private final boolean shared;
+
     /**
      * Constructor for the EmptySea class.
      * Initializes the length to 1 (since EmptySea represents a single cell) and
      * the hit array to track whether this cell has been fired upon.
      */
     public EmptySea() {
+        this(false);
+    }
+
+    /**
+     * Constructor for the shared and the standalone variants.
+     *
+     * @param shared True for the stateless shared instance.
+     */
+    private EmptySea(boolean shared) {
+        this.shared = shared;
         length = 1; // An EmptySea occupies one cell.
         hit = new boolean[length]; // Initialize the hit array for a single cell.
     }
 
+    /**
+     * Returns the stateless EmptySea shared by all empty cells. Shooting at it records
+     * nothing, and its isFiredUpon always returns false; the owning Ocean tracks misses.
+     *
+     * @return The shared EmptySea.
+     */
+    public static EmptySea shared() {
+        return SHARED;
+    }
+
     /**
      * Overrides the shootAt method from the Ship class.
      * Marks this EmptySea as "fired upon" but always returns false since an EmptySea cannot be "hit".
+     * The shared instance is left untouched.
      *
      * @param row    The row of the cell being fired upon.
      * @param column The column of the cell being fired upon.
@@ -25,7 +57,9 @@ public class EmptySea extends Ship {
      */
     @Override
     public boolean shootAt(int row, int column) {
-        hit[0] = true; // Mark the cell as fired upon.
+        if (!shared) {
+            hit[0] = true; // Mark the cell as fired upon.
+        }
         return false; // Return false because EmptySea does not represent a ship.
     }
 
@@ -54,6 +88,7 @@ public class EmptySea extends Ship {
     /**
      * Checks if this EmptySea has been fired upon.
      * This method is specific to EmptySea and is not part of the Ship class.
+     * For the shared instance use Ocean.isFiredUpon(row, column) instead.
      *
      * @return true if this EmptySea has been fired upon, false otherwise.
      */
@@ -0,0 +1,45 @@
+/**
+ * A FogView is one player's read-only view of the opponent's board under the fog of war:
+ * which cells have been fired upon, which shots hit, and which ships have been sunk. It
+ * never reveals where unhit ships are, and it cannot be written to.
+ *
+ * Matches hand these to players instead of the opponent's ocean, so a client never gets
+ * hold of a Ship[][] and nothing is copied to show it the board.
+ */
+public interface FogView {
+
+    /**
+     * @return The number of rows on the board.
+     */
+    int getRows();
+
+    /**
+     * @return The number of columns on the board.
+     */
+    int getColumns();
+
+    /**
+     * @return True if at least one shot has been fired at the given cell.
+     */
+    boolean isFiredUpon(int row, int column);
+
+    /**
+     * @return True if a shot at the given cell hit a ship, whether or not it is sunk.
+     */
+    boolean isHit(int row, int column);
+
+    /**
+     * @return True if the given cell belongs to a ship that has been sunk.
+     */
+    boolean isSunk(int row, int column);
+
+    /**
+     * @return The number of shots fired so far.
+     */
+    int getShotsFired();
+
+    /**
+     * @return The number of ships seen sinking so far.
+     */
+    int getShipsSunk();
+}
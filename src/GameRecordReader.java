@@ -0,0 +1,319 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A GameRecordReader reads a file written by a GameRecordWriter, one game at a time and one
+ * chunk at a time, so files far larger than memory can be replayed.
+ *
+ * Call {@link #next()} to move to the next game, then read its id, layout, shots and
+ * outcomes. Games come in the order their chunks were written; games recorded on different
+ * threads are interleaved chunk by chunk.
+ *
+ * Columns are found by name in the header, so a reader skips any column it does not know.
+ * Every count and length prefix is checked against the header and the bytes left in the file
+ * before anything is allocated for it, so a corrupt file fails with an IOException.
+ */
+public final class GameRecordReader implements Closeable {
+
+    // Board dimensions and fleet of every game.
+    private final BoardConfig config;
+
+    // The file, read front to back.
+    private final DataInputStream in;
+
+    // Name, value width in bytes (0 for 2-bit values) of each column, in file order.
+    private final String[] names;
+    private final int[] widths;
+
+    // The current chunk, one array per column.
+    private long[] ids = new long[0];
+    private int[] shotCounts = new int[0];
+    private int[] layouts = new int[0];
+    private int[] cells = new int[0];
+    private byte[] outcomes = new byte[0];
+    private int games;
+
+    // The current game within the chunk, and the index of its first shot.
+    private int game = -1;
+    private int firstShot;
+
+    /**
+     * Reads the header of a game record file.
+     */
+    private GameRecordReader(DataInputStream in) throws IOException {
+        this.in = in;
+        if (in.readInt() != GameRecordWriter.MAGIC) {
+            throw new IOException("Not a game record file.");
+        }
+        int version = in.readInt();
+        if (version != GameRecordWriter.VERSION) {
+            throw new IOException("Unsupported game record version " + version + ".");
+        }
+        int rows = in.readInt();
+        int columns = in.readInt();
+        int fleetSize = in.readInt();
+        if (rows <= 0 || columns <= 0 || fleetSize < 0 || fleetSize > in.available() / Integer.BYTES) {
+            throw new IOException("The game records have a corrupt header.");
+        }
+        int[] fleet = new int[fleetSize];
+        for (int i = 0; i < fleet.length; i++) {
+            fleet[i] = in.readInt();
+        }
+        try {
+            this.config = rows == 10 && columns == 10 && Arrays.equals(fleet, BoardConfig.STANDARD.getFleet())
+                    ? BoardConfig.STANDARD
+                    : new BoardConfig(rows, columns, fleet);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("The game records have an invalid board.", e);
+        }
+
+        // Each column takes at least three bytes of the header.
+        int count = in.readInt();
+        if (count < 0 || count > in.available() / 3) {
+            throw new IOException("The game records have a corrupt header.");
+        }
+        names = new String[count];
+        widths = new int[count];
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[in.readUnsignedByte()];
+            in.readFully(name);
+            names[i] = new String(name, StandardCharsets.US_ASCII);
+            int type = in.readUnsignedByte();
+            in.readUnsignedByte(); // The count kind follows from the name for known columns.
+            widths[i] = switch (type) {
+                case 'J' -> Long.BYTES;
+                case 'I' -> Integer.BYTES;
+                case 'C' -> Character.BYTES;
+                case 'Q' -> 0;
+                default -> throw new IOException("Unknown type '" + (char) type + "' of column " + names[i] + ".");
+            };
+        }
+        for (String required : GameRecordWriter.COLUMNS) {
+            if (!Arrays.asList(names).contains(required)) {
+                throw new IOException("The game records have no " + required + " column.");
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            boolean valid = switch (names[i]) {
+                case "id" -> widths[i] == Long.BYTES;
+                case "shots", "layout", "cell" -> widths[i] == Integer.BYTES || widths[i] == Character.BYTES;
+                case "outcome" -> widths[i] == 0;
+                default -> true;
+            };
+            if (!valid) {
+                throw new IOException("The " + names[i] + " column of the game records has the wrong type.");
+            }
+        }
+    }
+
+    /**
+     * Opens a game record file.
+     *
+     * @param path The file to read.
+     * @return The reader, before the first game; close it to release the file.
+     * @throws IOException If the file cannot be read or is not a game record file.
+     */
+    public static GameRecordReader open(Path path) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+        try {
+            return new GameRecordReader(in);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The board dimensions and fleet of every game.
+     */
+    public BoardConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Moves to the next game, reading the next chunk when the current one is used up.
+     *
+     * @return True if there is a next game, false at the end of the file.
+     * @throws IOException If the file cannot be read or is truncated.
+     */
+    public boolean next() throws IOException {
+        if (game >= 0 && game < games) {
+            firstShot += shotCounts[game];
+        }
+        game++;
+        while (game >= games) {
+            if (!readChunk()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The id of the current game.
+     */
+    public long getId() {
+        return ids[game];
+    }
+
+    /**
+     * @return The number of shots of the current game.
+     */
+    public int getShotCount() {
+        return shotCounts[game];
+    }
+
+    /**
+     * Returns the placement of one ship of the current game.
+     *
+     * @param ship The index of the ship in the fleet.
+     * @return The placement, encoded like PlacementEngine placements.
+     */
+    public int getPlacement(int ship) {
+        return layouts[game * config.getFleetSize() + ship];
+    }
+
+    /**
+     * @param shot The index of the shot within the current game.
+     * @return The cell of the shot, encoded as row * columns + column.
+     */
+    public int getCell(int shot) {
+        return cells[firstShot + shot];
+    }
+
+    /**
+     * @param shot The index of the shot within the current game.
+     * @return GameRecordWriter.MISS, HIT or SUNK.
+     */
+    public int getOutcome(int shot) {
+        int index = firstShot + shot;
+        return (outcomes[index >>> 2] >>> ((index & 3) << 1)) & 3;
+    }
+
+    /**
+     * Builds a BitboardOcean with the fleet of the current game.
+     *
+     * @return A new ocean with the whole fleet placed and no shots fired.
+     */
+    public BitboardOcean newBitboardOcean() {
+        BitboardOcean ocean = new BitboardOcean(config);
+        int cellCount = config.getCells();
+        int columns = config.getColumns();
+        for (int ship = 0; ship < config.getFleetSize(); ship++) {
+            int placement = getPlacement(ship);
+            int cell = placement % cellCount;
+            ocean.placeShipAt(config.getShipLength(ship), cell / columns, cell % columns, placement < cellCount);
+        }
+        return ocean;
+    }
+
+    /**
+     * Releases the file.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads the next chunk into the column arrays, checking its counts and column lengths first.
+     *
+     * @return False at the end of the file.
+     * @throws IOException If the chunk is corrupt or truncated.
+     */
+    private boolean readChunk() throws IOException {
+        int chunkGames;
+        try {
+            chunkGames = in.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        int shots = in.readInt();
+        if (chunkGames < 0 || shots < 0) {
+            throw new IOException("The game records have a corrupt chunk.");
+        }
+
+        // The known columns must have exactly the lengths their counts and types give.
+        long[] expected = new long[names.length];
+        long total = (long) names.length * Integer.BYTES;
+        long placements = (long) chunkGames * config.getFleetSize();
+        for (int c = 0; c < names.length; c++) {
+            expected[c] = switch (names[c]) {
+                case "id", "shots" -> chunkGames * (long) widths[c];
+                case "layout" -> placements * widths[c];
+                case "cell" -> shots * (long) widths[c];
+                case "outcome" -> (shots + 3L) >>> 2;
+                default -> -1;
+            };
+            total += Math.max(0, expected[c]);
+        }
+        if (total > in.available()) { // The bytes left in the file.
+            throw new IOException("The game records are truncated.");
+        }
+
+        games = 0; // Until the chunk has been read.
+        game = 0;
+        firstShot = 0;
+        if (ids.length < chunkGames) {
+            ids = new long[chunkGames];
+            shotCounts = new int[chunkGames];
+            layouts = new int[(int) placements];
+        }
+        if (cells.length < shots) {
+            cells = new int[shots];
+            outcomes = new byte[(shots + 3) >>> 2];
+        }
+
+        for (int c = 0; c < names.length; c++) {
+            int bytes = in.readInt();
+            if (expected[c] >= 0 ? bytes != expected[c] : bytes < 0) {
+                throw new IOException("The " + names[c] + " column of a chunk has " + bytes + " bytes.");
+            }
+            switch (names[c]) {
+                case "id" -> {
+                    for (int i = 0; i < chunkGames; i++) ids[i] = in.readLong();
+                }
+                case "shots" -> readInts(shotCounts, chunkGames, widths[c]);
+                case "layout" -> readInts(layouts, (int) placements, widths[c]);
+                case "cell" -> readInts(cells, shots, widths[c]);
+                case "outcome" -> in.readFully(outcomes, 0, bytes);
+                default -> in.skipNBytes(bytes);
+            }
+        }
+
+        // Shots must add up, and placements and cells must be on the board.
+        long counted = 0;
+        boolean valid = true;
+        for (int i = 0; valid && i < chunkGames; i++) {
+            valid = shotCounts[i] >= 0;
+            counted += shotCounts[i];
+        }
+        valid &= counted == shots;
+        long cellCount = config.getCells();
+        for (int i = 0; valid && i < placements; i++) {
+            valid = layouts[i] >= 0 && layouts[i] < 2 * cellCount;
+        }
+        for (int i = 0; valid && i < shots; i++) {
+            valid = cells[i] >= 0 && cells[i] < cellCount;
+        }
+        if (!valid) {
+            throw new IOException("The game records have a corrupt chunk.");
+        }
+        games = chunkGames;
+        return true;
+    }
+
+    /**
+     * Reads values of an int, or unsigned short, column.
+     */
+    private void readInts(int[] values, int count, int width) throws IOException {
+        for (int i = 0; i < count; i++) {
+            values[i] = width == Character.BYTES ? in.readUnsignedShort() : in.readInt();
+        }
+    }
+}
@@ -0,0 +1,575 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A GameRecordWriter streams finished games to a compact columnar file: the layout of each
+ * game, every shot fired and the outcome of each shot. GameRecordReader reads it back.
+ *
+ * Games are gathered by Recorders, one per thread, into chunks of primitive arrays. A chunk
+ * is full once it holds a given number of games or about a million shots, whichever comes
+ * first, so chunks stay a few megabytes on any board. A full chunk is handed to a background
+ * thread that encodes and writes it, then returns it to a free list for the next Recorder to
+ * fill; a closed Recorder returns its chunk too. Steady recording thus allocates nothing and
+ * the game loop never waits for the disk. It only waits when every queued chunk is still
+ * being written, i.e. when the disk is slower than the games for longer than the queue lasts.
+ *
+ * File layout (big-endian):
+ * - magic "BSGR", version                      int each
+ * - rows, columns, fleet size                  int each
+ * - each ship length of the fleet              int each
+ * - number of columns                          int
+ * - per column: name length                    byte
+ *               name                           ASCII
+ *               type                           byte: 'J' long, 'I' int, 'C' unsigned short,
+ *                                              'Q' 2-bit values packed four to a byte, low bits first
+ *               count                          byte: 'G' one per game, 'F' one per ship of each
+ *                                              game, 'S' one per shot
+ * - chunks until the end of the file, each:
+ *   number of games, number of shots           int each
+ *   per column, in header order: byte length   int
+ *                                the values    bytes
+ *
+ * The columns of this version are:
+ * - {@code id}       'J' 'G': the id the recorder gave the game, e.g. its index in a Simulator batch
+ * - {@code shots}    'I' 'G': the number of shots of the game
+ * - {@code layout}   'C' or 'I', 'F': the placements of the fleet in fleet order, ships of equal length
+ *                    by bow cell, encoded like PlacementEngine placements:
+ *                    {@code (horizontal ? 0 : rows * columns) + row * columns + column},
+ *                    ships of length 1 always in the horizontal form
+ * - {@code cell}     'C' or 'I', 'S': the cell of every shot, {@code row * columns + column}, game after game
+ * - {@code outcome}  'Q' 'S': {@link #MISS}, {@link #HIT} or {@link #SUNK} for every shot
+ * Placements and cells take two bytes when they fit in an unsigned short, otherwise four,
+ * so a standard game of 50 shots takes about 150 bytes. Keeping each column together lets
+ * a reader skip columns it does not need, and compresses well.
+ */
+public final class GameRecordWriter implements Closeable {
+
+    /** The first four bytes of every game record file: "BSGR". */
+    public static final int MAGIC = 0x42534752;
+
+    /** Version of the file layout. */
+    public static final int VERSION = 1;
+
+    /** Outcome of a shot that hit nothing. */
+    public static final int MISS = 0;
+
+    /** Outcome of a shot that hit a ship without sinking it. */
+    public static final int HIT = 1;
+
+    /** Outcome of a shot that sank a ship. */
+    public static final int SUNK = 2;
+
+    /** Names of the columns, in file order. */
+    static final String[] COLUMNS = {"id", "shots", "layout", "cell", "outcome"};
+
+    // Games per chunk when none is given.
+    private static final int DEFAULT_CHUNK_GAMES = 4096;
+
+    // Shots after which a chunk is handed over, however few games it holds.
+    private static final int CHUNK_SHOTS = 1 << 20;
+
+    // Full chunks waiting for the writer thread; recorders wait when it is full.
+    static final int QUEUED_CHUNKS = 8;
+
+    // Largest array the JVM allocates, which bounds the shots of a chunk and its encoding.
+    private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+
+    // Board dimensions and fleet of every game.
+    private final BoardConfig config;
+
+    // Bytes per placement and per cell (2 or 4).
+    private final int placementBytes;
+    private final int cellBytes;
+
+    // Games per chunk.
+    private final int chunkGames;
+
+    // The first fleet index of each ship length, and the next index of the same length after
+    // each index; -1 if there is none.
+    private final int maxLength;
+    private final int[] firstOfLength;
+    private final int[] nextOfLength;
+
+    // The open file, written by the writer thread only once the header is out.
+    private final FileChannel channel;
+
+    // Full chunks on their way to the writer thread, and emptied chunks on their way back.
+    private final BlockingQueue<Chunk> full = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+    private final ConcurrentLinkedQueue<Chunk> free = new ConcurrentLinkedQueue<>();
+
+    // Tells the writer thread to stop.
+    private final Chunk end = new Chunk(0, 0, 0);
+
+    // Encodes and writes chunks.
+    private final Thread thread;
+
+    // The first write failure, reported to recorders and by close.
+    private volatile IOException failure;
+
+    // Number of games and of chunks written so far.
+    private volatile long gamesWritten;
+    private volatile long chunksWritten;
+
+    // Number of chunks created; with recycling it stops growing.
+    private final AtomicInteger chunksCreated = new AtomicInteger();
+
+    // Set by close.
+    private volatile boolean closed;
+
+    /**
+     * Games gathered for the writer thread, one array per column.
+     */
+    static final class Chunk {
+        final long[] ids;
+        final int[] shotCounts;
+        final int[] layouts;
+        int[] cells;
+        byte[] outcomes;
+
+        // Finished games, and shots of the finished games plus the game under way.
+        int games;
+        int shots;
+
+        Chunk(int games, int fleetSize, int shots) {
+            this.ids = new long[games];
+            this.shotCounts = new int[games];
+            this.layouts = new int[games * fleetSize];
+            this.cells = new int[shots];
+            this.outcomes = new byte[(shots + 3) >>> 2];
+        }
+
+        void addShot(int cell, int outcome) {
+            if (shots == cells.length) {
+                if (shots == MAX_ARRAY) {
+                    throw new IllegalStateException("A game cannot have more than " + MAX_ARRAY + " shots.");
+                }
+                cells = Arrays.copyOf(cells, (int) Math.min(MAX_ARRAY, Math.max(16, cells.length * 2L)));
+                outcomes = Arrays.copyOf(outcomes, (cells.length + 3) >>> 2);
+            }
+            cells[shots] = cell;
+            outcomes[shots >>> 2] |= (byte) (outcome << ((shots & 3) << 1));
+            shots++;
+        }
+
+        /**
+         * Drops the shots after the last finished game.
+         */
+        void truncate(int to) {
+            for (int shot = to; shot < shots; shot++) {
+                outcomes[shot >>> 2] &= (byte) ~(3 << ((shot & 3) << 1));
+            }
+            shots = to;
+        }
+
+        void clear() {
+            Arrays.fill(outcomes, 0, (shots + 3) >>> 2, (byte) 0);
+            games = 0;
+            shots = 0;
+        }
+    }
+
+    /**
+     * Gathers the games of one thread. Report each shot as it is fired, then finish the game
+     * with {@link #endGame}; full chunks go to the writer on their own. Close the recorder
+     * when its thread is done, before the writer is closed, so that its last games are written
+     * and its chunk is recycled.
+     *
+     * A recorder is not thread-safe; the writer is, so any number of recorders may share it.
+     */
+    public final class Recorder implements Closeable {
+
+        // The chunk being filled.
+        private Chunk chunk = takeFree();
+
+        // Shots in the chunk before the game under way.
+        private int gameStart;
+
+        // Per game: the next fleet index to give a ship of each length, or -1 once all are given.
+        private final int[] slots = new int[maxLength + 1];
+
+        /**
+         * Drops the shots of an unfinished game, e.g. one that was abandoned.
+         */
+        public void newGame() {
+            chunk.truncate(gameStart);
+        }
+
+        /**
+         * Records a shot of the game under way.
+         *
+         * @param row     The row of the shot.
+         * @param column  The column of the shot.
+         * @param outcome {@link #MISS}, {@link #HIT} or {@link #SUNK}.
+         */
+        public void shot(int row, int column, int outcome) {
+            chunk.addShot(row * config.getColumns() + column, outcome);
+        }
+
+        /**
+         * Finishes the game under way, reading its layout from the ocean it was played on.
+         * Ships never touch, so each is found as a line of occupied cells, in O(cells) in all.
+         *
+         * @param id    The id to store with the game.
+         * @param ocean The ocean of the game, with the whole fleet still placed.
+         * @throws IllegalArgumentException If the ocean does not hold exactly one fleet.
+         * @throws UncheckedIOException     If the writer thread failed to write an earlier chunk.
+         */
+        public void endGame(long id, OceanInterface ocean) {
+            int rows = config.getRows();
+            int columns = config.getColumns();
+            int fleetSize = config.getFleetSize();
+            int[] layouts = chunk.layouts;
+            int offset = chunk.games * fleetSize;
+            int ships = 0;
+            System.arraycopy(firstOfLength, 0, slots, 0, slots.length);
+
+            // A bow is an occupied cell with no occupied cell above it or to its left.
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    if (!ocean.isOccupied(row, column)
+                            || (row > 0 && ocean.isOccupied(row - 1, column))
+                            || (column > 0 && ocean.isOccupied(row, column - 1))) continue;
+                    boolean horizontal = column < columns - 1 && ocean.isOccupied(row, column + 1);
+                    int length = 1;
+                    if (horizontal) {
+                        while (column + length < columns && ocean.isOccupied(row, column + length)) length++;
+                    } else {
+                        while (row + length < rows && ocean.isOccupied(row + length, column)) length++;
+                        horizontal = length == 1; // As PlacementEngine encodes ships of length 1.
+                    }
+
+                    // The ship takes the next fleet index of its length.
+                    int slot = length < slots.length ? slots[length] : -1;
+                    if (slot < 0) {
+                        throw new IllegalArgumentException("The ocean holds a ship of length " + length
+                                + " that is not in the fleet.");
+                    }
+                    slots[length] = nextOfLength[slot];
+                    layouts[offset + slot] = (horizontal ? 0 : rows * columns) + row * columns + column;
+                    ships++;
+                }
+            }
+            if (ships != fleetSize) {
+                throw new IllegalArgumentException("The ocean holds " + ships + " of " + fleetSize + " ships.");
+            }
+
+            chunk.ids[chunk.games] = id;
+            chunk.shotCounts[chunk.games] = chunk.shots - gameStart;
+            chunk.games++;
+            gameStart = chunk.shots;
+            if (chunk.games == chunkGames || chunk.shots >= CHUNK_SHOTS) {
+                flush();
+            }
+        }
+
+        /**
+         * Hands the finished games gathered so far to the writer thread, dropping the shots of
+         * an unfinished game.
+         *
+         * @throws UncheckedIOException If the writer thread failed to write an earlier chunk.
+         */
+        public void flush() {
+            chunk.truncate(gameStart);
+            gameStart = 0;
+            if (chunk.games == 0) return;
+            hand(chunk);
+            chunk = takeFree();
+        }
+
+        /**
+         * Hands the finished games gathered so far to the writer thread, dropping the shots of
+         * an unfinished game, and gives the recorder's chunk back for other recorders to fill.
+         * The recorder cannot be used afterwards; closing it again does nothing.
+         *
+         * @throws UncheckedIOException If the writer thread failed to write an earlier chunk.
+         */
+        @Override
+        public void close() {
+            if (chunk == null) return;
+            Chunk last = chunk;
+            chunk = null;
+            last.truncate(gameStart);
+            gameStart = 0;
+            if (last.games > 0) {
+                hand(last);
+            } else {
+                last.clear();
+                free.offer(last);
+            }
+        }
+    }
+
+    /**
+     * Creates a writer and writes the header; the games follow as recorders hand them over.
+     */
+    private GameRecordWriter(FileChannel channel, BoardConfig config, int chunkGames) throws IOException {
+        this.channel = channel;
+        this.config = config;
+        this.chunkGames = chunkGames;
+        this.placementBytes = 2L * config.getCells() <= 0x10000 ? 2 : 4;
+        this.cellBytes = config.getCells() <= 0x10000 ? 2 : 4;
+
+        int[] fleet = config.getFleet();
+        this.maxLength = Arrays.stream(fleet).max().orElse(0);
+        this.firstOfLength = new int[maxLength + 1];
+        this.nextOfLength = new int[fleet.length];
+        Arrays.fill(firstOfLength, -1);
+        for (int i = fleet.length - 1; i >= 0; i--) {
+            nextOfLength[i] = firstOfLength[fleet[i]];
+            firstOfLength[fleet[i]] = i;
+        }
+
+        char cellType = cellBytes == 2 ? 'C' : 'I';
+        char[][] types = {{'J', 'G'}, {'I', 'G'}, {placementBytes == 2 ? 'C' : 'I', 'F'}, {cellType, 'S'}, {'Q', 'S'}};
+        ByteBuffer header = ByteBuffer.allocate(256 + config.getFleetSize() * Integer.BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(config.getRows()).putInt(config.getColumns())
+                .putInt(config.getFleetSize());
+        for (int length : config.getFleet()) {
+            header.putInt(length);
+        }
+        header.putInt(COLUMNS.length);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            byte[] name = COLUMNS[i].getBytes(StandardCharsets.US_ASCII);
+            header.put((byte) name.length).put(name).put((byte) types[i][0]).put((byte) types[i][1]);
+        }
+        writeFully(header.flip());
+
+        this.thread = new Thread(this::run, "GameRecordWriter");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Creates a game record file with 4096 games per chunk, replacing any existing file.
+     *
+     * @param path   The file to write.
+     * @param config The board dimensions and fleet of every game.
+     * @return The writer; close it to finish the file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static GameRecordWriter open(Path path, BoardConfig config) throws IOException {
+        return open(path, config, DEFAULT_CHUNK_GAMES);
+    }
+
+    /**
+     * Creates a game record file, replacing any existing file.
+     *
+     * @param path       The file to write.
+     * @param config     The board dimensions and fleet of every game.
+     * @param chunkGames The number of games gathered before a recorder hands them to the
+     *                   writer thread, unless their shots fill the chunk first. Larger
+     *                   chunks mean fewer, larger writes.
+     * @return The writer; close it to finish the file.
+     * @throws IOException              If the file cannot be written.
+     * @throws IllegalArgumentException If a chunk cannot hold the given number of games.
+     */
+    public static GameRecordWriter open(Path path, BoardConfig config, int chunkGames) throws IOException {
+        if (chunkGames < 1) {
+            throw new IllegalArgumentException("A chunk must hold at least one game: " + chunkGames);
+        }
+        if ((long) chunkGames * config.getFleetSize() > MAX_ARRAY) {
+            throw new IllegalArgumentException("The layouts of " + chunkGames + " games do not fit in a chunk.");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            return new GameRecordWriter(channel, config, chunkGames);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The board dimensions and fleet of every game.
+     */
+    public BoardConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Creates a recorder for one thread.
+     *
+     * @return The recorder.
+     */
+    public Recorder newRecorder() {
+        return new Recorder();
+    }
+
+    /**
+     * @return The number of games written to the file so far.
+     */
+    public long getGamesWritten() {
+        return gamesWritten;
+    }
+
+    /**
+     * @return The number of chunks written to the file so far.
+     */
+    long getChunksWritten() {
+        return chunksWritten;
+    }
+
+    /**
+     * @return The number of chunks created; once recorders recycle them it stops growing.
+     */
+    int getChunksCreated() {
+        return chunksCreated.get();
+    }
+
+    /**
+     * Waits for the writer thread to write every chunk handed to it, then closes the file.
+     * Games still held by recorders that were not closed or flushed are lost.
+     *
+     * @throws IOException If a chunk could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            full.put(end);
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the game records.", e);
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Reuses an emptied chunk, or creates one sized for a chunk of average games.
+     */
+    private Chunk takeFree() {
+        Chunk chunk = free.poll();
+        if (chunk == null) {
+            int shotsPerGame = Math.min(config.getCells(), 64);
+            chunk = new Chunk(chunkGames, config.getFleetSize(), (int) Math.min(CHUNK_SHOTS, (long) chunkGames * shotsPerGame));
+            chunksCreated.incrementAndGet();
+        }
+        return chunk;
+    }
+
+    /**
+     * Queues a chunk for the writer thread, waiting if the queue is full.
+     */
+    private void hand(Chunk chunk) {
+        if (failure != null) {
+            throw new UncheckedIOException("Writing the game records failed.", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("The game record writer is closed.");
+        }
+        try {
+            full.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing over game records.", e);
+        }
+    }
+
+    /**
+     * The writer thread: encodes each queued chunk into one buffer and writes it. After a
+     * failure chunks are still taken and recycled, so no recorder waits forever.
+     */
+    private void run() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        while (true) {
+            Chunk chunk;
+            try {
+                chunk = full.take();
+            } catch (InterruptedException e) {
+                continue; // Only close stops the writer.
+            }
+            if (chunk == end) return;
+
+            if (failure == null) {
+                try {
+                    long size = 2L * Integer.BYTES + (long) COLUMNS.length * Integer.BYTES
+                            + chunk.games * (Long.BYTES + Integer.BYTES + (long) config.getFleetSize() * placementBytes)
+                            + (long) chunk.shots * cellBytes + ((chunk.shots + 3L) >>> 2);
+                    if (size > MAX_ARRAY) {
+                        throw new IOException("A chunk of " + size + " bytes is too large to encode.");
+                    }
+                    if (buffer.capacity() < size) {
+                        buffer = ByteBuffer.allocateDirect((int) Math.min(MAX_ARRAY, Math.max(size, buffer.capacity() * 2L)));
+                    }
+                    encode(chunk, buffer.clear());
+                    writeFully(buffer.flip());
+                    gamesWritten += chunk.games;
+                    chunksWritten++;
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            chunk.clear();
+            free.offer(chunk);
+        }
+    }
+
+    /**
+     * Encodes a chunk column by column.
+     */
+    private void encode(Chunk chunk, ByteBuffer buffer) {
+        int games = chunk.games;
+        int shots = chunk.shots;
+        buffer.putInt(games).putInt(shots);
+
+        buffer.putInt(games * Long.BYTES);
+        for (int game = 0; game < games; game++) {
+            buffer.putLong(chunk.ids[game]);
+        }
+
+        buffer.putInt(games * Integer.BYTES);
+        for (int game = 0; game < games; game++) {
+            buffer.putInt(chunk.shotCounts[game]);
+        }
+
+        int placements = games * config.getFleetSize();
+        buffer.putInt(placements * placementBytes);
+        for (int i = 0; i < placements; i++) {
+            if (placementBytes == 2) {
+                buffer.putChar((char) chunk.layouts[i]);
+            } else {
+                buffer.putInt(chunk.layouts[i]);
+            }
+        }
+
+        buffer.putInt(shots * cellBytes);
+        for (int shot = 0; shot < shots; shot++) {
+            if (cellBytes == 2) {
+                buffer.putChar((char) chunk.cells[shot]);
+            } else {
+                buffer.putInt(chunk.cells[shot]);
+            }
+        }
+
+        int outcomeBytes = (shots + 3) >>> 2;
+        buffer.putInt(outcomeBytes);
+        buffer.put(chunk.outcomes, 0, outcomeBytes);
+    }
+
+    /**
+     * Writes the whole buffer.
+     */
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
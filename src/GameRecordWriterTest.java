@@ -0,0 +1,273 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the GameRecordWriter and GameRecordReader classes, writing small files to a
+ * temporary directory.
+ */
+class GameRecordWriterTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Test that the games of a Simulator batch are read back as played: every won game once,
+     * with the layout the simulator placed and shots that replay to the recorded outcomes.
+     * Games stopped at the shot limit leave nothing behind.
+     */
+    @Test
+    public void testSimulatorGamesRoundTrip() throws IOException {
+        Path file = directory.resolve("games.records");
+        Simulator simulator = new Simulator(BoardConfig.STANDARD, BitboardOcean::new, RandomStrategy::new, 90, 7L);
+        SimulationResult result;
+        try (GameRecordWriter records = GameRecordWriter.open(file, BoardConfig.STANDARD, 32)) {
+            result = simulator.run(500, records);
+        }
+        assertTrue(result.getUnfinished() > 0, "Some random games should run past 90 shots.");
+
+        boolean[] seen = new boolean[500];
+        long games = 0;
+        long shots = 0;
+        try (GameRecordReader reader = GameRecordReader.open(file)) {
+            assertSame(BoardConfig.STANDARD, reader.getConfig(), "The standard configuration should be recognized.");
+            while (reader.next()) {
+                int id = (int) reader.getId();
+                assertFalse(seen[id], "Every game should be recorded once.");
+                seen[id] = true;
+                games++;
+                shots += reader.getShotCount();
+
+                BitboardOcean placed = new BitboardOcean(BoardConfig.STANDARD);
+                Simulator.placeGame(placed, 7L, id);
+                BitboardOcean ocean = reader.newBitboardOcean();
+                for (int row = 0; row < 10; row++) {
+                    for (int col = 0; col < 10; col++) {
+                        assertEquals(placed.isOccupied(row, col), ocean.isOccupied(row, col),
+                                "The layout should be the one the simulator placed.");
+                    }
+                }
+
+                for (int shot = 0; shot < reader.getShotCount(); shot++) {
+                    assertFalse(ocean.isGameOver(), "The game should end with its last shot.");
+                    int cell = reader.getCell(shot);
+                    int sunkBefore = ocean.getShipsSunk();
+                    boolean hit = ocean.shootAt(cell / 10, cell % 10);
+                    int outcome = ocean.getShipsSunk() > sunkBefore ? GameRecordWriter.SUNK
+                            : hit ? GameRecordWriter.HIT : GameRecordWriter.MISS;
+                    assertEquals(outcome, reader.getOutcome(shot), "Every outcome should replay.");
+                }
+                assertTrue(ocean.isGameOver(), "Every recorded game should be won.");
+            }
+        }
+
+        long histogramShots = 0;
+        long[] histogram = result.getHistogram();
+        for (int n = 0; n < histogram.length; n++) {
+            histogramShots += n * histogram[n];
+        }
+        assertEquals(result.getWins(), games, "Exactly the won games should be recorded.");
+        assertEquals(histogramShots, shots, "Every shot of the won games should be recorded.");
+    }
+
+    /**
+     * Test that recorders on several threads share one writer, that a large board is stored
+     * with four-byte values, and that an unfinished game is dropped.
+     */
+    @Test
+    public void testRecordersOnManyThreads() throws Exception {
+        Path file = directory.resolve("large.records");
+        BoardConfig config = new BoardConfig(300, 300, 5, 3, 3, 1);
+        int threads = 4;
+        int perThread = 300;
+
+        try (GameRecordWriter records = GameRecordWriter.open(file, config, 16)) {
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t * perThread;
+                Thread worker = new Thread(() -> {
+                    BitboardOcean ocean = new BitboardOcean(config);
+                    try (GameRecordWriter.Recorder recorder = records.newRecorder()) {
+                        for (int id = first; id < first + perThread; id++) {
+                            ocean.reset();
+                            ocean.placeAllShipsRandomly(new SplitMix64(id));
+
+                            // An abandoned game first, then the game that counts.
+                            recorder.shot(0, 0, GameRecordWriter.HIT);
+                            recorder.newGame();
+                            for (int shot = 0; shot < id % 7; shot++) {
+                                int cell = (id * 31 + shot) % config.getCells();
+                                recorder.shot(cell / 300, cell % 300, shot % 3);
+                            }
+                            recorder.endGame(id, ocean);
+                        }
+                        recorder.shot(1, 1, GameRecordWriter.MISS); // Never finished.
+                    }
+                });
+                workers.add(worker);
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+
+        boolean[] seen = new boolean[threads * perThread];
+        try (GameRecordReader reader = GameRecordReader.open(file)) {
+            assertEquals(300, reader.getConfig().getRows(), "The board should be read back.");
+            while (reader.next()) {
+                int id = (int) reader.getId();
+                assertFalse(seen[id], "Every game should be recorded once.");
+                seen[id] = true;
+                assertEquals(id % 7, reader.getShotCount(), "Only the finished game's shots should count.");
+                for (int shot = 0; shot < reader.getShotCount(); shot++) {
+                    assertEquals((id * 31 + shot) % config.getCells(), reader.getCell(shot), "Cells above 65535 should survive.");
+                    assertEquals(shot % 3, reader.getOutcome(shot), "Every outcome should be read back.");
+                }
+
+                BitboardOcean placed = new BitboardOcean(config);
+                placed.placeAllShipsRandomly(new SplitMix64(id));
+                BitboardOcean ocean = reader.newBitboardOcean();
+                for (int ship = 0; ship < config.getFleetSize(); ship++) {
+                    int cell = reader.getPlacement(ship) % config.getCells();
+                    assertTrue(placed.isOccupied(cell / 300, cell % 300), "Every bow should be on a ship.");
+                }
+                assertEquals(placed.getShipsAfloat(), ocean.getShipsAfloat(), "The whole fleet should be read back.");
+                assertTrue(reader.getPlacement(3) < config.getCells(),
+                        "A ship of length 1 should be encoded horizontally, like PlacementEngine does.");
+            }
+        }
+        for (int id = 0; id < seen.length; id++) {
+            assertTrue(seen[id], "Game " + id + " should be recorded.");
+        }
+    }
+
+    /**
+     * Test that a chunk is handed over once its shots reach the budget, however few games it
+     * holds, and that the chunks of closed recorders are reused by later recorders.
+     */
+    @Test
+    public void testChunksAreBoundedAndRecycled() throws IOException {
+        BoardConfig config = BoardConfig.square(100);
+        Path file = directory.resolve("long.records");
+        GameRecordWriter longGames = GameRecordWriter.open(file, config);
+        try (longGames) {
+            BitboardOcean ocean = new BitboardOcean(config);
+            ocean.placeAllShipsRandomly(new SplitMix64(3));
+            try (GameRecordWriter.Recorder recorder = longGames.newRecorder()) {
+                for (int game = 0; game < 300; game++) {
+                    for (int cell = 0; cell < config.getCells(); cell++) {
+                        recorder.shot(cell / 100, cell % 100, GameRecordWriter.MISS);
+                    }
+                    recorder.endGame(game, ocean);
+                }
+            }
+        }
+        assertEquals(300, longGames.getGamesWritten(), "Every game should be written.");
+        assertTrue(longGames.getChunksWritten() >= 3, "Three million shots should fill several chunks.");
+
+        // One recorder per leaf, as a Simulator batch uses them, some without a finished game.
+        try (GameRecordWriter records = GameRecordWriter.open(directory.resolve("many.records"), BoardConfig.STANDARD)) {
+            BitboardOcean ocean = new BitboardOcean(BoardConfig.STANDARD);
+            ocean.placeAllShipsRandomly(new SplitMix64(5));
+            for (int leaf = 0; leaf < 200; leaf++) {
+                try (GameRecordWriter.Recorder recorder = records.newRecorder()) {
+                    recorder.shot(leaf % 10, leaf / 20, GameRecordWriter.MISS);
+                    if (leaf % 3 != 0) recorder.endGame(leaf, ocean);
+                }
+            }
+            // At most the queued chunks, the one being written and the open recorder's.
+            int bound = GameRecordWriter.QUEUED_CHUNKS + 2;
+            assertTrue(records.getChunksCreated() <= bound,
+                    "Recorders should recycle their chunks, but " + records.getChunksCreated() + " were created.");
+        }
+    }
+
+    /**
+     * Test that a file of another kind is rejected and that an ocean without its fleet cannot be recorded.
+     */
+    @Test
+    public void testRejectsBadInput() throws IOException {
+        Path other = directory.resolve("other.bin");
+        Files.write(other, new byte[64]);
+        assertThrows(IOException.class, () -> GameRecordReader.open(other), "Only game record files should open.");
+
+        try (GameRecordWriter records = GameRecordWriter.open(directory.resolve("empty.records"), BoardConfig.STANDARD)) {
+            GameRecordWriter.Recorder recorder = records.newRecorder();
+            assertThrows(IllegalArgumentException.class, () -> recorder.endGame(0, new BitboardOcean(BoardConfig.STANDARD)),
+                    "A game without a fleet should be rejected.");
+            recorder.close();
+            assertEquals(0, records.getGamesWritten(), "Nothing should be written.");
+        }
+        try (GameRecordReader reader = GameRecordReader.open(directory.resolve("empty.records"))) {
+            assertFalse(reader.next(), "A file with only a header should hold no games.");
+        }
+    }
+
+    /**
+     * Test that corrupt counts and length prefixes, in the header or in a chunk, are reported as
+     * IOExceptions before anything is allocated for them.
+     */
+    @Test
+    public void testRejectsCorruptFiles() throws IOException {
+        Path file = directory.resolve("good.records");
+        Simulator simulator = new Simulator(BoardConfig.STANDARD, BitboardOcean::new, RandomStrategy::new, 100, 9L);
+        try (GameRecordWriter records = GameRecordWriter.open(file, BoardConfig.STANDARD)) {
+            simulator.run(20, records);
+        }
+        byte[] good = Files.readAllBytes(file);
+
+        // The first chunk follows the header: 6 ints, the fleet and 3 bytes plus the name per column.
+        int chunk = 6 * Integer.BYTES + BoardConfig.STANDARD.getFleetSize() * Integer.BYTES;
+        for (String name : GameRecordWriter.COLUMNS) {
+            chunk += 3 + name.length();
+        }
+        int games = ByteBuffer.wrap(good).getInt(chunk);
+        assertEquals(games * Long.BYTES, ByteBuffer.wrap(good).getInt(chunk + 8), "The id column should follow the counts.");
+
+        assertCorrupt(good, 16, Integer.MAX_VALUE, "A fleet larger than the file");
+        assertCorrupt(good, 16, -1, "A negative fleet size");
+        assertCorrupt(good, 8, 0, "An empty board");
+        assertCorrupt(good, 20, 11, "A ship longer than the board");
+        assertCorrupt(good, chunk, Integer.MAX_VALUE, "A game count larger than the file");
+        assertCorrupt(good, chunk, -1, "A negative game count");
+        assertCorrupt(good, chunk + 4, -1, "A negative shot count");
+        assertCorrupt(good, chunk + 4, 1, "Shots that do not add up");
+        assertCorrupt(good, chunk + 8, -8, "A negative column length");
+        assertCorrupt(good, chunk + 8, Integer.MAX_VALUE, "A column longer than its count");
+        assertCorrupt(good, chunk + 16 + games * Long.BYTES, -1, "A game with negative shots");
+
+        Path truncated = directory.resolve("truncated.records");
+        Files.write(truncated, Arrays.copyOf(good, good.length - 1));
+        assertThrows(IOException.class, () -> readAll(truncated), "A truncated file should be rejected.");
+    }
+
+    /**
+     * Writes a copy of a good file with one int replaced, and checks that reading it fails.
+     */
+    private void assertCorrupt(byte[] good, int offset, int value, String what) throws IOException {
+        byte[] bad = good.clone();
+        ByteBuffer.wrap(bad).putInt(offset, value);
+        Path file = directory.resolve("bad.records");
+        Files.write(file, bad);
+        assertThrows(IOException.class, () -> readAll(file), what + " should be rejected.");
+    }
+
+    /**
+     * Reads every game of a file.
+     */
+    private static void readAll(Path file) throws IOException {
+        try (GameRecordReader reader = GameRecordReader.open(file)) {
+            while (reader.next()) {
+                reader.newBitboardOcean();
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GameServer hosts many Battleship games in one JVM and serves them over TCP.
+ *
+ * All connections are multiplexed on a single selector thread by LineServer, so thousands
+ * of open connections cost one buffer pair each instead of one thread each.
+ * Games are sessions identified by a number; a client may play several sessions on one
+ * connection, or resume a session on a new connection.
+ *
+ * Protocol: ASCII lines ending with '\n', tokens separated by single spaces. Requests are
+ * parsed straight from the read buffer, without a Scanner or per-line strings.
+ * Two-player matches are served by the MatchServer instead.
+ * - {@code N}              new standard game with a random layout   reply {@code N <session>}
+ * - {@code N <seed>}       new game with the layout of the seed     reply {@code N <session>}
+ * - {@code S <s> <r> <c>}  shoot at row r, column c of session s    reply {@code M}, {@code H}, {@code K} or {@code W}
+ *                          (miss, hit, sunk a ship, sunk the last ship)
+ * - {@code Q <s>}          end a session                            reply {@code Q}
+ * - {@code T}              server statistics                        reply {@code T <sessions> <requests> <p50> <p99> <max>}
+ *                          (request latencies in nanoseconds)
+ * - {@code M}              metrics as one line of JSON              reply {@code M <json>}
+ * - {@code P}              metrics in the Prometheus text format    reply the text, then an empty line
+ * Errors are reported as {@code E <message>}; the connection stays open.
+ *
+ * A seeded layout is the one an Ocean gets from {@code placeAllShipsRandomly(new SplitMix64(seed))}.
+ *
+ * Sessions that receive no request for the idle timeout are evicted.
+ *
+ * The metrics replies hold the server's request latencies plus the game metrics of Metrics,
+ * which are only recorded when the JVM runs with -Dbattleship.metrics=true.
+ */
+public class GameServer extends LineServer {
+
+    // How long a session may go without requests before it is evicted.
+    private final long idleNanos;
+
+    // Open sessions by id, least recently used first.
+    private final LinkedHashMap<Integer, Session> sessions = new LinkedHashMap<>(256, 0.75f, true);
+
+    // Id of the next session; ids are never reused.
+    private int nextSession = 1;
+
+    // Source of layouts for unseeded games.
+    private final SplittableRandom random = new SplittableRandom();
+
+    // Boards of ended sessions, reset for the next new game.
+    private final OceanPool<Ocean> oceans = new OceanPool<>(BoardConfig.STANDARD, Ocean::new, 1024);
+
+    // Number of sessions, readable from any thread.
+    private volatile int sessionCount;
+
+    /**
+     * A game and the time of its last request.
+     */
+    private static final class Session {
+        final Ocean ocean;
+        long lastUsed;
+
+        Session(Ocean ocean, long now) {
+            this.ocean = ocean;
+            this.lastUsed = now;
+        }
+    }
+
+    /**
+     * Opens a server on a local port.
+     *
+     * @param port        The port to listen on, or 0 for any free port.
+     * @param idleTimeout How long a session may go without requests before it is evicted.
+     * @param unit        The unit of idleTimeout.
+     * @throws IOException If the port cannot be opened.
+     */
+    public GameServer(int port, long idleTimeout, TimeUnit unit) throws IOException {
+        super(port, tickMillis(idleTimeout, unit));
+        this.idleNanos = unit.toNanos(idleTimeout);
+    }
+
+    /**
+     * @return How often to look for idle sessions: often enough to evict them on time.
+     */
+    private static long tickMillis(long idleTimeout, TimeUnit unit) {
+        if (idleTimeout <= 0) {
+            throw new IllegalArgumentException("The idle timeout must be positive.");
+        }
+        return Math.min(1000, unit.toMillis(idleTimeout) / 2);
+    }
+
+    /**
+     * Runs the selector loop on a new daemon thread.
+     *
+     * @return This server.
+     */
+    @Override
+    public GameServer start() {
+        super.start();
+        return this;
+    }
+
+    /**
+     * @return The number of open sessions.
+     */
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    /**
+     * Handles one request and queues its reply.
+     */
+    @Override
+    protected void handle(Connection connection, byte command, int count, long now) {
+        switch (command) {
+            case 'N' -> newGame(connection, count, now);
+            case 'S' -> shoot(connection, count, now);
+            case 'Q' -> quit(connection, count);
+            case 'T' -> stats(connection, count);
+            case 'M' -> metrics(connection, count, false);
+            case 'P' -> metrics(connection, count, true);
+            default -> reply(connection, "E unknown command\n");
+        }
+    }
+
+    /**
+     * Evicts idle sessions.
+     */
+    @Override
+    protected void tick(long now) {
+        evictIdle(now);
+    }
+
+    /**
+     * Starts a new session.
+     */
+    private void newGame(Connection connection, int count, long now) {
+        if (count > 2) {
+            reply(connection, "E usage: N [seed]\n");
+            return;
+        }
+        Ocean ocean = oceans.acquire();
+        ocean.placeAllShipsRandomly(count == 2 ? new SplitMix64(tokens[1]) : random);
+        int id = nextSession++;
+        sessions.put(id, new Session(ocean, now));
+        sessionCount = sessions.size();
+        reply(connection, "N " + id + "\n");
+    }
+
+    /**
+     * Fires a shot in a session.
+     */
+    private void shoot(Connection connection, int count, long now) {
+        if (count != 4) {
+            reply(connection, "E usage: S <session> <row> <column>\n");
+            return;
+        }
+        Session session = session(connection, tokens[1]);
+        if (session == null) return;
+        session.lastUsed = now;
+
+        Ocean ocean = session.ocean;
+        long row = tokens[2];
+        long column = tokens[3];
+        if (row < 0 || column < 0 || row > Integer.MAX_VALUE || column > Integer.MAX_VALUE
+                || !ocean.getConfig().isOnBoard((int) row, (int) column)) {
+            reply(connection, "E off the board\n");
+            return;
+        }
+        int sunkBefore = ocean.getShipsSunk();
+        if (!ocean.shootAt((int) row, (int) column)) {
+            reply(connection, "M\n");
+        } else if (ocean.getShipsSunk() == sunkBefore) {
+            reply(connection, "H\n");
+        } else {
+            if (ocean.isGameOver()) {
+                if (Metrics.ENABLED) Metrics.GAME_SHOTS.record(ocean.getShotsFired());
+                reply(connection, "W\n");
+            } else {
+                reply(connection, "K\n");
+            }
+        }
+    }
+
+    /**
+     * Ends a session.
+     */
+    private void quit(Connection connection, int count) {
+        if (count != 2) {
+            reply(connection, "E usage: Q <session>\n");
+            return;
+        }
+        if (session(connection, tokens[1]) == null) return;
+        oceans.release(sessions.remove((int) tokens[1]).ocean);
+        sessionCount = sessions.size();
+        reply(connection, "Q\n");
+    }
+
+    /**
+     * Reports server statistics.
+     */
+    private void stats(Connection connection, int count) {
+        if (count != 1) {
+            reply(connection, "E usage: T\n");
+            return;
+        }
+        reply(connection, "T " + sessionCount + " " + getRequestCount() + " " + getLatencyPercentile(0.5)
+                + " " + getLatencyPercentile(0.99) + " " + getMaxLatency() + "\n");
+    }
+
+    /**
+     * Reports the request latencies and the game metrics, as JSON or Prometheus text.
+     */
+    private void metrics(Connection connection, int count, boolean prometheus) {
+        if (count != 1) {
+            reply(connection, prometheus ? "E usage: P\n" : "E usage: M\n");
+            return;
+        }
+        StringBuilder text = new StringBuilder(4096);
+        if (prometheus) {
+            text.append(Metrics.toPrometheus());
+            Metrics.appendPrometheus(text, "request_nanos", "Server request latency in nanoseconds.", getLatency());
+            text.append("# HELP battleship_sessions Open game sessions.\n# TYPE battleship_sessions gauge\n")
+                    .append("battleship_sessions ").append(sessionCount).append("\n\n");
+        } else {
+            text.append("M {\"sessions\":").append(sessionCount).append(",\"request_nanos\":");
+            Metrics.appendJson(text, getLatency());
+            text.append(",\"games\":").append(Metrics.toJson()).append("}\n");
+        }
+        reply(connection, text.toString());
+    }
+
+    /**
+     * Looks up a session, replying with an error if it does not exist.
+     */
+    private Session session(Connection connection, long id) {
+        Session session = id > 0 && id < nextSession ? sessions.get((int) id) : null;
+        if (session == null) {
+            reply(connection, "E unknown session\n");
+        }
+        return session;
+    }
+
+    /**
+     * Evicts every session that has been idle for longer than the idle timeout.
+     * Sessions are kept in least recently used order, so only expired ones are visited.
+     */
+    private void evictIdle(long now) {
+        Iterator<Session> oldest = sessions.values().iterator();
+        while (oldest.hasNext()) {
+            Session session = oldest.next();
+            if (now - session.lastUsed < idleNanos) break;
+            oldest.remove();
+            oceans.release(session.ocean);
+        }
+        sessionCount = sessions.size();
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args Optionally the port (default 7777) and the idle timeout in seconds (default 300).
+     * @throws IOException If the port cannot be opened.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        long idleSeconds = args.length > 1 ? Long.parseLong(args[1]) : 300;
+        GameServer server = new GameServer(port, idleSeconds, TimeUnit.SECONDS);
+        System.out.println("Battleship server listening on port " + server.getPort());
+        server.run();
+    }
+}
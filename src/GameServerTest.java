@@ -0,0 +1,208 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the GameServer, played against localhost.
+ */
+class GameServerTest {
+
+    private GameServer server;
+
+    /**
+     * Starts a server on a free port.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new GameServer(0, 1, TimeUnit.MINUTES).start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    /**
+     * A blocking test client speaking the line protocol.
+     */
+    private final class Client implements AutoCloseable {
+        private final Socket socket = new Socket("localhost", server.getPort());
+        private final OutputStream out = socket.getOutputStream();
+        private final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+
+        Client() throws IOException {
+        }
+
+        String request(String line) throws IOException {
+            out.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * Test that a seeded game plays out exactly like the same layout on a local Ocean.
+     */
+    @Test
+    public void testSeededGameMatchesLocalOcean() throws IOException {
+        Ocean local = new Ocean();
+        local.placeAllShipsRandomly(new SplitMix64(42));
+
+        try (Client client = new Client()) {
+            String session = client.request("N 42").substring(2);
+            for (int row = 0; row < 10; row++) {
+                for (int col = 0; col < 10; col++) {
+                    int sunkBefore = local.getShipsSunk();
+                    boolean hit = local.shootAt(row, col);
+                    String expected = !hit ? "M" : local.getShipsSunk() == sunkBefore ? "H" : local.isGameOver() ? "W" : "K";
+                    assertEquals(expected, client.request("S " + session + " " + row + " " + col),
+                            "The server should resolve the shot at " + row + "," + col + " like a local ocean.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that malformed and invalid requests get errors without closing the connection.
+     */
+    @Test
+    public void testErrors() throws IOException {
+        try (Client client = new Client()) {
+            assertEquals("E unknown command", client.request("X"));
+            assertEquals("E bad request", client.request("S 1  2"));
+            assertEquals("E unknown session", client.request("S 99 0 0"));
+            String session = client.request("N").substring(2);
+            assertEquals("E off the board", client.request("S " + session + " 10 0"));
+            assertEquals("Q", client.request("Q " + session));
+            assertEquals("E unknown session", client.request("S " + session + " 0 0"));
+        }
+    }
+
+    /**
+     * Test that many connections play concurrently and that sessions survive a reconnect.
+     */
+    @Test
+    public void testManyConnections() throws IOException {
+        Client[] clients = new Client[200];
+        String[] sessions = new String[clients.length];
+        try {
+            for (int i = 0; i < clients.length; i++) {
+                clients[i] = new Client();
+                sessions[i] = clients[i].request("N " + i).substring(2);
+            }
+            for (int i = 0; i < clients.length; i++) {
+                assertTrue(clients[i].request("S " + sessions[i] + " 5 5").matches("[MHKW]"));
+            }
+            assertEquals(clients.length, server.getSessionCount());
+        } finally {
+            for (Client client : clients) {
+                if (client != null) client.close();
+            }
+        }
+
+        try (Client client = new Client()) {
+            assertTrue(client.request("S " + sessions[0] + " 6 6").matches("[MHKW]"),
+                    "A session should outlive its connection.");
+        }
+    }
+
+    /**
+     * Test that idle sessions are evicted and that latencies are reported.
+     */
+    @Test
+    public void testIdleEvictionAndStats() throws IOException, InterruptedException {
+        server.close();
+        server = new GameServer(0, 200, TimeUnit.MILLISECONDS).start();
+        try (Client client = new Client()) {
+            String session = client.request("N 7").substring(2);
+            assertEquals(1, server.getSessionCount());
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (server.getSessionCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(0, server.getSessionCount(), "An idle session should be evicted.");
+            assertEquals("E unknown session", client.request("S " + session + " 0 0"));
+
+            String[] stats = client.request("T").split(" ");
+            assertEquals("T", stats[0]);
+            assertEquals(5, stats.length - 1, "Stats should report sessions, requests and three latencies.");
+            assertEquals(2, Long.parseLong(stats[2]), "The two earlier requests should be counted.");
+            assertTrue(server.getLatencyPercentile(0.5) <= server.getMaxLatency());
+        }
+    }
+
+    /**
+     * Test that metrics are served as one JSON line and as Prometheus text ending with an empty line.
+     */
+    @Test
+    public void testMetrics() throws IOException {
+        try (Client client = new Client()) {
+            client.request("N 3");
+            String json = client.request("M");
+            assertTrue(json.startsWith("M {\"sessions\":1,\"request_nanos\":{\"count\":1,"), json);
+            assertTrue(json.contains("\"games\":{\"enabled\":"), json);
+
+            assertTrue(client.request("P").startsWith("# HELP battleship_"));
+            String line;
+            boolean sawLatency = false;
+            while (!(line = client.in.readLine()).isEmpty()) {
+                sawLatency |= line.startsWith("battleship_request_nanos_count 2");
+            }
+            assertTrue(sawLatency, "The Prometheus text should include the request latencies.");
+            assertEquals("Q", client.request("Q 1"), "The connection should be usable after the metrics.");
+        }
+    }
+
+    /**
+     * Test that a client sending requests without reading the replies is no longer read from
+     * once its replies pile up, while other clients are still served.
+     */
+    @Test
+    public void testClientThatDoesNotReadIsThrottled() throws Exception {
+        try (SocketChannel flood = SocketChannel.open(new InetSocketAddress("localhost", server.getPort()))) {
+            flood.configureBlocking(false);
+            ByteBuffer requests = ByteBuffer.wrap("T\n".repeat(32 * 1024).getBytes(StandardCharsets.US_ASCII));
+
+            // Write until the server has not taken a byte for half a second.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            long idleSince = 0;
+            boolean stalled = false;
+            while (!stalled && System.nanoTime() < deadline) {
+                if (!requests.hasRemaining()) requests.rewind();
+                if (flood.write(requests) > 0) {
+                    idleSince = 0;
+                } else if (idleSince == 0) {
+                    idleSince = System.nanoTime();
+                } else {
+                    stalled = System.nanoTime() - idleSince > TimeUnit.MILLISECONDS.toNanos(500);
+                    Thread.sleep(10);
+                }
+            }
+            assertTrue(stalled, "The server should stop reading from a client that does not read its replies.");
+
+            long handled = server.getRequestCount();
+            Thread.sleep(200);
+            assertEquals(handled, server.getRequestCount(), "No more requests of the client should be handled.");
+            try (Client client = new Client()) {
+                assertTrue(client.request("T").startsWith("T "), "Other clients should still be served.");
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A Histogram records non-negative long values, such as latencies in nanoseconds or shot
+ * counts, in log-linear buckets, the layout used by HdrHistogram.
+ *
+ * Values below 64 get a bucket each. Above that, every power of two is split into 32
+ * buckets of equal width, so any recorded value is known to within 1/32 (about 3%) while
+ * the whole range of long fits in under 2,000 buckets. Recording is a shift, an add and
+ * one atomic increment, with no allocation, and is safe from any number of threads.
+ *
+ * Percentiles are reported as the highest value of the bucket they fall in, capped at the
+ * largest value recorded, so they never understate a latency.
+ */
+public final class Histogram {
+
+    // Values below 2^EXACT_BITS have a bucket each.
+    private static final int EXACT_BITS = 6;
+
+    // Bits of a value kept above its leading one: each power of two has 2^SUB_BITS buckets.
+    private static final int SUB_BITS = EXACT_BITS - 1;
+
+    // Enough buckets for the largest long.
+    private static final int BUCKETS = index(Long.MAX_VALUE) + 1;
+
+    // Count of values per bucket.
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    // Number and sum of the values recorded.
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    // Smallest and largest value recorded.
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Records one value.
+     *
+     * @param value The value; negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        if (value < min.get()) min.accumulateAndGet(value, Math::min);
+        if (value > max.get()) max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * @return The number of values recorded.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return The sum of the values recorded.
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return The mean of the values recorded, or NaN if there are none.
+     */
+    public double getMean() {
+        return (double) sum.sum() / count.sum();
+    }
+
+    /**
+     * @return The smallest value recorded, or 0 if there are none.
+     */
+    public long getMin() {
+        long value = min.get();
+        return value == Long.MAX_VALUE ? 0 : value;
+    }
+
+    /**
+     * @return The largest value recorded, or 0 if there are none.
+     */
+    public long getMax() {
+        long value = max.get();
+        return value == Long.MIN_VALUE ? 0 : value;
+    }
+
+    /**
+     * Finds the value below or at which the given fraction of the recorded values fall.
+     * Values recorded while this runs may or may not be counted.
+     *
+     * @param fraction A fraction between 0 and 1, e.g. 0.99 for the 99th percentile.
+     * @return The highest value of the bucket holding that percentile, or 0 if there are no values.
+     */
+    public long getValueAtPercentile(double fraction) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Forgets every value recorded so far. Values recorded concurrently may be partly kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * @return The bucket of a non-negative value.
+     */
+    private static int index(long value) {
+        if (value < (1L << EXACT_BITS)) return (int) value;
+        // Keep the leading one and SUB_BITS bits below it; the shift picks the power of two.
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift << SUB_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * @return The highest value that falls in a bucket.
+     */
+    private static long highestValue(int index) {
+        if (index < (1 << EXACT_BITS)) return index;
+        int shift = (index >>> SUB_BITS) - 1;
+        long sub = (index & ((1 << SUB_BITS) - 1)) + (1L << SUB_BITS);
+        return ((sub + 1) << shift) - 1;
+    }
+}
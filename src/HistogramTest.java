@@ -0,0 +1,69 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the Histogram class.
+ */
+class HistogramTest {
+
+    /**
+     * Test that small values are exact and that the summary statistics are kept.
+     */
+    @Test
+    public void testSmallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (int value = 1; value <= 50; value++) {
+            histogram.record(value);
+        }
+        assertEquals(50, histogram.getCount());
+        assertEquals(1275, histogram.getSum());
+        assertEquals(1, histogram.getMin());
+        assertEquals(50, histogram.getMax());
+        assertEquals(25.5, histogram.getMean(), 1e-9);
+        assertEquals(25, histogram.getValueAtPercentile(0.5), "Values below 64 should have exact buckets.");
+        assertEquals(50, histogram.getValueAtPercentile(1.0));
+    }
+
+    /**
+     * Test that percentiles of a wide range of values are within the bucket precision and
+     * never below the true value.
+     */
+    @Test
+    public void testPercentilePrecision() {
+        Histogram histogram = new Histogram();
+        SplittableRandom random = new SplittableRandom(4);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 40); // Up to about 2^57.
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double fraction : new double[] {0.01, 0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(fraction * values.length) - 1];
+            long estimate = histogram.getValueAtPercentile(fraction);
+            assertTrue(estimate >= exact, "The estimate should not understate the percentile.");
+            assertTrue(estimate <= exact + exact / 32 + 1, "The estimate should be within 1/32 of the percentile.");
+        }
+        assertEquals(values[values.length - 1], histogram.getValueAtPercentile(1.0), "The top percentile is the maximum.");
+    }
+
+    /**
+     * Test the extremes and reset.
+     */
+    @Test
+    public void testExtremesAndReset() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getValueAtPercentile(0.5), "An empty histogram should report 0.");
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+        assertEquals(0, histogram.getMin(), "Negative values should be recorded as 0.");
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(1.0));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * The LayoutCount class holds the result of an exact enumeration by LayoutCounter: the
+ * number of legal fleet layouts consistent with what has been seen of a board, and in how
+ * many of them each cell is covered by a ship.
+ *
+ * Ships of the same length are interchangeable, so a layout is a set of covered cells.
+ */
+public class LayoutCount {
+
+    // Dimensions of the board.
+    private final int rows;
+    private final int columns;
+
+    // Number of layouts, and the number covering each cell, indexed by row * columns + column.
+    private final long layouts;
+    private final long[] occupied;
+
+    // Wall-clock duration of the enumeration.
+    private final long elapsedNanos;
+
+    /**
+     * Creates a result.
+     *
+     * @param rows         The number of rows on the board.
+     * @param columns      The number of columns on the board.
+     * @param layouts      The number of legal layouts.
+     * @param occupied     Layouts covering each cell, indexed by row * columns + column.
+     * @param elapsedNanos Wall-clock duration of the enumeration in nanoseconds.
+     */
+    public LayoutCount(int rows, int columns, long layouts, long[] occupied, long elapsedNanos) {
+        this.rows = rows;
+        this.columns = columns;
+        this.layouts = layouts;
+        this.occupied = occupied;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return The number of rows on the board.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of columns on the board.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return The number of legal layouts; 0 if the observations cannot happen.
+     */
+    public long getLayouts() {
+        return layouts;
+    }
+
+    /**
+     * @return The number of legal layouts in which a ship covers the given cell.
+     */
+    public long getOccupied(int row, int column) {
+        return occupied[row * columns + column];
+    }
+
+    /**
+     * @return The probability that a ship covers the given cell, with every legal layout
+     *         equally likely; 0 if there are no layouts.
+     */
+    public double getProbability(int row, int column) {
+        return layouts == 0 ? 0 : (double) getOccupied(row, column) / layouts;
+    }
+
+    /**
+     * @return The wall-clock duration of the enumeration in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return The number of layouts, the time taken and a grid of probabilities in percent.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%d layouts in %.3f s%n", layouts, elapsedNanos / 1e9));
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                text.append(String.format("%6.2f", 100 * getProbability(row, col)));
+            }
+            text.append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+}
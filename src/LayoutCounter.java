@@ -0,0 +1,560 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The LayoutCounter counts, exactly, the legal layouts of a fleet on a board and how many of
+ * them cover each cell, either on an empty board or consistent with what a shooter has seen.
+ * The placement rules are the ones of {@link Ship#okToPlaceShipAt}: ships stay within bounds
+ * and never overlap or touch each other, not even diagonally. Ships of the same length are
+ * interchangeable, so a layout is a set of covered cells.
+ *
+ * Enumerating layouts one by one is hopeless on a 10x10 board, so the board is swept one row
+ * at a time instead. Everything the rows still to come need to know about the rows already
+ * filled is captured in a small state, and layouts that reach the same state are counted
+ * together:
+ * - the profile of the last row, 4 bits per column: empty, covered by a finished ship, or
+ *   covered by a vertical ship that may still grow downwards (with its length so far and
+ *   whether all its cells were seen hit without it sinking);
+ * - how many ships of each length are still to be placed.
+ * A state is packed into one long and the states of a row are kept in a LongLongHashMap with
+ * their number of partial layouts. Rows are expanded cell by cell with bitmask checks against
+ * the row above.
+ *
+ * A forward sweep counts the partial layouts reaching every state; a backward sweep counts the
+ * ways to complete each of them. Their product, summed over the states covering a cell, is the
+ * number of layouts covering it. Both sweeps split the states of a row among fork/join tasks.
+ *
+ * The board is transposed when it is wider than it is tall, so the profile spans the shorter
+ * side. That side may have up to MAX_WIDTH cells, and ships may be up to MAX_LENGTH long.
+ */
+public class LayoutCounter {
+
+    /** Largest number of cells along the shorter side of the board. */
+    public static final int MAX_WIDTH = 12;
+
+    /** Largest ship length. */
+    public static final int MAX_LENGTH = 7;
+
+    // Cell codes of a profile. Codes from OPEN up are vertical ships that may still grow:
+    // OPEN + 2 * (length - 1) + (all cells hit but not sunk ? 1 : 0).
+    private static final int EMPTY = 0;
+    private static final int CLOSED = 1;
+    private static final int OPEN = 2;
+
+    // Bits per profile cell.
+    private static final int CELL_BITS = 4;
+    private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+
+    // Source states handled by one fork/join leaf.
+    private static final int LEAF_STATES = 2048;
+
+    // Dimensions of the board as swept: width is the shorter side.
+    private final int rows;
+    private final int columns;
+    private final int height;
+    private final int width;
+    private final boolean transposed;
+
+    // Number of ships of each length in the fleet, and the largest length.
+    private final int[] fleetCount;
+    private final int maxLength;
+
+    // The counts of ships still to place are packed as a mixed-radix number in the low
+    // countBits bits of a state: remaining[length] * place[length].
+    private final long[] place;
+    private final int countBits;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a counter for the standard fleet on a 10x10 board.
+     */
+    public LayoutCounter() {
+        this(BoardConfig.STANDARD);
+    }
+
+    /**
+     * Creates a counter for the board and fleet of a configuration, using the common pool.
+     *
+     * @param config The board dimensions and fleet.
+     * @throws IllegalArgumentException If the board or a ship is too large to count.
+     */
+    public LayoutCounter(BoardConfig config) {
+        this(config, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a counter for the board and fleet of a configuration.
+     *
+     * @param config The board dimensions and fleet.
+     * @param pool   The pool the sweeps run in.
+     * @throws IllegalArgumentException If the board or a ship is too large to count.
+     */
+    public LayoutCounter(BoardConfig config, ForkJoinPool pool) {
+        this.rows = config.getRows();
+        this.columns = config.getColumns();
+        this.transposed = columns > rows;
+        this.height = Math.max(rows, columns);
+        this.width = Math.min(rows, columns);
+        this.pool = pool;
+        if (width > MAX_WIDTH) {
+            throw new IllegalArgumentException("Boards wider than " + MAX_WIDTH + " cells on both sides cannot be counted.");
+        }
+
+        int longest = 0;
+        for (int length : config.getFleet()) {
+            if (length > MAX_LENGTH) {
+                throw new IllegalArgumentException("Ships longer than " + MAX_LENGTH + " cannot be counted.");
+            }
+            longest = Math.max(longest, length);
+        }
+        this.maxLength = longest;
+        this.fleetCount = new int[longest + 1];
+        for (int length : config.getFleet()) {
+            fleetCount[length]++;
+        }
+
+        this.place = new long[longest + 1];
+        long radix = 1;
+        for (int length = 1; length <= longest; length++) {
+            place[length] = radix;
+            radix *= fleetCount[length] + 1;
+        }
+        this.countBits = 64 - Long.numberOfLeadingZeros(radix - 1);
+        if (countBits + CELL_BITS * width > 63) {
+            throw new IllegalArgumentException("The fleet is too large to count on this board.");
+        }
+    }
+
+    /**
+     * Counts the layouts on an empty board.
+     *
+     * @return The number of layouts and the layouts covering each cell.
+     * @throws ArithmeticException If a count does not fit in a long.
+     */
+    public LayoutCount count() {
+        return count(null);
+    }
+
+    /**
+     * Counts the layouts consistent with what has been seen of a board: misses are empty, hits
+     * are covered, ships with a hit that are not sunk have at least one cell not yet hit, and a
+     * sunk ship is exactly its sunk cells.
+     *
+     * @param board The shots seen so far, or null for an empty board.
+     * @return The number of layouts and the layouts covering each cell.
+     * @throws ArithmeticException If a count does not fit in a long.
+     */
+    public LayoutCount count(VisibleBoard board) {
+        long start = System.nanoTime();
+        if (board != null && (board.getRows() != rows || board.getColumns() != columns)) {
+            throw new IllegalArgumentException("The board is " + board.getRows() + "x" + board.getColumns()
+                    + ", not " + rows + "x" + columns + ".");
+        }
+        int[] mustCover = new int[height];
+        int[] mustBeEmpty = new int[height];
+        int[] hitAfloat = new int[height];
+        if (board != null) {
+            observe(board, mustCover, mustBeEmpty, hitAfloat);
+        }
+
+        // Forward: states[r] holds the states after r rows with their partial layout counts.
+        LongLongHashMap[] states = new LongLongHashMap[height + 1];
+        long full = 0;
+        for (int length = 1; length <= maxLength; length++) {
+            full += fleetCount[length] * place[length];
+        }
+        states[0] = new LongLongHashMap(1);
+        states[0].put(full, 1);
+        for (int r = 0; r < height; r++) {
+            Row row = new Row(mustCover[r], mustBeEmpty[r], hitAfloat[r]);
+            states[r + 1] = pool.invoke(new Forward(states[r], row, 0, states[r].capacity()));
+        }
+
+        // Backward: completions[r][slot] is the number of ways to finish the state in that slot of states[r].
+        long[][] completions = new long[height + 1][];
+        completions[height] = new long[states[height].capacity()];
+        Expander last = new Expander(null);
+        for (int slot = 0; slot < completions[height].length; slot++) {
+            if (states[height].isUsed(slot)) {
+                completions[height][slot] = last.finish(states[height].keyAt(slot)) ? 1 : 0;
+            }
+        }
+        for (int r = height - 1; r >= 0; r--) {
+            Row row = new Row(mustCover[r], mustBeEmpty[r], hitAfloat[r]);
+            completions[r] = new long[states[r].capacity()];
+            pool.invoke(new Backward(states[r], completions[r], states[r + 1], completions[r + 1], row, 0, states[r].capacity()));
+        }
+        long layouts = completions[0][states[0].slotOf(full)];
+
+        // A cell is covered in every layout passing through a state whose profile covers it.
+        long[] occupied = new long[rows * columns];
+        for (int r = 0; r < height; r++) {
+            LongLongHashMap after = states[r + 1];
+            for (int slot = 0; slot < after.capacity(); slot++) {
+                if (!after.isUsed(slot) || completions[r + 1][slot] == 0) continue;
+                long through = Math.multiplyExact(after.valueAt(slot), completions[r + 1][slot]);
+                long profile = after.keyAt(slot) >>> countBits;
+                for (int c = 0; c < width; c++) {
+                    if ((profile >>> (c * CELL_BITS) & CELL_MASK) != EMPTY) {
+                        int cell = transposed ? c * columns + r : r * columns + c;
+                        occupied[cell] = Math.addExact(occupied[cell], through);
+                    }
+                }
+            }
+        }
+        return new LayoutCount(rows, columns, layouts, occupied, System.nanoTime() - start);
+    }
+
+    /**
+     * Turns the shots seen into per-row masks of the swept board.
+     */
+    private void observe(VisibleBoard board, int[] mustCover, int[] mustBeEmpty, int[] hitAfloat) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                if (!board.isFiredUpon(row, col)) continue;
+                if (!board.isHit(row, col)) {
+                    mark(mustBeEmpty, row, col);
+                } else if (!board.isSunk(row, col)) {
+                    mark(mustCover, row, col);
+                    mark(hitAfloat, row, col);
+                } else {
+                    // A sunk ship is exactly its sunk cells, so the cells in line with it are empty.
+                    mark(mustCover, row, col);
+                    int[][] steps = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+                    for (int[] step : steps) {
+                        int r = row + step[0];
+                        int c = col + step[1];
+                        if (r >= 0 && r < rows && c >= 0 && c < columns && !board.isSunk(r, c)) {
+                            mark(mustBeEmpty, r, c);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the bit of a board cell in a per-row mask of the swept board.
+     */
+    private void mark(int[] masks, int row, int column) {
+        if (transposed) {
+            masks[column] |= 1 << row;
+        } else {
+            masks[row] |= 1 << column;
+        }
+    }
+
+    /**
+     * What has been seen of one row of the swept board, as bitmasks over its columns.
+     */
+    private static final class Row {
+        final int mustCover;
+        final int mustBeEmpty;
+        final int hitAfloat;
+
+        Row(int mustCover, int mustBeEmpty, int hitAfloat) {
+            this.mustCover = mustCover;
+            this.mustBeEmpty = mustBeEmpty;
+            this.hitAfloat = hitAfloat;
+        }
+    }
+
+    /**
+     * Fork/join task adding the successors of the states in slots [from, to) of a map to a new map.
+     */
+    private final class Forward extends RecursiveTask<LongLongHashMap> {
+        private static final long serialVersionUID = 1L;
+
+        private final LongLongHashMap source;
+        private final Row row;
+        private final int from;
+        private final int to;
+
+        Forward(LongLongHashMap source, Row row, int from, int to) {
+            this.source = source;
+            this.row = row;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LongLongHashMap compute() {
+            if (to - from > LEAF_STATES) {
+                int middle = (from + to) >>> 1;
+                Forward left = new Forward(source, row, from, middle);
+                left.fork();
+                LongLongHashMap right = new Forward(source, row, middle, to).compute();
+                return merge(left.join(), right);
+            }
+            LongLongHashMap target = new LongLongHashMap(Math.max(16, to - from));
+            Expander expander = new Expander(row);
+            expander.target = target;
+            for (int slot = from; slot < to; slot++) {
+                if (source.isUsed(slot)) {
+                    expander.weight = source.valueAt(slot);
+                    expander.expand(source.keyAt(slot));
+                }
+            }
+            return target;
+        }
+
+        /**
+         * Adds the smaller map into the larger one.
+         */
+        private LongLongHashMap merge(LongLongHashMap a, LongLongHashMap b) {
+            LongLongHashMap into = a.size() >= b.size() ? a : b;
+            LongLongHashMap from = into == a ? b : a;
+            for (int slot = 0; slot < from.capacity(); slot++) {
+                if (from.isUsed(slot)) {
+                    into.put(from.keyAt(slot), Math.addExact(into.get(from.keyAt(slot), 0), from.valueAt(slot)));
+                }
+            }
+            return into;
+        }
+    }
+
+    /**
+     * Fork/join task counting the completions of the states in slots [from, to) of a map from
+     * the completions of the next row. Each leaf writes its own slots, so nothing is shared.
+     */
+    private final class Backward extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final LongLongHashMap source;
+        private final long[] completions;
+        private final LongLongHashMap next;
+        private final long[] nextCompletions;
+        private final Row row;
+        private final int from;
+        private final int to;
+
+        Backward(LongLongHashMap source, long[] completions, LongLongHashMap next, long[] nextCompletions,
+                 Row row, int from, int to) {
+            this.source = source;
+            this.completions = completions;
+            this.next = next;
+            this.nextCompletions = nextCompletions;
+            this.row = row;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_STATES) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Backward(source, completions, next, nextCompletions, row, from, middle),
+                        new Backward(source, completions, next, nextCompletions, row, middle, to));
+                return;
+            }
+            Expander expander = new Expander(row);
+            expander.next = next;
+            expander.nextCompletions = nextCompletions;
+            for (int slot = from; slot < to; slot++) {
+                if (source.isUsed(slot)) {
+                    expander.sum = 0;
+                    expander.expand(source.keyAt(slot));
+                    completions[slot] = expander.sum;
+                }
+            }
+        }
+    }
+
+    /**
+     * Enumerates the ways to fill one row below a state, cell by cell from the left. Every way
+     * leads to a different successor state, since the successor profile records which cells of
+     * the row are covered. Forward, successors are added to a map with the weight of the state;
+     * backward, their completions are summed. One expander belongs to one task.
+     */
+    private final class Expander {
+        private final Row row;
+
+        // Ships of each length still to place, updated as the row is filled.
+        private final int[] remaining = new int[maxLength + 1];
+
+        // Profile of the row above, one code per column.
+        private final int[] above = new int[width];
+
+        // Forward output: the map successors are added to, with the weight of the current state.
+        LongLongHashMap target;
+        long weight;
+
+        // Backward output: the completions of the next row and their running sum.
+        LongLongHashMap next;
+        long[] nextCompletions;
+        long sum;
+
+        Expander(Row row) {
+            this.row = row;
+        }
+
+        /**
+         * Enumerates the successors of a state.
+         */
+        void expand(long state) {
+            decode(state);
+            fill(0, 0, false, false, 0);
+        }
+
+        /**
+         * Checks if a state after the last row is a complete layout: every ship still growing is
+         * finished, and exactly the whole fleet has been placed.
+         */
+        boolean finish(long state) {
+            decode(state);
+            for (int c = 0; c < width; c++) {
+                if (above[c] >= OPEN) {
+                    if (isHitAfloat(above[c]) || remaining[lengthOf(above[c])]-- == 0) return false;
+                }
+            }
+            for (int length = 1; length <= maxLength; length++) {
+                if (remaining[length] != 0) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Unpacks a state into the profile above and the ships remaining.
+         */
+        private void decode(long state) {
+            long counts = state & ((1L << countBits) - 1);
+            for (int length = 1; length <= maxLength; length++) {
+                remaining[length] = (int) (counts / place[length] % (fleetCount[length] + 1));
+            }
+            long profile = state >>> countBits;
+            for (int c = 0; c < width; c++) {
+                above[c] = (int) (profile >>> (c * CELL_BITS) & CELL_MASK);
+            }
+        }
+
+        /**
+         * Decides column c and everything to its right.
+         *
+         * @param c         The column to decide.
+         * @param run       Length of the run of newly covered cells ending at column c - 1.
+         * @param runHit    True if every cell of that run was seen hit but not sunk.
+         * @param extension True if column c - 1 extends a vertical ship from the row above.
+         * @param profile   The profile of this row so far; the run's cells are not written yet.
+         */
+        private void fill(int c, int run, boolean runHit, boolean extension, long profile) {
+            if (c == width) {
+                endRun(c, run, runHit, profile, true);
+                return;
+            }
+            int bit = 1 << c;
+            int up = above[c];
+
+            // Leave column c empty: a ship growing down into it stops, and the run ends.
+            if ((row.mustCover & bit) == 0) {
+                int stopped = 0;
+                boolean legal = true;
+                if (up >= OPEN) {
+                    stopped = lengthOf(up);
+                    legal = !isHitAfloat(up) && remaining[stopped] > 0;
+                }
+                if (legal) {
+                    if (stopped != 0) remaining[stopped]--;
+                    endRun(c, run, runHit, profile, false);
+                    if (stopped != 0) remaining[stopped]++;
+                }
+            }
+
+            // Cover column c: it must not touch the row above except to extend a ship straight down.
+            if ((row.mustBeEmpty & bit) != 0 || up == CLOSED || extension) return;
+            if ((c > 0 && above[c - 1] != EMPTY) || (c < width - 1 && above[c + 1] != EMPTY)) return;
+            boolean hit = (row.hitAfloat & bit) != 0;
+            if (up >= OPEN) {
+                int length = lengthOf(up) + 1;
+                if (run == 0 && fits(length)) {
+                    fill(c + 1, 0, false, true, profile | (long) open(length, isHitAfloat(up) && hit) << (c * CELL_BITS));
+                }
+            } else if (fits(run + 1)) {
+                fill(c + 1, run + 1, (run == 0 || runHit) && hit, false, profile);
+            }
+        }
+
+        /**
+         * Ends the run of newly covered cells before column c, then goes on with column c + 1,
+         * or emits the successor at the end of the row. A single cell starts a vertical ship;
+         * a longer run is a horizontal ship of that length.
+         */
+        private void endRun(int c, int run, boolean runHit, long profile, boolean last) {
+            if (run == 1) {
+                profile |= (long) open(1, runHit) << ((c - 1) * CELL_BITS);
+            } else if (run > 1) {
+                if (runHit || remaining[run] == 0) return;
+                for (int i = c - run; i < c; i++) {
+                    profile |= (long) CLOSED << (i * CELL_BITS);
+                }
+                remaining[run]--;
+            }
+            if (last) {
+                emit(profile);
+            } else {
+                fill(c + 1, 0, false, false, profile);
+            }
+            if (run > 1) remaining[run]++;
+        }
+
+        /**
+         * Hands a successor state to the sweep.
+         */
+        private void emit(long profile) {
+            long state = profile << countBits;
+            for (int length = 1; length <= maxLength; length++) {
+                state += remaining[length] * place[length];
+            }
+            if (target != null) {
+                target.add(state, weight);
+            } else {
+                int slot = next.slotOf(state);
+                if (slot >= 0) sum = Math.addExact(sum, nextCompletions[slot]);
+            }
+        }
+
+        /**
+         * @return True if a ship of at least the given length is still to be placed.
+         */
+        private boolean fits(int length) {
+            for (int l = length; l <= maxLength; l++) {
+                if (remaining[l] > 0) return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @return The code of a vertical ship that may still grow.
+     */
+    private static int open(int length, boolean hitAfloat) {
+        return OPEN + 2 * (length - 1) + (hitAfloat ? 1 : 0);
+    }
+
+    /**
+     * @return The length so far of the vertical ship with the given code.
+     */
+    private static int lengthOf(int code) {
+        return ((code - OPEN) >>> 1) + 1;
+    }
+
+    /**
+     * @return True if every cell of the vertical ship with the given code was seen hit but not sunk.
+     */
+    private static boolean isHitAfloat(int code) {
+        return ((code - OPEN) & 1) != 0;
+    }
+
+    /**
+     * Counts the layouts of the standard fleet on a board and prints the occupancy probabilities.
+     * Arguments: [rows] [columns], 10x10 by default.
+     */
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int columns = args.length > 1 ? Integer.parseInt(args[1]) : rows;
+        BoardConfig config = rows == 10 && columns == 10 ? BoardConfig.STANDARD
+                : new BoardConfig(rows, columns, BoardConfig.STANDARD.getFleet());
+        System.out.print(new LayoutCounter(config).count());
+    }
+}
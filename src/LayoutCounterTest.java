@@ -0,0 +1,196 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LayoutCounter class, checked against brute-force enumeration of
+ * layouts with Ship.okToPlaceShipAt on small boards.
+ */
+class LayoutCounterTest {
+
+    /**
+     * Test that counts on empty boards match brute force, including boards that are swept transposed.
+     */
+    @Test
+    public void testEmptyBoardMatchesBruteForce() {
+        BoardConfig[] configs = {
+                new BoardConfig(4, 5, 3, 2, 1),
+                new BoardConfig(5, 4, 3, 2, 1),
+                new BoardConfig(5, 5, 3, 2, 2, 1),
+                new BoardConfig(3, 7, 2, 1, 1),
+                new BoardConfig(6, 6, 4, 3, 1, 1),
+        };
+        for (BoardConfig config : configs) {
+            Map<Long, List<int[]>> layouts = bruteForce(config);
+            LayoutCount count = new LayoutCounter(config).count();
+            assertEquals(layouts.size(), count.getLayouts(), "Layouts on " + config.getRows() + "x" + config.getColumns());
+            for (int row = 0; row < config.getRows(); row++) {
+                for (int col = 0; col < config.getColumns(); col++) {
+                    long bit = 1L << (row * config.getColumns() + col);
+                    long covering = layouts.keySet().stream().filter(mask -> (mask & bit) != 0).count();
+                    assertEquals(covering, count.getOccupied(row, col), "Layouts covering " + row + "," + col);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that counts after some shots match the layouts that would have shown the same board.
+     */
+    @Test
+    public void testObservedBoardMatchesBruteForce() {
+        BoardConfig config = new BoardConfig(5, 6, 3, 2, 2, 1);
+        Map<Long, List<int[]>> layouts = bruteForce(config);
+        LayoutCounter counter = new LayoutCounter(config);
+        SplitMix64 random = new SplitMix64(11);
+        List<List<int[]>> all = new ArrayList<>(layouts.values());
+
+        for (int game = 0; game < 5; game++) {
+            Ocean truth = build(config, all.get(random.nextInt(all.size())));
+            VisibleBoard board = new VisibleBoard(config.getRows(), config.getColumns());
+            List<int[]> shots = new ArrayList<>();
+            for (int shot = 0; shot < 20; shot++) {
+                int[] cell = {random.nextInt(config.getRows()), random.nextInt(config.getColumns())};
+                shots.add(cell);
+                fire(truth, board, cell);
+                if (shot % 5 != 4) continue;
+
+                long consistent = 0;
+                long[] occupied = new long[config.getCells()];
+                for (Map.Entry<Long, List<int[]>> layout : layouts.entrySet()) {
+                    if (sameView(build(config, layout.getValue()), shots, board)) {
+                        consistent++;
+                        for (int i = 0; i < occupied.length; i++) {
+                            if ((layout.getKey() >>> i & 1) != 0) occupied[i]++;
+                        }
+                    }
+                }
+                LayoutCount count = counter.count(board);
+                assertEquals(consistent, count.getLayouts(), "Layouts consistent with " + (shot + 1) + " shots");
+                for (int i = 0; i < occupied.length; i++) {
+                    assertEquals(occupied[i], count.getOccupied(i / config.getColumns(), i % config.getColumns()));
+                }
+                assertTrue(count.getLayouts() > 0, "The true layout should always be counted.");
+            }
+        }
+    }
+
+    /**
+     * Test that the probabilities of an empty board add up to the fleet size, and that the
+     * result does not depend on the number of threads.
+     */
+    @Test
+    public void testProbabilitiesAndParallelism() {
+        BoardConfig config = new BoardConfig(8, 7, 4, 3, 2, 2, 1, 1);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            LayoutCount one = new LayoutCounter(config, single).count();
+            LayoutCount four = new LayoutCounter(config, several).count();
+            assertEquals(one.getLayouts(), four.getLayouts());
+            double total = 0;
+            for (int row = 0; row < config.getRows(); row++) {
+                for (int col = 0; col < config.getColumns(); col++) {
+                    assertEquals(one.getOccupied(row, col), four.getOccupied(row, col));
+                    total += one.getProbability(row, col);
+                }
+            }
+            assertEquals(config.getFleetCells(), total, 1e-9, "On average the fleet covers its own number of cells.");
+            assertEquals(one.getOccupied(0, 0), one.getOccupied(7, 6), "A board and its rotation have the same counts.");
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    /**
+     * Test that boards and ships too large to count are rejected, and impossible fleets count 0.
+     */
+    @Test
+    public void testLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new LayoutCounter(BoardConfig.square(13)));
+        assertThrows(IllegalArgumentException.class, () -> new LayoutCounter(new BoardConfig(10, 10, 8)));
+        assertEquals(0, new LayoutCounter(new BoardConfig(3, 3, 3, 3, 3)).count().getLayouts());
+    }
+
+    /**
+     * Enumerates every layout by placing the fleet in order with okToPlaceShipAt.
+     *
+     * @return The placements of one way to reach each layout, keyed by the mask of covered cells.
+     */
+    private static Map<Long, List<int[]>> bruteForce(BoardConfig config) {
+        Map<Long, List<int[]>> layouts = new HashMap<>();
+        place(config, 0, new ArrayList<>(), layouts);
+        return layouts;
+    }
+
+    private static void place(BoardConfig config, int index, List<int[]> placed, Map<Long, List<int[]>> layouts) {
+        Ocean ocean = build(config, placed);
+        if (index == config.getFleetSize()) {
+            long mask = 0;
+            for (int row = 0; row < config.getRows(); row++) {
+                for (int col = 0; col < config.getColumns(); col++) {
+                    if (ocean.isOccupied(row, col)) mask |= 1L << (row * config.getColumns() + col);
+                }
+            }
+            layouts.putIfAbsent(mask, new ArrayList<>(placed));
+            return;
+        }
+        Ship ship = config.newShip(index);
+        for (int row = 0; row < config.getRows(); row++) {
+            for (int col = 0; col < config.getColumns(); col++) {
+                for (boolean horizontal : new boolean[] {true, false}) {
+                    if (ship.okToPlaceShipAt(row, col, horizontal, ocean)) {
+                        placed.add(new int[] {row, col, horizontal ? 1 : 0, ship.getLength()});
+                        place(config, index + 1, placed, layouts);
+                        placed.remove(placed.size() - 1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return A new ocean with the given placements.
+     */
+    private static Ocean build(BoardConfig config, List<int[]> placed) {
+        Ocean ocean = new Ocean(config);
+        for (int[] p : placed) {
+            BoardConfig.shipOfLength(p[3]).placeShipAt(p[0], p[1], p[2] == 1, ocean);
+        }
+        return ocean;
+    }
+
+    /**
+     * Fires one shot at an ocean and records what the shooter sees.
+     */
+    private static void fire(Ocean ocean, VisibleBoard board, int[] cell) {
+        int sunkBefore = ocean.getShipsSunk();
+        boolean hit = ocean.shootAt(cell[0], cell[1]);
+        board.record(cell[0], cell[1], hit, ocean.getShipsSunk() > sunkBefore);
+    }
+
+    /**
+     * @return True if the same shots at an ocean show exactly the given board.
+     */
+    private static boolean sameView(Ocean ocean, List<int[]> shots, VisibleBoard expected) {
+        VisibleBoard board = new VisibleBoard(expected.getRows(), expected.getColumns());
+        for (int[] cell : shots) {
+            fire(ocean, board, cell);
+        }
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getColumns(); col++) {
+                if (board.isFiredUpon(row, col) != expected.isFiredUpon(row, col)
+                        || board.isHit(row, col) != expected.isHit(row, col)
+                        || board.isSunk(row, col) != expected.isSunk(row, col)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
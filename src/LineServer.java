@@ -0,0 +1,475 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * LineServer is the network half of the game servers: it serves a line protocol over TCP
+ * from a single selector thread with non-blocking channels, so thousands of open
+ * connections cost one buffer pair each instead of one thread each.
+ *
+ * Requests are ASCII lines ending with '\n', made of a one-letter command and up to three
+ * decimal numbers separated by single spaces. They are parsed straight from the read buffer,
+ * without a Scanner or per-line strings, and handed to the subclass with the numbers in
+ * {@link #tokens}. Malformed lines get {@code E bad request}; blank lines are ignored.
+ *
+ * Everything a subclass does happens on the selector thread, so its state needs no locking.
+ * Replies to the requesting connection are flushed after each read; lines pushed to other
+ * connections are flushed when their sockets are next writable.
+ *
+ * A client that sends requests without reading the replies is throttled: once more than
+ * {@link #MAX_PENDING} bytes of output wait for it, its requests are neither handled nor read
+ * until the backlog drains. A connection whose output would still grow past {@link #MAX_OUTPUT}, through
+ * lines pushed by other connections, is closed. Either way, a connection costs bounded memory.
+ */
+public abstract class LineServer implements Closeable {
+
+    // Longest request line accepted; longer lines close the connection.
+    private static final int MAX_LINE = 64;
+
+    /** Most tokens in a request line, the command included. */
+    protected static final int MAX_TOKENS = 4;
+
+    /** Bytes of unsent output above which a connection's requests are no longer read. */
+    protected static final int MAX_PENDING = 64 * 1024;
+
+    /** Most bytes of unsent output a connection may hold; it is closed when more would be queued. */
+    protected static final int MAX_OUTPUT = 1024 * 1024;
+
+    // The listening channel and the selector serving it and every connection.
+    private final ServerSocketChannel server;
+    private final Selector selector;
+
+    // How often tick is called.
+    private final long tickMillis;
+
+    // When tick was last called.
+    private long lastTick = System.nanoTime();
+
+    /** Numbers of the request being handled; tokens[0] is unused, the command is passed separately. */
+    protected final long[] tokens = new long[MAX_TOKENS];
+
+    // Request latencies in nanoseconds.
+    private final Histogram latency = new Histogram();
+
+    // The thread started by start, if any.
+    private Thread thread;
+
+    // Set by close; the selector loop stops when it sees it.
+    private volatile boolean closed;
+
+    // True while a thread is inside run.
+    private volatile boolean running;
+
+    /**
+     * The buffers of one connection. Subclasses may extend it to keep per-connection state.
+     */
+    protected static class Connection {
+        // Bytes received but not yet handled; holds at most one partial line between reads.
+        final ByteBuffer in = ByteBuffer.allocate(MAX_LINE * 4);
+
+        // Replies not yet written, in write mode.
+        ByteBuffer out = ByteBuffer.allocate(256);
+
+        // The registration of the connection with the selector.
+        SelectionKey key;
+
+        // Set when a reply did not fit under MAX_OUTPUT; the connection is closed at its next flush.
+        boolean overflowed;
+
+        // Set when complete request lines were left in the input for the output backlog to drain.
+        boolean stalled;
+    }
+
+    /**
+     * Opens a server on a local port.
+     *
+     * @param port       The port to listen on, or 0 for any free port.
+     * @param tickMillis How often tick is called, in milliseconds.
+     * @throws IOException If the port cannot be opened.
+     */
+    protected LineServer(int port, long tickMillis) throws IOException {
+        this.tickMillis = Math.max(1, tickMillis);
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        try {
+            server.bind(new InetSocketAddress(port), 1024);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Runs the selector loop on a new daemon thread.
+     *
+     * @return This server.
+     */
+    public synchronized LineServer start() {
+        if (thread != null) {
+            throw new IllegalStateException("The server is already running.");
+        }
+        thread = new Thread(this::run, getClass().getSimpleName() + "-" + getPort());
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    /**
+     * Runs the selector loop on the calling thread until the server is closed.
+     */
+    public void run() {
+        running = true;
+        try {
+            while (!closed) {
+                selector.select(tickMillis);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isReadable()) read(key);
+                            if (key.isValid() && key.isWritable()) write(key);
+                        }
+                    } catch (IOException e) {
+                        disconnect(key); // The client went away.
+                    }
+                }
+                long now = System.nanoTime();
+                if (now - lastTick >= tickMillis * 1_000_000) {
+                    tick(now);
+                    lastTick = now;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("The " + getClass().getSimpleName() + " failed.", e);
+        } finally {
+            running = false;
+            closeChannels();
+        }
+    }
+
+    /**
+     * Stops the server. The selector loop closes every connection on its way out; a loop
+     * started with start is waited for.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+        Thread started;
+        synchronized (this) {
+            started = thread;
+        }
+        if (started != null && started != Thread.currentThread()) {
+            try {
+                started.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!running) {
+            closeChannels(); // No loop is running to do it.
+        }
+    }
+
+    /**
+     * @return The number of requests handled.
+     */
+    public long getRequestCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * Estimates a percentile of the request latencies, measured from parsing a request to
+     * queueing its reply.
+     *
+     * @param percentile The percentile, from 0.0 to 1.0.
+     * @return The latency in nanoseconds, or 0 if no request was handled.
+     */
+    public long getLatencyPercentile(double percentile) {
+        return latency.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * @return The longest request latency in nanoseconds.
+     */
+    public long getMaxLatency() {
+        return latency.getMax();
+    }
+
+    /**
+     * @return The request latencies in nanoseconds.
+     */
+    protected Histogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Creates the state of a new connection. Subclasses keeping per-connection state override this.
+     *
+     * @return The connection.
+     */
+    protected Connection newConnection() {
+        return new Connection();
+    }
+
+    /**
+     * Handles one well-formed request and queues its reply.
+     *
+     * @param connection The connection the request came from.
+     * @param command    The command letter.
+     * @param count      The number of tokens, the command included; the numbers are in tokens[1..count-1].
+     * @param now        The time the request was parsed, from System.nanoTime.
+     */
+    protected abstract void handle(Connection connection, byte command, int count, long now);
+
+    /**
+     * Called on the selector thread about every tickMillis, for housekeeping.
+     *
+     * @param now The current time, from System.nanoTime.
+     */
+    protected void tick(long now) {
+    }
+
+    /**
+     * Called on the selector thread after a connection has been closed, by either side.
+     *
+     * @param connection The connection.
+     */
+    protected void disconnected(Connection connection) {
+    }
+
+    /**
+     * Queues a reply, growing the output buffer as needed up to MAX_OUTPUT. The reply to the
+     * requesting connection is flushed once the request has been handled. A reply that does
+     * not fit is dropped and the connection is closed instead.
+     */
+    protected static void reply(Connection connection, String text) {
+        int length = text.length();
+        if (connection.overflowed) return;
+        if (connection.out.position() + length > MAX_OUTPUT) {
+            connection.overflowed = true;
+            return;
+        }
+        if (connection.out.remaining() < length) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(connection.out.capacity() * 2, connection.out.position() + length));
+            connection.out.flip();
+            bigger.put(connection.out);
+            connection.out = bigger;
+        }
+        for (int i = 0; i < length; i++) {
+            connection.out.put((byte) text.charAt(i));
+        }
+    }
+
+    /**
+     * Queues a line for a connection other than the requesting one. It is written when the
+     * socket is next writable, usually on the next turn of the selector loop.
+     */
+    protected static void push(Connection connection, String text) {
+        reply(connection, text);
+        if (connection.key.isValid()) {
+            connection.key.interestOps(interestOps(connection));
+        }
+    }
+
+    /**
+     * @return The events to wait for on a connection: writability while output is pending,
+     *         and requests unless the pending output is over MAX_PENDING.
+     */
+    private static int interestOps(Connection connection) {
+        int pending = connection.out.position();
+        if (pending == 0) return SelectionKey.OP_READ;
+        return pending > MAX_PENDING ? SelectionKey.OP_WRITE : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+    }
+
+    /**
+     * Closes the listening channel, every connection and the selector. Safe to call twice.
+     */
+    private synchronized void closeChannels() {
+        if (!selector.isOpen()) return;
+        for (SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                // Closing anyway.
+            }
+        }
+        try {
+            selector.close();
+            server.close();
+        } catch (IOException e) {
+            // Closing anyway.
+        }
+    }
+
+    /**
+     * Accepts a pending connection.
+     */
+    private void accept() throws IOException {
+        SocketChannel client = server.accept();
+        if (client == null) return;
+        client.configureBlocking(false);
+        client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = newConnection();
+        connection.key = client.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    /**
+     * Reads from a connection and handles its complete request lines.
+     */
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel client = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        if (client.read(connection.in) < 0) {
+            disconnect(key);
+            return;
+        }
+        handleLines(key);
+    }
+
+    /**
+     * Flushes a writable connection, then handles the request lines it was stalled on if the
+     * backlog has drained.
+     */
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        flush(key);
+        if (key.isValid() && connection.stalled && connection.out.position() <= MAX_PENDING) {
+            handleLines(key);
+        }
+    }
+
+    /**
+     * Handles every complete request line in the input, stopping early while the output
+     * backlog is over MAX_PENDING, then flushes the replies.
+     */
+    private void handleLines(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer in = connection.in;
+
+        // Handle each complete line, then keep the rest for later.
+        in.flip();
+        int start = 0;
+        boolean stalled = false;
+        for (int i = 0; i < in.limit(); i++) {
+            if (in.get(i) == '\n') {
+                if (connection.out.position() > MAX_PENDING) {
+                    stalled = true;
+                    break;
+                }
+                handleLine(connection, in, start, i);
+                start = i + 1;
+            }
+        }
+        connection.stalled = stalled;
+        if (!stalled && in.limit() - start > MAX_LINE) {
+            reply(connection, "E line too long\n");
+            flush(key);
+            disconnect(key);
+            return;
+        }
+        in.position(start);
+        in.compact();
+        flush(key);
+    }
+
+    /**
+     * Writes as much queued output as the socket takes, and asks to be told when it can take
+     * more. Reading pauses while the output backlog is over MAX_PENDING.
+     *
+     * @throws IOException If the connection overflowed MAX_OUTPUT, so that it gets closed.
+     */
+    private void flush(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        if (connection.overflowed) {
+            throw new IOException("Too much output pending.");
+        }
+        ByteBuffer out = connection.out;
+        out.flip();
+        ((SocketChannel) key.channel()).write(out);
+        out.compact();
+        key.interestOps(interestOps(connection));
+    }
+
+    /**
+     * Closes a connection and tells the subclass.
+     */
+    private void disconnect(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Already gone.
+        }
+        disconnected((Connection) key.attachment());
+    }
+
+    /**
+     * Parses one request line and hands it to handle.
+     *
+     * @param line  The buffer holding the line.
+     * @param start The offset of the first byte of the line.
+     * @param end   The offset of the terminating '\n'.
+     */
+    private void handleLine(Connection connection, ByteBuffer line, int start, int end) {
+        long began = System.nanoTime();
+        if (end > start && line.get(end - 1) == '\r') end--; // Tolerate telnet line endings.
+
+        int count = tokenize(line, start, end);
+        if (count < 0) {
+            reply(connection, "E bad request\n");
+        } else if (count == 0) {
+            return; // Blank lines are ignored and not counted.
+        } else {
+            handle(connection, line.get(start), count, began);
+        }
+        latency.record(System.nanoTime() - began);
+    }
+
+    /**
+     * Splits a line into the command and up to three decimal numbers, stored in tokens.
+     *
+     * @return The number of tokens including the command, or -1 if the line is malformed.
+     */
+    private int tokenize(ByteBuffer line, int start, int end) {
+        if (start == end) return 0;
+        int count = 1;
+        int i = start + 1;
+        while (i < end) {
+            if (line.get(i) != ' ' || count == MAX_TOKENS) return -1;
+            i++;
+            boolean negative = i < end && line.get(i) == '-';
+            if (negative) i++;
+            int digits = 0;
+            long value = 0;
+            while (i < end && line.get(i) >= '0' && line.get(i) <= '9') {
+                if (++digits > 19) return -1;
+                value = value * 10 + (line.get(i++) - '0');
+            }
+            if (digits == 0 || value < 0) return -1;
+            tokens[count++] = negative ? -value : value;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,194 @@
+import java.util.Arrays;
+
+/**
+ * A hash map from non-negative long keys to long values, stored in two primitive arrays
+ * with open addressing and linear probing. Nothing is allocated per entry, and lookups
+ * take constant expected time.
+ *
+ * Slots can be walked with {@link #capacity()}, {@link #isUsed(int)}, {@link #keyAt(int)}
+ * and {@link #valueAt(int)}. Entries cannot be removed one by one; use {@link #clear()}.
+ */
+public class LongLongHashMap {
+
+    // Marks a free slot. Keys must therefore be non-negative.
+    private static final long FREE = -1L;
+
+    // Keys and values of each slot. The capacity is always a power of two.
+    private long[] keys;
+    private long[] values;
+
+    // Number of entries, and the number of entries at which the table grows.
+    private int size;
+    private int threshold;
+
+    /**
+     * Creates an empty map sized for the given number of entries.
+     *
+     * @param expectedSize The number of entries expected; the map grows beyond it if needed.
+     */
+    public LongLongHashMap(int expectedSize) {
+        allocate(Math.max(16, Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) << 1));
+    }
+
+    /**
+     * Looks up a key.
+     *
+     * @param key     The key, which must not be negative.
+     * @param missing The value to return if the key is not present.
+     * @return The value stored for the key, or {@code missing}.
+     */
+    public long get(long key, long missing) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long stored = keys[slot];
+            if (stored == key) return values[slot];
+            if (stored == FREE) return missing;
+        }
+    }
+
+    /**
+     * Stores a value for a key, replacing any previous value.
+     *
+     * @param key   The key, which must not be negative.
+     * @param value The value to store.
+     */
+    public void put(long key, long value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Keys must not be negative: " + key);
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == FREE) {
+            if (size >= threshold) {
+                grow();
+                put(key, value);
+                return;
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Adds to the value stored for a key, starting from 0 if the key is not present.
+     *
+     * @param key   The key, which must not be negative.
+     * @param delta The amount to add.
+     */
+    public void add(long key, long delta) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Keys must not be negative: " + key);
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == FREE) {
+            if (size >= threshold) {
+                grow();
+                add(key, delta);
+                return;
+            }
+            keys[slot] = key;
+            values[slot] = 0;
+            size++;
+        }
+        values[slot] += delta;
+    }
+
+    /**
+     * Finds the slot holding a key.
+     *
+     * @param key The key.
+     * @return The slot, or -1 if the key is not present.
+     */
+    public int slotOf(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long stored = keys[slot];
+            if (stored == key) return slot;
+            if (stored == FREE) return -1;
+        }
+    }
+
+    /**
+     * @return The number of entries in the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every entry, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    /**
+     * @return The number of slots, for walking the entries.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * @return True if the slot holds an entry.
+     */
+    public boolean isUsed(int slot) {
+        return keys[slot] != FREE;
+    }
+
+    /**
+     * @return The key stored in a used slot.
+     */
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * @return The value stored in a used slot.
+     */
+    public long valueAt(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Creates empty tables of the given power-of-two capacity.
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, FREE);
+        threshold = capacity / 2; // Keep probe sequences short.
+    }
+
+    /**
+     * Doubles the capacity and reinserts every entry.
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(keys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Scrambles a key into its home slot.
+     */
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
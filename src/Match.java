@@ -0,0 +1,219 @@
+/**
+ * A Match is a game between two players, each with a fleet on an ocean of their own, who
+ * take turns shooting at each other's ocean. Player 0 shoots first; after every shot the
+ * turn passes to the other player. The first player to sink the whole opposing fleet wins.
+ *
+ * Each player sees the opponent's ocean only through a FogView, which records the outcomes
+ * of their own shots. The engine never reads or hands out getShipArray(), so neither a local
+ * driver nor a network client can learn more than the shot outcomes.
+ *
+ * A match is not thread-safe; the MatchServer drives every match from its selector thread.
+ */
+public class Match {
+
+    /** A shot at empty sea or at a ship already sunk. */
+    public static final int MISS = 0;
+
+    /** A shot that hit a ship without sinking it. */
+    public static final int HIT = 1;
+
+    /** A shot that sank a ship, with more ships of the fleet still afloat. */
+    public static final int SUNK = 2;
+
+    /** A shot that sank the last ship of the fleet, winning the match. */
+    public static final int WON = 3;
+
+    // The fleet of each player.
+    private final OceanInterface[] oceans;
+
+    // What each player has seen of the opponent's ocean.
+    private final VisibleBoard[] views;
+
+    // Read-only wrappers of the views, handed out by getView.
+    private final FogView[] fogViews;
+
+    // The player to shoot next, or -1 once the match is over.
+    private int turn;
+
+    // The player who won, or -1 while the match is on.
+    private int winner = -1;
+
+    /**
+     * Creates a match between two placed fleets. Player 0 shoots first.
+     *
+     * @param first  The fleet of player 0.
+     * @param second The fleet of player 1, on a board of the same size.
+     * @throws IllegalArgumentException If the boards differ in size.
+     */
+    public Match(OceanInterface first, OceanInterface second) {
+        BoardConfig a = first.getConfig();
+        BoardConfig b = second.getConfig();
+        if (a.getRows() != b.getRows() || a.getColumns() != b.getColumns()) {
+            throw new IllegalArgumentException("Both fleets must be on boards of the same size.");
+        }
+        this.oceans = new OceanInterface[] {first, second};
+        this.views = new VisibleBoard[] {
+                new VisibleBoard(b.getRows(), b.getColumns()),
+                new VisibleBoard(a.getRows(), a.getColumns())};
+        this.fogViews = new FogView[] {new ReadOnlyView(views[0]), new ReadOnlyView(views[1])};
+    }
+
+    /**
+     * @return The player to shoot next, or -1 once the match is over.
+     */
+    public int getTurn() {
+        return winner < 0 ? turn : -1;
+    }
+
+    /**
+     * @return The player who won, or -1 while the match is on.
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * @return True once one fleet has been sunk.
+     */
+    public boolean isOver() {
+        return winner >= 0;
+    }
+
+    /**
+     * @return The board dimensions and fleet of the given player.
+     */
+    public BoardConfig getConfig(int player) {
+        return oceans[check(player)].getConfig();
+    }
+
+    /**
+     * Returns what a player has seen of the opponent's ocean. The view is live: it shows
+     * every later shot of that player as well. It wraps the match's own record of the shots,
+     * so it cannot be cast back and written to.
+     *
+     * @param player The player, 0 or 1.
+     * @return The read-only view.
+     */
+    public FogView getView(int player) {
+        return fogViews[check(player)];
+    }
+
+    /**
+     * Fires the shot of the player whose turn it is at the opponent's ocean, records the
+     * outcome in the player's view and passes the turn.
+     *
+     * @param player The player shooting.
+     * @param row    The row to shoot at.
+     * @param column The column to shoot at.
+     * @return MISS, HIT, SUNK or WON.
+     * @throws IllegalStateException    If the match is over or it is the other player's turn.
+     * @throws IllegalArgumentException If the cell is off the board.
+     */
+    public int shoot(int player, int row, int column) {
+        check(player);
+        if (winner >= 0) {
+            throw new IllegalStateException("The match is over.");
+        }
+        if (player != turn) {
+            throw new IllegalStateException("It is player " + turn + "'s turn.");
+        }
+        OceanInterface target = oceans[1 - player];
+        if (!target.getConfig().isOnBoard(row, column)) {
+            throw new IllegalArgumentException("Off the board: " + row + "," + column);
+        }
+
+        int sunkBefore = target.getShipsSunk();
+        boolean hit = target.shootAt(row, column);
+        boolean sunk = target.getShipsSunk() > sunkBefore;
+        views[player].record(row, column, hit, sunk);
+        turn = 1 - player;
+
+        if (!hit) return MISS;
+        if (!sunk) return HIT;
+        if (!target.isGameOver()) return SUNK;
+        winner = player;
+        return WON;
+    }
+
+    /**
+     * Plays a whole match between two strategies, each shown only its own view.
+     *
+     * @param first    The strategy of player 0.
+     * @param second   The strategy of player 1.
+     * @param maxShots The most shots either player may fire before the match is abandoned.
+     * @return The winner, or -1 if the match was abandoned.
+     */
+    public int play(Strategy first, Strategy second, int maxShots) {
+        Strategy[] strategies = {first, second};
+        first.newGame(views[0]);
+        second.newGame(views[1]);
+        while (winner < 0) {
+            int player = turn;
+            VisibleBoard view = views[player];
+            if (view.getShotsFired() >= maxShots) return -1;
+
+            int cell = strategies[player].nextShot(view);
+            int row = cell / view.getColumns();
+            int column = cell % view.getColumns();
+            int outcome = shoot(player, row, column);
+            strategies[player].shotResult(row, column, outcome != MISS, outcome >= SUNK);
+        }
+        return winner;
+    }
+
+    /**
+     * A FogView that only reads a VisibleBoard, hiding its record and clear methods.
+     */
+    private static final class ReadOnlyView implements FogView {
+        private final VisibleBoard board;
+
+        ReadOnlyView(VisibleBoard board) {
+            this.board = board;
+        }
+
+        @Override
+        public int getRows() {
+            return board.getRows();
+        }
+
+        @Override
+        public int getColumns() {
+            return board.getColumns();
+        }
+
+        @Override
+        public boolean isFiredUpon(int row, int column) {
+            return board.isFiredUpon(row, column);
+        }
+
+        @Override
+        public boolean isHit(int row, int column) {
+            return board.isHit(row, column);
+        }
+
+        @Override
+        public boolean isSunk(int row, int column) {
+            return board.isSunk(row, column);
+        }
+
+        @Override
+        public int getShotsFired() {
+            return board.getShotsFired();
+        }
+
+        @Override
+        public int getShipsSunk() {
+            return board.getShipsSunk();
+        }
+    }
+
+    /**
+     * Checks that a player number is 0 or 1.
+     */
+    private static int check(int player) {
+        if (player != 0 && player != 1) {
+            throw new IllegalArgumentException("Players are 0 and 1, not " + player + ".");
+        }
+        return player;
+    }
+}
@@ -0,0 +1,335 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+/**
+ * The MatchServer pairs players who connect over TCP into two-player matches and referees
+ * them: it holds both fleets, enforces the turns and tells each player the outcome of every
+ * shot, their own and the opponent's. A player only ever learns shot outcomes, through the
+ * fog view of their Match; no ship position is sent before it has been hit.
+ *
+ * Everything runs on the single selector thread of LineServer, so tens of thousands of
+ * matches cost their boards and one buffer pair per connection, not a thread each. Each
+ * match holds two BitboardOceans, the most compact board, taken from an OceanPool and
+ * returned to it when the match ends.
+ *
+ * Protocol: ASCII lines ending with '\n', tokens separated by single spaces.
+ * - {@code J}              join with a random fleet                 reply {@code J <match> <player>}
+ * - {@code J <seed>}       join with the fleet of the seed          reply {@code J <match> <player>}
+ *                          Players are paired in order of arrival; the first of a pair is
+ *                          player 0 and shoots first. Once paired, both get {@code G <match>}.
+ *                          A player cannot be paired with themselves.
+ * - {@code S <m> <r> <c>}  shoot at row r, column c of the opponent reply {@code M}, {@code H}, {@code K} or {@code W}
+ *                          (miss, hit, sunk a ship, sunk the last ship); the opponent gets
+ *                          {@code O <m> <r> <c> <outcome>}
+ * - {@code V <m>}          your view of the opponent's board        reply {@code V <m> <cells>}, one character per
+ *                          cell in row order: '.' not fired upon, 'o' miss, 'x' hit, '#' sunk
+ * - {@code Q <m>}          resign, or leave the queue               reply {@code Q}; the opponent gets {@code R <m>}
+ * - {@code T}              server statistics                        reply {@code T <matches> <waiting> <requests> <p50> <p99> <max>}
+ * Errors are reported as {@code E <message>}; the connection stays open.
+ *
+ * A match ends when a fleet is sunk or a player resigns; a player who disconnects resigns
+ * every match they are in.
+ *
+ * A seeded fleet is the one a BitboardOcean gets from {@code placeAllShipsRandomly(new SplitMix64(seed))}.
+ */
+public class MatchServer extends LineServer {
+
+    // Reply letter of each Match outcome.
+    private static final char[] OUTCOMES = {'M', 'H', 'K', 'W'};
+
+    // Open matches by id, including the one waiting for its second player.
+    private final HashMap<Integer, Table> tables = new HashMap<>();
+
+    // The match waiting for a second player, or null.
+    private Table waiting;
+
+    // Id of the next match; ids are never reused.
+    private int nextTable = 1;
+
+    // Source of layouts for unseeded fleets.
+    private final SplittableRandom random = new SplittableRandom();
+
+    // Fleets of finished matches, reset for the next players to join.
+    private final OceanPool<BitboardOcean> fleets = new OceanPool<>(BoardConfig.STANDARD, BitboardOcean::new, 1024);
+
+    // Number of matches under way and of players waiting, readable from any thread.
+    private volatile int matchCount;
+    private volatile int waitingCount;
+
+    /**
+     * One match and the connections of its players.
+     */
+    private static final class Table {
+        final int id;
+        final BitboardOcean[] fleets = new BitboardOcean[2];
+        final Player[] players = new Player[2];
+
+        // Created once both players are seated.
+        Match match;
+
+        Table(int id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * A connection and the matches it plays in.
+     */
+    private static final class Player extends Connection {
+        final ArrayList<Table> tables = new ArrayList<>(2);
+    }
+
+    /**
+     * Opens a server on a local port.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be opened.
+     */
+    public MatchServer(int port) throws IOException {
+        super(port, 1000);
+    }
+
+    /**
+     * Runs the selector loop on a new daemon thread.
+     *
+     * @return This server.
+     */
+    @Override
+    public MatchServer start() {
+        super.start();
+        return this;
+    }
+
+    /**
+     * @return The number of matches under way.
+     */
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    /**
+     * @return The number of players waiting for an opponent, 0 or 1.
+     */
+    public int getWaitingCount() {
+        return waitingCount;
+    }
+
+    @Override
+    protected Connection newConnection() {
+        return new Player();
+    }
+
+    /**
+     * Handles one request and queues its reply.
+     */
+    @Override
+    protected void handle(Connection connection, byte command, int count, long now) {
+        Player player = (Player) connection;
+        switch (command) {
+            case 'J' -> join(player, count);
+            case 'S' -> shoot(player, count);
+            case 'V' -> view(player, count);
+            case 'Q' -> resign(player, count);
+            case 'T' -> stats(player, count);
+            default -> reply(player, "E unknown command\n");
+        }
+    }
+
+    /**
+     * Resigns every match of a player who went away.
+     */
+    @Override
+    protected void disconnected(Connection connection) {
+        Player player = (Player) connection;
+        while (!player.tables.isEmpty()) {
+            end(player.tables.get(player.tables.size() - 1), player);
+        }
+    }
+
+    /**
+     * Seats a player at the waiting match, or opens a new one.
+     */
+    private void join(Player player, int count) {
+        if (count > 2) {
+            reply(player, "E usage: J [seed]\n");
+            return;
+        }
+        if (waiting != null && waiting.players[0] == player) {
+            reply(player, "E already waiting\n");
+            return;
+        }
+        BitboardOcean fleet = fleets.acquire();
+        fleet.placeAllShipsRandomly(count == 2 ? new SplitMix64(tokens[1]) : random);
+
+        Table table = waiting;
+        int seat = 1;
+        if (table == null) {
+            table = new Table(nextTable++);
+            tables.put(table.id, table);
+            waiting = table;
+            seat = 0;
+        }
+        table.fleets[seat] = fleet;
+        table.players[seat] = player;
+        player.tables.add(table);
+        reply(player, "J " + table.id + " " + seat + "\n");
+
+        if (seat == 1) {
+            waiting = null;
+            table.match = new Match(table.fleets[0], table.fleets[1]);
+            String start = "G " + table.id + "\n";
+            reply(player, start);
+            push(table.players[0], start);
+        }
+        updateCounts();
+    }
+
+    /**
+     * Fires the shot of the player whose turn it is and tells both players the outcome.
+     */
+    private void shoot(Player player, int count) {
+        if (count != 4) {
+            reply(player, "E usage: S <match> <row> <column>\n");
+            return;
+        }
+        Table table = table(player, tokens[1]);
+        if (table == null) return;
+        Match match = table.match;
+        if (match == null) {
+            reply(player, "E waiting for an opponent\n");
+            return;
+        }
+        int turn = match.getTurn();
+        if (table.players[turn] != player) {
+            reply(player, "E not your turn\n");
+            return;
+        }
+        long row = tokens[2];
+        long column = tokens[3];
+        if (row < 0 || column < 0 || row > Integer.MAX_VALUE || column > Integer.MAX_VALUE
+                || !table.fleets[1 - turn].getConfig().isOnBoard((int) row, (int) column)) {
+            reply(player, "E off the board\n");
+            return;
+        }
+
+        int outcome = match.shoot(turn, (int) row, (int) column);
+        reply(player, OUTCOMES[outcome] + "\n");
+        push(table.players[1 - turn], "O " + table.id + " " + row + " " + column + " " + OUTCOMES[outcome] + "\n");
+        if (outcome == Match.WON) {
+            if (Metrics.ENABLED) Metrics.GAME_SHOTS.record(match.getView(turn).getShotsFired());
+            close(table);
+        }
+    }
+
+    /**
+     * Sends a player their fog view of the opponent's board.
+     */
+    private void view(Player player, int count) {
+        if (count != 2) {
+            reply(player, "E usage: V <match>\n");
+            return;
+        }
+        Table table = table(player, tokens[1]);
+        if (table == null) return;
+        if (table.match == null) {
+            reply(player, "E waiting for an opponent\n");
+            return;
+        }
+        FogView view = table.match.getView(table.players[0] == player ? 0 : 1);
+        StringBuilder line = new StringBuilder(view.getRows() * view.getColumns() + 16);
+        line.append("V ").append(table.id).append(' ');
+        for (int row = 0; row < view.getRows(); row++) {
+            for (int col = 0; col < view.getColumns(); col++) {
+                line.append(!view.isFiredUpon(row, col) ? '.' : !view.isHit(row, col) ? 'o' : view.isSunk(row, col) ? '#' : 'x');
+            }
+        }
+        reply(player, line.append('\n').toString());
+    }
+
+    /**
+     * Resigns a match, or leaves the queue.
+     */
+    private void resign(Player player, int count) {
+        if (count != 2) {
+            reply(player, "E usage: Q <match>\n");
+            return;
+        }
+        Table table = table(player, tokens[1]);
+        if (table == null) return;
+        end(table, player);
+        reply(player, "Q\n");
+    }
+
+    /**
+     * Reports server statistics.
+     */
+    private void stats(Player player, int count) {
+        if (count != 1) {
+            reply(player, "E usage: T\n");
+            return;
+        }
+        reply(player, "T " + matchCount + " " + waitingCount + " " + getRequestCount() + " " + getLatencyPercentile(0.5)
+                + " " + getLatencyPercentile(0.99) + " " + getMaxLatency() + "\n");
+    }
+
+    /**
+     * Ends a match because a player resigned, telling the other player.
+     */
+    private void end(Table table, Player quitter) {
+        if (table == waiting) {
+            waiting = null;
+        } else {
+            for (Player other : table.players) {
+                if (other != quitter) push(other, "R " + table.id + "\n");
+            }
+        }
+        close(table);
+    }
+
+    /**
+     * Removes a finished match and returns its fleets to the pool.
+     */
+    private void close(Table table) {
+        tables.remove(table.id);
+        for (int seat = 0; seat < 2; seat++) {
+            if (table.players[seat] != null) table.players[seat].tables.remove(table);
+            if (table.fleets[seat] != null) fleets.release(table.fleets[seat]);
+        }
+        updateCounts();
+    }
+
+    /**
+     * Looks up a match the player is seated in, replying with an error if there is none.
+     */
+    private Table table(Player player, long id) {
+        Table table = id > 0 && id < nextTable ? tables.get((int) id) : null;
+        if (table == null || (table.players[0] != player && table.players[1] != player)) {
+            reply(player, "E unknown match\n");
+            return null;
+        }
+        return table;
+    }
+
+    /**
+     * Publishes the numbers of matches and waiting players.
+     */
+    private void updateCounts() {
+        waitingCount = waiting == null ? 0 : 1;
+        matchCount = tables.size() - waitingCount;
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args Optionally the port (default 7778).
+     * @throws IOException If the port cannot be opened.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7778;
+        MatchServer server = new MatchServer(port);
+        System.out.println("Battleship match server listening on port " + server.getPort());
+        server.run();
+    }
+}
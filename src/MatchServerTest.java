@@ -0,0 +1,187 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the MatchServer, played against localhost.
+ */
+class MatchServerTest {
+
+    private MatchServer server;
+
+    /**
+     * Starts a server on a free port.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new MatchServer(0).start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    /**
+     * A blocking test client speaking the line protocol.
+     */
+    private final class Client implements AutoCloseable {
+        private final Socket socket = new Socket("localhost", server.getPort());
+        private final OutputStream out = socket.getOutputStream();
+        private final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+
+        Client() throws IOException {
+        }
+
+        String request(String line) throws IOException {
+            out.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return in.readLine();
+        }
+
+        String readLine() throws IOException {
+            return in.readLine();
+        }
+
+        /**
+         * Drops the connection, the way a client that goes away does.
+         */
+        void disconnect() throws IOException {
+            socket.close();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * Test that a seeded match plays out exactly like a local Match, with every shot reported
+     * to the opponent and the views showing only outcomes.
+     */
+    @Test
+    public void testSeededMatchMatchesLocalMatch() throws IOException {
+        BitboardOcean first = new BitboardOcean();
+        first.placeAllShipsRandomly(new SplitMix64(1));
+        BitboardOcean second = new BitboardOcean();
+        second.placeAllShipsRandomly(new SplitMix64(2));
+        Match local = new Match(first, second);
+
+        try (Client a = new Client(); Client b = new Client()) {
+            assertEquals("J 1 0", a.request("J 1"));
+            assertEquals("J 1 1", b.request("J 2"));
+            assertEquals("G 1", b.readLine());
+            assertEquals("G 1", a.readLine());
+
+            Client[] players = {a, b};
+            int shot = 0;
+            while (!local.isOver()) {
+                int player = local.getTurn();
+                // Player 0 sweeps the board in order; player 1 sweeps it backwards.
+                int cell = player == 0 ? shot / 2 : 99 - shot / 2;
+                int row = cell / 10;
+                int col = cell % 10;
+                String outcome = String.valueOf("MHKW".charAt(local.shoot(player, row, col)));
+                assertEquals(outcome, players[player].request("S 1 " + row + " " + col));
+                assertEquals("O 1 " + row + " " + col + " " + outcome, players[1 - player].readLine());
+                shot++;
+            }
+            assertEquals("E unknown match", a.request("V 1"), "A finished match should be gone.");
+            assertEquals(0, server.getMatchCount());
+        }
+    }
+
+    /**
+     * Test the fog view and the errors for turns, unknown matches and waiting players.
+     */
+    @Test
+    public void testViewAndErrors() throws IOException {
+        try (Client a = new Client(); Client b = new Client(); Client c = new Client()) {
+            assertEquals("J 1 0", a.request("J 3"));
+            assertEquals("E already waiting", a.request("J"));
+            assertEquals("E waiting for an opponent", a.request("S 1 0 0"));
+            assertEquals("J 1 1", b.request("J 4"));
+            assertEquals("G 1", b.readLine());
+            assertEquals("G 1", a.readLine());
+
+            assertEquals("E not your turn", b.request("S 1 0 0"));
+            assertEquals("E unknown match", c.request("S 1 0 0"), "Only seated players may play.");
+            assertEquals("E off the board", a.request("S 1 0 10"));
+            String outcome = a.request("S 1 0 0");
+            b.readLine();
+
+            String view = a.request("V 1");
+            assertTrue(view.startsWith("V 1 "));
+            String cells = view.substring(4);
+            assertEquals(100, cells.length());
+            assertEquals(outcome.equals("M") ? 'o' : 'x', cells.charAt(0));
+            assertEquals(99, cells.chars().filter(ch -> ch == '.').count(), "Only the fired cell should be revealed.");
+            assertEquals("V 1 " + ".".repeat(100), b.request("V 1"), "Player 1 has not fired yet.");
+        }
+    }
+
+    /**
+     * Test that resigning and disconnecting both tell the opponent and end the match.
+     */
+    @Test
+    public void testResignAndDisconnect() throws IOException, InterruptedException {
+        try (Client a = new Client(); Client b = new Client()) {
+            a.request("J");
+            b.request("J");
+            b.readLine();
+            a.readLine();
+            assertEquals("Q", a.request("Q 1"));
+            assertEquals("R 1", b.readLine());
+
+            assertEquals("J 2 0", b.request("J"));
+            assertEquals("J 2 1", a.request("J"));
+            a.readLine();
+            b.readLine();
+            assertEquals(1, server.getMatchCount());
+            a.disconnect();
+            assertEquals("R 2", b.readLine(), "A player who disconnects resigns.");
+            assertEquals(0, server.getMatchCount());
+        }
+    }
+
+    /**
+     * Test that many matches are played at once on one server.
+     */
+    @Test
+    public void testManyMatches() throws IOException {
+        Client[] clients = new Client[400];
+        try {
+            for (int i = 0; i < clients.length; i++) {
+                clients[i] = new Client();
+                assertEquals("J " + (i / 2 + 1) + " " + (i % 2), clients[i].request("J " + i));
+                if (i % 2 == 1) {
+                    clients[i].readLine();
+                    clients[i - 1].readLine();
+                }
+            }
+            assertEquals(clients.length / 2, server.getMatchCount());
+            for (int turn = 0; turn < 6; turn++) {
+                for (int i = turn % 2; i < clients.length; i += 2) {
+                    int match = i / 2 + 1;
+                    assertTrue(clients[i].request("S " + match + " " + turn + " " + turn).matches("[MHK]"));
+                    assertTrue(clients[i ^ 1].readLine().startsWith("O " + match + " "));
+                }
+            }
+            String[] stats = clients[0].request("T").split(" ");
+            assertEquals(String.valueOf(clients.length / 2), stats[1]);
+            assertEquals("0", stats[2]);
+        } finally {
+            for (Client client : clients) {
+                if (client != null) client.close();
+            }
+        }
+    }
+}
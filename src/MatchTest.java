@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the Match class.
+ */
+class MatchTest {
+
+    /**
+     * Test that players must alternate and that the views show only their own shots.
+     */
+    @Test
+    public void testTurnsAndViews() {
+        Match match = new Match(placed(1), placed(2));
+        assertEquals(0, match.getTurn(), "Player 0 should shoot first.");
+        assertThrows(IllegalStateException.class, () -> match.shoot(1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> match.shoot(0, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> match.getView(2));
+
+        match.shoot(0, 3, 4);
+        assertEquals(1, match.getTurn());
+        assertThrows(IllegalStateException.class, () -> match.shoot(0, 3, 5));
+        match.shoot(1, 7, 7);
+
+        FogView first = match.getView(0);
+        FogView second = match.getView(1);
+        assertTrue(first.isFiredUpon(3, 4) && !first.isFiredUpon(7, 7), "A view should show only its player's shots.");
+        assertTrue(second.isFiredUpon(7, 7) && !second.isFiredUpon(3, 4));
+        assertEquals(1, first.getShotsFired());
+        assertFalse(first instanceof VisibleBoard, "A view should not be castable to a writable board.");
+    }
+
+    /**
+     * Test that a view reveals nothing of unhit ships, and that sinking every ship wins.
+     */
+    @Test
+    public void testFogAndWinner() {
+        BitboardOcean target = placed(7);
+        Match match = new Match(placed(3), target);
+        int outcome = -1;
+        for (int row = 0; row < 10 && !match.isOver(); row++) {
+            for (int col = 0; col < 10 && !match.isOver(); col++) {
+                FogView view = match.getView(0);
+                if (target.isOccupied(row, col)) {
+                    assertFalse(view.isHit(row, col), "A ship cell should look unknown until it is shot.");
+                }
+                outcome = match.shoot(0, row, col);
+                assertEquals(target.isOccupied(row, col), view.isHit(row, col));
+                if (!match.isOver()) match.shoot(1, 0, 0); // Player 1 only passes time.
+            }
+        }
+        assertEquals(Match.WON, outcome);
+        assertEquals(0, match.getWinner());
+        assertEquals(-1, match.getTurn());
+        assertEquals(BoardConfig.STANDARD.getFleetSize(), match.getView(0).getShipsSunk());
+        assertThrows(IllegalStateException.class, () -> match.shoot(1, 0, 0));
+    }
+
+    /**
+     * Test that two strategies play a match to the end.
+     */
+    @Test
+    public void testPlay() {
+        Match match = new Match(placed(11), placed(12));
+        int winner = match.play(new ProbabilityStrategy(BoardConfig.STANDARD), new RandomStrategy(new SplitMix64(5)), 100);
+        assertTrue(winner == 0 || winner == 1);
+        assertEquals(winner, match.getWinner());
+        assertEquals(BoardConfig.STANDARD.getFleetSize(), match.getView(winner).getShipsSunk());
+        int loserShots = match.getView(1 - winner).getShotsFired();
+        assertEquals(winner == 0 ? loserShots + 1 : loserShots, match.getView(winner).getShotsFired(),
+                "Players should have alternated.");
+    }
+
+    /**
+     * @return A standard board with a seeded random layout.
+     */
+    private static BitboardOcean placed(long seed) {
+        BitboardOcean ocean = new BitboardOcean();
+        ocean.placeAllShipsRandomly(new SplitMix64(seed));
+        return ocean;
+    }
+}
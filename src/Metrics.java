@@ -0,0 +1,200 @@
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics gathers game-level measurements from every board, simulator and server in the JVM,
+ * and exports them as JSON or in the Prometheus text format.
+ *
+ * Recording is switched on with the system property {@code battleship.metrics=true} at start-up.
+ * The switch is a static final constant, so when it is off the JIT removes the instrumentation
+ * from the hot paths altogether; instrumented code is written as
+ * {@code if (Metrics.ENABLED) Metrics.SHOTS.increment();}.
+ *
+ * Histograms:
+ * - shot_nanos          time per shootAt on Ocean and BitboardOcean
+ * - placement_nanos     time per random fleet placement
+ * - placement_attempts  times a PlacementEngine planned a fleet before every ship fit
+ * - placement_choices   legal positions a ship was drawn from
+ * - game_shots          shots needed to win a game, from the simulator and the server
+ * Counters:
+ * - shots               shots fired at Ocean and BitboardOcean
+ * - duplicate_shots     shots at a cell already fired upon
+ * - wasted_shots        shots at a ship that was already sunk
+ * - first_hits          hits on a ship part not hit before; unlike getHitCount, repeats are not counted
+ * - ships_sunk          ships sunk
+ */
+public final class Metrics {
+
+    /** True if metrics are recorded, from the system property {@code battleship.metrics}. */
+    public static final boolean ENABLED = Boolean.getBoolean("battleship.metrics");
+
+    /** Time per shootAt, in nanoseconds. */
+    public static final Histogram SHOT_NANOS = new Histogram();
+
+    /** Time per random fleet placement, in nanoseconds. */
+    public static final Histogram PLACEMENT_NANOS = new Histogram();
+
+    /** Number of times the fleet was planned before every ship fit. */
+    public static final Histogram PLACEMENT_ATTEMPTS = new Histogram();
+
+    /** Number of legal positions each ship was drawn from. */
+    public static final Histogram PLACEMENT_CHOICES = new Histogram();
+
+    /** Number of shots needed to win a game. */
+    public static final Histogram GAME_SHOTS = new Histogram();
+
+    /** Shots fired. */
+    public static final LongAdder SHOTS = new LongAdder();
+
+    /** Shots at a cell that had already been fired upon. */
+    public static final LongAdder DUPLICATE_SHOTS = new LongAdder();
+
+    /** Shots at a ship that had already been sunk. */
+    public static final LongAdder WASTED_SHOTS = new LongAdder();
+
+    /** Hits on ship parts that had not been hit before. */
+    public static final LongAdder FIRST_HITS = new LongAdder();
+
+    /** Ships sunk. */
+    public static final LongAdder SHIPS_SUNK = new LongAdder();
+
+    // Export names and descriptions, in export order.
+    private static final String[] HISTOGRAM_NAMES = {
+            "shot_nanos", "placement_nanos", "placement_attempts", "placement_choices", "game_shots"};
+    private static final String[] HISTOGRAM_HELP = {
+            "Time per shootAt in nanoseconds.",
+            "Time per random fleet placement in nanoseconds.",
+            "Fleet plans needed before every ship fit.",
+            "Legal positions each ship was drawn from.",
+            "Shots needed to win a game."};
+    private static final Histogram[] HISTOGRAMS = {
+            SHOT_NANOS, PLACEMENT_NANOS, PLACEMENT_ATTEMPTS, PLACEMENT_CHOICES, GAME_SHOTS};
+
+    private static final String[] COUNTER_NAMES = {
+            "shots", "duplicate_shots", "wasted_shots", "first_hits", "ships_sunk"};
+    private static final String[] COUNTER_HELP = {
+            "Shots fired.",
+            "Shots at a cell already fired upon.",
+            "Shots at a ship already sunk.",
+            "Hits on ship parts not hit before.",
+            "Ships sunk."};
+    private static final LongAdder[] COUNTERS = {
+            SHOTS, DUPLICATE_SHOTS, WASTED_SHOTS, FIRST_HITS, SHIPS_SUNK};
+
+    // Percentiles exported for every histogram, and their JSON names.
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    // Prefix of every exported Prometheus metric.
+    private static final String PREFIX = "battleship_";
+
+    private Metrics() {
+    }
+
+    /**
+     * Records one shot. Call only when ENABLED.
+     *
+     * @param nanos       The time the shot took.
+     * @param firedBefore True if the cell had already been fired upon.
+     * @param sunkBefore  True if the cell belonged to a ship already sunk.
+     * @param hit         True if the shot hit a ship.
+     * @param sank        True if the shot sank a ship.
+     */
+    static void recordShot(long nanos, boolean firedBefore, boolean sunkBefore, boolean hit, boolean sank) {
+        SHOTS.increment();
+        SHOT_NANOS.record(nanos);
+        if (firedBefore) DUPLICATE_SHOTS.increment();
+        if (sunkBefore) WASTED_SHOTS.increment();
+        if (hit && !firedBefore) FIRST_HITS.increment();
+        if (sank) SHIPS_SUNK.increment();
+    }
+
+    /**
+     * Clears every metric.
+     */
+    public static void reset() {
+        for (Histogram histogram : HISTOGRAMS) {
+            histogram.reset();
+        }
+        for (LongAdder counter : COUNTERS) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Exports every metric as one line of JSON: counters as numbers, histograms as objects
+     * with their count, sum, min, max, mean and percentiles.
+     *
+     * @return The JSON text.
+     */
+    public static String toJson() {
+        StringBuilder json = new StringBuilder(1024).append("{\"enabled\":").append(ENABLED);
+        for (int i = 0; i < COUNTERS.length; i++) {
+            json.append(",\"").append(COUNTER_NAMES[i]).append("\":").append(COUNTERS[i].sum());
+        }
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            json.append(",\"").append(HISTOGRAM_NAMES[i]).append("\":");
+            appendJson(json, HISTOGRAMS[i]);
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Exports every metric in the Prometheus text exposition format: counters as counters,
+     * histograms as summaries with quantiles, sum and count.
+     *
+     * @return The exposition text, ending with a newline.
+     */
+    public static String toPrometheus() {
+        StringBuilder text = new StringBuilder(2048);
+        for (int i = 0; i < COUNTERS.length; i++) {
+            String name = PREFIX + COUNTER_NAMES[i] + "_total";
+            text.append("# HELP ").append(name).append(' ').append(COUNTER_HELP[i]).append('\n')
+                    .append("# TYPE ").append(name).append(" counter\n")
+                    .append(name).append(' ').append(COUNTERS[i].sum()).append('\n');
+        }
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            appendPrometheus(text, HISTOGRAM_NAMES[i], HISTOGRAM_HELP[i], HISTOGRAMS[i]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Appends a histogram as a JSON object with its count, sum, min, max, mean and percentiles.
+     *
+     * @param json      The text to append to.
+     * @param histogram The histogram.
+     */
+    public static void appendJson(StringBuilder json, Histogram histogram) {
+        long count = histogram.getCount();
+        json.append("{\"count\":").append(count)
+                .append(",\"sum\":").append(histogram.getSum())
+                .append(",\"min\":").append(histogram.getMin())
+                .append(",\"max\":").append(histogram.getMax())
+                .append(",\"mean\":").append(count == 0 ? "0" : String.format(Locale.ROOT, "%.3f", histogram.getMean()));
+        for (int q = 0; q < QUANTILES.length; q++) {
+            json.append(",\"").append(QUANTILE_NAMES[q]).append("\":").append(histogram.getValueAtPercentile(QUANTILES[q]));
+        }
+        json.append('}');
+    }
+
+    /**
+     * Appends a histogram as a Prometheus summary with quantiles, sum and count.
+     *
+     * @param text      The text to append to.
+     * @param name      The metric name, without the common prefix.
+     * @param help      The description of the metric.
+     * @param histogram The histogram.
+     */
+    public static void appendPrometheus(StringBuilder text, String name, String help, Histogram histogram) {
+        name = PREFIX + name;
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(" summary\n");
+        for (double quantile : QUANTILES) {
+            text.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                    .append(histogram.getValueAtPercentile(quantile)).append('\n');
+        }
+        text.append(name).append("_sum ").append(histogram.getSum()).append('\n')
+                .append(name).append("_count ").append(histogram.getCount()).append('\n');
+    }
+}
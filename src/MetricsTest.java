@@ -0,0 +1,57 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the Metrics exports. Shots are recorded directly, so these tests do not
+ * depend on metrics being switched on for the JVM.
+ */
+class MetricsTest {
+
+    @AfterEach
+    public void tearDown() {
+        Metrics.reset();
+    }
+
+    /**
+     * Test that recorded shots are classified and exported as JSON.
+     */
+    @Test
+    public void testJson() {
+        Metrics.reset();
+        Metrics.recordShot(100, false, false, true, false); // First hit.
+        Metrics.recordShot(200, true, false, true, false);  // Repeated hit.
+        Metrics.recordShot(300, false, false, true, true);  // Sinking hit.
+        Metrics.recordShot(400, true, true, false, false);  // Shot at a sunk ship.
+
+        String json = Metrics.toJson();
+        assertTrue(json.startsWith("{") && json.endsWith("}"), json);
+        assertTrue(json.contains("\"shots\":4"), json);
+        assertTrue(json.contains("\"duplicate_shots\":2"), json);
+        assertTrue(json.contains("\"wasted_shots\":1"), json);
+        assertTrue(json.contains("\"first_hits\":2"), json);
+        assertTrue(json.contains("\"ships_sunk\":1"), json);
+        assertTrue(json.contains("\"shot_nanos\":{\"count\":4,\"sum\":1000,\"min\":100,\"max\":400"), json);
+    }
+
+    /**
+     * Test that the Prometheus export declares every metric and is well-formed line by line.
+     */
+    @Test
+    public void testPrometheus() {
+        Metrics.reset();
+        Metrics.GAME_SHOTS.record(42);
+        Metrics.recordShot(10, false, false, false, false);
+
+        String text = Metrics.toPrometheus();
+        assertTrue(text.endsWith("\n"));
+        assertTrue(text.contains("# TYPE battleship_shots_total counter\nbattleship_shots_total 1\n"), text);
+        assertTrue(text.contains("# TYPE battleship_game_shots summary\n"), text);
+        assertTrue(text.contains("battleship_game_shots{quantile=\"0.5\"} 42\n"), text);
+        assertTrue(text.contains("battleship_game_shots_count 1\n"), text);
+        for (String line : text.split("\n")) {
+            assertTrue(line.startsWith("# ") || line.matches("battleship_[a-z_]+(\\{quantile=\"[0-9.]+\"\\})? -?[0-9]+"),
+                    "Malformed line: " + line);
+        }
+    }
+}
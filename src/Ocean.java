@@ -1,4 +1,5 @@
-import java.util.Random;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
 
 /**
  * This class manages the game state and interactions with the ships on the board.
@@ -10,9 +11,42 @@ import java.util.Random;
  */
 public class Ocean implements OceanInterface {
 
-	// A 10x10 grid of ships, where each cell represents a part of a ship or EmptySea.
+	// Outcomes of a single shot, as returned by resolve.
+	private static final int MISSED = 0;
+	private static final int HIT = 1;
+	private static final int SANK = 2;
+
+	// Board dimensions and fleet of this game.
+	protected final BoardConfig config;
+
+	// A rows x columns grid of ships, where each cell represents a part of a ship or EmptySea.
 	protected Ship[][] ships;
 
+	// One bit per cell (index = row * columns + column), set once an empty cell has been fired upon.
+	protected final long[] misses;
+
+	// Per cell, the ship and the part of it that occupy the cell, packed as
+	// (shipId + 1) << segmentBits | segment; 0 for empty sea.
+	private final int[] segments;
+
+	// Number of low bits of a segments entry that hold the part index.
+	private final int segmentBits;
+
+	// The ships placed on this board, indexed by ship id, and their number.
+	private Ship[] fleet;
+	private int fleetCount;
+
+	// Cells under or next to a placed ship, where no other ship may go.
+	private final BlockedMask blocked;
+
+	// True once an EmptySea has been placed with Ship.placeShipAt. It is not in the fleet,
+	// so reset has to clear the whole grid to remove it.
+	private boolean seaPlaced;
+
+	// Engine and plan array for random placements, created on first use and reused after.
+	private PlacementEngine engine;
+	private int[] plan;
+
 	// Tracks the total number of shots fired by the user.
 	protected int shotsFired;
 
@@ -22,94 +56,324 @@ public class Ocean implements OceanInterface {
 	// Tracks the total number of ships that have been sunk.
 	protected int shipsSunk;
 
+	// Tracks the number of ships on the board that have not been sunk yet.
+	protected int shipsAfloat;
+
+	// Renderer used by print, created on first use.
+	private BoardRenderer renderer;
+
+	// Log that records every shot, or null. Set by ShotLog.attach.
+	ShotLog shotLog;
+
 	/**
-	 * Constructor initializes the game board with EmptySea objects in every position.
-	 * Also initializes the game state variables to track progress.
+	 * Constructor creates the standard 10x10 game with the standard fleet.
 	 */
 	public Ocean() {
-		ships = new Ship[10][10]; // Create a 10x10 grid.
+		this(BoardConfig.STANDARD);
+	}
 
-		// Fill each cell of the grid with an EmptySea object.
-		for (int i = 0; i < 10; i++) {
-			for (int j = 0; j < 10; j++) {
-				ships[i][j] = new EmptySea();
-			}
+	/**
+	 * Constructor initializes the game board with the shared EmptySea in every position.
+	 * Also initializes the game state variables to track progress.
+	 *
+	 * @param config The board dimensions and fleet of this game.
+	 */
+	public Ocean(BoardConfig config) {
+		this.config = config;
+		ships = new Ship[config.getRows()][config.getColumns()];
+		misses = new long[(config.getCells() + 63) >>> 6];
+		segments = new int[config.getCells()];
+		segmentBits = 32 - Integer.numberOfLeadingZeros(Math.max(config.getRows(), config.getColumns()) - 1);
+		fleet = new Ship[config.getFleetSize()];
+		blocked = new BlockedMask(config);
+
+		// Fill each cell of the grid with the shared EmptySea; misses are kept in the bitset.
+		EmptySea sea = EmptySea.shared();
+		for (int i = 0; i < config.getRows(); i++) {
+			Arrays.fill(ships[i], sea);
 		}
 
 		// Initialize game statistics.
 		shotsFired = 0;
 		hitCount = 0;
 		shipsSunk = 0;
+		shipsAfloat = 0;
 	}
 
 	/**
-	 * Randomly places all ships on the board. Larger ships are placed first to
-	 * minimize placement conflicts.
-	 * This method ensures that all ships are placed according to the rules of the game.
+	 * @return The board dimensions and fleet of this game.
 	 */
 	@Override
-	public void placeAllShipsRandomly() {
-		// Create an array representing the fleet of ships to be placed.
-		Ship[] fleet = {
-				new Battleship(), new Cruiser(), new Cruiser(),
-				new Destroyer(), new Destroyer(), new Destroyer(),
-				new Submarine(), new Submarine(), new Submarine(), new Submarine()
-		};
-
-		Random random = new Random(); // For generating random positions and orientations.
+	public BoardConfig getConfig() {
+		return config;
+	}
 
-		// Place each ship in the fleet.
-		for (Ship ship : fleet) {
-			boolean placed = false; // Tracks whether the ship has been successfully placed.
-			while (!placed) {
-				int row = random.nextInt(10); // Random row (0 to 9).
-				int column = random.nextInt(10); // Random column (0 to 9).
-				boolean horizontal = random.nextBoolean(); // Random orientation (horizontal or vertical).
+	/**
+	 * Randomly places all ships of the configured fleet on the board, in fleet order.
+	 * The standard fleet lists larger ships first to minimize placement conflicts.
+	 * Positions are drawn by a PlacementEngine, which samples only among the placements
+	 * that are still legal, so every ship is placed without a retry loop. Ships already
+	 * on the board are respected.
+	 *
+	 * The engine is kept for the next call, and after a reset the ships of the last game are
+	 * placed again, so placing a fleet on a reset ocean allocates nothing.
+	 *
+	 * @param random The random number generator to draw the positions from.
+	 */
+	@Override
+	public void placeAllShipsRandomly(RandomGenerator random) {
+		long start = Metrics.ENABLED ? System.nanoTime() : 0;
+		if (engine == null) {
+			engine = new PlacementEngine(config);
+			plan = new int[config.getFleetSize()];
+		} else {
+			engine.reset();
+		}
 
-				// Check if the ship can be placed at the specified location.
-				if (ship.okToPlaceShipAt(row, column, horizontal, this)) {
-					ship.placeShipAt(row, column, horizontal, this); // Place the ship.
-					placed = true; // Mark the ship as placed.
+		// Keep clear of any ships that are already on the board.
+		for (int i = 0; i < config.getRows(); i++) {
+			for (int j = 0; j < config.getColumns(); j++) {
+				if (isOccupied(i, j)) {
+					engine.markOccupied(i, j);
 				}
 			}
 		}
+
+		engine.planFleet(random, plan);
+
+		// Place each ship of the fleet at its planned position.
+		for (int i = 0; i < plan.length; i++) {
+			Ship ship = spareShip(i);
+			ship.placeShipAt(engine.row(plan[i]), engine.column(plan[i]), engine.isHorizontal(plan[i]), this);
+		}
+		if (Metrics.ENABLED) Metrics.PLACEMENT_NANOS.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Returns the ship to place for one entry of the fleet: the ship left by the last game in
+	 * the slot it will take if it has the right length, otherwise a new one.
+	 *
+	 * @param index The position of the ship in the fleet.
+	 * @return An unplaced ship of the right length.
+	 */
+	private Ship spareShip(int index) {
+		Ship spare = fleetCount < fleet.length ? fleet[fleetCount] : null;
+		if (spare != null && spare.getLength() == config.getShipLength(index)) {
+			return spare;
+		}
+		return config.newShip(index);
+	}
+
+	/**
+	 * Clears the board for a new game in place: removes every ship, every shot and the shot
+	 * log, and zeroes the statistics. Only the cells of the placed ships are rewritten, and
+	 * the ships themselves are kept, reset, for the next placeAllShipsRandomly, so ships
+	 * taken from the board before a reset must not be used after it.
+	 */
+	@Override
+	public void reset() {
+		EmptySea sea = EmptySea.shared();
+		int columns = config.getColumns();
+		if (seaPlaced) {
+			for (Ship[] row : ships) {
+				Arrays.fill(row, sea);
+			}
+			Arrays.fill(segments, 0);
+			seaPlaced = false;
+		}
+		for (int id = 0; id < fleetCount; id++) {
+			Ship ship = fleet[id];
+			int cell = ship.getBowRow() * columns + ship.getBowColumn();
+			int step = ship.isHorizontal() ? 1 : columns;
+			for (int part = 0; part < ship.getLength(); part++, cell += step) {
+				ships[cell / columns][cell % columns] = sea;
+				segments[cell] = 0;
+			}
+			ship.reset();
+		}
+		Arrays.fill(misses, 0L);
+		blocked.clear();
+
+		fleetCount = 0;
+		shotsFired = 0;
+		hitCount = 0;
+		shipsSunk = 0;
+		shipsAfloat = 0;
+		shotLog = null;
+	}
+
+	/**
+	 * Checks if a ship of the given length can be placed at the given location.
+	 * Applies the rules of Ship.okToPlaceShipAt: the ship must be within bounds and must
+	 * not overlap or touch another ship, even diagonally. The check is one AND of the ship's
+	 * footprint against the mask of blocked cells.
+	 *
+	 * @param length     The length of the ship.
+	 * @param row        The starting row of the ship.
+	 * @param column     The starting column of the ship.
+	 * @param horizontal True if the ship is placed horizontally, false otherwise.
+	 * @return True if the ship can be placed, false otherwise.
+	 */
+	public boolean okToPlaceShipAt(int length, int row, int column, boolean horizontal) {
+		return blocked.isClear(length, row, column, horizontal);
 	}
 
 	/**
 	 * Checks if the given location on the board is occupied by a ship.
 	 *
-	 * @param row    The row coordinate (0 to 9).
-	 * @param column The column coordinate (0 to 9).
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
 	 * @return true if the location contains a ship, false otherwise.
 	 */
 	@Override
 	public boolean isOccupied(int row, int column) {
-		return !(ships[row][column] instanceof EmptySea);
+		return segments[row * config.getColumns() + column] != 0;
 	}
 
 	/**
 	 * Fires a shot at the specified location. Updates game statistics such as
 	 * shots fired, hit count, and ships sunk. Returns whether the shot hits a ship.
 	 *
-	 * @param row    The row coordinate to shoot at (0 to 9).
-	 * @param column The column coordinate to shoot at (0 to 9).
+	 * @param row    The row coordinate to shoot at (0 to rows - 1).
+	 * @param column The column coordinate to shoot at (0 to columns - 1).
 	 * @return true if the shot hits a ship, false otherwise.
 	 */
 	@Override
 	public boolean shootAt(int row, int column) {
+		if (Metrics.ENABLED) {
+			boolean firedBefore = isFiredUpon(row, column);
+			boolean sunkBefore = isSunk(row, column);
+			int sunk = shipsSunk;
+			long start = System.nanoTime();
+			boolean hit = shoot(row, column);
+			Metrics.recordShot(System.nanoTime() - start, firedBefore, sunkBefore, hit, shipsSunk > sunk);
+			return hit;
+		}
+		return shoot(row, column);
+	}
+
+	/**
+	 * Fires a shot, through the shot log if one is attached.
+	 */
+	private boolean shoot(int row, int column) {
+		if (shotLog != null) {
+			return shotLog.record(this, row, column); // The log fires the shot and records its outcome.
+		}
+		return fire(row, column);
+	}
+
+	/**
+	 * Fires a shot without recording it in the shot log.
+	 *
+	 * @param row    The row coordinate to shoot at (0 to rows - 1).
+	 * @param column The column coordinate to shoot at (0 to columns - 1).
+	 * @return true if the shot hits a ship, false otherwise.
+	 */
+	boolean fire(int row, int column) {
 		shotsFired++; // Increment the total number of shots fired.
 
-		Ship target = ships[row][column]; // Get the ship at the specified location.
+		int outcome = resolve(row * config.getColumns() + column);
+		if (outcome == MISSED) return false; // Shot missed.
+
+		hitCount++; // Increment the hit count.
+		if (outcome == SANK) {
+			shipsSunk++; // Increment the count of sunk ships if the target is sunk.
+			shipsAfloat--;
+		}
+		return true; // Shot hit a ship.
+	}
+
+	/**
+	 * Fires a whole salvo in one pass. Outcomes are those of calling shootAt for each shot
+	 * in order, but the game statistics are updated once for the salvo. Salvos fired at an
+	 * ocean with a shot log, or while metrics are recorded, are fired shot by shot.
+	 *
+	 * @param rows    The row of each shot.
+	 * @param columns The column of each shot.
+	 * @param count   The number of shots, taken from the start of the arrays.
+	 * @param hits    Receives one bit per shot, set if the shot hit a ship.
+	 * @return The number of shots that hit a ship.
+	 */
+	@Override
+	public int shootAll(int[] rows, int[] columns, int count, long[] hits) {
+		if (shotLog != null || Metrics.ENABLED) {
+			return OceanInterface.super.shootAll(rows, columns, count, hits); // Shot by shot.
+		}
+		Arrays.fill(hits, 0, (count + 63) >>> 6, 0L);
+
+		int width = config.getColumns();
+		int salvoHits = 0;
+		int salvoSunk = 0;
+		for (int i = 0; i < count; i++) {
+			int outcome = resolve(rows[i] * width + columns[i]);
+			if (outcome != MISSED) {
+				hits[i >>> 6] |= 1L << i;
+				salvoHits++;
+				if (outcome == SANK) salvoSunk++;
+			}
+		}
+
+		shotsFired += count;
+		hitCount += salvoHits;
+		shipsSunk += salvoSunk;
+		shipsAfloat -= salvoSunk;
+		return salvoHits;
+	}
 
-		// Check if the shot hits the ship.
-		if (target.shootAt(row, column)) {
-			hitCount++; // Increment the hit count.
-			if (target.isSunk()) {
-				shipsSunk++; // Increment the count of sunk ships if the target is sunk.
+	/**
+	 * Applies a shot to the board without touching the game statistics.
+	 *
+	 * @param cell The cell shot at (row * columns + column).
+	 * @return MISSED, HIT or SANK.
+	 */
+	private int resolve(int cell) {
+		// One load gives the ship and the part of it at this cell, with no orientation checks.
+		int entry = segments[cell];
+
+		// Record a miss on empty sea, otherwise hit the part unless the ship is already sunk.
+		if (entry == 0) {
+			misses[cell >>> 6] |= 1L << cell;
+			return MISSED;
+		}
+		Ship target = fleet[(entry >>> segmentBits) - 1];
+		if (!target.shootPart(entry & ((1 << segmentBits) - 1))) {
+			return MISSED; // A sunk ship cannot be hit again.
+		}
+		return target.isSunk() ? SANK : HIT;
+	}
+
+	/**
+	 * Takes back the last shot fired at a location, given its outcome as recorded by a ShotLog.
+	 * Shots must be taken back in the reverse order they were fired.
+	 *
+	 * @param row     The row coordinate of the shot.
+	 * @param column  The column coordinate of the shot.
+	 * @param outcome The outcome of the shot, one of the ShotLog outcome constants.
+	 */
+	void undoShot(int row, int column, int outcome) {
+		shotsFired--;
+		if (outcome == ShotLog.MISS) {
+			int cell = row * config.getColumns() + column;
+			misses[cell >>> 6] &= ~(1L << cell);
+		} else if (outcome == ShotLog.HIT || outcome == ShotLog.SUNK) {
+			int entry = segments[row * config.getColumns() + column];
+			fleet[(entry >>> segmentBits) - 1].undoHit(entry & ((1 << segmentBits) - 1));
+			hitCount--;
+			if (outcome == ShotLog.SUNK) {
+				shipsSunk--;
+				shipsAfloat++;
 			}
-			return true; // Shot hit a ship.
+		} else if (outcome == ShotLog.REPEATED_HIT) {
+			hitCount--;
 		}
-		return false; // Shot missed.
+		// A repeated miss changed nothing but the shot count.
+	}
+
+	/**
+	 * @return The shot log recording this game, or null if shots are not recorded.
+	 */
+	public ShotLog getShotLog() {
+		return shotLog;
 	}
 
 	/**
@@ -138,20 +402,132 @@ public class Ocean implements OceanInterface {
 	}
 
 	/**
-	 * Checks if the game is over, i.e., all ships have been sunk.
+	 * @return The number of real ships placed on this board, sunk or not; placed EmptySea is not counted.
+	 */
+	int getFleetCount() {
+		return fleetCount;
+	}
+
+	/**
+	 * @return The number of ships on the board that have not been sunk yet.
+	 */
+	@Override
+	public int getShipsAfloat() {
+		return shipsAfloat;
+	}
+
+	/**
+	 * Called by Ship.placeShipAt whenever a ship is put on this board. Gives the ship the next
+	 * id, records, for each of its cells, the id and the index of the part in that cell, and
+	 * blocks the cells around it for later placements.
+	 *
+	 * @param ship The ship that was placed.
+	 * @throws IllegalStateException If the board cannot index any more ships.
+	 */
+	void shipPlaced(Ship ship) {
+		if (ship instanceof EmptySea) {
+			seaPlaced = true;
+			return; // Empty sea keeps the empty entry and is not a ship afloat.
+		}
+		shipsAfloat++;
+
+		if (fleetCount + 1 > (Integer.MAX_VALUE >>> segmentBits)) {
+			throw new IllegalStateException("Too many ships on this board.");
+		}
+		if (fleetCount == fleet.length) {
+			fleet = Arrays.copyOf(fleet, Math.max(4, fleetCount * 2));
+		}
+		fleet[fleetCount++] = ship;
+		blocked.block(ship.getLength(), ship.getBowRow(), ship.getBowColumn(), ship.isHorizontal());
+
+		int columns = config.getColumns();
+		int cell = ship.getBowRow() * columns + ship.getBowColumn();
+		int step = ship.isHorizontal() ? 1 : columns;
+		int entry = fleetCount << segmentBits;
+		for (int part = 0; part < ship.getLength(); part++, cell += step) {
+			segments[cell] = entry | part;
+		}
+	}
+
+	/**
+	 * Sets the game statistics of a restored game. The ships must already be on the board.
+	 *
+	 * @param shotsFired The total number of shots fired.
+	 * @param hitCount   The total number of hits.
+	 * @param shipsSunk  The number of ships sunk.
+	 */
+	void restoreCounters(int shotsFired, int hitCount, int shipsSunk) {
+		this.shotsFired = shotsFired;
+		this.hitCount = hitCount;
+		this.shipsSunk = shipsSunk;
+		this.shipsAfloat -= shipsSunk;
+	}
+
+	/**
+	 * Checks if the game is over, i.e., every ship of the fleet has been sunk.
 	 *
 	 * @return true if all ships are sunk, false otherwise.
 	 */
 	@Override
 	public boolean isGameOver() {
-		return shipsSunk == 10; // All 10 ships must be sunk for the game to end.
+		return shipsSunk == config.getFleetSize(); // Every ship must be sunk for the game to end.
+	}
+
+	/**
+	 * Checks if the given location has been fired upon: a recorded miss, or a ship part
+	 * that has been hit.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if a shot has been fired at this location, false otherwise.
+	 */
+	@Override
+	public boolean isFiredUpon(int row, int column) {
+		int cell = row * config.getColumns() + column;
+		if (segments[cell] == 0) {
+			return (misses[cell >>> 6] & (1L << cell)) != 0;
+		}
+		return isPartHit(segments[cell]);
 	}
 
 	/**
-	 * Provides access to the 10x10 grid of ships.
+	 * Checks if the given location is a ship part that has been hit.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if a ship part at this location has been hit, false otherwise.
+	 */
+	@Override
+	public boolean isHit(int row, int column) {
+		int entry = segments[row * config.getColumns() + column];
+		return entry != 0 && isPartHit(entry);
+	}
+
+	/**
+	 * Checks if the given location belongs to a ship that has been sunk.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if the location contains part of a sunk ship, false otherwise.
+	 */
+	@Override
+	public boolean isSunk(int row, int column) {
+		int entry = segments[row * config.getColumns() + column];
+		return entry != 0 && fleet[(entry >>> segmentBits) - 1].isSunk();
+	}
+
+	/**
+	 * @return True if the ship part named by a non-empty segments entry has been hit.
+	 */
+	private boolean isPartHit(int entry) {
+		return fleet[(entry >>> segmentBits) - 1].isPartHit(entry & ((1 << segmentBits) - 1));
+	}
+
+	/**
+	 * Provides access to the grid of ships.
 	 * This allows the Ship class to interact with the Ocean.
 	 *
-	 * @return A 10x10 2D array of ships representing the board state.
+	 * @return A rows x columns 2D array of ships representing the board state.
 	 */
 	@Override
 	public Ship[][] getShipArray() {
@@ -159,40 +535,18 @@ public class Ocean implements OceanInterface {
 	}
 
 	/**
-	 * Prints the current state of the board to the console.
+	 * Prints the current state of the board to the console with a single write.
 	 * Display rules:
 	 * - 'x': A sunken ship.
 	 * - 'S': A ship part that has been hit.
-	 * - '-': A missed shot (EmptySea that was fired upon).
+	 * - '-': A missed shot.
 	 * - '.': An unfired location.
 	 */
 	@Override
 	public void print() {
-		// Print column headers (0 to 9).
-		System.out.print("  ");
-		for (int col = 0; col < 10; col++) {
-			System.out.print(col + " ");
-		}
-		System.out.println();
-
-		// Print each row of the board.
-		for (int row = 0; row < 10; row++) {
-			System.out.print(row + " "); // Print row headers.
-
-			for (int col = 0; col < 10; col++) {
-				Ship ship = ships[row][col]; // Get the ship at the current cell.
-
-				if (ship.isSunk()) {
-					System.out.print("x "); // Display 'x' for a sunken ship.
-				} else if (ship.isHit(row, col)) {
-					System.out.print("S "); // Display 'S' for a hit ship part.
-				} else if (ship instanceof EmptySea && ((EmptySea) ship).isFiredUpon()) {
-					System.out.print("- "); // Display '-' for a missed shot.
-				} else {
-					System.out.print(". "); // Display '.' for an unfired location.
-				}
-			}
-			System.out.println(); // Move to the next row.
+		if (renderer == null) {
+			renderer = new BoardRenderer(config);
 		}
+		renderer.print(this, false, System.out);
 	}
 }
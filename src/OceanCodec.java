@@ -0,0 +1,260 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The OceanCodec saves and restores the complete state of an Ocean in a compact binary
+ * snapshot, written directly into and read from a ByteBuffer. A standard game takes at
+ * most 68 bytes plus its three counters, one varint byte each while it is below 128, so
+ * 71 bytes until repeated shots push shotsFired or hitCount past 127.
+ *
+ * Layout of version 1. Integers are unsigned varints (7 bits per byte, low bits first) and
+ * bit sets are packed little-endian, bit i of byte i / 8 being entry i:
+ * - version                  1 byte
+ * - rows, columns            varint each
+ * - fleet size, then each ship length of the fleet    varints
+ * - number of placed ships   varint
+ * - per placed ship: length, then (row * columns + column) * 2 + (horizontal ? 1 : 0),
+ *   then the hit parts as a bit set of (length + 7) / 8 bytes
+ * - missed cells             bit set of (rows * columns + 7) / 8 bytes
+ * - shotsFired, hitCount, shipsSunk   varint each
+ *
+ * Restoring builds the ships and marks their hit parts directly, so no shot is replayed.
+ * Every count read from a snapshot is checked against the bytes left before anything is
+ * allocated for it, so a corrupt snapshot is rejected instead of exhausting memory.
+ */
+public final class OceanCodec {
+
+    /** Version written in the first byte of every snapshot. */
+    public static final int VERSION = 1;
+
+    private OceanCodec() {
+    }
+
+    /**
+     * Writes a snapshot of the ocean at the buffer's position, advancing it.
+     *
+     * @param ocean  The ocean to save.
+     * @param buffer The buffer to write into.
+     * @throws java.nio.BufferOverflowException If the buffer has less room than encodedSize(ocean).
+     */
+    public static void encode(Ocean ocean, ByteBuffer buffer) {
+        BoardConfig config = ocean.getConfig();
+        int columns = config.getColumns();
+        Ship[][] ships = ocean.getShipArray();
+
+        buffer.put((byte) VERSION);
+        putVarint(buffer, config.getRows());
+        putVarint(buffer, columns);
+        putVarint(buffer, config.getFleetSize());
+        for (int length : config.getFleet()) {
+            putVarint(buffer, length);
+        }
+
+        putVarint(buffer, countShips(ocean));
+        for (int row = 0; row < config.getRows(); row++) {
+            for (int col = 0; col < columns; col++) {
+                Ship ship = ships[row][col];
+                if (!isBow(ship, row, col)) continue;
+
+                putVarint(buffer, ship.getLength());
+                putVarint(buffer, (row * columns + col) * 2 + (ship.isHorizontal() ? 1 : 0));
+                byte bits = 0;
+                for (int i = 0; i < ship.getLength(); i++) {
+                    if (ship.hit[i]) bits |= 1 << (i & 7);
+                    if ((i & 7) == 7 || i == ship.getLength() - 1) {
+                        buffer.put(bits);
+                        bits = 0;
+                    }
+                }
+            }
+        }
+
+        // The miss bitset is stored in longs; write out only the bytes that hold cells.
+        long[] misses = ocean.misses;
+        for (int i = 0; i < (config.getCells() + 7) / 8; i++) {
+            buffer.put((byte) (misses[i >>> 3] >>> ((i & 7) * 8)));
+        }
+
+        putVarint(buffer, ocean.getShotsFired());
+        putVarint(buffer, ocean.getHitCount());
+        putVarint(buffer, ocean.getShipsSunk());
+    }
+
+    /**
+     * Reads a snapshot at the buffer's position, advancing it, and rebuilds the ocean.
+     *
+     * @param buffer The buffer to read from.
+     * @return A fully working Ocean in the saved state.
+     * @throws IllegalArgumentException If the snapshot has an unknown version or is malformed.
+     */
+    public static Ocean decode(ByteBuffer buffer) {
+        try {
+            int version = buffer.get() & 0xFF;
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version " + version + ".");
+            }
+
+            int rows = getVarint(buffer);
+            int columns = getVarint(buffer);
+
+            // Each ship length takes at least a byte.
+            int fleetSize = getVarint(buffer);
+            if (fleetSize > buffer.remaining()) {
+                throw new IllegalArgumentException("Snapshot is truncated.");
+            }
+            int[] fleet = new int[fleetSize];
+            for (int i = 0; i < fleet.length; i++) {
+                fleet[i] = getVarint(buffer);
+            }
+
+            // The miss bit set still to come holds a bit per cell.
+            long cells = (long) rows * columns;
+            if ((cells + 7) / 8 > buffer.remaining()) {
+                throw new IllegalArgumentException("Snapshot is truncated.");
+            }
+            BoardConfig config = matchesStandard(rows, columns, fleet)
+                    ? BoardConfig.STANDARD
+                    : new BoardConfig(rows, columns, fleet);
+            Ocean ocean = new Ocean(config);
+
+            // Each ship takes at least three bytes and a cell of its own.
+            int placed = getVarint(buffer);
+            if (placed > buffer.remaining() / 3 || placed > config.getCells()) {
+                throw new IllegalArgumentException("Snapshot places more ships than it can hold.");
+            }
+            for (int s = 0; s < placed; s++) {
+                int length = getVarint(buffer);
+                if (length == 0 || length > Math.max(rows, columns)) {
+                    throw new IllegalArgumentException("Snapshot has a ship of length " + length + ".");
+                }
+                int bow = getVarint(buffer);
+                int cell = bow >>> 1;
+                boolean horizontal = (bow & 1) != 0;
+                Ship ship = BoardConfig.shipOfLength(length);
+                if (cell >= config.getCells() || !ship.okToPlaceShipAt(cell / columns, cell % columns, horizontal, ocean)) {
+                    throw new IllegalArgumentException("Snapshot places a ship illegally.");
+                }
+                ship.placeShipAt(cell / columns, cell % columns, horizontal, ocean);
+
+                int bits = 0;
+                for (int i = 0; i < length; i++) {
+                    if ((i & 7) == 0) bits = buffer.get();
+                    if ((bits & (1 << (i & 7))) != 0) ship.restoreHit(i);
+                }
+            }
+
+            long[] misses = ocean.misses;
+            for (int i = 0; i < (config.getCells() + 7) / 8; i++) {
+                misses[i >>> 3] |= (buffer.get() & 0xFFL) << ((i & 7) * 8);
+            }
+
+            int shotsFired = getVarint(buffer);
+            int hitCount = getVarint(buffer);
+            int shipsSunk = getVarint(buffer);
+            if (shipsSunk > placed) {
+                throw new IllegalArgumentException("Snapshot has more ships sunk than placed.");
+            }
+            ocean.restoreCounters(shotsFired, hitCount, shipsSunk);
+            return ocean;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Snapshot is truncated.", e);
+        }
+    }
+
+    /**
+     * Computes the exact number of bytes encode will write for the ocean, so that
+     * callers can size their buffers.
+     *
+     * @param ocean The ocean to save.
+     * @return The size of its snapshot in bytes.
+     */
+    public static int encodedSize(Ocean ocean) {
+        BoardConfig config = ocean.getConfig();
+        int columns = config.getColumns();
+        Ship[][] ships = ocean.getShipArray();
+
+        int size = 1 + varintSize(config.getRows()) + varintSize(columns) + varintSize(config.getFleetSize());
+        for (int length : config.getFleet()) {
+            size += varintSize(length);
+        }
+
+        size += varintSize(countShips(ocean));
+        for (int row = 0; row < config.getRows(); row++) {
+            for (int col = 0; col < columns; col++) {
+                Ship ship = ships[row][col];
+                if (isBow(ship, row, col)) {
+                    size += varintSize(ship.getLength()) + varintSize((row * columns + col) * 2 + 1)
+                            + (ship.getLength() + 7) / 8;
+                }
+            }
+        }
+
+        size += (config.getCells() + 7) / 8;
+        size += varintSize(ocean.getShotsFired()) + varintSize(ocean.getHitCount()) + varintSize(ocean.getShipsSunk());
+        return size;
+    }
+
+    /**
+     * @return The number of ships placed on the ocean, i.e. of ship records written. An
+     *         EmptySea placed with placeShipAt is not a ship and gets no record.
+     */
+    private static int countShips(Ocean ocean) {
+        return ocean.getFleetCount();
+    }
+
+    /**
+     * @return True if the cell holds the bow of a real ship, so that each ship is visited once.
+     */
+    private static boolean isBow(Ship ship, int row, int column) {
+        return !(ship instanceof EmptySea) && ship.getBowRow() == row && ship.getBowColumn() == column;
+    }
+
+    /**
+     * @return True if the decoded dimensions and fleet are those of the standard game.
+     */
+    private static boolean matchesStandard(int rows, int columns, int[] fleet) {
+        BoardConfig standard = BoardConfig.STANDARD;
+        return rows == standard.getRows() && columns == standard.getColumns()
+                && Arrays.equals(fleet, standard.getFleet());
+    }
+
+    /**
+     * Writes a non-negative int as an unsigned varint.
+     */
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint of at most five bytes.
+     */
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (value < 0) break;
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Snapshot has a malformed number.");
+    }
+
+    /**
+     * @return The number of bytes of the varint encoding of a non-negative int.
+     */
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,148 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the OceanCodec class, checking that a restored Ocean is
+ * indistinguishable from the one that was saved.
+ */
+class OceanCodecTest {
+
+    /**
+     * Saves games at random points, restores them and compares every cell and counter.
+     */
+    @Test
+    public void testRoundTrip() {
+        Random random = new Random(5);
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        for (int game = 0; game < 200; game++) {
+            Ocean ocean = new Ocean();
+            ocean.placeAllShipsRandomly();
+            int shots = random.nextInt(100);
+            for (int i = 0; i < shots; i++) {
+                ocean.shootAt(random.nextInt(10), random.nextInt(10));
+            }
+
+            buffer.clear();
+            OceanCodec.encode(ocean, buffer);
+            assertEquals(OceanCodec.encodedSize(ocean), buffer.position(), "encodedSize should be exact.");
+            buffer.flip();
+            Ocean restored = OceanCodec.decode(buffer);
+            assertFalse(buffer.hasRemaining(), "The whole snapshot should be read.");
+
+            assertSameState(ocean, restored);
+        }
+    }
+
+    /**
+     * Test that a restored game keeps playing exactly like the original.
+     */
+    @Test
+    public void testRestoredGameContinues() {
+        Ocean ocean = new Ocean();
+        ocean.placeAllShipsRandomly();
+        for (int i = 0; i < 50; i++) {
+            ocean.shootAt(i / 10, i % 10);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(OceanCodec.encodedSize(ocean));
+        OceanCodec.encode(ocean, buffer);
+        Ocean restored = OceanCodec.decode(buffer.flip());
+
+        for (int i = 50; i < 100; i++) {
+            assertEquals(ocean.shootAt(i / 10, i % 10), restored.shootAt(i / 10, i % 10),
+                    "Both games should report the same result for every shot.");
+        }
+        assertTrue(restored.isGameOver(), "The restored game should end when every cell is shot.");
+        assertSameState(ocean, restored);
+    }
+
+    /**
+     * Test that an EmptySea placed on the board gets no ship record, so the snapshot decodes.
+     */
+    @Test
+    public void testPlacedEmptySeaRoundTrip() {
+        Ocean ocean = new Ocean();
+        new Destroyer().placeShipAt(0, 0, true, ocean);
+        new EmptySea().placeShipAt(5, 5, true, ocean);
+        ocean.shootAt(0, 0);
+        ocean.shootAt(5, 5);
+
+        ByteBuffer buffer = ByteBuffer.allocate(OceanCodec.encodedSize(ocean));
+        OceanCodec.encode(ocean, buffer);
+        assertFalse(buffer.hasRemaining(), "encodedSize should be exact.");
+        Ocean restored = OceanCodec.decode(buffer.flip());
+        assertSameState(ocean, restored);
+        assertEquals(1, restored.getShipsAfloat(), "Only the destroyer should be restored.");
+    }
+
+    /**
+     * Test that a standard game fits in a few dozen bytes, wherever its ships are.
+     */
+    @Test
+    public void testSnapshotIsCompact() {
+        Ocean ocean = new Ocean();
+        ocean.placeAllShipsRandomly();
+        for (int i = 0; i < 100; i++) {
+            ocean.shootAt(i / 10, i % 10);
+        }
+
+        // Worst case: 14 header bytes, 1 + 10 * 4 ship bytes, 13 miss bytes, and 3 counter
+        // bytes since every counter stays below 128 after 100 shots.
+        assertTrue(OceanCodec.encodedSize(ocean) <= 71, "A standard game of 100 shots should need at most 71 bytes.");
+    }
+
+    /**
+     * Test that unknown versions and truncated snapshots are rejected.
+     */
+    @Test
+    public void testRejectsBadSnapshots() {
+        Ocean ocean = new Ocean();
+        ocean.placeAllShipsRandomly();
+        ByteBuffer buffer = ByteBuffer.allocate(OceanCodec.encodedSize(ocean));
+        OceanCodec.encode(ocean, buffer);
+
+        ByteBuffer truncated = ByteBuffer.wrap(buffer.array(), 0, buffer.capacity() - 1);
+        assertThrows(IllegalArgumentException.class, () -> OceanCodec.decode(truncated),
+                "A truncated snapshot should be rejected.");
+
+        // A 10x10 board with a fleet of 2^28 ships, or of none and 2^28 placed ships, in a few bytes.
+        byte[] manyShips = {OceanCodec.VERSION, 10, 10, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+        assertThrows(IllegalArgumentException.class, () -> OceanCodec.decode(ByteBuffer.wrap(manyShips)),
+                "A fleet larger than the snapshot should be rejected before allocating.");
+        byte[] manyPlaced = {OceanCodec.VERSION, 10, 10, 0, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+        assertThrows(IllegalArgumentException.class, () -> OceanCodec.decode(ByteBuffer.wrap(manyPlaced)),
+                "More placed ships than the snapshot can hold should be rejected.");
+
+        ByteBuffer bigBoard = ByteBuffer.wrap(new byte[] {OceanCodec.VERSION, (byte) 0xFF, 0x7F, (byte) 0xFF, 0x7F, 0, 0});
+        assertThrows(IllegalArgumentException.class, () -> OceanCodec.decode(bigBoard),
+                "A board larger than the snapshot should be rejected before allocating.");
+
+        buffer.put(0, (byte) (OceanCodec.VERSION + 1));
+        assertThrows(IllegalArgumentException.class, () -> OceanCodec.decode(buffer.flip()),
+                "An unknown version should be rejected.");
+    }
+
+    /**
+     * Asserts that two oceans show the same cells and counters.
+     */
+    private static void assertSameState(Ocean expected, Ocean actual) {
+        for (int row = 0; row < 10; row++) {
+            for (int col = 0; col < 10; col++) {
+                Ship ship = expected.getShipArray()[row][col];
+                Ship copy = actual.getShipArray()[row][col];
+                assertEquals(expected.isOccupied(row, col), actual.isOccupied(row, col), "Occupancy should match.");
+                assertEquals(expected.isFiredUpon(row, col), actual.isFiredUpon(row, col), "Shots should match.");
+                assertEquals(ship.getShipType(), copy.getShipType(), "Ship types should match.");
+                assertEquals(ship.isSunk(), copy.isSunk(), "Sunk ships should match.");
+            }
+        }
+        assertEquals(expected.getShotsFired(), actual.getShotsFired(), "Shots fired should match.");
+        assertEquals(expected.getHitCount(), actual.getHitCount(), "Hit count should match.");
+        assertEquals(expected.getShipsSunk(), actual.getShipsSunk(), "Ships sunk should match.");
+        assertEquals(expected.getShipsAfloat(), actual.getShipsAfloat(), "Ships afloat should match.");
+        assertEquals(expected.isGameOver(), actual.isGameOver(), "Game over should match.");
+    }
+}
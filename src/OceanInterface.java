@@ -1,3 +1,7 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
 /**
  * The OceanInterface defines the contract that the Ocean class must follow.
  * It describes methods for managing the state of the game, interacting with ships,
@@ -11,17 +15,44 @@
 public interface OceanInterface {
 
 	/**
-	 * Randomly places all ten ships on the ocean.
+	 * Gets the board dimensions and fleet this ocean was built for.
+	 *
+	 * @return The board configuration.
+	 */
+	BoardConfig getConfig();
+
+	/**
+	 * Randomly places every ship of the configured fleet on the ocean, using a fresh,
+	 * unseeded random number generator.
+	 */
+	default void placeAllShipsRandomly() {
+		placeAllShipsRandomly(new SplittableRandom());
+	}
+
+	/**
+	 * Randomly places every ship of the configured fleet on the ocean.
 	 * Ships must be placed such that larger ships are positioned before smaller ones
 	 * to avoid placement conflicts.
+	 *
+	 * All random choices are drawn from the given generator, so the same generator state
+	 * always produces the same layout.
+	 *
+	 * @param random The random number generator to draw the positions from.
+	 */
+	void placeAllShipsRandomly(RandomGenerator random);
+
+	/**
+	 * Clears the ocean for a new game in place: removes every ship and every shot and zeroes
+	 * the statistics, keeping the storage of the board. A game loop that resets one ocean
+	 * instead of building a new one for every game produces next to no garbage.
 	 */
-	void placeAllShipsRandomly();
+	void reset();
 
 	/**
 	 * Checks if the specified location contains a ship (not an EmptySea).
 	 *
-	 * @param row    The row coordinate (0 to 9).
-	 * @param column The column coordinate (0 to 9).
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
 	 * @return {@code true} if the location contains a ship, {@code false} otherwise.
 	 */
 	boolean isOccupied(int row, int column);
@@ -33,12 +64,67 @@ public interface OceanInterface {
 	 * If the location contains a ship that is not sunk, returns {@code true}.
 	 * If the ship is already sunk or the location is EmptySea, returns {@code false}.
 	 *
-	 * @param row    The row coordinate to shoot at (0 to 9).
-	 * @param column The column coordinate to shoot at (0 to 9).
+	 * @param row    The row coordinate to shoot at (0 to rows - 1).
+	 * @param column The column coordinate to shoot at (0 to columns - 1).
 	 * @return {@code true} if the shot hits a ship, {@code false} otherwise.
 	 */
 	boolean shootAt(int row, int column);
 
+	/**
+	 * Fires a salvo: several shots resolved together, as in the salvo variant where a player
+	 * fires one shot per ship they still have afloat.
+	 *
+	 * The outcome of every shot is the one shootAt would give when firing the shots in order,
+	 * so a salvo may shoot the same cell twice. Implementations resolve the salvo in one pass
+	 * and update the shot, hit and sunk counts once; this default simply calls shootAt.
+	 *
+	 * @param rows    The row of each shot.
+	 * @param columns The column of each shot.
+	 * @param count   The number of shots, taken from the start of the arrays.
+	 * @param hits    Receives one bit per shot (bit i of word i / 64), set if the shot hit a ship.
+	 *                Must hold at least (count + 63) / 64 words; the bits of the salvo are cleared first.
+	 * @return The number of shots that hit a ship.
+	 */
+	default int shootAll(int[] rows, int[] columns, int count, long[] hits) {
+		Arrays.fill(hits, 0, (count + 63) >>> 6, 0L);
+		int salvoHits = 0;
+		for (int i = 0; i < count; i++) {
+			if (shootAt(rows[i], columns[i])) {
+				hits[i >>> 6] |= 1L << i;
+				salvoHits++;
+			}
+		}
+		return salvoHits;
+	}
+
+	/**
+	 * Checks if the specified location has been fired upon: a missed shot on empty sea,
+	 * or a ship part that has been hit.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return {@code true} if a shot has been fired at this location, {@code false} otherwise.
+	 */
+	boolean isFiredUpon(int row, int column);
+
+	/**
+	 * Checks if the specified location is a ship part that has been hit.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return {@code true} if a ship part at this location has been hit, {@code false} otherwise.
+	 */
+	boolean isHit(int row, int column);
+
+	/**
+	 * Checks if the specified location belongs to a ship that has been sunk.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return {@code true} if the location contains part of a sunk ship, {@code false} otherwise.
+	 */
+	boolean isSunk(int row, int column);
+
 	/**
 	 * Gets the total number of shots fired by the user.
 	 *
@@ -62,17 +148,24 @@ public interface OceanInterface {
 	int getShipsSunk();
 
 	/**
-	 * Checks if the game is over, i.e., all ships have been sunk.
+	 * Gets the number of ships on the ocean that have not been sunk yet.
+	 *
+	 * @return The number of ships still afloat.
+	 */
+	int getShipsAfloat();
+
+	/**
+	 * Checks if the game is over, i.e., every ship of the fleet has been sunk.
 	 *
 	 * @return {@code true} if all ships have been sunk, {@code false} otherwise.
 	 */
 	boolean isGameOver();
 
 	/**
-	 * Provides access to the 10x10 grid of ships.
+	 * Provides access to the grid of ships, one row per board row.
 	 * This allows methods in the Ship class to read and modify the game state.
 	 *
-	 * @return A 10x10 2D array of ships.
+	 * @return A rows x columns 2D array of ships.
 	 */
 	Ship[][] getShipArray();
 
@@ -85,8 +178,8 @@ public interface OceanInterface {
 	 * - 'x': A sunken ship.
 	 * - '.': An unfired location.
 	 *
-	 * Row numbers (0 to 9) should appear on the left.
-	 * Column numbers (0 to 9) should appear at the top.
+	 * Row numbers should appear on the left.
+	 * Column numbers should appear at the top.
 	 *
 	 * This is for user guidance during gameplay and debugging.
 	 */
@@ -0,0 +1,112 @@
+import java.util.ArrayDeque;
+import java.util.function.Function;
+
+/**
+ * An OceanPool keeps empty oceans of one board configuration for reuse, so that code playing
+ * game after game recycles its boards, fleets included, instead of building new ones.
+ *
+ * {@link #acquire()} hands out an empty ocean, a pooled one if there is one and a new one
+ * from the factory otherwise; {@link #release} resets an ocean and keeps it for the next
+ * acquire. Oceans released while the pool is full are dropped for the garbage collector.
+ *
+ * A pool is not thread-safe. Give each thread its own, the way every Simulator leaf task owns
+ * its strategy and view; the MatchServer uses one from its selector thread.
+ *
+ * @param <T> The type of ocean pooled.
+ */
+public final class OceanPool<T extends OceanInterface> {
+
+    // Board dimensions and fleet of every pooled ocean.
+    private final BoardConfig config;
+
+    // Builds an ocean when the pool is empty.
+    private final Function<BoardConfig, ? extends T> factory;
+
+    // Reset oceans waiting to be handed out again.
+    private final ArrayDeque<T> free;
+
+    // Most oceans kept at once.
+    private final int capacity;
+
+    // Number of oceans built by the factory.
+    private long created;
+
+    /**
+     * Creates a pool that keeps at most 64 oceans.
+     *
+     * @param config  The board dimensions and fleet of every ocean.
+     * @param factory Builds an empty ocean for a configuration, e.g. {@code BitboardOcean::new}.
+     */
+    public OceanPool(BoardConfig config, Function<BoardConfig, ? extends T> factory) {
+        this(config, factory, 64);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param config   The board dimensions and fleet of every ocean.
+     * @param factory  Builds an empty ocean for a configuration, e.g. {@code BitboardOcean::new}.
+     * @param capacity The most oceans kept at once.
+     * @throws IllegalArgumentException If the capacity is negative.
+     */
+    public OceanPool(BoardConfig config, Function<BoardConfig, ? extends T> factory, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity cannot be negative: " + capacity);
+        }
+        this.config = config;
+        this.factory = factory;
+        this.capacity = capacity;
+        this.free = new ArrayDeque<>(Math.min(capacity, 1024));
+    }
+
+    /**
+     * @return The board dimensions and fleet of every pooled ocean.
+     */
+    public BoardConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Hands out an empty ocean: the one released last, or a new one if the pool is empty.
+     *
+     * @return An ocean with no ships and no shots.
+     */
+    public T acquire() {
+        T ocean = free.pollLast();
+        if (ocean == null) {
+            ocean = factory.apply(config);
+            created++;
+        }
+        return ocean;
+    }
+
+    /**
+     * Resets an ocean and keeps it for a later acquire. The caller must not use it afterwards.
+     *
+     * @param ocean An ocean built for this pool's configuration.
+     * @throws IllegalArgumentException If the ocean was built for another configuration.
+     */
+    public void release(T ocean) {
+        if (ocean.getConfig() != config) {
+            throw new IllegalArgumentException("The ocean was built for another configuration.");
+        }
+        if (free.size() < capacity) {
+            ocean.reset();
+            free.addLast(ocean);
+        }
+    }
+
+    /**
+     * @return The number of oceans waiting to be handed out again.
+     */
+    public int getFreeCount() {
+        return free.size();
+    }
+
+    /**
+     * @return The number of oceans the factory has built; with steady reuse it stops growing.
+     */
+    public long getCreatedCount() {
+        return created;
+    }
+}
@@ -0,0 +1,119 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for OceanPool and for resetting each ocean implementation in place.
+ */
+class OceanPoolTest {
+
+    // Every ocean implementation.
+    private static final List<Function<BoardConfig, OceanInterface>> OCEANS =
+            List.of(Ocean::new, BitboardOcean::new, SparseOcean::new, ConcurrentOcean::new);
+
+    /**
+     * Test that a played and reset ocean behaves exactly like a new one: same layout from the
+     * same seed, same shot outcomes and same statistics.
+     */
+    @Test
+    public void testResetMatchesNewOcean() {
+        BoardConfig[] configs = {BoardConfig.STANDARD, new BoardConfig(12, 17, 5, 4, 3, 3, 2, 1)};
+        for (BoardConfig config : configs) {
+            for (Function<BoardConfig, OceanInterface> factory : OCEANS) {
+                OceanInterface reused = factory.apply(config);
+                for (long seed = 1; seed <= 5; seed++) {
+                    reused.reset();
+                    OceanInterface fresh = factory.apply(config);
+                    reused.placeAllShipsRandomly(new SplitMix64(seed));
+                    fresh.placeAllShipsRandomly(new SplitMix64(seed));
+                    String name = fresh.getClass().getSimpleName() + " with seed " + seed;
+
+                    assertEquals(0, reused.getShotsFired(), name);
+                    assertEquals(fresh.getShipsAfloat(), reused.getShipsAfloat(), name);
+                    // More shots for every seed, so the next reset clears games at different stages.
+                    SplitMix64 shots = new SplitMix64(seed);
+                    for (int shot = 0; shot < config.getCells() / 2 * (int) seed; shot++) {
+                        int row = shots.nextInt(config.getRows());
+                        int col = shots.nextInt(config.getColumns());
+                        assertEquals(fresh.shootAt(row, col), reused.shootAt(row, col), name);
+                    }
+                    for (int row = 0; row < config.getRows(); row++) {
+                        for (int col = 0; col < config.getColumns(); col++) {
+                            assertEquals(fresh.isOccupied(row, col), reused.isOccupied(row, col), name);
+                            assertEquals(fresh.isFiredUpon(row, col), reused.isFiredUpon(row, col), name);
+                            assertEquals(fresh.isSunk(row, col), reused.isSunk(row, col), name);
+                        }
+                    }
+                    assertEquals(fresh.getHitCount(), reused.getHitCount(), name);
+                    assertEquals(fresh.getShipsSunk(), reused.getShipsSunk(), name);
+                    assertEquals(fresh.isGameOver(), reused.isGameOver(), name);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that an Ocean reuses its ships after a reset and clears ships placed by hand,
+     * including a standalone EmptySea.
+     */
+    @Test
+    public void testOceanReusesShips() {
+        Ocean ocean = new Ocean();
+        ocean.placeAllShipsRandomly(new SplitMix64(3));
+        Ship[][] grid = ocean.getShipArray();
+        Ship battleship = null;
+        for (Ship[] row : grid) {
+            for (Ship ship : row) {
+                if (ship.getLength() == 4) battleship = ship;
+            }
+        }
+        ocean.reset();
+        ocean.placeAllShipsRandomly(new SplitMix64(4));
+        int found = 0;
+        for (Ship[] row : grid) {
+            for (Ship ship : row) {
+                if (ship == battleship) found++;
+            }
+        }
+        assertEquals(4, found, "The battleship of the last game should be placed again.");
+
+        ocean.reset();
+        new Cruiser().placeShipAt(0, 0, true, ocean);
+        new EmptySea().placeShipAt(5, 5, true, ocean);
+        ocean.reset();
+        for (Ship[] row : grid) {
+            for (Ship ship : row) {
+                assertSame(EmptySea.shared(), ship, "A reset board should hold only the shared EmptySea.");
+            }
+        }
+        assertEquals(0, ocean.getShipsAfloat());
+        assertTrue(ocean.okToPlaceShipAt(4, 0, 0, true), "A reset board should allow any placement.");
+    }
+
+    /**
+     * Test that released oceans are reset and handed out again, up to the capacity.
+     */
+    @Test
+    public void testAcquireAndRelease() {
+        OceanPool<BitboardOcean> pool = new OceanPool<>(BoardConfig.STANDARD, BitboardOcean::new, 1);
+        BitboardOcean first = pool.acquire();
+        BitboardOcean second = pool.acquire();
+        assertNotSame(first, second);
+        assertEquals(2, pool.getCreatedCount());
+
+        first.placeAllShipsRandomly(new SplitMix64(1));
+        first.shootAt(0, 0);
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.getFreeCount(), "The pool should keep no more than its capacity.");
+
+        BitboardOcean again = pool.acquire();
+        assertSame(first, again);
+        assertEquals(0, again.getShotsFired(), "A pooled ocean should come back reset.");
+        assertEquals(0, again.getShipsAfloat(), "A pooled ocean should come back without ships.");
+        assertEquals(2, pool.getCreatedCount());
+
+        assertThrows(IllegalArgumentException.class, () -> pool.release(new BitboardOcean(BoardConfig.square(20))));
+    }
+}
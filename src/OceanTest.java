@@ -102,6 +102,21 @@ class OceanTest {
                 "Hit count should not increment when shooting at EmptySea.");
     }
 
+    /**
+     * Test that misses are recorded per cell by the Ocean, while every empty cell
+     * shares a single stateless EmptySea.
+     */
+    @Test
+    public void testMissesAreTrackedByOcean() {
+        assertSame(ocean.getShipArray()[0][0], ocean.getShipArray()[9][9],
+                "Empty cells should share one EmptySea.");
+
+        ocean.shootAt(3, 4);
+        assertTrue(ocean.isFiredUpon(3, 4), "The missed cell should be marked as fired upon.");
+        assertFalse(ocean.isFiredUpon(4, 3), "Other empty cells should not be marked.");
+        assertFalse(EmptySea.shared().isFiredUpon(), "The shared EmptySea should hold no state.");
+    }
+
     /**
      * Test firing shots at a ship, sinking it, and updating the game state.
      * Validates that hit count, shots fired, and ships sunk are updated correctly.
@@ -128,6 +143,61 @@ class OceanTest {
         assertEquals(1, ocean.getShipsSunk(), "Ships sunk should increment when a ship is sunk.");
     }
 
+    /**
+     * Test that the count of ships afloat follows placements and sinkings.
+     */
+    @Test
+    public void testShipsAfloat() {
+        assertEquals(0, ocean.getShipsAfloat(), "An empty ocean should have no ships afloat.");
+
+        new Destroyer().placeShipAt(0, 0, true, ocean);
+        new Submarine().placeShipAt(5, 5, true, ocean);
+        assertEquals(2, ocean.getShipsAfloat(), "Placed ships should be counted as afloat.");
+
+        ocean.shootAt(5, 5);
+        assertEquals(1, ocean.getShipsAfloat(), "A sunk ship should no longer be afloat.");
+
+        ocean.shootAt(5, 5);
+        assertEquals(1, ocean.getShipsAfloat(), "Shooting a sunk ship again should not change the count.");
+    }
+
+    /**
+     * Test that the per-cell segment index resolves shots to the same ship parts as the
+     * Ship API, for both orientations and on a board that is not square.
+     */
+    @Test
+    public void testSegmentIndexMatchesShips() {
+        ocean = new Ocean(new BoardConfig(7, 23, new int[] {4, 3}));
+        Ship across = new Battleship();
+        Ship down = new Cruiser();
+        across.placeShipAt(1, 18, true, ocean);
+        down.placeShipAt(4, 2, false, ocean);
+
+        assertTrue(ocean.isOccupied(1, 21), "The stern of the horizontal ship should be occupied.");
+        assertTrue(ocean.isOccupied(6, 2), "The stern of the vertical ship should be occupied.");
+        assertFalse(ocean.isOccupied(1, 22), "The cell past the stern should be empty.");
+
+        assertTrue(ocean.shootAt(1, 20), "Shooting at a ship part should hit.");
+        assertTrue(ocean.shootAt(5, 2), "Shooting at a ship part should hit.");
+        assertFalse(ocean.shootAt(2, 20), "Shooting at empty sea should miss.");
+        for (int row = 0; row < 7; row++) {
+            for (int col = 0; col < 23; col++) {
+                Ship ship = ocean.getShipArray()[row][col];
+                boolean hit = !(ship instanceof EmptySea) && ship.isHit(row, col);
+                assertEquals(hit, ocean.isHit(row, col), "Ocean and Ship should agree at " + row + "," + col + ".");
+            }
+        }
+
+        // Sinking goes through the index too, and a sunk ship is not hit again.
+        ocean.shootAt(4, 2);
+        ocean.shootAt(6, 2);
+        assertTrue(down.isSunk(), "The vertical ship should be sunk.");
+        assertTrue(ocean.isSunk(5, 2), "Every cell of a sunk ship should report it.");
+        assertFalse(ocean.shootAt(6, 2), "A sunk ship should not be hit again.");
+        assertEquals(1, ocean.getShipsSunk(), "One ship should be sunk.");
+        assertEquals(4, ocean.getHitCount(), "The shot at the sunk ship should not count as a hit.");
+    }
+
     /**
      * Test the `isGameOver` method by simulating the sinking of all ships.
      * Ensures the game ends after all ships are sunk.
@@ -155,6 +225,20 @@ class OceanTest {
         assertTrue(ocean.isGameOver(), "Game should be over after all ships are sunk.");
     }
 
+    /**
+     * Test that an EmptySea placed on the board is not counted as a ship afloat.
+     */
+    @Test
+    public void testPlacedEmptySeaIsNotAShip() {
+        new Destroyer().placeShipAt(0, 0, true, ocean);
+        new EmptySea().placeShipAt(5, 5, true, ocean);
+
+        assertEquals(1, ocean.getShipsAfloat(), "Only the destroyer should be afloat.");
+        ocean.shootAt(0, 0);
+        ocean.shootAt(0, 1);
+        assertEquals(0, ocean.getShipsAfloat(), "No ship should be afloat once the destroyer is sunk.");
+    }
+
     /**
      * Test the `print` method to ensure it executes without errors.
      * This test validates the method's functionality but does not check the output.
@@ -0,0 +1,344 @@
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * The PlacementEngine chooses random, legal positions for a whole fleet without retrying
+ * rejected guesses. For every distinct ship length it keeps a bitmask of the placements that
+ * are still legal, samples uniformly from that mask and clears every placement touching a
+ * ship as soon as the ship is placed.
+ *
+ * A placement is encoded as a single int:
+ * {@code (horizontal ? 0 : rows * columns) + row * columns + column}.
+ * Use {@link #row(int)}, {@link #column(int)} and {@link #isHorizontal(int)} to decode it.
+ *
+ * The placement rules are the ones of {@link Ship#okToPlaceShipAt}: ships stay within bounds
+ * and never overlap or touch each other, not even diagonally.
+ */
+public class PlacementEngine {
+
+    // Number of full restarts allowed before giving up on a fleet that keeps dead-ending.
+    private static final int MAX_RESTARTS = 1000;
+
+    // Number of mask words summarized by one block count.
+    private static final int BLOCK_WORDS = 64;
+
+    // Dimensions of the board.
+    private final int rows;
+    private final int columns;
+
+    // Lengths of the ships to place, in placement order.
+    private final int[] fleet;
+
+    // Distinct ship lengths in the fleet; each one gets its own placement mask.
+    private final int[] lengths;
+
+    // Placements of each length that fit on an empty board, computed once.
+    private final long[][] initial;
+    private final int[] initialCount;
+
+    // Placements of each length that are currently legal, and how many there are.
+    private final long[][] legal;
+    private final int[] legalCount;
+
+    // Number of legal placements in each block of BLOCK_WORDS words of the masks, so that
+    // sampling on large boards can skip whole blocks instead of counting every word.
+    private final int[][] initialBlockCount;
+    private final int[][] blockCount;
+
+    // The state planFleet started from, kept for restarts after a dead end. Allocated once,
+    // so that planning a fleet on a reused engine allocates nothing.
+    private final long[][] startLegal;
+    private final int[][] startBlockCount;
+    private final int[] startCount;
+
+    /**
+     * Creates an engine for the standard fleet on a 10x10 board.
+     */
+    public PlacementEngine() {
+        this(BoardConfig.STANDARD);
+    }
+
+    /**
+     * Creates an engine for the board and fleet of a configuration.
+     *
+     * @param config The board dimensions and fleet.
+     */
+    public PlacementEngine(BoardConfig config) {
+        this(config.getRows(), config.getColumns(), config.getFleet());
+    }
+
+    /**
+     * Creates an engine for the given board size and fleet.
+     *
+     * @param rows    The number of rows on the board.
+     * @param columns The number of columns on the board.
+     * @param fleet   The ship lengths, in the order they should be placed.
+     */
+    public PlacementEngine(int rows, int columns, int[] fleet) {
+        this.rows = rows;
+        this.columns = columns;
+        this.fleet = fleet.clone();
+        this.lengths = Arrays.stream(fleet).distinct().toArray();
+
+        int words = (2 * rows * columns + 63) >>> 6;
+        initial = new long[lengths.length][words];
+        initialCount = new int[lengths.length];
+        legal = new long[lengths.length][words];
+        legalCount = new int[lengths.length];
+        int blocks = (words + BLOCK_WORDS - 1) / BLOCK_WORDS;
+        initialBlockCount = new int[lengths.length][blocks];
+        blockCount = new int[lengths.length][blocks];
+        startLegal = new long[lengths.length][words];
+        startBlockCount = new int[lengths.length][blocks];
+        startCount = new int[lengths.length];
+
+        // Precompute every in-bounds placement for each length.
+        for (int k = 0; k < lengths.length; k++) {
+            int length = lengths[k];
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column + length <= columns; column++) {
+                    int placement = encode(row, column, true);
+                    setBit(initial[k], placement);
+                    initialBlockCount[k][placement / (BLOCK_WORDS * 64)]++;
+                    initialCount[k]++;
+                }
+            }
+            // A ship of length 1 looks the same in both orientations, so keep only one of them.
+            if (length > 1) {
+                for (int row = 0; row + length <= rows; row++) {
+                    for (int column = 0; column < columns; column++) {
+                        int placement = encode(row, column, false);
+                        setBit(initial[k], placement);
+                        initialBlockCount[k][placement / (BLOCK_WORDS * 64)]++;
+                        initialCount[k]++;
+                    }
+                }
+            }
+        }
+        reset();
+    }
+
+    /**
+     * Restores the engine to an empty board.
+     */
+    public void reset() {
+        for (int k = 0; k < lengths.length; k++) {
+            System.arraycopy(initial[k], 0, legal[k], 0, legal[k].length);
+            System.arraycopy(initialBlockCount[k], 0, blockCount[k], 0, blockCount[k].length);
+            legalCount[k] = initialCount[k];
+        }
+    }
+
+    /**
+     * Records a cell that is already occupied by a ship, so that no planned ship touches it.
+     *
+     * @param row    The row of the occupied cell.
+     * @param column The column of the occupied cell.
+     */
+    public void markOccupied(int row, int column) {
+        block(row, column, row, column);
+    }
+
+    /**
+     * Chooses a legal placement for every ship of the fleet, in fleet order.
+     * Each ship's placement is drawn uniformly from the placements still legal at that point,
+     * which matches the distribution of retrying random guesses until one fits.
+     * If some ship has nowhere left to go, the whole fleet is planned again from the
+     * cells marked before this call.
+     *
+     * @param random The random number generator to draw placements from.
+     * @return The encoded placement of each ship, in fleet order.
+     * @throws IllegalStateException If the fleet cannot be placed on this board.
+     */
+    public int[] planFleet(RandomGenerator random) {
+        return planFleet(random, new int[fleet.length]);
+    }
+
+    /**
+     * Chooses a legal placement for every ship of the fleet, like planFleet(random), into an
+     * array owned by the caller. Together with reset this lets one engine plan any number of
+     * fleets without allocating.
+     *
+     * @param random The random number generator to draw placements from.
+     * @param plan   Receives the encoded placement of each ship, in fleet order; must hold
+     *               at least one entry per ship.
+     * @return The plan array.
+     * @throws IllegalStateException If the fleet cannot be placed on this board.
+     */
+    public int[] planFleet(RandomGenerator random, int[] plan) {
+        for (int k = 0; k < lengths.length; k++) {
+            System.arraycopy(legal[k], 0, startLegal[k], 0, legal[k].length);
+            System.arraycopy(blockCount[k], 0, startBlockCount[k], 0, blockCount[k].length);
+        }
+        System.arraycopy(legalCount, 0, startCount, 0, legalCount.length);
+
+        for (int attempt = 0; attempt < MAX_RESTARTS; attempt++) {
+            if (attempt > 0) {
+                // Dead end: go back to the state we started from.
+                for (int k = 0; k < lengths.length; k++) {
+                    System.arraycopy(startLegal[k], 0, legal[k], 0, legal[k].length);
+                    System.arraycopy(startBlockCount[k], 0, blockCount[k], 0, blockCount[k].length);
+                }
+                System.arraycopy(startCount, 0, legalCount, 0, legalCount.length);
+            }
+
+            boolean complete = true;
+            for (int i = 0; i < fleet.length && complete; i++) {
+                int placement = place(fleet[i], random);
+                if (placement < 0) {
+                    complete = false;
+                } else {
+                    plan[i] = placement;
+                }
+            }
+            if (complete) {
+                if (Metrics.ENABLED) Metrics.PLACEMENT_ATTEMPTS.record(attempt + 1);
+                return plan;
+            }
+        }
+        throw new IllegalStateException("Unable to place the fleet on a " + rows + "x" + columns + " board.");
+    }
+
+    /**
+     * Picks a uniformly random legal placement for one ship and marks it as placed.
+     *
+     * @param length The length of the ship.
+     * @param random The random number generator to draw the placement from.
+     * @return The encoded placement, or -1 if no legal placement is left for this length.
+     */
+    public int place(int length, RandomGenerator random) {
+        int k = indexOf(length);
+        if (Metrics.ENABLED) Metrics.PLACEMENT_CHOICES.record(legalCount[k]);
+        if (legalCount[k] == 0) return -1;
+
+        int placement = nthSetBit(legal[k], blockCount[k], random.nextInt(legalCount[k]));
+        int row = row(placement);
+        int column = column(placement);
+        boolean horizontal = isHorizontal(placement);
+        int endRow = row + (horizontal ? 0 : length - 1);
+        int endColumn = column + (horizontal ? length - 1 : 0);
+        block(row, column, endRow, endColumn);
+        return placement;
+    }
+
+    /**
+     * @return The number of placements still legal for ships of the given length.
+     */
+    public int legalPlacements(int length) {
+        return legalCount[indexOf(length)];
+    }
+
+    /**
+     * @return The row of the bow of an encoded placement.
+     */
+    public int row(int placement) {
+        return (placement % (rows * columns)) / columns;
+    }
+
+    /**
+     * @return The column of the bow of an encoded placement.
+     */
+    public int column(int placement) {
+        return placement % columns;
+    }
+
+    /**
+     * @return True if the encoded placement is horizontal, false otherwise.
+     */
+    public boolean isHorizontal(int placement) {
+        return placement < rows * columns;
+    }
+
+    /**
+     * Encodes a placement as a single int.
+     */
+    private int encode(int row, int column, boolean horizontal) {
+        return (horizontal ? 0 : rows * columns) + row * columns + column;
+    }
+
+    /**
+     * Clears every placement whose cells fall into the given rectangle grown by one cell
+     * in every direction, i.e. every placement that would overlap or touch a ship there.
+     */
+    private void block(int fromRow, int fromColumn, int toRow, int toColumn) {
+        int r0 = Math.max(fromRow - 1, 0);
+        int r1 = Math.min(toRow + 1, rows - 1);
+        int c0 = Math.max(fromColumn - 1, 0);
+        int c1 = Math.min(toColumn + 1, columns - 1);
+
+        for (int k = 0; k < lengths.length; k++) {
+            int length = lengths[k];
+            long[] mask = legal[k];
+            int[] blocks = blockCount[k];
+
+            // Horizontal placements in the halo rows that reach into the halo columns.
+            for (int row = r0; row <= r1; row++) {
+                for (int column = Math.max(c0 - length + 1, 0); column <= c1; column++) {
+                    clear(k, mask, blocks, encode(row, column, true));
+                }
+            }
+
+            // Vertical placements in the halo columns that reach into the halo rows.
+            if (length > 1) {
+                for (int column = c0; column <= c1; column++) {
+                    for (int row = Math.max(r0 - length + 1, 0); row <= r1; row++) {
+                        clear(k, mask, blocks, encode(row, column, false));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The position of the given length in the lengths array.
+     */
+    private int indexOf(int length) {
+        for (int k = 0; k < lengths.length; k++) {
+            if (lengths[k] == length) return k;
+        }
+        throw new IllegalArgumentException("No ship of length " + length + " in this fleet.");
+    }
+
+    /**
+     * Clears one placement of the given length index if it is still legal, keeping the counts in step.
+     */
+    private void clear(int k, long[] mask, int[] blocks, int placement) {
+        int word = placement >>> 6;
+        long bit = 1L << placement;
+        if ((mask[word] & bit) != 0) {
+            mask[word] &= ~bit;
+            blocks[word / BLOCK_WORDS]--;
+            legalCount[k]--;
+        }
+    }
+
+    /**
+     * Finds the index of the n-th (0-based) set bit of a mask, skipping whole blocks
+     * by their counts first.
+     */
+    private static int nthSetBit(long[] mask, int[] blocks, int n) {
+        int block = 0;
+        while (n >= blocks[block]) {
+            n -= blocks[block++];
+        }
+        for (int word = block * BLOCK_WORDS; word < mask.length; word++) {
+            int count = Long.bitCount(mask[word]);
+            if (n < count) {
+                long bits = mask[word];
+                for (int i = 0; i < n; i++) {
+                    bits &= bits - 1; // Drop the lowest set bit.
+                }
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            n -= count;
+        }
+        throw new IllegalStateException("Mask has fewer set bits than expected.");
+    }
+
+    /**
+     * Sets a bit in the mask.
+     */
+    private static void setBit(long[] mask, int bit) {
+        mask[bit >>> 6] |= 1L << bit;
+    }
+}
@@ -0,0 +1,77 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the PlacementEngine class, checking that every planned fleet
+ * obeys the placement rules of Ship.okToPlaceShipAt.
+ */
+class PlacementEngineTest {
+
+    /**
+     * Plans many fleets and replays each one on an Ocean, checking every placement
+     * with okToPlaceShipAt before it is made.
+     */
+    @Test
+    public void testPlannedFleetsAreLegal() {
+        PlacementEngine engine = new PlacementEngine();
+        Random random = new Random(42);
+
+        for (int game = 0; game < 500; game++) {
+            engine.reset();
+            int[] plan = engine.planFleet(random);
+            Ocean ocean = new Ocean();
+            Ship[] fleet = {
+                    new Battleship(), new Cruiser(), new Cruiser(),
+                    new Destroyer(), new Destroyer(), new Destroyer(),
+                    new Submarine(), new Submarine(), new Submarine(), new Submarine()
+            };
+
+            for (int i = 0; i < fleet.length; i++) {
+                int row = engine.row(plan[i]);
+                int column = engine.column(plan[i]);
+                boolean horizontal = engine.isHorizontal(plan[i]);
+                assertTrue(fleet[i].okToPlaceShipAt(row, column, horizontal, ocean),
+                        "Every planned placement should be legal.");
+                fleet[i].placeShipAt(row, column, horizontal, ocean);
+            }
+        }
+    }
+
+    /**
+     * Test that the legal placement counts start at the number of in-bounds positions
+     * and shrink once a ship is placed.
+     */
+    @Test
+    public void testLegalPlacementCounts() {
+        PlacementEngine engine = new PlacementEngine();
+
+        // A ship of length 4 fits in 7 positions per row or column, in both orientations.
+        assertEquals(140, engine.legalPlacements(4), "All in-bounds placements should start legal.");
+        // A ship of length 1 is only counted once per cell.
+        assertEquals(100, engine.legalPlacements(1), "Each cell should be one placement for length 1.");
+
+        // Occupying the center cell blocks its 3x3 neighborhood for submarines.
+        engine.markOccupied(5, 5);
+        assertEquals(91, engine.legalPlacements(1), "The 3x3 neighborhood should be blocked.");
+    }
+
+    /**
+     * Test that cells marked as occupied are never touched by planned ships.
+     */
+    @Test
+    public void testMarkedCellsAreAvoided() {
+        PlacementEngine engine = new PlacementEngine();
+        Random random = new Random(7);
+
+        for (int game = 0; game < 200; game++) {
+            engine.reset();
+            engine.markOccupied(0, 0);
+            int[] plan = engine.planFleet(random);
+            for (int placement : plan) {
+                assertFalse(engine.row(placement) <= 1 && engine.column(placement) <= 1,
+                        "No ship should start next to the occupied corner.");
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PlacementMasks holds the precomputed bitmasks that make a placement check a single AND.
+ * It is built once per board size and fleet, then shared by every BlockedMask of that shape.
+ *
+ * A BlockedMask keeps each row and each column of the board as a stripe of 64-bit words.
+ * Within a stripe, a run of cells is described by the word it starts in and two masks: the
+ * bits of the run in that word and the bits spilling into the next one. This class stores,
+ * for every ship length and start position along a row or a column:
+ * - the footprint: the cells covered by the ship;
+ * - the halo: the footprint plus one cell at each end, clipped to the board, which is what a
+ *   placed ship blocks in its own stripe and in the two stripes beside it.
+ * On boards up to 64 cells wide the spill mask is always 0.
+ *
+ * Masks are precomputed for lengths up to the longest ship of the fleet; BlockedMask falls
+ * back to building longer runs on the fly.
+ */
+public final class PlacementMasks {
+
+    // Longest run stored: its halo is at most 64 cells, so it spans at most two words.
+    private static final int MAX_STORED_LENGTH = 62;
+
+    // Shared instances, keyed by rows, columns and the longest length stored.
+    private static final Map<List<Integer>, PlacementMasks> CACHE = new ConcurrentHashMap<>();
+
+    // Dimensions of the board.
+    private final int rows;
+    private final int columns;
+
+    // Longest ship length with stored masks.
+    private final int maxLength;
+
+    // Runs along a row (indexed by column) and along a column (indexed by row).
+    private final Runs alongRow;
+    private final Runs alongColumn;
+
+    /**
+     * Builds the masks for a board.
+     */
+    private PlacementMasks(int rows, int columns, int maxLength) {
+        this.rows = rows;
+        this.columns = columns;
+        this.maxLength = maxLength;
+        this.alongRow = new Runs(columns, Math.min(maxLength, columns));
+        this.alongColumn = new Runs(rows, Math.min(maxLength, rows));
+    }
+
+    /**
+     * Returns the shared masks for the board and fleet of a configuration, building them
+     * on first use.
+     *
+     * @param config The board dimensions and fleet.
+     * @return The masks.
+     */
+    public static PlacementMasks of(BoardConfig config) {
+        int longest = 1;
+        for (int i = 0; i < config.getFleetSize(); i++) {
+            longest = Math.max(longest, config.getShipLength(i));
+        }
+        int maxLength = Math.min(longest, MAX_STORED_LENGTH);
+        return CACHE.computeIfAbsent(List.of(config.getRows(), config.getColumns(), maxLength),
+                key -> new PlacementMasks(config.getRows(), config.getColumns(), maxLength));
+    }
+
+    /**
+     * @return The number of rows on the board.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of columns on the board.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return The longest ship length with stored masks.
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * @return The runs along a row, indexed by column.
+     */
+    Runs alongRow() {
+        return alongRow;
+    }
+
+    /**
+     * @return The runs along a column, indexed by row.
+     */
+    Runs alongColumn() {
+        return alongColumn;
+    }
+
+    /**
+     * Footprint and halo masks of every run along one axis of the board.
+     * Entry (length, start) is at index (length - 1) * size + start.
+     */
+    static final class Runs {
+
+        // Number of cells along the axis, and words per stripe, including one spare word
+        // so that the spill mask can always be applied.
+        final int size;
+        final int stride;
+
+        // Longest length stored.
+        final int maxLength;
+
+        // Footprint of each run: first word, bits in that word and bits in the next one.
+        final int[] word;
+        final long[] low;
+        final long[] high;
+
+        // Halo of each run, in the same form.
+        final int[] haloWord;
+        final long[] haloLow;
+        final long[] haloHigh;
+
+        Runs(int size, int maxLength) {
+            this.size = size;
+            this.stride = ((size + 63) >>> 6) + 1;
+            this.maxLength = maxLength;
+            int entries = maxLength * size;
+            word = new int[entries];
+            low = new long[entries];
+            high = new long[entries];
+            haloWord = new int[entries];
+            haloLow = new long[entries];
+            haloHigh = new long[entries];
+
+            for (int length = 1; length <= maxLength; length++) {
+                for (int start = 0; start + length <= size; start++) {
+                    int i = (length - 1) * size + start;
+                    word[i] = start >>> 6;
+                    low[i] = lowBits(start, start + length - 1);
+                    high[i] = highBits(start, start + length - 1);
+
+                    int from = Math.max(start - 1, 0);
+                    int to = Math.min(start + length, size - 1);
+                    haloWord[i] = from >>> 6;
+                    haloLow[i] = lowBits(from, to);
+                    haloHigh[i] = highBits(from, to);
+                }
+            }
+        }
+
+        /**
+         * @return The bits of cells from..to (inclusive, at most 64 cells) in the word holding from.
+         */
+        private static long lowBits(int from, int to) {
+            long bits = -1L << (from & 63);
+            return (to >>> 6) == (from >>> 6) ? bits & (-1L >>> (63 - (to & 63))) : bits;
+        }
+
+        /**
+         * @return The bits of cells from..to (inclusive, at most 64 cells) in the word after the one holding from.
+         */
+        private static long highBits(int from, int to) {
+            return (to >>> 6) == (from >>> 6) ? 0 : -1L >>> (63 - (to & 63));
+        }
+    }
+}
@@ -0,0 +1,234 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A PlacementPrior learns where one opponent tends to put their ships. After every completed
+ * game it is shown the opponent's fleet, and it keeps, per cell, how often a horizontal and
+ * how often a vertical ship covered that cell. Older games count for less: each finished game
+ * multiplies the weight of everything seen before by the decay factor, so the prior follows
+ * an opponent who changes habits.
+ *
+ * Decay is applied lazily. Instead of scaling every cell after each game, each new
+ * observation is added with a weight that grows by 1 / decay per game, and every lookup
+ * divides by the current weight. Recording a game therefore touches only the cells of its
+ * ships, and a lookup is a couple of array reads. Once the weight grows too large for a float,
+ * everything is scaled back down in one pass, which at the default decay happens once every
+ * few thousand games.
+ *
+ * Lookups are relative to an opponent who places fleets at random the way placeAllShipsRandomly
+ * does, whose coverage of each cell is sampled once per configuration and shared. They blend
+ * the observations with that baseline, worth a few games, so a new prior, or one for an
+ * opponent who has not been seen for a while, reports nothing unusual.
+ *
+ * A prior is not thread-safe. A matchmaking server keeps one per opponent and updates it on
+ * the thread that plays that opponent's matches.
+ */
+public class PlacementPrior {
+
+    /** Decay factor of a prior created without one. */
+    public static final double DEFAULT_DECAY = 0.99;
+
+    // How many games the uniform baseline is worth.
+    private static final double PRIOR_GAMES = 10;
+
+    // Observation weight beyond which everything is scaled back to weight 1.
+    private static final float RESCALE_AT = 1e30f;
+
+    // Random fleets sampled for the baseline: as many as fit a fixed budget of cells, within bounds.
+    private static final int MIN_SAMPLES = 16;
+    private static final int MAX_SAMPLES = 4096;
+    private static final int SAMPLE_BUDGET = 1 << 24;
+
+    // Baselines by rows, columns and fleet.
+    private static final Map<List<Object>, float[]> BASELINES = new ConcurrentHashMap<>();
+
+    // Board dimensions.
+    private final int rows;
+    private final int columns;
+    private final int cells;
+
+    // Chance that each cell is covered by a randomly placed fleet. Shared, never written.
+    private final float[] baseline;
+
+    // Weight kept by earlier games each time a game is finished, between 0 and 1.
+    private final double decay;
+
+    // Weighted number of games in which a horizontal or a vertical ship covered each cell.
+    private final float[] horizontal;
+    private final float[] vertical;
+
+    // Weighted number of games seen, in the same units.
+    private float games;
+
+    // Weight of an observation in the current game.
+    private float weight = 1;
+
+    /**
+     * Creates an empty prior with the default decay.
+     *
+     * @param config The board dimensions and fleet of the games.
+     */
+    public PlacementPrior(BoardConfig config) {
+        this(config, DEFAULT_DECAY);
+    }
+
+    /**
+     * Creates an empty prior.
+     *
+     * @param config The board dimensions and fleet of the games.
+     * @param decay  The weight kept by earlier games each time a game is finished; 1 never forgets.
+     * @throws IllegalArgumentException If the decay is not above 0 and at most 1.
+     */
+    public PlacementPrior(BoardConfig config, double decay) {
+        if (!(decay > 0 && decay <= 1)) {
+            throw new IllegalArgumentException("The decay must be above 0 and at most 1: " + decay);
+        }
+        this.rows = config.getRows();
+        this.columns = config.getColumns();
+        this.cells = config.getCells();
+        this.decay = decay;
+        this.horizontal = new float[cells];
+        this.vertical = new float[cells];
+        this.baseline = baseline(config);
+    }
+
+    /**
+     * @return The number of rows of the board.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of columns of the board.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Records one ship of the opponent's fleet in the current game. A ship of length 1 counts
+     * half as horizontal and half as vertical.
+     *
+     * @param row        The row of the bow.
+     * @param column     The column of the bow.
+     * @param length     The length of the ship.
+     * @param horizontal True if the ship lies along a row.
+     */
+    public void observeShip(int row, int column, int length, boolean horizontal) {
+        int cell = row * columns + column;
+        if (length == 1) {
+            this.horizontal[cell] += weight / 2;
+            this.vertical[cell] += weight / 2;
+            return;
+        }
+        float[] counts = horizontal ? this.horizontal : vertical;
+        int step = horizontal ? 1 : columns;
+        for (int i = 0; i < length; i++, cell += step) {
+            counts[cell] += weight;
+        }
+    }
+
+    /**
+     * Finishes the current game: it is counted, and every game seen so far decays.
+     */
+    public void endGame() {
+        games += weight;
+        weight /= (float) decay;
+        if (weight > RESCALE_AT) {
+            rescale();
+        }
+    }
+
+    /**
+     * @return The decayed number of games seen: the last game counts 1, the one before it
+     *         counts decay, and so on.
+     */
+    public double getGames() {
+        return games / (weight * decay);
+    }
+
+    /**
+     * Estimates how likely the opponent is to cover a cell with a ship, relative to a
+     * uniformly random fleet: above 1 for cells the opponent favors, below 1 for cells they avoid.
+     *
+     * @param cell The cell, encoded as row * columns + column.
+     * @return The relative likelihood.
+     */
+    public double getOccupancy(int cell) {
+        double pseudo = PRIOR_GAMES * weight * decay;
+        double covered = horizontal[cell] + vertical[cell] + pseudo * baseline[cell];
+        return covered / ((games + pseudo) * baseline[cell]);
+    }
+
+    /**
+     * Estimates the share of horizontal ships among the ships covering a cell, between 0 and 1.
+     * It is 0.5 for a cell with no observations.
+     *
+     * @param cell The cell, encoded as row * columns + column.
+     * @return The share of horizontal ships.
+     */
+    public double getHorizontalShare(int cell) {
+        double pseudo = PRIOR_GAMES * weight * decay * baseline[cell];
+        return (horizontal[cell] + pseudo / 2) / (horizontal[cell] + vertical[cell] + pseudo);
+    }
+
+    /**
+     * Returns the chance that each cell is covered by a fleet placed by a PlacementEngine,
+     * estimated from a fixed-seed sample and cached per configuration. Ships may not touch,
+     * so this is close to flat rather than peaking in the middle of the board.
+     */
+    private static float[] baseline(BoardConfig config) {
+        List<Object> key = new ArrayList<>();
+        key.add(config.getRows());
+        key.add(config.getColumns());
+        for (int length : config.getFleet()) {
+            key.add(length);
+        }
+        return BASELINES.computeIfAbsent(key, k -> sampleBaseline(config));
+    }
+
+    /**
+     * Samples random fleets and counts how often each cell is covered.
+     */
+    private static float[] sampleBaseline(BoardConfig config) {
+        int columns = config.getColumns();
+        int samples = Math.max(MIN_SAMPLES, Math.min(MAX_SAMPLES, SAMPLE_BUDGET / config.getCells()));
+        PlacementEngine engine = new PlacementEngine(config);
+        SplitMix64 random = new SplitMix64(0);
+        int[] plan = new int[config.getFleetSize()];
+        int[] covered = new int[config.getCells()];
+        for (int sample = 0; sample < samples; sample++) {
+            engine.reset();
+            engine.planFleet(random, plan);
+            for (int i = 0; i < plan.length; i++) {
+                int cell = engine.row(plan[i]) * columns + engine.column(plan[i]);
+                int step = engine.isHorizontal(plan[i]) ? 1 : columns;
+                for (int part = 0; part < config.getShipLength(i); part++, cell += step) {
+                    covered[cell]++;
+                }
+            }
+        }
+        // Half a sample in every cell keeps rarely covered cells away from zero.
+        float[] baseline = new float[covered.length];
+        for (int cell = 0; cell < covered.length; cell++) {
+            baseline[cell] = (covered[cell] + 0.5f) / samples;
+        }
+        return baseline;
+    }
+
+    /**
+     * Scales every count back down to an observation weight of 1.
+     */
+    private void rescale() {
+        float scale = 1 / weight;
+        for (int cell = 0; cell < cells; cell++) {
+            horizontal[cell] *= scale;
+            vertical[cell] *= scale;
+        }
+        games *= scale;
+        weight = 1;
+    }
+}
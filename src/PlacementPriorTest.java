@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for PlacementPrior and the AdaptiveStrategy learning with it.
+ */
+class PlacementPriorTest {
+
+    /**
+     * Test that a new prior reports nothing unusual, that observed ships raise their cells and
+     * orientation, and that old games fade.
+     */
+    @Test
+    public void testObserveAndDecay() {
+        PlacementPrior prior = new PlacementPrior(BoardConfig.STANDARD, 0.5);
+        for (int cell = 0; cell < 100; cell++) {
+            assertEquals(1.0, prior.getOccupancy(cell), 1e-6, "A new prior should weigh every cell alike.");
+            assertEquals(0.5, prior.getHorizontalShare(cell), 1e-6);
+        }
+
+        prior.observeShip(0, 0, 3, true);
+        prior.endGame();
+        assertEquals(1.0, prior.getGames(), 1e-6);
+        assertTrue(prior.getOccupancy(0) > 1, "A covered cell should be favored.");
+        assertTrue(prior.getOccupancy(99) < 1, "An empty cell should be avoided.");
+        assertTrue(prior.getHorizontalShare(1) > 0.5, "A cell covered by a horizontal ship should lean horizontal.");
+
+        double covered = prior.getOccupancy(0);
+        for (int game = 0; game < 20; game++) {
+            prior.observeShip(5, 5, 4, false);
+            prior.endGame();
+        }
+        assertEquals(2.0, prior.getGames(), 1e-3, "With decay 0.5 the games should add up to 2.");
+        assertTrue(prior.getOccupancy(0) < covered, "An old observation should fade.");
+        assertTrue(prior.getOccupancy(55) > prior.getOccupancy(0));
+        assertTrue(prior.getHorizontalShare(65) < 0.5, "A cell covered by a vertical ship should lean vertical.");
+    }
+
+    /**
+     * Test that estimates survive the rescaling of the observation weight.
+     */
+    @Test
+    public void testRescale() {
+        PlacementPrior prior = new PlacementPrior(BoardConfig.STANDARD, 0.5);
+        for (int game = 0; game < 1000; game++) {
+            prior.observeShip(2, 3, 2, true);
+            prior.endGame();
+            assertEquals(2 - Math.pow(0.5, game), prior.getGames(), 1e-3, "Game " + game);
+            assertTrue(Double.isFinite(prior.getOccupancy(23)) && prior.getOccupancy(23) > 1, "Game " + game);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PlacementPrior(BoardConfig.STANDARD, 0));
+    }
+
+    /**
+     * Test that against an opponent who always places the same fleet, the adaptive strategy
+     * soon needs fewer shots than the ProbabilityStrategy it builds on.
+     */
+    @Test
+    public void testLearnsFixedLayout() {
+        BoardConfig config = BoardConfig.STANDARD;
+        BitboardOcean ocean = new BitboardOcean(config);
+        VisibleBoard board = new VisibleBoard(config.getRows(), config.getColumns());
+        Strategy plain = new ProbabilityStrategy(config);
+        AdaptiveStrategy adaptive = new AdaptiveStrategy(config);
+
+        for (long seed = 1; seed <= 3; seed++) {
+            ocean.reset();
+            ocean.placeAllShipsRandomly(new SplitMix64(seed));
+            int plainShots = Simulator.playGame(ocean, plain, board, config.getCells());
+
+            int learnedShots = 0;
+            for (int game = 0; game < 10; game++) {
+                ocean.reset();
+                ocean.placeAllShipsRandomly(new SplitMix64(seed));
+                learnedShots = Simulator.playGame(ocean, adaptive, board, config.getCells());
+            }
+            assertTrue(learnedShots < plainShots,
+                    "Layout " + seed + ": " + learnedShots + " shots after learning, " + plainShots + " without.");
+        }
+    }
+}
@@ -0,0 +1,318 @@
+import java.util.Arrays;
+
+/**
+ * A Strategy that fires at the cell most likely to hold a ship. For every ship length still
+ * afloat it tracks which placements are consistent with the shots seen so far, and scores
+ * each cell by the number of such placements covering it.
+ *
+ * Consistency follows the rules of {@link Ship#okToPlaceShipAt}: a placement must stay on
+ * the board, must not cover a miss or a sunk ship, and must not touch a hit it does not cover,
+ * since that hit belongs to another ship. Placements
+ * covering hits of ships still afloat are weighted heavily, so the strategy finishes off
+ * damaged ships before hunting for new ones.
+ *
+ * The heatmap is updated incrementally from each shot result: a miss or a sinking removes
+ * only the placements it rules out, and a hit only bumps the placements through that cell.
+ * Choosing a shot is a single scan over the scores.
+ */
+public class ProbabilityStrategy implements Strategy {
+
+    // Extra weight of each hit of a floating ship covered by a placement.
+    private static final long TARGET_WEIGHT = 1 << 16;
+
+    // Board dimensions.
+    private final int rows;
+    private final int columns;
+    private final int cells;
+
+    // Distinct ship lengths and how many ships of each length the fleet has.
+    private final int[] lengths;
+    private final int[] fleetCount;
+
+    // Placements of each length that are on the board at the start of a game, and the
+    // resulting number of placements covering each cell.
+    private final boolean[][] initialValid;
+    private final int[][] initialCover;
+
+    // Per game: ships of each length still afloat.
+    private final int[] afloat;
+
+    // Per game: placements still consistent with the shots, indexed [length][placement].
+    // A placement is encoded as (horizontal ? 0 : cells) + row * columns + column.
+    private final boolean[][] valid;
+
+    // Per game: number of hits of floating ships covered by each placement.
+    private final int[][] hitsCovered;
+
+    // Per game: number of valid placements covering each cell, and the sum of their hitsCovered.
+    private final int[][] cover;
+    private final int[][] targetCover;
+
+    // Per game: score of each cell, the sum over lengths of afloat * (cover + TARGET_WEIGHT * targetCover).
+    private final long[] score;
+
+    // View of the current game.
+    private VisibleBoard board;
+
+    /**
+     * Creates a strategy for the standard game.
+     */
+    public ProbabilityStrategy() {
+        this(BoardConfig.STANDARD);
+    }
+
+    /**
+     * Creates a strategy for the given board and fleet.
+     *
+     * @param config The board dimensions and fleet the games are played with.
+     */
+    public ProbabilityStrategy(BoardConfig config) {
+        rows = config.getRows();
+        columns = config.getColumns();
+        cells = config.getCells();
+        lengths = Arrays.stream(config.getFleet()).distinct().toArray();
+        fleetCount = new int[lengths.length];
+        for (int length : config.getFleet()) {
+            fleetCount[indexOf(length)]++;
+        }
+
+        initialValid = new boolean[lengths.length][2 * cells];
+        initialCover = new int[lengths.length][cells];
+        afloat = new int[lengths.length];
+        valid = new boolean[lengths.length][2 * cells];
+        hitsCovered = new int[lengths.length][2 * cells];
+        cover = new int[lengths.length][cells];
+        targetCover = new int[lengths.length][cells];
+        score = new long[cells];
+
+        // Every in-bounds placement is valid on an empty board.
+        for (int k = 0; k < lengths.length; k++) {
+            int length = lengths[k];
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    if (column + length <= columns) {
+                        addInitial(k, row * columns + column, length);
+                    }
+                    // A ship of length 1 looks the same in both orientations, so keep only one.
+                    if (length > 1 && row + length <= rows) {
+                        addInitial(k, cells + row * columns + column, length);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void newGame(VisibleBoard board) {
+        this.board = board;
+        Arrays.fill(score, 0);
+        for (int k = 0; k < lengths.length; k++) {
+            afloat[k] = fleetCount[k];
+            System.arraycopy(initialValid[k], 0, valid[k], 0, valid[k].length);
+            System.arraycopy(initialCover[k], 0, cover[k], 0, cells);
+            Arrays.fill(hitsCovered[k], 0);
+            Arrays.fill(targetCover[k], 0);
+            for (int cell = 0; cell < cells; cell++) {
+                score[cell] += (long) afloat[k] * cover[k][cell];
+            }
+        }
+    }
+
+    @Override
+    public int nextShot(VisibleBoard board) {
+        int best = -1;
+        long bestScore = -1;
+        for (int cell = 0; cell < cells; cell++) {
+            if (score[cell] > bestScore && !board.isFiredUpon(cell / columns, cell % columns)) {
+                bestScore = score[cell];
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Chooses the highest-scoring unfired cells, best first. Ties go to the lower cell,
+     * as in nextShot, so a salvo of one is the same shot nextShot would choose.
+     */
+    @Override
+    public int nextSalvo(VisibleBoard board, int[] salvo, int count) {
+        int chosen = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (board.isFiredUpon(cell / columns, cell % columns)) continue;
+            long cellScore = score[cell];
+            if (chosen == count && (count == 0 || cellScore <= score[salvo[chosen - 1]])) continue;
+
+            // Insert after every chosen cell scoring at least as much, dropping the last if full.
+            int at = Math.min(chosen, count - 1);
+            while (at > 0 && score[salvo[at - 1]] < cellScore) {
+                salvo[at] = salvo[at - 1];
+                at--;
+            }
+            salvo[at] = cell;
+            if (chosen < count) chosen++;
+        }
+        return chosen;
+    }
+
+    @Override
+    public void shotResult(int row, int column, boolean hit, boolean sunk) {
+        int cell = row * columns + column;
+        if (!hit) {
+            // A miss rules out every placement through this cell.
+            ruleOut(row, column, row, column, -1);
+            return;
+        }
+
+        // Ships never touch, so a placement next to the hit must be the ship that was hit.
+        ruleOut(Math.max(row - 1, 0), Math.max(column - 1, 0),
+                Math.min(row + 1, rows - 1), Math.min(column + 1, columns - 1), cell);
+
+        // A hit raises the weight of every placement through this cell.
+        for (int k = 0; k < lengths.length; k++) {
+            int length = lengths[k];
+            for (int c = Math.max(column - length + 1, 0); c <= Math.min(column, columns - length); c++) {
+                addHit(k, row * columns + c, length);
+            }
+            if (length > 1) {
+                for (int r = Math.max(row - length + 1, 0); r <= Math.min(row, rows - length); r++) {
+                    addHit(k, cells + r * columns + column, length);
+                }
+            }
+        }
+
+        if (sunk) {
+            sink(row, column, cell);
+        }
+    }
+
+    /**
+     * Returns the current score of a cell. Exposed for tests.
+     *
+     * @param cell The cell, encoded as row * columns + column.
+     * @return The score.
+     */
+    long scoreAt(int cell) {
+        return score[cell];
+    }
+
+    /**
+     * @return The weight added to a placement's score for each floating hit it covers.
+     */
+    static long targetWeight() {
+        return TARGET_WEIGHT;
+    }
+
+    /**
+     * Handles a sinking: one fewer ship of that length is afloat, and no placement may
+     * overlap or touch the sunk ship any more.
+     */
+    private void sink(int row, int column, int cell) {
+        // The sunk ship is the line of sunk cells through the shot.
+        int fromRow = row, toRow = row, fromColumn = column, toColumn = column;
+        while (fromRow > 0 && board.isSunk(fromRow - 1, column)) fromRow--;
+        while (toRow < rows - 1 && board.isSunk(toRow + 1, column)) toRow++;
+        while (fromColumn > 0 && board.isSunk(row, fromColumn - 1)) fromColumn--;
+        while (toColumn < columns - 1 && board.isSunk(row, toColumn + 1)) toColumn++;
+        int length = Math.max(toRow - fromRow, toColumn - fromColumn) + 1;
+
+        // Remove one ship's worth of this length from every cell's score.
+        int k = indexOf(length);
+        if (afloat[k] > 0) {
+            afloat[k]--;
+            for (int c = 0; c < cells; c++) {
+                score[c] -= cover[k][c] + TARGET_WEIGHT * targetCover[k][c];
+            }
+        }
+
+        // Rule out the ship's cells and their neighborhood.
+        ruleOut(Math.max(fromRow - 1, 0), Math.max(fromColumn - 1, 0),
+                Math.min(toRow + 1, rows - 1), Math.min(toColumn + 1, columns - 1), -1);
+    }
+
+    /**
+     * Invalidates every valid placement, of every length, that covers a cell of the given
+     * rectangle, except the placements covering the cell to keep (-1 for none).
+     */
+    private void ruleOut(int r0, int c0, int r1, int c1, int keep) {
+        for (int k = 0; k < lengths.length; k++) {
+            int length = lengths[k];
+            for (int row = r0; row <= r1; row++) {
+                for (int column = Math.max(c0 - length + 1, 0); column <= Math.min(c1, columns - length); column++) {
+                    invalidate(k, row * columns + column, length, keep);
+                }
+            }
+            if (length > 1) {
+                for (int column = c0; column <= c1; column++) {
+                    for (int row = Math.max(r0 - length + 1, 0); row <= Math.min(r1, rows - length); row++) {
+                        invalidate(k, cells + row * columns + column, length, keep);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a placement and its contribution to the heatmap, if it is still valid and
+     * does not cover the cell to keep.
+     */
+    private void invalidate(int k, int placement, int length, int keep) {
+        if (!valid[k][placement] || covers(placement, length, keep)) return;
+        valid[k][placement] = false;
+        int hits = hitsCovered[k][placement];
+        long delta = afloat[k] * (1 + TARGET_WEIGHT * hits);
+        int step = placement < cells ? 1 : columns;
+        for (int i = 0, cell = placement % cells; i < length; i++, cell += step) {
+            cover[k][cell]--;
+            targetCover[k][cell] -= hits;
+            score[cell] -= delta;
+        }
+    }
+
+    /**
+     * Counts a new hit for a placement and adds the extra weight to its cells, if it is still valid.
+     */
+    private void addHit(int k, int placement, int length) {
+        if (!valid[k][placement]) return;
+        hitsCovered[k][placement]++;
+        long delta = afloat[k] * TARGET_WEIGHT;
+        int step = placement < cells ? 1 : columns;
+        for (int i = 0, cell = placement % cells; i < length; i++, cell += step) {
+            targetCover[k][cell]++;
+            score[cell] += delta;
+        }
+    }
+
+    /**
+     * @return True if the placement covers the given cell.
+     */
+    private boolean covers(int placement, int length, int cell) {
+        if (cell < 0) return false;
+        int bow = placement % cells;
+        if (placement < cells) {
+            return cell / columns == bow / columns && cell >= bow && cell < bow + length;
+        }
+        return cell % columns == bow % columns && cell >= bow && cell < bow + length * columns;
+    }
+
+    /**
+     * Records an on-board placement in the empty-board tables.
+     */
+    private void addInitial(int k, int placement, int length) {
+        initialValid[k][placement] = true;
+        int step = placement < cells ? 1 : columns;
+        for (int i = 0, cell = placement % cells; i < length; i++, cell += step) {
+            initialCover[k][cell]++;
+        }
+    }
+
+    /**
+     * @return The position of the given length in the lengths array.
+     */
+    private int indexOf(int length) {
+        for (int k = 0; k < lengths.length; k++) {
+            if (lengths[k] == length) return k;
+        }
+        throw new IllegalArgumentException("No ship of length " + length + " in this fleet.");
+    }
+}
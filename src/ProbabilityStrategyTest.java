@@ -0,0 +1,114 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ProbabilityStrategy class, checking the incrementally updated heatmap
+ * against a count made from scratch.
+ */
+class ProbabilityStrategyTest {
+
+    /**
+     * Plays games shot by shot and, after every shot, recounts the consistent placements of
+     * every length from the visible board to compare with the strategy's scores.
+     */
+    @Test
+    public void testHeatmapMatchesRecount() {
+        BoardConfig config = BoardConfig.STANDARD;
+        ProbabilityStrategy strategy = new ProbabilityStrategy(config);
+        VisibleBoard board = new VisibleBoard();
+        SplittableRandom random = new SplittableRandom(3);
+
+        for (int game = 0; game < 20; game++) {
+            BitboardOcean ocean = new BitboardOcean();
+            ocean.placeAllShipsRandomly();
+            board.clear();
+            strategy.newGame(board);
+            int[] afloat = new int[5];
+            for (int length : config.getFleet()) {
+                afloat[length]++;
+            }
+
+            while (!ocean.isGameOver()) {
+                // Mix in random shots so the recount also sees states the strategy would not choose.
+                int cell = random.nextInt(4) == 0 ? random.nextInt(100) : strategy.nextShot(board);
+                int row = cell / 10, column = cell % 10;
+                if (board.isFiredUpon(row, column)) continue;
+
+                int sunkBefore = ocean.getShipsSunk();
+                boolean hit = ocean.shootAt(row, column);
+                boolean sunk = ocean.getShipsSunk() > sunkBefore;
+                board.record(row, column, hit, sunk);
+                strategy.shotResult(row, column, hit, sunk);
+                if (sunk) {
+                    afloat[ocean.getShipArray()[row][column].getLength()]--;
+                }
+
+                long[] expected = recount(board, afloat);
+                for (int c = 0; c < 100; c++) {
+                    assertEquals(expected[c], strategy.scoreAt(c), "Score of cell " + c + " should match a recount.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that the strategy clearly beats random shooting on the standard board.
+     */
+    @Test
+    public void testBeatsRandomStrategy() {
+        SimulationResult result = new Simulator(BoardConfig.STANDARD, BitboardOcean::new,
+                random -> new ProbabilityStrategy(), 100, 11L).run(2000);
+
+        assertEquals(0, result.getUnfinished(), "Every game should be won within 100 shots.");
+        assertTrue(result.getMeanShots() < 60, "Targeted shooting should need far fewer shots than random.");
+    }
+
+    /**
+     * Counts from scratch the placements consistent with the board, weighted the same way as
+     * the strategy: one per placement, plus the target weight for every floating hit it covers.
+     */
+    private static long[] recount(VisibleBoard board, int[] afloat) {
+        long[] score = new long[100];
+        for (int length = 1; length < afloat.length; length++) {
+            for (int orientation = 0; orientation < (length > 1 ? 2 : 1); orientation++) {
+                boolean horizontal = orientation == 0;
+                for (int row = 0; row < 10; row++) {
+                    for (int column = 0; column < 10; column++) {
+                        int endRow = row + (horizontal ? 0 : length - 1);
+                        int endColumn = column + (horizontal ? length - 1 : 0);
+                        if (endRow >= 10 || endColumn >= 10 || !consistent(board, row, column, endRow, endColumn)) {
+                            continue;
+                        }
+                        int hits = 0;
+                        for (int r = row; r <= endRow; r++) {
+                            for (int c = column; c <= endColumn; c++) {
+                                if (board.isHit(r, c)) hits++;
+                            }
+                        }
+                        for (int r = row; r <= endRow; r++) {
+                            for (int c = column; c <= endColumn; c++) {
+                                score[r * 10 + c] += afloat[length] * (1 + ProbabilityStrategy.targetWeight() * hits);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return score;
+    }
+
+    /**
+     * @return True if no cell of the placement is a miss or sunk, and no hit touches it from outside.
+     */
+    private static boolean consistent(VisibleBoard board, int row, int column, int endRow, int endColumn) {
+        for (int r = Math.max(row - 1, 0); r <= Math.min(endRow + 1, 9); r++) {
+            for (int c = Math.max(column - 1, 0); c <= Math.min(endColumn + 1, 9); c++) {
+                boolean inside = r >= row && r <= endRow && c >= column && c <= endColumn;
+                if (inside && (board.isSunk(r, c) || board.isFiredUpon(r, c) && !board.isHit(r, c))) return false;
+                if (!inside && board.isHit(r, c)) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * A Strategy that fires at every cell exactly once, in a random order.
+ * The order is a fresh shuffle for every game, so choosing a shot takes constant time.
+ */
+public class RandomStrategy implements Strategy {
+
+    // Source of randomness for the shuffles.
+    private final RandomGenerator random;
+
+    // Shot order for the current game and the position of the next shot in it.
+    private int[] order = new int[0];
+    private int next;
+
+    /**
+     * Creates a random strategy.
+     *
+     * @param random The random number generator used to shuffle the shot order.
+     */
+    public RandomStrategy(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public void newGame(VisibleBoard board) {
+        int cells = board.getRows() * board.getColumns();
+        if (order.length != cells) {
+            order = new int[cells];
+        }
+        for (int i = 0; i < cells; i++) {
+            order[i] = i;
+        }
+
+        // Fisher-Yates shuffle.
+        for (int i = cells - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        next = 0;
+    }
+
+    @Override
+    public int nextShot(VisibleBoard board) {
+        return order[next++];
+    }
+}
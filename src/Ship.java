@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 /**
  * The abstract Ship class represents a general ship in the game.
  * It defines common properties and behaviors for all types of ships,
@@ -20,12 +22,16 @@ public abstract class Ship {
     // Tracks which parts of the ship have been hit.
     protected boolean[] hit;
 
+    // Number of distinct parts of the ship that have been hit, kept in step with hit[].
+    protected int partsHit;
+
     /**
      * Constructor for the Ship class.
-     * Initializes the hit array with a maximum size of 4 (largest ship length).
+     * Subclasses set the length and create a hit array of exactly that size,
+     * so no maximum ship length is assumed here.
      */
     public Ship() {
-        hit = new boolean[4];
+        hit = new boolean[0];
     }
 
     /**
@@ -90,7 +96,9 @@ public abstract class Ship {
 
     /**
      * Checks if the ship can be placed at a given location on the board.
-     * Ensures that the ship is within bounds and does not overlap or touch other ships.
+     * Ensures that the ship is within bounds and does not overlap or touch other ships,
+     * not even diagonally. The ocean keeps a mask of every cell under or next to a ship,
+     * so this is a single AND of the ship's footprint against that mask.
      *
      * @param row       The starting row of the ship.
      * @param column    The starting column of the ship.
@@ -99,21 +107,7 @@ public abstract class Ship {
      * @return True if the ship can be placed, false otherwise.
      */
     public boolean okToPlaceShipAt(int row, int column, boolean horizontal, Ocean ocean) {
-        int endRow = row + (horizontal ? 0 : length - 1);
-        int endColumn = column + (horizontal ? length - 1 : 0);
-
-        // Check if the ship is within bounds.
-        if (row < 0 || column < 0 || endRow >= 10 || endColumn >= 10) return false;
-
-        // Check if the ship overlaps or touches another ship.
-        for (int i = row - 1; i <= endRow + 1; i++) {
-            for (int j = column - 1; j <= endColumn + 1; j++) {
-                if (i >= 0 && i < 10 && j >= 0 && j < 10 && !(ocean.getShipArray()[i][j] instanceof EmptySea)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return ocean.okToPlaceShipAt(length, row, column, horizontal);
     }
 
     /**
@@ -137,6 +131,7 @@ public abstract class Ship {
                 ocean.getShipArray()[row + i][column] = this;
             }
         }
+        ocean.shipPlaced(this);
     }
 
     /**
@@ -148,34 +143,74 @@ public abstract class Ship {
      * @return True if the shot hits the ship, false otherwise.
      */
     public boolean shootAt(int row, int column) {
+        int part = partAt(row, column);
+        return part >= 0 && shootPart(part); // A shot outside the ship misses.
+    }
+
+    /**
+     * Registers a shot at one part of the ship. Ocean resolves the part of a cell from its
+     * per-cell index, so no coordinates need to be checked here.
+     *
+     * @param part The index of the part, counted from the bow.
+     * @return True if the shot hits the ship, false if the ship is already sunk.
+     */
+    boolean shootPart(int part) {
         if (isSunk()) return false; // Cannot shoot at a sunk ship.
+        markHit(part);
+        return true;
+    }
 
-        // Check if the shot hits a part of the ship and mark it as hit.
-        if (horizontal) {
-            if (row == bowRow && column >= bowColumn && column < bowColumn + length) {
-                hit[column - bowColumn] = true;
-                return true;
-            }
-        } else {
-            if (column == bowColumn && row >= bowRow && row < bowRow + length) {
-                hit[row - bowRow] = true;
-                return true;
-            }
+    /**
+     * Marks a part of the ship as hit, counting it only the first time.
+     *
+     * @param part The index of the part, counted from the bow.
+     */
+    private void markHit(int part) {
+        if (!hit[part]) {
+            hit[part] = true;
+            partsHit++;
         }
-        return false; // Missed shot.
+    }
+
+    /**
+     * Marks a part of the ship as hit without firing a shot, e.g. when a saved game is restored.
+     *
+     * @param part The index of the part, counted from the bow.
+     */
+    void restoreHit(int part) {
+        markHit(part);
+    }
+
+    /**
+     * Marks a part of the ship as not hit, e.g. when a shot is taken back.
+     *
+     * @param part The index of the part, counted from the bow.
+     */
+    void undoHit(int part) {
+        if (hit[part]) {
+            hit[part] = false;
+            partsHit--;
+        }
+    }
+
+    /**
+     * Clears the hit state of the ship, so that the same object can be placed again in a new
+     * game. The length and the hit array are kept; the position is set by the next placeShipAt.
+     */
+    public void reset() {
+        Arrays.fill(hit, false);
+        partsHit = 0;
     }
 
     /**
      * Checks if the ship has been sunk.
-     * A ship is sunk if all its parts have been hit.
+     * A ship is sunk if all its parts have been hit. The number of parts hit is counted
+     * as shots land, so this check takes constant time.
      *
      * @return True if the ship is sunk, false otherwise.
      */
     public boolean isSunk() {
-        for (int i = 0; i < length; i++) {
-            if (!hit[i]) return false; // If any part is not hit, the ship is not sunk.
-        }
-        return true; // All parts are hit, so the ship is sunk.
+        return partsHit == length;
     }
 
     /**
@@ -186,10 +221,31 @@ public abstract class Ship {
      * @return True if the specified part has been hit, false otherwise.
      */
     public boolean isHit(int row, int column) {
-        if (horizontal) {
-            return row == bowRow && column >= bowColumn && column < bowColumn + length && hit[column - bowColumn];
-        } else {
-            return column == bowColumn && row >= bowRow && row < bowRow + length && hit[row - bowRow];
-        }
+        int part = partAt(row, column);
+        return part >= 0 && hit[part];
+    }
+
+    /**
+     * Checks if one part of the ship has been hit.
+     *
+     * @param part The index of the part, counted from the bow.
+     * @return True if the part has been hit, false otherwise.
+     */
+    boolean isPartHit(int part) {
+        return hit[part];
+    }
+
+    /**
+     * Finds the part of the ship at a location.
+     *
+     * @param row    The row of the location.
+     * @param column The column of the location.
+     * @return The index of the part, counted from the bow, or -1 if the ship does not cover the location.
+     */
+    private int partAt(int row, int column) {
+        // Along the ship the offset from the bow is the part; across it the offset must be 0.
+        int along = horizontal ? column - bowColumn : row - bowRow;
+        int across = horizontal ? row - bowRow : column - bowColumn;
+        return across == 0 && along >= 0 && along < length ? along : -1;
     }
 }
@@ -100,6 +100,23 @@ public class ShipTest {
         assertTrue(ship.isSunk(), "The ship should be sunk after all parts are hit.");
     }
 
+    /**
+     * Test that repeated hits on the same part are only counted once towards sinking.
+     */
+    @Test
+    public void testRepeatedHitsDoNotSink() {
+        ship = new Destroyer();
+        ship.placeShipAt(4, 4, true, ocean);
+
+        // Hitting the same part twice leaves the other part afloat.
+        ship.shootAt(4, 4);
+        ship.shootAt(4, 4);
+        assertFalse(ship.isSunk(), "The ship should not be sunk by repeated hits on one part.");
+
+        ship.shootAt(4, 5);
+        assertTrue(ship.isSunk(), "The ship should be sunk after all parts are hit.");
+    }
+
     /**
      * Test the {@code isHit} method to validate hit registration at specific locations.
      */
@@ -156,4 +173,20 @@ public class ShipTest {
         assertTrue(emptySea.isFiredUpon(), "EmptySea should register as fired upon after a shot.");
         assertFalse(emptySea.isSunk(), "EmptySea should not be sunk, even after being fired upon.");
     }
+
+    /**
+     * Test that reset clears the hits of a sunk ship, so that it can be used again.
+     */
+    @Test
+    public void testReset() {
+        ship = new Destroyer();
+        ship.placeShipAt(0, 0, true, ocean);
+        ship.shootAt(0, 0);
+        ship.shootAt(0, 1);
+        assertTrue(ship.isSunk(), "The Destroyer should be sunk after both parts are hit.");
+        ship.reset();
+        assertFalse(ship.isSunk(), "A reset ship should be afloat.");
+        assertFalse(ship.isHit(0, 0), "A reset ship should have no hits.");
+        assertEquals(2, ship.getLength(), "A reset ship should keep its length.");
+    }
 }
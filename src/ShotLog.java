@@ -0,0 +1,371 @@
+import java.util.Arrays;
+
+/**
+ * The ShotLog records every shot fired at an Ocean as a compact event, so that any past
+ * state of the game can be rebuilt from the starting layout and the shots alone.
+ *
+ * The log is append-only and backed by primitive arrays. Each shot is one int holding the
+ * cell (row * columns + column) and the outcome; each sinking also stores the id of the sunk
+ * ship. Ship ids are positions in the layout captured when the log was attached, which lists
+ * the ships in board order of their bows.
+ *
+ * From the log a game can be:
+ * - replayed to any move,
+ * - stepped forward and backward with a Cursor, which takes shots back instead of replaying,
+ * - forked at any move into a new game with its own log.
+ */
+public class ShotLog {
+
+    /** A first shot at empty sea. */
+    public static final int MISS = 0;
+
+    /** A shot that changed nothing: empty sea already fired upon, or a sunk ship. */
+    public static final int REPEATED_MISS = 1;
+
+    /** A first hit on a part of a floating ship. */
+    public static final int HIT = 2;
+
+    /** Another hit on a part of a floating ship that was already hit. */
+    public static final int REPEATED_HIT = 3;
+
+    /** A hit on the last part of a ship, sinking it. */
+    public static final int SUNK = 4;
+
+    // Bits of an event holding the outcome; the cell is stored above them.
+    private static final int OUTCOME_BITS = 3;
+    private static final int OUTCOME_MASK = (1 << OUTCOME_BITS) - 1;
+
+    // Board dimensions and fleet of the game.
+    private final BoardConfig config;
+
+    // Starting layout: per ship id, its length and (bow cell * 2 + (horizontal ? 1 : 0)),
+    // sorted by bow cell.
+    private final int[] shipLength;
+    private final int[] shipBow;
+
+    // One event per shot: cell << OUTCOME_BITS | outcome.
+    private int[] events = new int[128];
+    private int size;
+
+    // Move number and ship id of every sinking, in move order.
+    private int[] sinkMoves = new int[16];
+    private int[] sinkShips = new int[16];
+    private int sinks;
+
+    /**
+     * Creates a log for a layout, with no shots.
+     */
+    private ShotLog(BoardConfig config, int[] shipLength, int[] shipBow) {
+        if ((long) config.getCells() << OUTCOME_BITS > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The board is too large for a shot log.");
+        }
+        this.config = config;
+        this.shipLength = shipLength;
+        this.shipBow = shipBow;
+    }
+
+    /**
+     * Starts recording the shots fired at an ocean. The ocean's ships must already be placed
+     * and no shot may have been fired yet; the layout is captured now.
+     *
+     * @param ocean The ocean to record.
+     * @return The log, which is also available from ocean.getShotLog().
+     * @throws IllegalStateException If shots have already been fired at the ocean.
+     */
+    public static ShotLog attach(Ocean ocean) {
+        if (ocean.getShotsFired() != 0) {
+            throw new IllegalStateException("Shots have already been fired at this ocean.");
+        }
+        BoardConfig config = ocean.getConfig();
+        int columns = config.getColumns();
+        Ship[][] ships = ocean.getShipArray();
+
+        int count = ocean.getFleetCount(); // Placed EmptySea has no bow to record.
+        int[] lengths = new int[count];
+        int[] bows = new int[count];
+        int id = 0;
+        for (int row = 0; row < config.getRows(); row++) {
+            for (int col = 0; col < columns; col++) {
+                Ship ship = ships[row][col];
+                if (!(ship instanceof EmptySea) && ship.getBowRow() == row && ship.getBowColumn() == col) {
+                    lengths[id] = ship.getLength();
+                    bows[id++] = (row * columns + col) * 2 + (ship.isHorizontal() ? 1 : 0);
+                }
+            }
+        }
+
+        ShotLog log = new ShotLog(config, lengths, bows);
+        ocean.shotLog = log;
+        return log;
+    }
+
+    /**
+     * Fires a shot at the ocean this log is attached to and appends its outcome.
+     * Called by Ocean.shootAt.
+     */
+    boolean record(Ocean ocean, int row, int column) {
+        boolean firedBefore = ocean.isFiredUpon(row, column);
+        int sunkBefore = ocean.getShipsSunk();
+        boolean hit = ocean.fire(row, column);
+
+        int cell = row * config.getColumns() + column;
+        if (!hit) {
+            append(cell, firedBefore || ocean.isOccupied(row, column) ? REPEATED_MISS : MISS);
+        } else if (ocean.getShipsSunk() > sunkBefore) {
+            Ship ship = ocean.getShipArray()[row][column];
+            append(cell, SUNK);
+            appendSink(size - 1, shipId(ship.getBowRow() * config.getColumns() + ship.getBowColumn()));
+        } else {
+            append(cell, firedBefore ? REPEATED_HIT : HIT);
+        }
+        return hit;
+    }
+
+    /**
+     * @return The board dimensions and fleet of the game.
+     */
+    public BoardConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return The number of shots recorded.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of ships in the starting layout.
+     */
+    public int getShipCount() {
+        return shipLength.length;
+    }
+
+    /**
+     * @param move The index of the shot, from 0.
+     * @return The row the shot was fired at.
+     */
+    public int getRow(int move) {
+        return cell(move) / config.getColumns();
+    }
+
+    /**
+     * @param move The index of the shot, from 0.
+     * @return The column the shot was fired at.
+     */
+    public int getColumn(int move) {
+        return cell(move) % config.getColumns();
+    }
+
+    /**
+     * @param move The index of the shot, from 0.
+     * @return The outcome of the shot: MISS, REPEATED_MISS, HIT, REPEATED_HIT or SUNK.
+     */
+    public int getOutcome(int move) {
+        checkMove(move);
+        return events[move] & OUTCOME_MASK;
+    }
+
+    /**
+     * @param move The index of the shot, from 0.
+     * @return The id of the ship sunk by the shot, or -1 if it sank nothing.
+     */
+    public int getSunkShip(int move) {
+        checkMove(move);
+        int i = Arrays.binarySearch(sinkMoves, 0, sinks, move);
+        return i >= 0 ? sinkShips[i] : -1;
+    }
+
+    /**
+     * Rebuilds the game as it was after the given number of shots.
+     * The returned ocean does not record its shots.
+     *
+     * @param moves The number of shots to replay, from 0 to size().
+     * @return A new ocean in that state.
+     */
+    public Ocean replay(int moves) {
+        if (moves < 0 || moves > size) {
+            throw new IndexOutOfBoundsException("Move " + moves + " is not in a log of " + size + " shots.");
+        }
+        Ocean ocean = newLayout();
+        for (int move = 0; move < moves; move++) {
+            ocean.fire(getRow(move), getColumn(move));
+        }
+        return ocean;
+    }
+
+    /**
+     * Starts a new game from the state after the given number of shots. The new game has its
+     * own log holding the same starting layout and first shots, and records from there on.
+     *
+     * @param moves The number of shots to keep, from 0 to size().
+     * @return A new ocean, with its log attached.
+     */
+    public Ocean fork(int moves) {
+        Ocean ocean = replay(moves);
+        ShotLog log = new ShotLog(config, shipLength, shipBow);
+        log.events = Arrays.copyOf(events, Math.max(moves, 16));
+        log.size = moves;
+        int keptSinks = 0;
+        while (keptSinks < sinks && sinkMoves[keptSinks] < moves) {
+            keptSinks++;
+        }
+        log.sinkMoves = Arrays.copyOf(sinkMoves, Math.max(keptSinks, 16));
+        log.sinkShips = Arrays.copyOf(sinkShips, Math.max(keptSinks, 16));
+        log.sinks = keptSinks;
+        ocean.shotLog = log;
+        return ocean;
+    }
+
+    /**
+     * Creates a cursor at the start of the game, for stepping through the shots.
+     *
+     * @return The cursor.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * A position in the log with the matching board. Moving forward fires the next shot;
+     * moving backward takes the last shot back, so no step replays the game from the start.
+     * Shots appended to the log while a cursor is open become reachable by that cursor.
+     */
+    public final class Cursor {
+
+        // The board at the current move; it does not record its shots.
+        private final Ocean ocean = newLayout();
+
+        // Number of shots applied to the board.
+        private int move;
+
+        private Cursor() {
+        }
+
+        /**
+         * @return The board after the current number of shots. Do not shoot at it directly.
+         */
+        public Ocean getOcean() {
+            return ocean;
+        }
+
+        /**
+         * @return The number of shots applied so far.
+         */
+        public int getMove() {
+            return move;
+        }
+
+        /**
+         * Applies the next shot of the log.
+         *
+         * @return false if the cursor was already at the end of the log.
+         */
+        public boolean stepForward() {
+            if (move == size) return false;
+            ocean.fire(getRow(move), getColumn(move));
+            move++;
+            return true;
+        }
+
+        /**
+         * Takes back the last applied shot.
+         *
+         * @return false if the cursor was already at the start of the game.
+         */
+        public boolean stepBack() {
+            if (move == 0) return false;
+            move--;
+            ocean.undoShot(getRow(move), getColumn(move), getOutcome(move));
+            return true;
+        }
+
+        /**
+         * Moves to the given move, stepping forward or backward as needed.
+         *
+         * @param target The number of shots to have applied, from 0 to size().
+         */
+        public void seek(int target) {
+            if (target < 0 || target > size) {
+                throw new IndexOutOfBoundsException("Move " + target + " is not in a log of " + size + " shots.");
+            }
+            while (move < target) stepForward();
+            while (move > target) stepBack();
+        }
+    }
+
+    /**
+     * @return A new ocean with the starting layout and no shots.
+     */
+    private Ocean newLayout() {
+        Ocean ocean = new Ocean(config);
+        int columns = config.getColumns();
+        for (int id = 0; id < shipLength.length; id++) {
+            int cell = shipBow[id] >>> 1;
+            boolean horizontal = (shipBow[id] & 1) != 0;
+            BoardConfig.shipOfLength(shipLength[id]).placeShipAt(cell / columns, cell % columns, horizontal, ocean);
+        }
+        return ocean;
+    }
+
+    /**
+     * @return The id of the ship whose bow is at the given cell.
+     */
+    private int shipId(int bowCell) {
+        // Bows are sorted by cell, and the orientation bit does not change the order.
+        int low = 0;
+        int high = shipBow.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int cell = shipBow[middle] >>> 1;
+            if (cell < bowCell) {
+                low = middle + 1;
+            } else if (cell > bowCell) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        throw new IllegalStateException("The ship at cell " + bowCell + " is not in the starting layout.");
+    }
+
+    /**
+     * @return The cell of a recorded shot.
+     */
+    private int cell(int move) {
+        checkMove(move);
+        return events[move] >>> OUTCOME_BITS;
+    }
+
+    /**
+     * Appends one event, growing the array as needed.
+     */
+    private void append(int cell, int outcome) {
+        if (size == events.length) {
+            events = Arrays.copyOf(events, size * 2);
+        }
+        events[size++] = cell << OUTCOME_BITS | outcome;
+    }
+
+    /**
+     * Appends one sinking, growing the arrays as needed.
+     */
+    private void appendSink(int move, int ship) {
+        if (sinks == sinkMoves.length) {
+            sinkMoves = Arrays.copyOf(sinkMoves, sinks * 2);
+            sinkShips = Arrays.copyOf(sinkShips, sinks * 2);
+        }
+        sinkMoves[sinks] = move;
+        sinkShips[sinks++] = ship;
+    }
+
+    /**
+     * Checks that a move index refers to a recorded shot.
+     */
+    private void checkMove(int move) {
+        if (move < 0 || move >= size) {
+            throw new IndexOutOfBoundsException("Move " + move + " is not in a log of " + size + " shots.");
+        }
+    }
+}
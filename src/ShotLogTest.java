@@ -0,0 +1,128 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ShotLog class, checking every rebuilt state against the live game.
+ */
+class ShotLogTest {
+
+    /**
+     * Test that each kind of shot is recorded with the right outcome and sunk ship.
+     */
+    @Test
+    public void testOutcomes() {
+        Ocean ocean = new Ocean();
+        new Destroyer().placeShipAt(0, 0, true, ocean);
+        new Submarine().placeShipAt(5, 5, true, ocean);
+        ShotLog log = ShotLog.attach(ocean);
+
+        ocean.shootAt(3, 3);
+        ocean.shootAt(3, 3);
+        ocean.shootAt(0, 0);
+        ocean.shootAt(0, 0);
+        ocean.shootAt(0, 1);
+        ocean.shootAt(0, 1);
+        ocean.shootAt(5, 5);
+
+        int[] expected = {ShotLog.MISS, ShotLog.REPEATED_MISS, ShotLog.HIT, ShotLog.REPEATED_HIT,
+                ShotLog.SUNK, ShotLog.REPEATED_MISS, ShotLog.SUNK};
+        assertEquals(expected.length, log.size(), "Every shot should be recorded.");
+        for (int move = 0; move < expected.length; move++) {
+            assertEquals(expected[move], log.getOutcome(move), "Outcome of move " + move + " should match.");
+        }
+        assertEquals(0, log.getSunkShip(4), "The destroyer has the first bow on the board.");
+        assertEquals(1, log.getSunkShip(6), "The submarine has the second bow on the board.");
+        assertEquals(-1, log.getSunkShip(2), "A plain hit sinks nothing.");
+        assertEquals(5, log.getRow(6), "The row of the shot should be recorded.");
+        assertEquals(5, log.getColumn(6), "The column of the shot should be recorded.");
+    }
+
+    /**
+     * Test that an EmptySea placed on the board is not logged as a ship, so sinks and
+     * replays still find the real ships.
+     */
+    @Test
+    public void testPlacedEmptySea() {
+        Ocean ocean = new Ocean();
+        new EmptySea().placeShipAt(0, 0, true, ocean);
+        new Destroyer().placeShipAt(5, 5, true, ocean);
+        ShotLog log = ShotLog.attach(ocean);
+
+        ocean.shootAt(5, 5);
+        ocean.shootAt(5, 6);
+        assertEquals(1, log.getShipCount(), "Only the destroyer should be logged.");
+        assertEquals(0, log.getSunkShip(1), "The sunk ship should be the destroyer.");
+        Ocean replayed = log.replay(2);
+        assertTrue(replayed.isSunk(5, 5), "The replay should sink the destroyer.");
+        assertEquals(0, replayed.getShipsAfloat(), "The replay should hold no other ship.");
+    }
+
+    /**
+     * Plays random games while saving the state after every shot, then checks that replay,
+     * stepping forward and stepping backward all rebuild exactly those states.
+     */
+    @Test
+    public void testReplayAndStepping() {
+        SplittableRandom random = new SplittableRandom(8);
+
+        for (int game = 0; game < 20; game++) {
+            Ocean ocean = new Ocean();
+            ocean.placeAllShipsRandomly(random);
+            ShotLog log = ShotLog.attach(ocean);
+
+            String[] states = new String[151];
+            states[0] = state(ocean);
+            for (int move = 1; move < states.length; move++) {
+                ocean.shootAt(random.nextInt(10), random.nextInt(10));
+                states[move] = state(ocean);
+            }
+
+            for (int move = 0; move < states.length; move += 10) {
+                assertEquals(states[move], state(log.replay(move)), "Replay to move " + move + " should match.");
+            }
+
+            ShotLog.Cursor cursor = log.cursor();
+            cursor.seek(log.size());
+            assertEquals(states[log.size()], state(cursor.getOcean()), "The cursor should reach the end.");
+            for (int move = log.size() - 1; move >= 0; move--) {
+                assertTrue(cursor.stepBack(), "Stepping back should succeed until the start.");
+                assertEquals(states[move], state(cursor.getOcean()), "Stepping back to move " + move + " should match.");
+            }
+            assertFalse(cursor.stepBack(), "Nothing is before the first move.");
+        }
+    }
+
+    /**
+     * Test that a forked game starts from the chosen move and then records on its own.
+     */
+    @Test
+    public void testFork() {
+        Ocean ocean = new Ocean();
+        ocean.placeAllShipsRandomly(new SplittableRandom(4));
+        ShotLog log = ShotLog.attach(ocean);
+        for (int cell = 0; cell < 60; cell++) {
+            ocean.shootAt(cell / 10, cell % 10);
+        }
+
+        Ocean fork = log.fork(30);
+        assertEquals(30, fork.getShotsFired(), "The fork should start after 30 shots.");
+        assertFalse(fork.isFiredUpon(3, 0), "The fork should not see later shots.");
+
+        fork.shootAt(9, 9);
+        assertEquals(31, fork.getShotLog().size(), "The fork should record its own shots.");
+        assertEquals(9, fork.getShotLog().getRow(30), "The new shot should follow the kept ones.");
+        assertEquals(60, log.size(), "The original log should be unchanged.");
+        assertEquals(state(log.replay(30)), state(fork.getShotLog().replay(30)), "Both logs should share the first moves.");
+    }
+
+    /**
+     * @return A text rendering of the debug view plus the counters, for comparing states.
+     */
+    private static String state(Ocean ocean) {
+        BoardRenderer renderer = new BoardRenderer(ocean.getConfig());
+        renderer.render(ocean, true);
+        return renderer + " " + ocean.getShotsFired() + " " + ocean.getHitCount() + " "
+                + ocean.getShipsSunk() + " " + ocean.getShipsAfloat();
+    }
+}
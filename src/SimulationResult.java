@@ -0,0 +1,109 @@
+/**
+ * The SimulationResult class holds the outcome of a batch of simulated games:
+ * a histogram of the number of shots needed to win, plus timing.
+ */
+public class SimulationResult {
+
+    // histogram[n] is the number of games won with exactly n shots.
+    private final long[] histogram;
+
+    // Number of games that hit the shot limit without being won.
+    private final long unfinished;
+
+    // Wall-clock duration of the batch.
+    private final long elapsedNanos;
+
+    /**
+     * Creates a result.
+     *
+     * @param histogram    Games won per number of shots.
+     * @param unfinished   Games stopped at the shot limit.
+     * @param elapsedNanos Wall-clock duration of the batch in nanoseconds.
+     */
+    public SimulationResult(long[] histogram, long unfinished, long elapsedNanos) {
+        this.histogram = histogram;
+        this.unfinished = unfinished;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return A copy of the histogram: element n is the number of games won in n shots.
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * @return The number of games played, won or not.
+     */
+    public long getGames() {
+        return getWins() + unfinished;
+    }
+
+    /**
+     * @return The number of games that were won.
+     */
+    public long getWins() {
+        long wins = 0;
+        for (long count : histogram) {
+            wins += count;
+        }
+        return wins;
+    }
+
+    /**
+     * @return The number of games stopped at the shot limit.
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * @return The average number of shots needed to win, or NaN if no game was won.
+     */
+    public double getMeanShots() {
+        long shots = 0;
+        for (int n = 0; n < histogram.length; n++) {
+            shots += n * histogram[n];
+        }
+        return (double) shots / getWins();
+    }
+
+    /**
+     * Finds the smallest number of shots within which the given fraction of the won games
+     * were won.
+     *
+     * @param fraction A fraction between 0 and 1, e.g. 0.5 for the median.
+     * @return The number of shots, or -1 if no game was won.
+     */
+    public int getShotsPercentile(double fraction) {
+        long target = (long) Math.ceil(fraction * getWins());
+        long seen = 0;
+        for (int n = 0; n < histogram.length; n++) {
+            seen += histogram[n];
+            if (seen > 0 && seen >= target) return n;
+        }
+        return -1;
+    }
+
+    /**
+     * @return The wall-clock duration of the batch in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return The number of games played per second of wall-clock time.
+     */
+    public double getGamesPerSecond() {
+        return getGames() * 1e9 / Math.max(elapsedNanos, 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games (%d unfinished), mean %.2f shots, median %d, p99 %d, %.0f games/s",
+                getGames(), unfinished, getMeanShots(), getShotsPercentile(0.5),
+                getShotsPercentile(0.99), getGamesPerSecond());
+    }
+}
@@ -0,0 +1,396 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * The Simulator plays large batches of headless games between a Strategy and freshly placed
+ * oceans, spreading the games over all cores with fork/join.
+ *
+ * Every leaf task owns its Strategy, random number generators, VisibleBoard, ocean and
+ * histogram, so games never share mutable state. Histograms are only combined when tasks
+ * join. The ocean is reset between games rather than rebuilt, so a leaf allocates next to
+ * nothing per game.
+ *
+ * Runs are reproducible: the board and the strategy's random numbers of game i are derived
+ * from the seed and i alone (see {@link SplitMix64#derive}), so a batch gives the same
+ * histogram on any number of cores.
+ *
+ * A batch can also export every finished game to a GameRecordWriter. Each leaf records into
+ * a Recorder of its own, and the writer's background thread does the disk writes, so
+ * recording costs the game loop a few array stores per shot.
+ */
+public class Simulator {
+
+    // Board dimensions and fleet of every game.
+    private final BoardConfig config;
+
+    // Creates the ocean of each leaf task, which is reset between its games.
+    private final Function<BoardConfig, ? extends OceanInterface> oceans;
+
+    // Creates the strategy for each leaf task from that task's random number generator,
+    // which is reseeded before every game.
+    private final Function<RandomGenerator, ? extends Strategy> strategies;
+
+    // Games still running after this many shots are stopped and counted as unfinished.
+    private final int maxShots;
+
+    // Seed from which the random numbers of every game are derived.
+    private final long seed;
+
+    // Pool running the batch.
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a simulator that plays standard games on BitboardOceans.
+     *
+     * @param strategies Creates a strategy from a random number generator.
+     */
+    public Simulator(Function<RandomGenerator, ? extends Strategy> strategies) {
+        this(BoardConfig.STANDARD, BitboardOcean::new, strategies);
+    }
+
+    /**
+     * Creates a simulator whose shot limit is the number of cells on the board, which is
+     * enough for any strategy that never fires at the same cell twice.
+     *
+     * @param config     The board dimensions and fleet of every game.
+     * @param oceans     Creates an empty ocean, reused for many games; ships are placed by the simulator.
+     * @param strategies Creates a strategy from a random number generator.
+     */
+    public Simulator(BoardConfig config, Function<BoardConfig, ? extends OceanInterface> oceans,
+                     Function<RandomGenerator, ? extends Strategy> strategies) {
+        this(config, oceans, strategies, config.getCells(), System.nanoTime());
+    }
+
+    /**
+     * Creates a simulator running on the common fork/join pool.
+     *
+     * @param config     The board dimensions and fleet of every game.
+     * @param oceans     Creates an empty ocean, reused for many games; ships are placed by the simulator.
+     * @param strategies Creates a strategy from a random number generator.
+     * @param maxShots   The number of shots after which a game is abandoned.
+     * @param seed       The seed from which every game's board and strategy random numbers are derived.
+     */
+    public Simulator(BoardConfig config, Function<BoardConfig, ? extends OceanInterface> oceans,
+                     Function<RandomGenerator, ? extends Strategy> strategies,
+                     int maxShots, long seed) {
+        this(config, oceans, strategies, maxShots, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a simulator.
+     *
+     * @param config     The board dimensions and fleet of every game.
+     * @param oceans     Creates an empty ocean, reused for many games; ships are placed by the simulator.
+     * @param strategies Creates a strategy from a random number generator. The strategy must
+     *                   draw its random numbers from that generator only, which is reseeded
+     *                   before every game.
+     * @param maxShots   The number of shots after which a game is abandoned.
+     * @param seed       The seed from which every game's board and strategy random numbers are derived.
+     * @param pool       The pool running the batches.
+     */
+    public Simulator(BoardConfig config, Function<BoardConfig, ? extends OceanInterface> oceans,
+                     Function<RandomGenerator, ? extends Strategy> strategies,
+                     int maxShots, long seed, ForkJoinPool pool) {
+        this.config = config;
+        this.oceans = oceans;
+        this.strategies = strategies;
+        this.maxShots = maxShots;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * Places the board of one game of a batch, exactly as the simulator does.
+     * Use it to reproduce a single game outside of a batch.
+     *
+     * @param ocean An empty ocean.
+     * @param seed  The seed of the batch.
+     * @param game  The index of the game in the batch.
+     */
+    public static void placeGame(OceanInterface ocean, long seed, int game) {
+        ocean.placeAllShipsRandomly(new SplitMix64(placementSeed(seed, game)));
+    }
+
+    /**
+     * Plays the given number of games in parallel.
+     *
+     * @param games The number of games to play.
+     * @return The histogram of shots needed to win and the batch timing.
+     */
+    public SimulationResult run(int games) {
+        return run(games, null);
+    }
+
+    /**
+     * Plays the given number of games in parallel and records every finished game, with its
+     * index in the batch as id. Abandoned games are not recorded. The records are handed to
+     * the writer before this returns; close the writer to wait for them to reach the file.
+     *
+     * @param games   The number of games to play.
+     * @param records The writer to record the games to, opened with this simulator's configuration, or null.
+     * @return The histogram of shots needed to win and the batch timing.
+     * @throws IllegalArgumentException If the writer is for another configuration.
+     */
+    public SimulationResult run(int games, GameRecordWriter records) {
+        if (records != null && records.getConfig() != config) {
+            throw new IllegalArgumentException("The game records are for another configuration.");
+        }
+        int leafSize = Math.max(1, games / (pool.getParallelism() * 8));
+        long start = System.nanoTime();
+        Tally tally = pool.invoke(new Batch(0, games, leafSize, records));
+        return new SimulationResult(tally.histogram, tally.unfinished, System.nanoTime() - start);
+    }
+
+    /**
+     * Plays one game to the end on an ocean whose ships are already placed.
+     *
+     * @param ocean    The ocean to shoot at.
+     * @param strategy The strategy choosing the shots.
+     * @param board    The view shown to the strategy; it is cleared first.
+     * @param maxShots The number of shots after which the game is abandoned.
+     * @return The number of shots needed to win, or -1 if the game was abandoned.
+     */
+    public static int playGame(OceanInterface ocean, Strategy strategy, VisibleBoard board, int maxShots) {
+        return playGame(ocean, strategy, board, maxShots, null);
+    }
+
+    /**
+     * Plays one game to the end on an ocean whose ships are already placed, reporting every
+     * shot to a recorder. Finishing the game in the recorder is left to the caller, who knows its id.
+     *
+     * @param ocean    The ocean to shoot at.
+     * @param strategy The strategy choosing the shots.
+     * @param board    The view shown to the strategy; it is cleared first.
+     * @param maxShots The number of shots after which the game is abandoned.
+     * @param recorder The recorder of the shots, or null; shots of an unfinished game are dropped first.
+     * @return The number of shots needed to win, or -1 if the game was abandoned.
+     */
+    public static int playGame(OceanInterface ocean, Strategy strategy, VisibleBoard board, int maxShots,
+                               GameRecordWriter.Recorder recorder) {
+        if (recorder != null) recorder.newGame();
+        board.clear();
+        strategy.newGame(board);
+        int columns = board.getColumns();
+
+        while (!ocean.isGameOver()) {
+            if (board.getShotsFired() >= maxShots) return -1;
+
+            int cell = strategy.nextShot(board);
+            int row = cell / columns;
+            int column = cell % columns;
+            int sunkBefore = ocean.getShipsSunk();
+            boolean hit = ocean.shootAt(row, column);
+            boolean sunk = ocean.getShipsSunk() > sunkBefore;
+
+            board.record(row, column, hit, sunk);
+            strategy.shotResult(row, column, hit, sunk);
+            if (recorder != null) {
+                recorder.shot(row, column, sunk ? GameRecordWriter.SUNK : hit ? GameRecordWriter.HIT : GameRecordWriter.MISS);
+            }
+        }
+        if (Metrics.ENABLED) Metrics.GAME_SHOTS.record(board.getShotsFired());
+        return board.getShotsFired();
+    }
+
+    /**
+     * Plays one game of the salvo variant to the end on an ocean whose ships are already
+     * placed. Every turn the shooter fires one shot per ship of its own fleet still afloat,
+     * chosen together by the strategy and resolved together with shootAll.
+     *
+     * @param ocean    The ocean to shoot at.
+     * @param own      The shooter's own fleet, which sets the size of each salvo.
+     * @param strategy The strategy choosing the shots.
+     * @param board    The view shown to the strategy; it is cleared first.
+     * @param maxTurns The number of salvos after which the game is abandoned.
+     * @return The number of salvos needed to win, or -1 if the game was abandoned.
+     */
+    public static int playSalvoGame(OceanInterface ocean, OceanInterface own, Strategy strategy,
+                                    VisibleBoard board, int maxTurns) {
+        board.clear();
+        strategy.newGame(board);
+        int columns = board.getColumns();
+        int[] cells = new int[own.getConfig().getFleetSize()];
+        int[] rows = new int[cells.length];
+        int[] cols = new int[cells.length];
+        long[] hits = new long[(cells.length + 63) >>> 6];
+
+        int turns = 0;
+        while (!ocean.isGameOver()) {
+            if (turns == maxTurns) return -1;
+            turns++;
+
+            int count = strategy.nextSalvo(board, cells, Math.min(own.getShipsAfloat(), cells.length));
+            for (int i = 0; i < count; i++) {
+                rows[i] = cells[i] / columns;
+                cols[i] = cells[i] % columns;
+            }
+            ocean.shootAll(rows, cols, count, hits);
+
+            // Report the outcomes in order. A shot sank a ship if the ship is now sunk and no
+            // later shot of the salvo hit it; all its other parts were hit before, so the board
+            // can mark the whole ship.
+            for (int i = 0; i < count; i++) {
+                boolean hit = (hits[i >>> 6] & (1L << i)) != 0;
+                boolean sunk = hit && ocean.isSunk(rows[i], cols[i]) && !board.isSunk(rows[i], cols[i]);
+                for (int j = i + 1; sunk && j < count; j++) {
+                    if ((hits[j >>> 6] & (1L << j)) != 0 && sameShip(ocean, rows[i], cols[i], rows[j], cols[j])) {
+                        sunk = false;
+                    }
+                }
+                board.record(rows[i], cols[i], hit, sunk);
+                strategy.shotResult(rows[i], cols[i], hit, sunk);
+            }
+        }
+        if (Metrics.ENABLED) Metrics.GAME_SHOTS.record(board.getShotsFired());
+        return turns;
+    }
+
+    /**
+     * Runs a batch and prints the result.
+     *
+     * @param args Optionally, the number of games to play (default 1,000,000), the
+     *             size of a square board (default 10, see BoardConfig.square) and the
+     *             strategy, either "random" (default) or "probability", a seed, the
+     *             format of the metrics printed after the result, "json", "prometheus" or
+     *             "none", and a file to record every game to (see GameRecordWriter).
+     *             Metrics are recorded only when the JVM runs with -Dbattleship.metrics=true.
+     * @throws IOException If the game records cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        BoardConfig config = BoardConfig.square(args.length > 1 ? Integer.parseInt(args[1]) : 10);
+        boolean probability = args.length > 2 && args[2].equals("probability");
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        Simulator simulator = probability
+                ? new Simulator(config, BitboardOcean::new, random -> new ProbabilityStrategy(config), config.getCells(), seed)
+                : new Simulator(config, BitboardOcean::new, RandomStrategy::new, config.getCells(), seed);
+        if (args.length > 5) {
+            try (GameRecordWriter records = GameRecordWriter.open(Path.of(args[5]), config)) {
+                System.out.println(simulator.run(games, records));
+            }
+        } else {
+            System.out.println(simulator.run(games));
+        }
+        if (args.length > 4 && !args[4].equals("none")) {
+            System.out.print(args[4].equals("prometheus") ? Metrics.toPrometheus() : Metrics.toJson() + "\n");
+        }
+    }
+
+    /**
+     * @return The seed of the placement random numbers of one game.
+     */
+    private static long placementSeed(long seed, int game) {
+        return SplitMix64.derive(SplitMix64.derive(seed, game), 0);
+    }
+
+    /**
+     * @return The seed of the strategy random numbers of one game.
+     */
+    private static long strategySeed(long seed, int game) {
+        return SplitMix64.derive(SplitMix64.derive(seed, game), 1);
+    }
+
+    /**
+     * Checks if two occupied cells belong to the same ship. Ships never touch, so they do
+     * exactly when the cells are in line and every cell between them is occupied.
+     */
+    private static boolean sameShip(OceanInterface ocean, int row1, int column1, int row2, int column2) {
+        if (row1 != row2 && column1 != column2) return false;
+        int rowStep = Integer.signum(row2 - row1);
+        int columnStep = Integer.signum(column2 - column1);
+        for (int r = row1, c = column1; r != row2 || c != column2; r += rowStep, c += columnStep) {
+            if (!ocean.isOccupied(r, c)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Partial results of a range of games. The histogram grows as longer games are seen,
+     * so its size follows the games actually played rather than the size of the board.
+     */
+    private static final class Tally {
+        long[] histogram = new long[128];
+        long unfinished;
+
+        void add(int shots) {
+            if (shots >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, Math.max(shots + 1, histogram.length * 2));
+            }
+            histogram[shots]++;
+        }
+
+        Tally merge(Tally other) {
+            if (other.histogram.length > histogram.length) {
+                histogram = Arrays.copyOf(histogram, other.histogram.length);
+            }
+            for (int n = 0; n < other.histogram.length; n++) {
+                histogram[n] += other.histogram[n];
+            }
+            unfinished += other.unfinished;
+            return this;
+        }
+    }
+
+    /**
+     * Fork/join task playing games [from, to), split in halves down to the leaf size.
+     */
+    private final class Batch extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final GameRecordWriter records;
+
+        Batch(int from, int to, int leafSize, GameRecordWriter records) {
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.records = records;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > leafSize) {
+                int middle = (from + to) >>> 1;
+                Batch left = new Batch(from, middle, leafSize, records);
+                left.fork();
+                Tally right = new Batch(middle, to, leafSize, records).compute();
+                return right.merge(left.join());
+            }
+
+            // Leaf: everything below is owned by this task alone.
+            SplitMix64 placement = new SplitMix64(0);
+            SplitMix64 shooting = new SplitMix64(0);
+            Strategy strategy = strategies.apply(shooting);
+            VisibleBoard board = new VisibleBoard(config.getRows(), config.getColumns());
+            OceanInterface ocean = oceans.apply(config);
+            GameRecordWriter.Recorder recorder = records == null ? null : records.newRecorder();
+            Tally tally = new Tally();
+
+            for (int game = from; game < to; game++) {
+                // Reseed per game, so that the results do not depend on how the batch was split.
+                placement.setSeed(placementSeed(seed, game));
+                shooting.setSeed(strategySeed(seed, game));
+
+                // One ocean serves every game of the leaf, cleared in place between games.
+                if (game > from) ocean.reset();
+                ocean.placeAllShipsRandomly(placement);
+                int shots = playGame(ocean, strategy, board, maxShots, recorder);
+                if (shots < 0) {
+                    tally.unfinished++;
+                } else {
+                    tally.add(shots);
+                    if (recorder != null) recorder.endGame(game, ocean);
+                }
+            }
+            if (recorder != null) recorder.close();
+            return tally;
+        }
+    }
+}
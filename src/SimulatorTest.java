@@ -0,0 +1,192 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the Simulator class and the VisibleBoard it maintains.
+ */
+class SimulatorTest {
+
+    /**
+     * Test that a batch plays every game to the end and that the histogram accounts for all of them.
+     */
+    @Test
+    public void testRunCountsEveryGame() {
+        Simulator simulator = new Simulator(RandomStrategy::new);
+        SimulationResult result = simulator.run(2000);
+
+        assertEquals(2000, result.getGames(), "Every game should be counted.");
+        assertEquals(0, result.getUnfinished(), "A random strategy always finishes within 100 shots.");
+        assertTrue(result.getShotsPercentile(0.0) >= 20, "No game can be won with fewer than 20 shots.");
+        assertTrue(result.getShotsPercentile(1.0) <= 100, "No game needs more than 100 shots.");
+    }
+
+    /**
+     * Test that a game stopped at the shot limit is reported as unfinished.
+     */
+    @Test
+    public void testShotLimit() {
+        Simulator simulator = new Simulator(BoardConfig.STANDARD, BitboardOcean::new, RandomStrategy::new, 10, 1L);
+        SimulationResult result = simulator.run(50);
+
+        assertEquals(50, result.getUnfinished(), "No game can be won in 10 shots.");
+        assertEquals(0, result.getWins(), "No game should be counted as won.");
+    }
+
+    /**
+     * Test that the visible board reports hits, misses and sunk ships without revealing the ships.
+     */
+    @Test
+    public void testVisibleBoardTracksOutcomes() {
+        BitboardOcean ocean = new BitboardOcean();
+        ocean.placeShipAt(3, 2, 2, true);
+        VisibleBoard board = new VisibleBoard();
+        Strategy shootAlongRow = new Strategy() {
+            private int next;
+
+            @Override
+            public void newGame(VisibleBoard board) {
+                next = 20;
+            }
+
+            @Override
+            public int nextShot(VisibleBoard board) {
+                return next++;
+            }
+        };
+
+        // The fleet is incomplete, so the game runs until the shot limit.
+        assertEquals(-1, Simulator.playGame(ocean, shootAlongRow, board, 4));
+        assertFalse(board.isHit(2, 0), "A miss should not be shown as a hit.");
+        assertTrue(board.isFiredUpon(2, 0), "A miss should be shown as fired upon.");
+        assertTrue(board.isHit(2, 2) && !board.isSunk(2, 2), "A damaged ship should be shown as hit.");
+        assertFalse(board.isFiredUpon(2, 4), "Cells not yet shot should be unknown.");
+
+        board.record(2, 4, true, true);
+        assertTrue(board.isSunk(2, 2) && board.isSunk(2, 3) && board.isSunk(2, 4),
+                "Every hit cell of a sunk ship should be shown as sunk.");
+        assertEquals(1, board.getShipsSunk(), "The sinking should be counted.");
+    }
+
+    /**
+     * Test that the random strategy never fires at the same cell twice in a game.
+     */
+    @Test
+    public void testRandomStrategyCoversEveryCellOnce() {
+        Strategy strategy = new RandomStrategy(new SplittableRandom(3));
+        VisibleBoard board = new VisibleBoard();
+        strategy.newGame(board);
+
+        boolean[] seen = new boolean[100];
+        for (int i = 0; i < 100; i++) {
+            int cell = strategy.nextShot(board);
+            assertFalse(seen[cell], "Cell " + cell + " should only be chosen once.");
+            seen[cell] = true;
+        }
+    }
+
+    /**
+     * Test that a seeded batch gives the same histogram whatever the number of threads,
+     * and that a single game can be reproduced outside of the batch.
+     */
+    @Test
+    public void testSeededRunsAreReproducible() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            SimulationResult first = new Simulator(BoardConfig.STANDARD, BitboardOcean::new,
+                    RandomStrategy::new, 100, 42L, single).run(1000);
+            SimulationResult second = new Simulator(BoardConfig.STANDARD, BitboardOcean::new,
+                    RandomStrategy::new, 100, 42L, several).run(1000);
+            assertArrayEquals(first.getHistogram(), second.getHistogram(),
+                    "The same seed should give the same games on any number of threads.");
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+
+        Ocean first = new Ocean();
+        Ocean second = new Ocean();
+        Simulator.placeGame(first, 42L, 17);
+        Simulator.placeGame(second, 42L, 17);
+        for (int row = 0; row < 10; row++) {
+            for (int col = 0; col < 10; col++) {
+                assertEquals(first.isOccupied(row, col), second.isOccupied(row, col),
+                        "A game's board should only depend on the seed and the game index.");
+            }
+        }
+    }
+
+    /**
+     * Test that a salvo resolves every shot exactly as firing the shots one by one would,
+     * including repeated cells, on each ocean with a one-pass implementation.
+     */
+    @Test
+    public void testSalvoMatchesSingleShots() {
+        List<Supplier<OceanInterface>> kinds = List.of(Ocean::new, BitboardOcean::new, ConcurrentOcean::new);
+        SplittableRandom random = new SplittableRandom(11);
+        int[] rows = new int[70];
+        int[] cols = new int[70];
+        long[] hits = new long[2];
+
+        for (Supplier<OceanInterface> kind : kinds) {
+            OceanInterface salvo = kind.get();
+            OceanInterface single = kind.get();
+            salvo.placeAllShipsRandomly(new SplitMix64(5));
+            single.placeAllShipsRandomly(new SplitMix64(5));
+
+            for (int turn = 0; turn < 10; turn++) {
+                int count = 1 + random.nextInt(rows.length);
+                for (int i = 0; i < count; i++) {
+                    rows[i] = random.nextInt(10);
+                    cols[i] = random.nextInt(10);
+                }
+                int salvoHits = salvo.shootAll(rows, cols, count, hits);
+
+                int expectedHits = 0;
+                for (int i = 0; i < count; i++) {
+                    boolean hit = single.shootAt(rows[i], cols[i]);
+                    assertEquals(hit, (hits[i >>> 6] & (1L << i)) != 0, "Shot " + i + " of the salvo should match.");
+                    if (hit) expectedHits++;
+                }
+                assertEquals(expectedHits, salvoHits, "The salvo should report its hits.");
+                assertEquals(single.getShotsFired(), salvo.getShotsFired());
+                assertEquals(single.getHitCount(), salvo.getHitCount());
+                assertEquals(single.getShipsSunk(), salvo.getShipsSunk());
+                assertEquals(single.getShipsAfloat(), salvo.getShipsAfloat());
+            }
+        }
+    }
+
+    /**
+     * Test that salvo games are won in fewer turns than single-shot games need shots, and
+     * that the probability strategy's salvos leave the board consistent with the ocean.
+     */
+    @Test
+    public void testSalvoGame() {
+        VisibleBoard board = new VisibleBoard();
+        Strategy[] strategies = {new RandomStrategy(new SplittableRandom(2)), new ProbabilityStrategy()};
+        for (Strategy strategy : strategies) {
+            for (int game = 0; game < 20; game++) {
+                BitboardOcean ocean = new BitboardOcean();
+                Ocean own = new Ocean();
+                Simulator.placeGame(ocean, 9L, game);
+                Simulator.placeGame(own, 10L, game);
+
+                int turns = Simulator.playSalvoGame(ocean, own, strategy, board, 100);
+                assertTrue(turns > 0 && turns <= 20, "A full fleet fires 10 shots a turn, so 20 turns always suffice.");
+                assertTrue(ocean.isGameOver());
+                assertEquals(10, board.getShipsSunk(), "Every sinking should be reported exactly once.");
+                for (int row = 0; row < 10; row++) {
+                    for (int col = 0; col < 10; col++) {
+                        assertEquals(ocean.isSunk(row, col), board.isSunk(row, col),
+                                "The board should show the sunk ships at " + row + "," + col + ".");
+                    }
+                }
+            }
+        }
+    }
+}
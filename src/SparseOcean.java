@@ -0,0 +1,447 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * An implementation of OceanInterface for very large boards that stores only the cells
+ * that matter: ship segments and cells that have been fired upon. Both live in one
+ * LongIntHashMap keyed by cell index (row * columns + column), so memory use grows with
+ * ships plus shots rather than with board area.
+ * Responsibilities:
+ * - Mapping each ship segment to its ship id and hit flag.
+ * - Remembering missed shots.
+ * - Keeping the fleet as primitive per-ship arrays.
+ *
+ * shootAt and isOccupied take constant expected time. Only print and the lazily built
+ * getShipArray() view walk the whole board.
+ */
+public class SparseOcean implements OceanInterface {
+
+	// Low bits of a cell value: id + 1 of the ship occupying the cell, or 0 for empty sea.
+	private static final int SHIP = 0x3FFF_FFFF;
+
+	// Flag on a ship cell whose segment has been hit.
+	private static final int HIT = 0x4000_0000;
+
+	// Value of an empty cell that has been fired upon.
+	private static final int MISS = 0x8000_0000;
+
+	// Random placement attempts per ship before handing the rest of the fleet to a PlacementEngine.
+	private static final int RANDOM_ATTEMPTS = 64;
+
+	// Board dimensions and fleet of this game.
+	protected final BoardConfig config;
+
+	// Number of columns, cached because every cell key is computed from it.
+	protected final int columns;
+
+	// Ship segments and fired-upon cells. Absent cells are unfired empty sea.
+	protected final LongIntHashMap cells;
+
+	// Per-ship placement data, indexed by ship id.
+	protected final int[] shipLength;
+	protected final int[] shipRow;
+	protected final int[] shipColumn;
+	protected final boolean[] shipHorizontal;
+
+	// Number of segments of each ship that have not been hit yet.
+	protected final int[] shipRemaining;
+
+	// Number of ships placed so far.
+	protected int shipCount;
+
+	// Tracks the total number of shots fired by the user.
+	protected int shotsFired;
+
+	// Tracks the total number of hits on ships, including repeated hits on the same part.
+	protected int hitCount;
+
+	// Tracks the total number of ships that have been sunk.
+	protected int shipsSunk;
+
+	// Lazily built Ship[][] view, discarded whenever the board changes.
+	private Ship[][] shipArrayView;
+
+	// Renderer used by print, created on first use.
+	private BoardRenderer renderer;
+
+	/**
+	 * Constructor creates an empty standard 10x10 board.
+	 */
+	public SparseOcean() {
+		this(BoardConfig.STANDARD);
+	}
+
+	/**
+	 * Constructor creates an empty board. Only the fleet-sized structures are allocated.
+	 *
+	 * @param config The board dimensions and fleet of this game.
+	 */
+	public SparseOcean(BoardConfig config) {
+		this.config = config;
+		this.columns = config.getColumns();
+		this.cells = new LongIntHashMap(config.getFleetCells());
+
+		int fleetSize = config.getFleetSize();
+		shipLength = new int[fleetSize];
+		shipRow = new int[fleetSize];
+		shipColumn = new int[fleetSize];
+		shipHorizontal = new boolean[fleetSize];
+		shipRemaining = new int[fleetSize];
+
+		shipCount = 0;
+		shotsFired = 0;
+		hitCount = 0;
+		shipsSunk = 0;
+	}
+
+	/**
+	 * @return The board dimensions and fleet of this game.
+	 */
+	@Override
+	public BoardConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Randomly places every ship of the configured fleet on the board, in fleet order.
+	 * On a sparse board a random guess is almost always legal, so each ship first gets a
+	 * few guesses checked against the map. If a ship runs out of guesses, the rest of the
+	 * fleet is placed by a PlacementEngine, which keeps the total time bounded.
+	 *
+	 * @param random The random number generator to draw the positions from.
+	 */
+	@Override
+	public void placeAllShipsRandomly(RandomGenerator random) {
+		int rows = config.getRows();
+
+		for (int i = 0; i < config.getFleetSize(); i++) {
+			int length = config.getShipLength(i);
+			boolean placed = false;
+			for (int attempt = 0; attempt < RANDOM_ATTEMPTS && !placed; attempt++) {
+				int row = random.nextInt(rows);
+				int column = random.nextInt(columns);
+				boolean horizontal = random.nextBoolean();
+				if (okToPlaceShipAt(length, row, column, horizontal)) {
+					placeShipAt(length, row, column, horizontal);
+					placed = true;
+				}
+			}
+			if (!placed) {
+				placeRemainingShips(i, random);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Clears the board for a new game in place: removes every ship and every shot and zeroes
+	 * the statistics. The map keeps its capacity.
+	 */
+	@Override
+	public void reset() {
+		cells.clear();
+		shipCount = 0;
+		shotsFired = 0;
+		hitCount = 0;
+		shipsSunk = 0;
+		shipArrayView = null;
+	}
+
+	/**
+	 * Places the fleet from the given index on with a PlacementEngine, keeping clear of the
+	 * ships already on the board.
+	 *
+	 * @param first  The fleet index of the first ship still to place.
+	 * @param random The random number generator to draw placements from.
+	 */
+	private void placeRemainingShips(int first, RandomGenerator random) {
+		int[] remaining = new int[config.getFleetSize() - first];
+		for (int i = 0; i < remaining.length; i++) {
+			remaining[i] = config.getShipLength(first + i);
+		}
+		PlacementEngine engine = new PlacementEngine(config.getRows(), columns, remaining);
+		for (int id = 0; id < shipCount; id++) {
+			int cell = shipRow[id] * columns + shipColumn[id];
+			int step = shipHorizontal[id] ? 1 : columns;
+			for (int i = 0; i < shipLength[id]; i++, cell += step) {
+				engine.markOccupied(cell / columns, cell % columns);
+			}
+		}
+
+		int[] plan = engine.planFleet(random);
+		for (int i = 0; i < plan.length; i++) {
+			placeShipAt(remaining[i], engine.row(plan[i]), engine.column(plan[i]), engine.isHorizontal(plan[i]));
+		}
+	}
+
+	/**
+	 * Checks if a ship of the given length can be placed at the given location.
+	 * Applies the same rules as Ship.okToPlaceShipAt: the ship must be within bounds
+	 * and must not overlap or touch another ship, even diagonally.
+	 *
+	 * @param length     The length of the ship.
+	 * @param row        The starting row of the ship.
+	 * @param column     The starting column of the ship.
+	 * @param horizontal True if the ship is placed horizontally, false otherwise.
+	 * @return True if the ship can be placed, false otherwise.
+	 */
+	public boolean okToPlaceShipAt(int length, int row, int column, boolean horizontal) {
+		int endRow = row + (horizontal ? 0 : length - 1);
+		int endColumn = column + (horizontal ? length - 1 : 0);
+
+		// Check if the ship is within bounds.
+		if (row < 0 || column < 0 || !config.isOnBoard(endRow, endColumn)) return false;
+
+		// Check the neighborhood, clipped to the board, for ship segments.
+		int fromRow = Math.max(row - 1, 0);
+		int toRow = Math.min(endRow + 1, config.getRows() - 1);
+		int fromColumn = Math.max(column - 1, 0);
+		int toColumn = Math.min(endColumn + 1, columns - 1);
+		for (int i = fromRow; i <= toRow; i++) {
+			for (int j = fromColumn; j <= toColumn; j++) {
+				if ((cells.get((long) i * columns + j, 0) & SHIP) != 0) return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Places a ship of the given length on the board. The caller is responsible for
+	 * checking the placement with okToPlaceShipAt first.
+	 *
+	 * @param length     The length of the ship.
+	 * @param row        The starting row of the ship.
+	 * @param column     The starting column of the ship.
+	 * @param horizontal True if the ship is placed horizontally, false otherwise.
+	 * @return The id assigned to the placed ship.
+	 */
+	public int placeShipAt(int length, int row, int column, boolean horizontal) {
+		if (shipCount == shipLength.length) {
+			throw new IllegalStateException("The fleet is already complete.");
+		}
+		int id = shipCount++;
+		shipLength[id] = length;
+		shipRow[id] = row;
+		shipColumn[id] = column;
+		shipHorizontal[id] = horizontal;
+		shipRemaining[id] = length;
+
+		// Record each segment of the ship under its cell key.
+		long cell = (long) row * columns + column;
+		int step = horizontal ? 1 : columns;
+		for (int i = 0; i < length; i++, cell += step) {
+			cells.put(cell, id + 1);
+		}
+		shipArrayView = null;
+		return id;
+	}
+
+	/**
+	 * Checks if the given location on the board is occupied by a ship.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if the location contains a ship, false otherwise.
+	 */
+	@Override
+	public boolean isOccupied(int row, int column) {
+		return (cells.get((long) row * columns + column, 0) & SHIP) != 0;
+	}
+
+	/**
+	 * Fires a shot at the specified location. Behaves exactly like Ocean.shootAt:
+	 * shots at a sunk ship or at empty sea are misses, while repeated shots at a
+	 * damaged but floating ship still count as hits.
+	 *
+	 * @param row    The row coordinate to shoot at (0 to rows - 1).
+	 * @param column The column coordinate to shoot at (0 to columns - 1).
+	 * @return true if the shot hits a ship, false otherwise.
+	 */
+	@Override
+	public boolean shootAt(int row, int column) {
+		shotsFired++;
+		shipArrayView = null;
+
+		long cell = (long) row * columns + column;
+		int value = cells.get(cell, 0);
+		int id = (value & SHIP) - 1;
+
+		// Empty sea: remember the miss.
+		if (id < 0) {
+			if (value == 0) cells.put(cell, MISS);
+			return false;
+		}
+
+		if (shipRemaining[id] == 0) return false; // Cannot shoot at a sunk ship.
+
+		hitCount++;
+		if ((value & HIT) == 0) {
+			cells.put(cell, value | HIT);
+			if (--shipRemaining[id] == 0) {
+				shipsSunk++; // The last segment of this ship was just hit.
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return The total number of shots fired by the user during the game.
+	 */
+	@Override
+	public int getShotsFired() {
+		return shotsFired;
+	}
+
+	/**
+	 * @return The total number of hits recorded during the game.
+	 * Note: Includes repeated hits on the same location.
+	 */
+	@Override
+	public int getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return The total number of ships sunk during the game.
+	 */
+	@Override
+	public int getShipsSunk() {
+		return shipsSunk;
+	}
+
+	/**
+	 * @return The number of ships placed on the board that have not been sunk yet.
+	 */
+	@Override
+	public int getShipsAfloat() {
+		return shipCount - shipsSunk;
+	}
+
+	/**
+	 * Checks if the game is over, i.e., every ship of the fleet has been sunk.
+	 *
+	 * @return true if all ships are sunk, false otherwise.
+	 */
+	@Override
+	public boolean isGameOver() {
+		return shipsSunk == shipLength.length;
+	}
+
+	/**
+	 * Checks if the given location is a ship segment that has been hit.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if a ship segment at this location has been hit, false otherwise.
+	 */
+	@Override
+	public boolean isHit(int row, int column) {
+		return (cells.get((long) row * columns + column, 0) & HIT) != 0;
+	}
+
+	/**
+	 * Checks if the given location belongs to a ship that has been sunk.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if the location contains part of a sunk ship, false otherwise.
+	 */
+	@Override
+	public boolean isSunk(int row, int column) {
+		int id = (cells.get((long) row * columns + column, 0) & SHIP) - 1;
+		return id >= 0 && shipRemaining[id] == 0;
+	}
+
+	/**
+	 * Checks if the given location has been fired upon.
+	 *
+	 * @param row    The row coordinate (0 to rows - 1).
+	 * @param column The column coordinate (0 to columns - 1).
+	 * @return true if at least one shot was fired at this location, false otherwise.
+	 */
+	@Override
+	public boolean isFiredUpon(int row, int column) {
+		return (cells.get((long) row * columns + column, 0) & (HIT | MISS)) != 0;
+	}
+
+	/**
+	 * @return The number of cells currently stored: ship segments plus missed shots.
+	 */
+	public int getStoredCells() {
+		return cells.size();
+	}
+
+	/**
+	 * Provides a grid of Ship objects mirroring the current board state.
+	 * The grid is built on first use and cached until the next placement or shot.
+	 * It is a read-only snapshot: changes made through it are not reflected on this board.
+	 * Building it takes time and memory proportional to the board area, so large-board
+	 * callers should use isOccupied, isHit and isFiredUpon instead.
+	 *
+	 * @return A rows x columns 2D array of ships representing the board state.
+	 */
+	@Override
+	public Ship[][] getShipArray() {
+		if (shipArrayView == null) {
+			shipArrayView = buildShipArray();
+		}
+		return shipArrayView;
+	}
+
+	/**
+	 * Prints the current state of the board to the console with a single write.
+	 * Display rules:
+	 * - 'x': A sunken ship.
+	 * - 'S': A ship part that has been hit.
+	 * - '-': A missed shot.
+	 * - '.': An unfired location.
+	 */
+	@Override
+	public void print() {
+		if (renderer == null) {
+			renderer = new BoardRenderer(config);
+		}
+		renderer.print(this, false, System.out);
+	}
+
+	/**
+	 * Builds the Ship[][] view, creating one Ship per placed ship and one EmptySea per
+	 * empty cell.
+	 *
+	 * @return A freshly built grid of ships.
+	 */
+	private Ship[][] buildShipArray() {
+		Ship[][] grid = new Ship[config.getRows()][columns];
+
+		// Recreate every placed ship with its hit state.
+		for (int id = 0; id < shipCount; id++) {
+			Ship ship = BoardConfig.shipOfLength(shipLength[id]);
+			ship.setBowRow(shipRow[id]);
+			ship.setBowColumn(shipColumn[id]);
+			ship.setHorizontal(shipHorizontal[id]);
+			int cell = shipRow[id] * columns + shipColumn[id];
+			int step = shipHorizontal[id] ? 1 : columns;
+			for (int i = 0; i < shipLength[id]; i++, cell += step) {
+				if ((cells.get(cell, 0) & HIT) != 0) {
+					ship.shootAt(cell / columns, cell % columns);
+				}
+				grid[cell / columns][cell % columns] = ship;
+			}
+		}
+
+		// Fill the remaining cells with EmptySea, then mark the misses.
+		for (int row = 0; row < config.getRows(); row++) {
+			for (int col = 0; col < columns; col++) {
+				if (grid[row][col] == null) {
+					grid[row][col] = new EmptySea();
+				}
+			}
+		}
+		for (int slot = 0; slot < cells.capacity(); slot++) {
+			if (cells.isUsed(slot) && cells.valueAt(slot) == MISS) {
+				long cell = cells.keyAt(slot);
+				grid[(int) (cell / columns)][(int) (cell % columns)].shootAt(0, 0);
+			}
+		}
+		return grid;
+	}
+}
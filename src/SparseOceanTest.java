@@ -0,0 +1,103 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the SparseOcean class. The standard-board tests mirror OceanTest;
+ * the last test checks that storage follows ships and shots rather than board area.
+ */
+class SparseOceanTest {
+
+    private SparseOcean ocean; // Instance of the SparseOcean class to be tested.
+
+    /**
+     * Set up a fresh instance of the SparseOcean class before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        ocean = new SparseOcean();
+    }
+
+    /**
+     * Test the placement of all ships randomly on the board.
+     * Ensures that 20 cells are occupied and that the grid view agrees.
+     */
+    @Test
+    public void testPlaceAllShipsRandomly() {
+        ocean.placeAllShipsRandomly();
+
+        int shipCells = 0;
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                boolean isShip = !(ocean.getShipArray()[i][j] instanceof EmptySea);
+                assertEquals(isShip, ocean.isOccupied(i, j), "Grid view should match the stored cells.");
+                if (isShip) {
+                    shipCells++;
+                }
+            }
+        }
+
+        assertEquals(20, shipCells, "Total ship cells should be 20 after placing all ships.");
+    }
+
+    /**
+     * Test firing shots at empty sea and at a ship until it sinks.
+     */
+    @Test
+    public void testShootAt() {
+        ocean.placeShipAt(2, 4, 4, false);
+
+        assertFalse(ocean.shootAt(0, 0), "Shooting at empty sea should return false.");
+        assertTrue(ocean.isFiredUpon(0, 0), "The miss should be recorded.");
+        assertTrue(((EmptySea) ocean.getShipArray()[0][0]).isFiredUpon(), "The grid view should show the miss.");
+
+        assertTrue(ocean.shootAt(4, 4), "Shooting at a ship should return true.");
+        assertTrue(ocean.shootAt(4, 4), "Shooting a damaged ship again should still hit.");
+        assertFalse(ocean.isSunk(4, 4), "Ship should not be sunk after one part is hit.");
+
+        assertTrue(ocean.shootAt(5, 4), "Shooting at a ship should return true.");
+        assertTrue(ocean.isSunk(4, 4), "Ship should be sunk after all parts are hit.");
+        assertFalse(ocean.shootAt(5, 4), "Shooting at a sunk ship should return false.");
+
+        assertEquals(5, ocean.getShotsFired(), "Every shot should be counted.");
+        assertEquals(3, ocean.getHitCount(), "Repeated hits on a floating ship should count.");
+        assertEquals(1, ocean.getShipsSunk(), "Ships sunk should increment when a ship is sunk.");
+    }
+
+    /**
+     * Test the `isGameOver` method by sinking every ship on the board.
+     */
+    @Test
+    public void testGameOver() {
+        ocean.placeAllShipsRandomly();
+        assertFalse(ocean.isGameOver(), "Game should not be over before any shots.");
+
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                if (ocean.isOccupied(i, j)) {
+                    ocean.shootAt(i, j);
+                }
+            }
+        }
+
+        assertTrue(ocean.isGameOver(), "Game should be over after all ships are sunk.");
+    }
+
+    /**
+     * Test that a very large board only stores ship segments and fired-upon cells.
+     */
+    @Test
+    public void testStorageFollowsShipsAndShots() {
+        BoardConfig config = BoardConfig.square(10_000);
+        SparseOcean large = new SparseOcean(config);
+        large.placeAllShipsRandomly();
+        assertEquals(config.getFleetCells(), large.getStoredCells(), "Only ship segments should be stored.");
+
+        large.shootAt(0, 0);
+        large.shootAt(0, 0);
+        large.shootAt(9_999, 9_999);
+        assertTrue(large.getStoredCells() <= config.getFleetCells() + 2,
+                "Each distinct missed cell should add at most one entry.");
+        assertEquals(3, large.getShotsFired(), "Every shot should be counted.");
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * A small, reseedable SplitMix64 generator, the algorithm behind SplittableRandom.
+ * Unlike SplittableRandom it can be reseeded in place, so a simulator can give every
+ * game its own stream without allocating a generator per game.
+ *
+ * Seeds are derived with {@link #derive(long, long)}: stream i of a seed is the i-th output
+ * of a SplitMix64 generator started from that seed. The simulator derives the seed of game i
+ * from the batch seed, then the placement and strategy seeds of that game from the game seed,
+ * so game i sees the same numbers whatever thread or core plays it.
+ */
+public final class SplitMix64 implements RandomGenerator {
+
+    // The golden-ratio increment of SplitMix64.
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Current state; each output advances it by GOLDEN_GAMMA.
+    private long state;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed The initial state.
+     */
+    public SplitMix64(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Restarts the generator from a new seed.
+     *
+     * @param seed The new state.
+     */
+    public void setSeed(long seed) {
+        this.state = seed;
+    }
+
+    @Override
+    public long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * Derives an independent seed for one stream of a seed, e.g. one game of a batch.
+     *
+     * @param seed  The parent seed.
+     * @param index The index of the stream.
+     * @return The seed of the stream, equal to output number index + 1 of new SplitMix64(seed).
+     */
+    public static long derive(long seed, long index) {
+        return mix(seed + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * The SplitMix64 output function, a bijective mix of all 64 bits.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * A Strategy decides where a computer player fires next. It only sees the VisibleBoard,
+ * never the ships themselves.
+ *
+ * Instances are used by a single thread and reused across games, so implementations may
+ * keep per-game state and should reset it in newGame.
+ */
+public interface Strategy {
+
+    /**
+     * Called before the first shot of every game.
+     *
+     * @param board The (empty) view of the new game.
+     */
+    void newGame(VisibleBoard board);
+
+    /**
+     * Chooses the next cell to fire at.
+     *
+     * @param board The current view of the game.
+     * @return The cell to fire at, encoded as {@code row * board.getColumns() + column}.
+     */
+    int nextShot(VisibleBoard board);
+
+    /**
+     * Chooses the shots of a salvo, all before any of their outcomes is known.
+     * The default asks nextShot for each shot; since the board does not change within a
+     * salvo, a repeated choice is replaced by the first unfired cell not chosen yet.
+     *
+     * @param board The current view of the game.
+     * @param cells Receives the chosen cells, encoded like nextShot results.
+     * @param count The number of shots wanted.
+     * @return The number of cells chosen, less than count only when the board runs out of unfired cells.
+     */
+    default int nextSalvo(VisibleBoard board, int[] cells, int count) {
+        int columns = board.getColumns();
+        int total = board.getRows() * columns;
+
+        // Never ask for more shots than there are unfired cells.
+        int unfired = 0;
+        for (int cell = 0; cell < total; cell++) {
+            if (!board.isFiredUpon(cell / columns, cell % columns)) unfired++;
+        }
+        count = Math.min(count, unfired);
+
+        int chosen = 0;
+        int scan = 0;
+        while (chosen < count) {
+            int cell = nextShot(board);
+            if (cell < 0 || board.isFiredUpon(cell / columns, cell % columns) || contains(cells, chosen, cell)) {
+                // Fall back to the next unfired cell in board order.
+                while (scan < total && (board.isFiredUpon(scan / columns, scan % columns) || contains(cells, chosen, scan))) {
+                    scan++;
+                }
+                cell = scan;
+            }
+            cells[chosen++] = cell;
+        }
+        return chosen;
+    }
+
+    /**
+     * Called after every shot with its outcome, once the board has been updated.
+     * Strategies that keep incremental state can override this; the default does nothing.
+     *
+     * @param row    The row of the shot.
+     * @param column The column of the shot.
+     * @param hit    True if the shot hit a ship.
+     * @param sunk   True if the shot sank a ship.
+     */
+    default void shotResult(int row, int column, boolean hit, boolean sunk) {
+    }
+
+    /**
+     * @return True if one of the first count cells is the given cell.
+     */
+    private static boolean contains(int[] cells, int count, int cell) {
+        for (int i = 0; i < count; i++) {
+            if (cells[i] == cell) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,155 @@
+import java.util.Arrays;
+
+/**
+ * The VisibleBoard class holds what a shooter is allowed to see of an ocean: which cells
+ * have been fired upon, which shots hit, and which ships have been sunk. It never reveals
+ * where unhit ships are.
+ *
+ * Shot outcomes are recorded by whoever drives the game (for example the Simulator).
+ * Strategies only read from it, and matches hand it out as a read-only FogView.
+ */
+public class VisibleBoard implements FogView {
+
+    // Cell states.
+    private static final byte UNKNOWN = 0;
+    private static final byte MISS = 1;
+    private static final byte HIT = 2;
+    private static final byte SUNK = 3;
+
+    // Dimensions of the board.
+    private final int rows;
+    private final int columns;
+
+    // State of each cell, indexed by row * columns + column.
+    private final byte[] cells;
+
+    // Number of shots recorded and ships seen sinking.
+    private int shotsFired;
+    private int shipsSunk;
+
+    /**
+     * Creates an empty view of a 10x10 board.
+     */
+    public VisibleBoard() {
+        this(10, 10);
+    }
+
+    /**
+     * Creates an empty view of a board with the given dimensions.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     */
+    public VisibleBoard(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = new byte[rows * columns];
+    }
+
+    /**
+     * Forgets every recorded shot, ready for a new game.
+     */
+    public void clear() {
+        Arrays.fill(cells, UNKNOWN);
+        shotsFired = 0;
+        shipsSunk = 0;
+    }
+
+    /**
+     * Records the outcome of a shot. When a shot sinks a ship, every hit cell of that
+     * ship is marked as sunk. Ships never touch, so these are exactly the hit cells in a
+     * straight line with the shot.
+     *
+     * @param row    The row of the shot.
+     * @param column The column of the shot.
+     * @param hit    True if the shot hit a ship.
+     * @param sunk   True if the shot sank a ship.
+     */
+    public void record(int row, int column, boolean hit, boolean sunk) {
+        shotsFired++;
+        int cell = row * columns + column;
+        if (!hit) {
+            if (cells[cell] == UNKNOWN) cells[cell] = MISS;
+            return;
+        }
+        cells[cell] = HIT;
+        if (sunk) {
+            shipsSunk++;
+            cells[cell] = SUNK;
+            markSunk(row, column, 0, 1);
+            markSunk(row, column, 0, -1);
+            markSunk(row, column, 1, 0);
+            markSunk(row, column, -1, 0);
+        }
+    }
+
+    /**
+     * @return The number of rows on the board.
+     */
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of columns on the board.
+     */
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return True if at least one shot has been fired at the given cell.
+     */
+    @Override
+    public boolean isFiredUpon(int row, int column) {
+        return cells[row * columns + column] != UNKNOWN;
+    }
+
+    /**
+     * @return True if a shot at the given cell hit a ship, whether or not it is sunk.
+     */
+    @Override
+    public boolean isHit(int row, int column) {
+        return cells[row * columns + column] >= HIT;
+    }
+
+    /**
+     * @return True if the given cell belongs to a ship that has been sunk.
+     */
+    @Override
+    public boolean isSunk(int row, int column) {
+        return cells[row * columns + column] == SUNK;
+    }
+
+    /**
+     * @return The number of shots recorded so far.
+     */
+    @Override
+    public int getShotsFired() {
+        return shotsFired;
+    }
+
+    /**
+     * @return The number of ships seen sinking so far.
+     */
+    @Override
+    public int getShipsSunk() {
+        return shipsSunk;
+    }
+
+    /**
+     * Walks from a cell in one direction, turning hit cells into sunk cells until the
+     * first cell that was not hit.
+     */
+    private void markSunk(int row, int column, int rowStep, int columnStep) {
+        int r = row + rowStep;
+        int c = column + columnStep;
+        while (r >= 0 && r < rows && c >= 0 && c < columns && cells[r * columns + c] == HIT) {
+            cells[r * columns + c] = SUNK;
+            r += rowStep;
+            c += columnStep;
+        }
+    }
+}